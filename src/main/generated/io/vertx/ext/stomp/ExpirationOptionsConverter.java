@@ -0,0 +1,39 @@
+package io.vertx.ext.stomp;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.JsonArray;
+
+/**
+ * Converter and mapper for {@link io.vertx.ext.stomp.ExpirationOptions}.
+ * NOTE: This class has been automatically generated from the {@link io.vertx.ext.stomp.ExpirationOptions} original class using Vert.x codegen.
+ */
+public class ExpirationOptionsConverter {
+
+   static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, ExpirationOptions obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "defaultTimeToLive":
+          if (member.getValue() instanceof Number) {
+            obj.setDefaultTimeToLive(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "expiryDestination":
+          if (member.getValue() instanceof String) {
+            obj.setExpiryDestination((String)member.getValue());
+          }
+          break;
+      }
+    }
+  }
+
+   static void toJson(ExpirationOptions obj, JsonObject json) {
+    toJson(obj, json.getMap());
+  }
+
+   static void toJson(ExpirationOptions obj, java.util.Map<String, Object> json) {
+    json.put("defaultTimeToLive", obj.getDefaultTimeToLive());
+    if (obj.getExpiryDestination() != null) {
+      json.put("expiryDestination", obj.getExpiryDestination());
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package io.vertx.ext.stomp;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.JsonArray;
+
+/**
+ * Converter and mapper for {@link io.vertx.ext.stomp.QueueOptions}.
+ * NOTE: This class has been automatically generated from the {@link io.vertx.ext.stomp.QueueOptions} original class using Vert.x codegen.
+ */
+public class QueueOptionsConverter {
+
+   static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, QueueOptions obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "prioritized":
+          if (member.getValue() instanceof Boolean) {
+            obj.setPrioritized((Boolean)member.getValue());
+          }
+          break;
+        case "maxGroups":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxGroups(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "journalDirectory":
+          if (member.getValue() instanceof String) {
+            obj.setJournalDirectory((String)member.getValue());
+          }
+          break;
+        case "expiration":
+          if (member.getValue() instanceof JsonObject) {
+            obj.setExpiration(new io.vertx.ext.stomp.ExpirationOptions((io.vertx.core.json.JsonObject)member.getValue()));
+          }
+          break;
+      }
+    }
+  }
+
+   static void toJson(QueueOptions obj, JsonObject json) {
+    toJson(obj, json.getMap());
+  }
+
+   static void toJson(QueueOptions obj, java.util.Map<String, Object> json) {
+    json.put("prioritized", obj.isPrioritized());
+    json.put("maxGroups", obj.getMaxGroups());
+    if (obj.getJournalDirectory() != null) {
+      json.put("journalDirectory", obj.getJournalDirectory());
+    }
+    if (obj.getExpiration() != null) {
+      json.put("expiration", obj.getExpiration().toJson());
+    }
+  }
+}
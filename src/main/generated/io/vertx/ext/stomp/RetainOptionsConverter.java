@@ -0,0 +1,45 @@
+package io.vertx.ext.stomp;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.JsonArray;
+
+/**
+ * Converter and mapper for {@link io.vertx.ext.stomp.RetainOptions}.
+ * NOTE: This class has been automatically generated from the {@link io.vertx.ext.stomp.RetainOptions} original class using Vert.x codegen.
+ */
+public class RetainOptionsConverter {
+
+   static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, RetainOptions obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "maxMessages":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxMessages(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "key":
+          if (member.getValue() instanceof String) {
+            obj.setKey((String)member.getValue());
+          }
+          break;
+        case "maxAge":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxAge(((Number)member.getValue()).longValue());
+          }
+          break;
+      }
+    }
+  }
+
+   static void toJson(RetainOptions obj, JsonObject json) {
+    toJson(obj, json.getMap());
+  }
+
+   static void toJson(RetainOptions obj, java.util.Map<String, Object> json) {
+    json.put("maxMessages", obj.getMaxMessages());
+    if (obj.getKey() != null) {
+      json.put("key", obj.getKey());
+    }
+    json.put("maxAge", obj.getMaxAge());
+  }
+}
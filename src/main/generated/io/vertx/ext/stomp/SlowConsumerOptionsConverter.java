@@ -0,0 +1,55 @@
+package io.vertx.ext.stomp;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.JsonArray;
+
+/**
+ * Converter and mapper for {@link io.vertx.ext.stomp.SlowConsumerOptions}.
+ * NOTE: This class has been automatically generated from the {@link io.vertx.ext.stomp.SlowConsumerOptions} original class using Vert.x codegen.
+ */
+public class SlowConsumerOptionsConverter {
+
+   static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, SlowConsumerOptions obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "policy":
+          if (member.getValue() instanceof String) {
+            obj.setPolicy(io.vertx.ext.stomp.SlowConsumerPolicy.valueOf((String)member.getValue()));
+          }
+          break;
+        case "maxPendingMessages":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxPendingMessages(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "conflationKey":
+          if (member.getValue() instanceof String) {
+            obj.setConflationKey((String)member.getValue());
+          }
+          break;
+        case "spoolDirectory":
+          if (member.getValue() instanceof String) {
+            obj.setSpoolDirectory((String)member.getValue());
+          }
+          break;
+      }
+    }
+  }
+
+   static void toJson(SlowConsumerOptions obj, JsonObject json) {
+    toJson(obj, json.getMap());
+  }
+
+   static void toJson(SlowConsumerOptions obj, java.util.Map<String, Object> json) {
+    if (obj.getPolicy() != null) {
+      json.put("policy", obj.getPolicy().name());
+    }
+    json.put("maxPendingMessages", obj.getMaxPendingMessages());
+    if (obj.getConflationKey() != null) {
+      json.put("conflationKey", obj.getConflationKey());
+    }
+    if (obj.getSpoolDirectory() != null) {
+      json.put("spoolDirectory", obj.getSpoolDirectory());
+    }
+  }
+}
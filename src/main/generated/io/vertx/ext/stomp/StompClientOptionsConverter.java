@@ -72,6 +72,21 @@ public class StompClientOptionsConverter {
             obj.setTrailingLine((Boolean)member.getValue());
           }
           break;
+        case "useByteFrameParser":
+          if (member.getValue() instanceof Boolean) {
+            obj.setUseByteFrameParser((Boolean)member.getValue());
+          }
+          break;
+        case "writeCoalescing":
+          if (member.getValue() instanceof Boolean) {
+            obj.setWriteCoalescing((Boolean)member.getValue());
+          }
+          break;
+        case "writeCoalescingMaxSize":
+          if (member.getValue() instanceof Number) {
+            obj.setWriteCoalescingMaxSize(((Number)member.getValue()).intValue());
+          }
+          break;
       }
     }
   }
@@ -106,5 +121,8 @@ public class StompClientOptionsConverter {
       json.put("virtualHost", obj.getVirtualHost());
     }
     json.put("trailingLine", obj.isTrailingLine());
+    json.put("useByteFrameParser", obj.isUseByteFrameParser());
+    json.put("writeCoalescing", obj.isWriteCoalescing());
+    json.put("writeCoalescingMaxSize", obj.getWriteCoalescingMaxSize());
   }
 }
@@ -47,6 +47,11 @@ public class StompServerOptionsConverter {
             obj.setSendErrorOnNoSubscriptions((Boolean)member.getValue());
           }
           break;
+        case "ackTimeout":
+          if (member.getValue() instanceof Number) {
+            obj.setAckTimeout(((Number)member.getValue()).longValue());
+          }
+          break;
         case "timeFactor":
           if (member.getValue() instanceof Number) {
             obj.setTimeFactor(((Number)member.getValue()).intValue());
@@ -92,6 +97,36 @@ public class StompServerOptionsConverter {
             obj.setWebSocketFrameType(io.vertx.ext.stomp.WebSocketFrameType.valueOf((String)member.getValue()));
           }
           break;
+        case "useByteFrameParser":
+          if (member.getValue() instanceof Boolean) {
+            obj.setUseByteFrameParser((Boolean)member.getValue());
+          }
+          break;
+        case "journalSync":
+          if (member.getValue() instanceof Boolean) {
+            obj.setJournalSync((Boolean)member.getValue());
+          }
+          break;
+        case "journalSyncMaxBatchSize":
+          if (member.getValue() instanceof Number) {
+            obj.setJournalSyncMaxBatchSize(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "journalSyncMaxLinger":
+          if (member.getValue() instanceof Number) {
+            obj.setJournalSyncMaxLinger(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "writeCoalescing":
+          if (member.getValue() instanceof Boolean) {
+            obj.setWriteCoalescing((Boolean)member.getValue());
+          }
+          break;
+        case "writeCoalescingMaxSize":
+          if (member.getValue() instanceof Number) {
+            obj.setWriteCoalescingMaxSize(((Number)member.getValue()).intValue());
+          }
+          break;
       }
     }
   }
@@ -111,6 +146,7 @@ public class StompServerOptionsConverter {
     }
     json.put("secured", obj.isSecured());
     json.put("sendErrorOnNoSubscriptions", obj.isSendErrorOnNoSubscriptions());
+    json.put("ackTimeout", obj.getAckTimeout());
     json.put("timeFactor", obj.getTimeFactor());
     if (obj.getHeartbeat() != null) {
       json.put("heartbeat", obj.getHeartbeat());
@@ -126,5 +162,11 @@ public class StompServerOptionsConverter {
     if (obj.getWebSocketFrameType() != null) {
       json.put("webSocketFrameType", obj.getWebSocketFrameType().name());
     }
+    json.put("useByteFrameParser", obj.isUseByteFrameParser());
+    json.put("journalSync", obj.isJournalSync());
+    json.put("journalSyncMaxBatchSize", obj.getJournalSyncMaxBatchSize());
+    json.put("journalSyncMaxLinger", obj.getJournalSyncMaxLinger());
+    json.put("writeCoalescing", obj.isWriteCoalescing());
+    json.put("writeCoalescingMaxSize", obj.getWriteCoalescingMaxSize());
   }
 }
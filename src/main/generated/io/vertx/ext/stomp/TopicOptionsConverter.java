@@ -0,0 +1,55 @@
+package io.vertx.ext.stomp;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.JsonArray;
+
+/**
+ * Converter and mapper for {@link io.vertx.ext.stomp.TopicOptions}.
+ * NOTE: This class has been automatically generated from the {@link io.vertx.ext.stomp.TopicOptions} original class using Vert.x codegen.
+ */
+public class TopicOptionsConverter {
+
+   static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, TopicOptions obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "parallelFanOut":
+          if (member.getValue() instanceof Boolean) {
+            obj.setParallelFanOut((Boolean)member.getValue());
+          }
+          break;
+        case "slowConsumer":
+          if (member.getValue() instanceof JsonObject) {
+            obj.setSlowConsumer(new io.vertx.ext.stomp.SlowConsumerOptions((io.vertx.core.json.JsonObject)member.getValue()));
+          }
+          break;
+        case "retain":
+          if (member.getValue() instanceof JsonObject) {
+            obj.setRetain(new io.vertx.ext.stomp.RetainOptions((io.vertx.core.json.JsonObject)member.getValue()));
+          }
+          break;
+        case "expiration":
+          if (member.getValue() instanceof JsonObject) {
+            obj.setExpiration(new io.vertx.ext.stomp.ExpirationOptions((io.vertx.core.json.JsonObject)member.getValue()));
+          }
+          break;
+      }
+    }
+  }
+
+   static void toJson(TopicOptions obj, JsonObject json) {
+    toJson(obj, json.getMap());
+  }
+
+   static void toJson(TopicOptions obj, java.util.Map<String, Object> json) {
+    json.put("parallelFanOut", obj.isParallelFanOut());
+    if (obj.getSlowConsumer() != null) {
+      json.put("slowConsumer", obj.getSlowConsumer().toJson());
+    }
+    if (obj.getRetain() != null) {
+      json.put("retain", obj.getRetain().toJson());
+    }
+    if (obj.getExpiration() != null) {
+      json.put("expiration", obj.getExpiration().toJson());
+    }
+  }
+}
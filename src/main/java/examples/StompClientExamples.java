@@ -151,6 +151,36 @@ public class StompClientExamples {
           "Failed to connect to the STOMP server: " + err.toString()));
   }
 
+  public void exampleSelector(Vertx vertx) {
+    StompClient.create(vertx)
+      .connect()
+      .onSuccess(connection -> {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("selector", "symbol IN ('EUR', 'USD') AND price > 1.5");
+        connection.subscribe("/prices", headers, frame ->
+          System.out.println("Just received a selected price : " + frame));
+      })
+      .onFailure(err ->
+        System.out.println(
+          "Failed to connect to the STOMP server: " + err.toString()));
+  }
+
+  public void exampleMessageGroup(Vertx vertx) {
+    StompClient.create(vertx)
+      .connect()
+      .onSuccess(connection -> {
+        // All the messages of the order are processed by the same subscriber, in order.
+        Map<String, String> headers = new HashMap<>();
+        headers.put("message-group", "order-1234");
+        connection.send("/queue/orders", headers, Buffer.buffer("created"));
+        connection.send("/queue/orders", headers, Buffer.buffer("paid"));
+        connection.send("/queue/orders", headers, Buffer.buffer("shipped"));
+      })
+      .onFailure(err ->
+        System.out.println(
+          "Failed to connect to the STOMP server: " + err.toString()));
+  }
+
   public void example10(Vertx vertx) {
     StompClient.create(vertx)
       .connect()
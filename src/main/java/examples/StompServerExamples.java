@@ -156,6 +156,137 @@ public class StompServerExamples {
         .listen();
   }
 
+  public void exampleWildcardTopic(Vertx vertx) {
+    Destination prices = Destination.wildcardTopic(vertx, "/prices");
+    Future<StompServer> server = StompServer.create(vertx)
+        .handler(StompServerHandler.create(vertx)
+            .destinationFactory((v, name) -> {
+              if (prices.matches(name)) {
+                return prices;
+              } else {
+                return Destination.topic(vertx, name);
+              }
+            }))
+        .listen();
+  }
+
+  public void exampleDispatchStrategy(Vertx vertx) {
+    Future<StompServer> server = StompServer.create(vertx)
+        .handler(StompServerHandler.create(vertx)
+            .destinationFactory((v, name) -> {
+              if (name.startsWith("/queue")) {
+                return Destination.queue(vertx, name, new QueueOptions(), DispatchStrategy.leastOutstanding());
+              } else {
+                return Destination.topic(vertx, name);
+              }
+            }))
+        .listen();
+  }
+
+  public void examplePersistentQueue(Vertx vertx) {
+    StompServer server = StompServer.create(vertx)
+        .handler(StompServerHandler.create(vertx)
+            .destinationFactory((v, name) -> {
+              if (name.startsWith("/queue")) {
+                return Destination.queue(vertx, name, new QueueOptions().setJournalDirectory("/var/lib/stomp"));
+              } else {
+                return Destination.topic(vertx, name);
+              }
+            }));
+    server.listen()
+        .onSuccess(s -> s.stompHandler().getOrCreateDestination("/queue/orders"));
+  }
+
+  public void examplePriorityQueue(Vertx vertx) {
+    StompServer server = StompServer.create(vertx)
+        .handler(StompServerHandler.create(vertx)
+            .destinationFactory((v, name) -> {
+              if (name.startsWith("/queue")) {
+                return Destination.queue(vertx, name, new QueueOptions().setPrioritized(true));
+              } else {
+                return Destination.topic(vertx, name);
+              }
+            }));
+  }
+
+  public void exampleAffineDestinations(Vertx vertx) {
+    Future<StompServer> server = StompServer.create(vertx)
+        .handler(StompServerHandler.create(vertx)
+            .affineDestinations(true))
+        .listen();
+  }
+
+  public void exampleParallelTopic(Vertx vertx) {
+    Future<StompServer> server = StompServer.create(vertx)
+        .handler(StompServerHandler.create(vertx)
+            .destinationFactory((v, name) -> Destination.topic(vertx, name, new TopicOptions()
+                .setParallelFanOut(true))))
+        .listen();
+  }
+
+  public void exampleSlowConsumers(Vertx vertx) {
+    Future<StompServer> server = StompServer.create(vertx)
+        .handler(StompServerHandler.create(vertx)
+            .destinationFactory((v, name) -> Destination.topic(vertx, name, new TopicOptions()
+                .setSlowConsumer(new SlowConsumerOptions()
+                    .setPolicy(SlowConsumerPolicy.DROP_OLDEST)
+                    .setMaxPendingMessages(100)))))
+        .listen();
+  }
+
+  public void exampleConflatingTopic(Vertx vertx) {
+    Future<StompServer> server = StompServer.create(vertx)
+        .handler(StompServerHandler.create(vertx)
+            .destinationFactory((v, name) -> {
+              if (name.startsWith("/prices")) {
+                return Destination.topic(vertx, name, new TopicOptions()
+                    .setSlowConsumer(new SlowConsumerOptions()
+                        .setPolicy(SlowConsumerPolicy.CONFLATE)
+                        .setConflationKey("symbol")));
+              } else {
+                return Destination.topic(vertx, name);
+              }
+            }))
+        .listen();
+  }
+
+  public void exampleRetainingTopic(Vertx vertx) {
+    StompServer server = StompServer.create(vertx)
+        .handler(StompServerHandler.create(vertx)
+            .destinationFactory((v, name) -> {
+              if (name.startsWith("/status")) {
+                // Replay the last message per device, if sent in the last hour.
+                return Destination.topic(vertx, name, new TopicOptions()
+                    .setRetain(new RetainOptions()
+                        .setKey("device")
+                        .setMaxMessages(10000)
+                        .setMaxAge(3600 * 1000)));
+              } else {
+                return Destination.topic(vertx, name);
+              }
+            }));
+    server.listen()
+        .onSuccess(s -> s.stompHandler().getOrCreateDestination("/status"));
+  }
+
+  public void exampleExpiration(Vertx vertx) {
+    StompServer server = StompServer.create(vertx)
+        .handler(StompServerHandler.create(vertx)
+            .destinationFactory((v, name) -> {
+              if (name.startsWith("/orders")) {
+                // Orders not consumed within a minute are sent to /expired.
+                return Destination.queue(vertx, name, new QueueOptions()
+                    .setExpiration(new ExpirationOptions()
+                        .setDefaultTimeToLive(60 * 1000)
+                        .setExpiryDestination("/expired")));
+              } else {
+                return Destination.queue(vertx, name);
+              }
+            }));
+    server.listen()
+        .onSuccess(s -> s.stompHandler().getOrCreateDestination("/expired"));
+  }
+
   public void example13(Vertx vertx) {
     Future<StompServer> server = StompServer.create(vertx)
         .handler(StompServerHandler.create(vertx)
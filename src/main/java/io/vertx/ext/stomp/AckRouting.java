@@ -0,0 +1,76 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp;
+
+import io.vertx.ext.stomp.impl.StompServerTCPConnectionImpl;
+
+import java.util.function.BiPredicate;
+
+/**
+ * Routes the {@code ACK} and {@code NACK} frames to the destination that has sent the message. The destination is
+ * retrieved from the index kept by the connection (see {@link StompServerTCPConnectionImpl#acks()}), filled by the
+ * built-in queues. When the ack id is not indexed (custom connections or destinations), or when the indexed
+ * destination does not handle the frame, the other destinations are tried until one accepts the frame.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+final class AckRouting {
+
+  private AckRouting() {
+    // Avoid direct instantiation.
+  }
+
+  /**
+   * Routes a {@code ACK} frame.
+   *
+   * @param connection the connection
+   * @param frame      the frame
+   * @return {@code true} if a destination has handled the frame
+   */
+  static boolean ack(StompServerConnection connection, Frame frame) {
+    return route(connection, frame, (destination, f) -> destination.ack(connection, f));
+  }
+
+  /**
+   * Routes a {@code NACK} frame.
+   *
+   * @param connection the connection
+   * @param frame      the frame
+   * @return {@code true} if a destination has handled the frame
+   */
+  static boolean nack(StompServerConnection connection, Frame frame) {
+    return route(connection, frame, (destination, f) -> destination.nack(connection, f));
+  }
+
+  private static boolean route(StompServerConnection connection, Frame frame,
+                               BiPredicate<Destination, Frame> action) {
+    Destination indexed = null;
+    if (connection instanceof StompServerTCPConnectionImpl && frame.getId() != null) {
+      indexed = ((StompServerTCPConnectionImpl) connection).acks()
+          .get(StompServerTCPConnectionImpl.ackKey(frame.getId()));
+      if (indexed != null && action.test(indexed, frame)) {
+        return true;
+      }
+    }
+    for (Destination destination : connection.handler().getDestinations()) {
+      if (destination != indexed && action.test(destination, frame)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
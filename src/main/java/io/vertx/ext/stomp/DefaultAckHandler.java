@@ -21,8 +21,6 @@ import io.vertx.ext.stomp.impl.Transaction;
 import io.vertx.ext.stomp.impl.Transactions;
 import io.vertx.ext.stomp.utils.Headers;
 
-import java.util.List;
-
 /**
  * STOMP compliant actions executed when receiving a {@code ACK} frame. It removes the acknowledges messages from the
  * list of messages waiting for acknowledgment. If the {@code ACK} frame specifies a transaction id, the
@@ -79,12 +77,7 @@ public class DefaultAckHandler implements Handler<ServerFrame> {
       }
     }
 
-    final List<Destination> destinations = connection.handler().getDestinations();
-    for (Destination destination : destinations) {
-      if (destination.ack(connection, frame)) {
-        break;
-      }
-    }
+    AckRouting.ack(connection, frame);
 
     Frames.handleReceipt(frame, connection);
   }
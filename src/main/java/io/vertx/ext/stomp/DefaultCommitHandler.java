@@ -17,6 +17,7 @@
 package io.vertx.ext.stomp;
 
 import io.vertx.core.Handler;
+import io.vertx.ext.stomp.impl.DefaultStompHandler;
 import io.vertx.ext.stomp.impl.Transaction;
 import io.vertx.ext.stomp.impl.Transactions;
 import io.vertx.ext.stomp.utils.Headers;
@@ -78,30 +79,24 @@ public class DefaultCommitHandler implements Handler<ServerFrame> {
   }
 
   private void replayChunk(StompServerConnection connection, List<Frame> frames) {
-    final List<Destination> destinations = connection.handler().getDestinations();
     for (Frame frame : frames) {
       switch (frame.getCommand()) {
         case SEND:
           // We are sure that the destination is set, as the check is made before enqueuing the frame.
           String destination = frame.getHeader(Frame.DESTINATION);
           Destination dest = connection.handler().getDestination(destination);
-          if (dest != null) {
+          if (dest != null && connection.handler() instanceof DefaultStompHandler) {
+            // The destination may be pinned to another event loop.
+            ((DefaultStompHandler) connection.handler()).execute(dest, () -> dest.dispatch(connection, frame));
+          } else if (dest != null) {
             dest.dispatch(connection, frame);
           }
           break;
         case ACK:
-          for (Destination d : destinations) {
-            if (d.ack(connection, frame)) {
-              break;
-            }
-          }
+          AckRouting.ack(connection, frame);
           break;
         case NACK:
-          for (Destination d : destinations) {
-            if (d.nack(connection, frame)) {
-              break;
-            }
-          }
+          AckRouting.nack(connection, frame);
           break;
       }
     }
@@ -80,12 +80,7 @@ public class DefaultNackHandler implements Handler<ServerFrame> {
       }
     }
 
-    final List<Destination> destinations = connection.handler().getDestinations();
-    for (Destination destination : destinations) {
-      if (destination.nack(connection, sf.frame())) {
-        break;
-      }
-    }
+    AckRouting.nack(connection, sf.frame());
 
     Frames.handleReceipt(sf.frame(), connection);
   }
@@ -17,6 +17,8 @@
 package io.vertx.ext.stomp;
 
 import io.vertx.core.Handler;
+import io.vertx.ext.stomp.impl.DefaultStompHandler;
+import io.vertx.ext.stomp.impl.PersistentQueue;
 import io.vertx.ext.stomp.impl.Transaction;
 import io.vertx.ext.stomp.impl.Transactions;
 import io.vertx.ext.stomp.utils.Headers;
@@ -33,6 +35,11 @@ import io.vertx.ext.stomp.utils.Headers;
  * If the {@code SEND} frame requires an acknowledgment, the {@code message-id} is added to the list of messages
  * waiting for acknowledgment.
  * <p/>
+ * For persistent queues, the {@code RECEIPT} frame is sent once the message has been synced to the storage device
+ * (see {@link StompServerOptions#isJournalSync()}). If the destinations are pinned to event loops (see
+ * {@link StompServerHandler#affineDestinations(boolean)}), the message is dispatched, and the receipt sent, by the
+ * event loop owning the destination.
+ * <p/>
  * This handler is thread safe.
  *
  * @author <a href="http://escoffier.me">Clement Escoffier</a>
@@ -93,11 +100,35 @@ public class DefaultSendHandler implements Handler<ServerFrame> {
       return;
     }
 
-    if (dest != null) {
-      if (dest.dispatch(sf.connection(), sf.frame()) == null) {
-        // Error managed by the destination.
-        return;
-      }
+    if (dest == null) {
+      Frames.handleReceipt(sf.frame(), sf.connection());
+    } else if (sf.connection().handler() instanceof DefaultStompHandler) {
+      // The destination may be pinned to another event loop.
+      ((DefaultStompHandler) sf.connection().handler()).execute(dest, () -> dispatch(sf, dest));
+    } else {
+      dispatch(sf, dest);
+    }
+  }
+
+  private void dispatch(ServerFrame sf, Destination dest) {
+    if (dest.dispatch(sf.connection(), sf.frame()) == null) {
+      // Error managed by the destination.
+      return;
+    }
+    if (dest instanceof PersistentQueue && sf.frame().getReceipt() != null) {
+      // The receipt is sent once the message is durable.
+      ((PersistentQueue) dest).whenDurable(sf.connection().server().options(), ar -> {
+        if (ar.succeeded()) {
+          Frames.handleReceipt(sf.frame(), sf.connection());
+        } else {
+          sf.connection().write(Frames.createErrorFrame(
+              "Message not stored",
+              Headers.create(Frame.DESTINATION, sf.frame().getDestination()),
+              "Message delivery failed - the message cannot be stored: " + ar.cause().getMessage()));
+          sf.connection().close();
+        }
+      });
+      return;
     }
 
     Frames.handleReceipt(sf.frame(), sf.connection());
@@ -17,9 +17,12 @@
 package io.vertx.ext.stomp;
 
 import io.vertx.core.Handler;
+import io.vertx.ext.stomp.impl.Selector;
+import io.vertx.ext.stomp.impl.StompServerTCPConnectionImpl;
 import io.vertx.ext.stomp.utils.Headers;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * STOMP compliant actions executed when receiving a {@code SUBSCRIBE} frame.
@@ -49,31 +52,64 @@ public class DefaultSubscribeHandler implements Handler<ServerFrame> {
       return;
     }
 
+    Map<String, Destination> subscriptions = connection instanceof StompServerTCPConnectionImpl
+        ? ((StompServerTCPConnectionImpl) connection).subscriptions() : null;
+
     // Ensure that the subscription id is unique
-    int count = 0;
-    for (Destination dest : connection.handler().getDestinations()) {
-      List<String> ids = dest.getSubscriptions(connection);
-      count += ids.size();
-      if (ids.contains(id)) {
-        connection.write(Frames.createErrorFrame(
-            "Invalid subscription",
-            Headers.create(frame.getHeaders()), "'id'" +
-                " already used by this connection."));
-        connection.close();
-        return;
+    boolean used;
+    int count;
+    if (subscriptions != null) {
+      used = subscriptions.containsKey(id);
+      count = subscriptions.size();
+    } else {
+      used = false;
+      count = 0;
+      for (Destination dest : connection.handler().getDestinations()) {
+        List<String> ids = dest.getSubscriptions(connection);
+        count += ids.size();
+        used = used || ids.contains(id);
       }
-      if (count + 1 > connection.server().options().getMaxSubscriptionsByClient()) {
+    }
+    if (used) {
+      connection.write(Frames.createErrorFrame(
+          "Invalid subscription",
+          Headers.create(frame.getHeaders()), "'id'" +
+              " already used by this connection."));
+      connection.close();
+      return;
+    }
+    if (count + 1 > connection.server().options().getMaxSubscriptionsByClient()) {
+      connection.write(Frames.createErrorFrame(
+          "Invalid subscription",
+          Headers.create(frame.getHeaders()), "Too many subscriptions"));
+      connection.close();
+      return;
+    }
+
+    try {
+      // The compiled selector is cached, and reused by the destination creating the subscription.
+      Selector.of(frame);
+    } catch (IllegalArgumentException e) {
+      connection.write(Frames.createErrorFrame(
+          "Invalid subscription",
+          Headers.create(frame.getHeaders()), e.getMessage()));
+      connection.close();
+      return;
+    }
+
+    final Destination dest = connection.handler().getOrCreateDestination(destination);
+    if (dest != null) {
+      Destination subscribed;
+      try {
+        subscribed = dest.subscribe(connection, frame);
+      } catch (IllegalArgumentException e) {
         connection.write(Frames.createErrorFrame(
             "Invalid subscription",
-            Headers.create(frame.getHeaders()), "Too many subscriptions"));
+            Headers.create(frame.getHeaders()), e.getMessage()));
         connection.close();
         return;
       }
-    }
-
-    final Destination dest = connection.handler().getOrCreateDestination(destination);
-    if (dest != null) {
-      if (dest.subscribe(connection, frame) == null) {
+      if (subscribed == null) {
         // Access denied
         connection.write(Frames.createErrorFrame(
             "Access denied",
@@ -81,6 +117,9 @@ public class DefaultSubscribeHandler implements Handler<ServerFrame> {
         connection.close();
         return;
       }
+      if (subscriptions != null) {
+        subscriptions.put(id, dest);
+      }
     } else {
       connection.write(Frames.createErrorFrame(
           "Invalid subscription",
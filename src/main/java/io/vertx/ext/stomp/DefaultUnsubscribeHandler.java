@@ -17,9 +17,12 @@
 package io.vertx.ext.stomp;
 
 import io.vertx.core.Handler;
+import io.vertx.ext.stomp.impl.StompServerTCPConnectionImpl;
 import io.vertx.ext.stomp.utils.Headers;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * STOMP compliant actions executed when receiving a {@code UNSUBSCRIBE} frame.
@@ -45,8 +48,15 @@ public class DefaultUnsubscribeHandler implements Handler<ServerFrame> {
       return;
     }
 
-    List<Destination> destinations = connection.handler().getDestinations();
     boolean handled = false;
+    if (connection instanceof StompServerTCPConnectionImpl) {
+      // Route the frame to the destination registered by the subscribe handler.
+      Map<String, Destination> subscriptions = ((StompServerTCPConnectionImpl) connection).subscriptions();
+      Destination destination = subscriptions.remove(id);
+      handled = destination != null && destination.unsubscribe(connection, frame);
+    }
+
+    List<Destination> destinations = handled ? Collections.emptyList() : connection.handler().getDestinations();
     for (Destination destination : destinations) {
       if (destination.unsubscribe(connection, frame)) {
         handled = true;
@@ -17,12 +17,15 @@
 package io.vertx.ext.stomp;
 
 import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.GenIgnore;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Vertx;
 import io.vertx.core.shareddata.Shareable;
 import io.vertx.ext.stomp.impl.EventBusBridge;
+import io.vertx.ext.stomp.impl.PersistentQueue;
 import io.vertx.ext.stomp.impl.Queue;
 import io.vertx.ext.stomp.impl.Topic;
+import io.vertx.ext.stomp.impl.WildcardTopic;
 
 import java.util.List;
 
@@ -42,10 +45,69 @@ public interface Destination extends Shareable {
     return new Topic(vertx, destination);
   }
 
+  /**
+   * Creates a topic configured using the given options. The options configure the parallel fan-out, how the
+   * subscriptions that cannot keep up are handled, the messages retained for the new subscriptions, and the expiration
+   * of the messages.
+   *
+   * @param vertx       the vert.x instance
+   * @param destination the destination
+   * @param options     the topic options
+   * @return the destination
+   */
+  static Destination topic(Vertx vertx, String destination, TopicOptions options) {
+    return new Topic(vertx, destination, options);
+  }
+
   static Destination queue(Vertx vertx, String destination) {
     return new Queue(vertx, destination);
   }
 
+  /**
+   * Creates a queue configured using the given options. The options configure the delivery of the buffered messages
+   * by priority, the number of message groups tracked, the journal storing the messages, and the expiration of the
+   * messages.
+   *
+   * @param vertx       the vert.x instance
+   * @param destination the destination
+   * @param options     the queue options
+   * @return the destination
+   */
+  static Destination queue(Vertx vertx, String destination, QueueOptions options) {
+    return queue(vertx, destination, options, DispatchStrategy.roundRobin());
+  }
+
+  /**
+   * Creates a queue configured using the given options, and selecting the subscription receiving a message using the
+   * given {@link DispatchStrategy}.
+   *
+   * @param vertx       the vert.x instance
+   * @param destination the destination
+   * @param options     the queue options
+   * @param strategy    the strategy, must not be shared with other queues
+   * @return the destination
+   */
+  @GenIgnore
+  static Destination queue(Vertx vertx, String destination, QueueOptions options, DispatchStrategy strategy) {
+    if (options.getJournalDirectory() != null) {
+      return new PersistentQueue(vertx, destination, options, strategy);
+    }
+    return new Queue(vertx, destination, options, strategy);
+  }
+
+  /**
+   * Creates a topic managing all the addresses of the hierarchy starting with the given destination (segments are
+   * separated by {@code /}). Subscriptions can use the {@code *} (one segment) and {@code >} (one or more segments)
+   * wildcards. A single instance must be used for the hierarchy.
+   *
+   * @param vertx       the vert.x instance
+   * @param destination the root of the hierarchy, such as {@code /prices}
+   * @return the destination
+   */
+  static Destination wildcardTopic(Vertx vertx, String destination) {
+    return new WildcardTopic(vertx, destination);
+  }
+
   static Destination bridge(Vertx vertx, BridgeOptions options) {
     return new EventBusBridge(vertx, options);
   }
@@ -56,9 +118,11 @@ public interface Destination extends Shareable {
   String destination();
 
   /**
-   * Dispatches the given frame.
+   * Dispatches the given frame. The connection is {@code null} when the frame has not been sent by a client, such as
+   * the expired messages forwarded to an expiry destination (see
+   * {@link ExpirationOptions#setExpiryDestination(String)}).
    *
-   * @param connection the connection
+   * @param connection the connection, {@code null} if the frame has not been sent by a client
    * @param frame      the frame
    * @return the current instance of {@link Destination}
    */
@@ -70,7 +134,8 @@ public interface Destination extends Shareable {
    *
    * @param connection the connection
    * @param frame      the {@code SUBSCRIBE} frame
-   * @return the current instance of {@link Destination}
+   * @return the current instance of {@link Destination}, {@code null} if the access to the destination is denied
+   * @throws IllegalArgumentException if a header of the frame (such as the selector) is invalid
    */
   @Fluent
   Destination subscribe(StompServerConnection connection, Frame frame);
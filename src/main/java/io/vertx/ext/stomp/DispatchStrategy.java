@@ -0,0 +1,114 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp;
+
+import io.vertx.ext.stomp.impl.DispatchStrategies;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Selects the subscription receiving a message sent to a queue (see {@link Destination#queue(io.vertx.core.Vertx,
+ * String, QueueOptions, DispatchStrategy)}).
+ * <p/>
+ * Strategies can be stateful (such as the round-robin strategy), so an instance must not be shared between queues.
+ * Strategies are called while holding the lock of the queue, so they do not need to be thread-safe, but must not
+ * block.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public interface DispatchStrategy {
+
+  /**
+   * The {@code SUBSCRIBE} header configuring the weight of the subscription, used by the {@link #weighted()}
+   * strategy. 1 by default.
+   */
+  String WEIGHT = "dispatch-weight";
+
+  /**
+   * @return a strategy selecting the subscriptions in turn. This is the default strategy.
+   */
+  static DispatchStrategy roundRobin() {
+    return new DispatchStrategies.RoundRobin();
+  }
+
+  /**
+   * @return a strategy selecting the subscription having the smallest number of messages not acknowledged yet. Ties
+   * are broken in turn.
+   */
+  static DispatchStrategy leastOutstanding() {
+    return new DispatchStrategies.LeastOutstanding();
+  }
+
+  /**
+   * @return a strategy selecting the subscriptions in turn, but skipping the subscriptions whose connection has a full
+   * write queue. If all the connections are saturated, the subscriptions are selected in turn.
+   */
+  static DispatchStrategy writeQueueAware() {
+    return new DispatchStrategies.WriteQueueAware();
+  }
+
+  /**
+   * @return a strategy selecting the subscriptions in turn, a subscription receiving as many consecutive messages as
+   * its weight (see {@link #WEIGHT}).
+   */
+  static DispatchStrategy weighted() {
+    return new DispatchStrategies.Weighted();
+  }
+
+  /**
+   * Selects the subscription receiving the next message.
+   *
+   * @param candidates the subscriptions of the queue, in subscription order
+   * @param eligible   checks whether or not a candidate can receive the message (it has credit, and is not the
+   *                   subscription that refused the message). The selected candidate must be eligible.
+   * @param <C>        the type of candidate
+   * @return the selected candidate, {@code null} if none are eligible
+   */
+  <C extends Candidate> C select(List<C> candidates, Predicate<? super C> eligible);
+
+  /**
+   * A subscription that may receive a message.
+   */
+  interface Candidate {
+
+    /**
+     * @return the connection of the subscription.
+     */
+    StompServerConnection connection();
+
+    /**
+     * @return the subscription id.
+     */
+    String id();
+
+    /**
+     * @return the number of messages sent to the subscription and not acknowledged yet.
+     */
+    int outstanding();
+
+    /**
+     * @return whether or not the write queue of the connection is full.
+     */
+    boolean writeQueueFull();
+
+    /**
+     * @return the weight of the subscription (see {@link #WEIGHT}).
+     */
+    int weight();
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.codegen.json.annotations.JsonGen;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Configures the expiration of the messages sent to a destination. A message expires at the time set in its
+ * {@code expires} header (in ms since the epoch, 0 meaning never). The messages without this header expire after the
+ * default time to live of the destination, if set. Expired messages are dropped, or sent to the expiry destination if
+ * set.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+@DataObject
+@JsonGen(publicConverter = false)
+public class ExpirationOptions {
+
+  public static final long DEFAULT_DEFAULT_TIME_TO_LIVE = 0;
+
+  private long defaultTimeToLive = DEFAULT_DEFAULT_TIME_TO_LIVE;
+  private String expiryDestination;
+
+  public ExpirationOptions() {
+  }
+
+  public ExpirationOptions(ExpirationOptions that) {
+    this.defaultTimeToLive = that.defaultTimeToLive;
+    this.expiryDestination = that.expiryDestination;
+  }
+
+  /**
+   * Create an instance from a {@link io.vertx.core.json.JsonObject}.
+   *
+   * @param json the JsonObject to create it from
+   */
+  public ExpirationOptions(JsonObject json) {
+    ExpirationOptionsConverter.fromJson(json, this);
+  }
+
+  /**
+   * @return the JSON representation of this object.
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    ExpirationOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * @return the time to live (in ms) of the messages without {@code expires} header, 0 (the default) if these messages
+   * never expire.
+   */
+  public long getDefaultTimeToLive() {
+    return defaultTimeToLive;
+  }
+
+  /**
+   * Sets the time to live (in ms) of the messages without {@code expires} header. The {@code expires} header is added
+   * to these messages when they are received.
+   *
+   * @param defaultTimeToLive the time to live in milliseconds, 0 if the messages never expire, must be positive or zero
+   * @return the current {@link ExpirationOptions}
+   */
+  public ExpirationOptions setDefaultTimeToLive(long defaultTimeToLive) {
+    if (defaultTimeToLive < 0) {
+      throw new IllegalArgumentException("The default time to live must be positive or zero");
+    }
+    this.defaultTimeToLive = defaultTimeToLive;
+    return this;
+  }
+
+  /**
+   * @return the destination receiving the expired messages, {@code null} (the default) to drop them.
+   */
+  public String getExpiryDestination() {
+    return expiryDestination;
+  }
+
+  /**
+   * Sets the destination receiving the expired messages. The destination must exist when the messages expire, so it
+   * should be created at startup using {@link StompServerHandler#getOrCreateDestination(String)}. The expired messages
+   * are sent without {@code expires} header, and with an {@code original-destination} header.
+   *
+   * @param expiryDestination the destination, {@code null} to drop the expired messages
+   * @return the current {@link ExpirationOptions}
+   */
+  public ExpirationOptions setExpiryDestination(String expiryDestination) {
+    this.expiryDestination = expiryDestination;
+    return this;
+  }
+}
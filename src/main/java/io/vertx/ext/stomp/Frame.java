@@ -21,9 +21,9 @@ import io.vertx.codegen.annotations.GenIgnore;
 import io.vertx.codegen.json.annotations.JsonGen;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
+import io.vertx.ext.stomp.impl.FrameEncoder;
 import io.vertx.ext.stomp.impl.FrameException;
 import io.vertx.ext.stomp.impl.FrameParser;
-import io.vertx.ext.stomp.impl.HeaderCodec;
 import io.vertx.ext.stomp.utils.Headers;
 
 import java.util.Arrays;
@@ -431,22 +431,7 @@ public class Frame {
    * header encoding).
    */
   public Buffer toBuffer() {
-    Buffer buffer = Buffer.buffer(command.name() + "\n");
-    for (Map.Entry<String, String> entry : headers.entrySet()) {
-      buffer.appendString(encode(entry.getKey()) + ":" + encode(entry.getValue()) + "\n");
-    }
-    buffer.appendString("\n");
-    if (body != null) {
-      buffer.appendBuffer(body);
-    }
-    buffer.appendString(FrameParser.NULL);
-    return buffer;
-  }
-
-  private String encode(String header) {
-    // By spec, frame headers need to be encoded. CONNECT and CONNECTED frames do not encode \r \n \c but still
-    // require the encoding of \\.
-    return HeaderCodec.encode(header, command == Command.CONNECT || command == Command.CONNECTED);
+    return FrameEncoder.encodeFrame(this, false);
   }
 
   public String toString() {
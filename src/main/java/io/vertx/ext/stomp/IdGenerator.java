@@ -0,0 +1,58 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp;
+
+import io.vertx.ext.stomp.impl.IdGenerators;
+
+/**
+ * Generates the ids used by the server (message ids, session ids) and by the client (receipt ids). Configured using
+ * {@link StompServerOptions#setIdGenerator(IdGenerator)} and {@link StompClientOptions#setIdGenerator(IdGenerator)}.
+ * <p/>
+ * The generated ids must be unique (at least among the ids generated by the server or client using the generator).
+ * Generators are called for every message, from any thread, so they must be thread-safe and must not block.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public interface IdGenerator {
+
+  /**
+   * Creates the default generator. Ids are composed of a random prefix, computed once per generator, followed by a
+   * counter. To avoid contention, the counter is striped: threads increment one of several counters, selected from the
+   * thread id, and the stripe is part of the id. So, the ids generated by a thread are monotonic, and ids are unique
+   * among the ids generated by the instance.
+   *
+   * @return the generator
+   */
+  static IdGenerator create() {
+    return new IdGenerators.Striped();
+  }
+
+  /**
+   * Creates a generator returning random UUIDs. Random UUIDs rely on a {@link java.security.SecureRandom}, so this
+   * generator is much slower than the default one, but the ids are not predictable.
+   *
+   * @return the generator
+   */
+  static IdGenerator random() {
+    return IdGenerators.RANDOM;
+  }
+
+  /**
+   * @return a new id
+   */
+  String next();
+}
@@ -0,0 +1,157 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.codegen.json.annotations.JsonGen;
+import io.vertx.core.json.JsonObject;
+
+import java.util.Objects;
+
+/**
+ * Configures a queue. The features of a queue (priorities, message groups, persistence and expiration) are
+ * independent, so they can be combined.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+@DataObject
+@JsonGen(publicConverter = false)
+public class QueueOptions {
+
+  public static final boolean DEFAULT_PRIORITIZED = false;
+  public static final int DEFAULT_MAX_GROUPS = 1024;
+
+  private boolean prioritized = DEFAULT_PRIORITIZED;
+  private int maxGroups = DEFAULT_MAX_GROUPS;
+  private String journalDirectory;
+  private ExpirationOptions expiration = new ExpirationOptions();
+
+  public QueueOptions() {
+  }
+
+  public QueueOptions(QueueOptions that) {
+    this.prioritized = that.prioritized;
+    this.maxGroups = that.maxGroups;
+    this.journalDirectory = that.journalDirectory;
+    this.expiration = new ExpirationOptions(that.expiration);
+  }
+
+  /**
+   * Create an instance from a {@link io.vertx.core.json.JsonObject}.
+   *
+   * @param json the JsonObject to create it from
+   */
+  public QueueOptions(JsonObject json) {
+    QueueOptionsConverter.fromJson(json, this);
+  }
+
+  /**
+   * @return the JSON representation of this object.
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    QueueOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * @return whether or not the buffered messages are delivered by priority, {@code false} by default.
+   */
+  public boolean isPrioritized() {
+    return prioritized;
+  }
+
+  /**
+   * Sets whether or not the buffered messages are delivered by priority. The priority of a message is given by its
+   * {@code priority} header, from 0 (lowest) to 9 (highest). Numbers out of this range are clamped to 0 or 9, and the
+   * priority is 4 when the header is missing or is not a number. Messages sent while no subscription has credit are
+   * buffered, and the messages having the highest priority are delivered first.
+   *
+   * @param prioritized {@code true} to deliver the buffered messages by priority
+   * @return the current {@link QueueOptions}
+   */
+  public QueueOptions setPrioritized(boolean prioritized) {
+    this.prioritized = prioritized;
+    return this;
+  }
+
+  /**
+   * @return the max number of message groups tracked by the queue, 1024 by default.
+   */
+  public int getMaxGroups() {
+    return maxGroups;
+  }
+
+  /**
+   * Sets the max number of message groups (see the {@code message-group} header) tracked by the queue. When reached,
+   * the least recently used group without buffered or unacknowledged messages is evicted, and is assigned to a new
+   * owner when its next message is delivered. The groups having such messages are never evicted, so the messages of a
+   * group stay in order.
+   *
+   * @param maxGroups the max number of groups, must be strictly positive
+   * @return the current {@link QueueOptions}
+   */
+  public QueueOptions setMaxGroups(int maxGroups) {
+    if (maxGroups <= 0) {
+      throw new IllegalArgumentException("The max number of groups must be strictly positive");
+    }
+    this.maxGroups = maxGroups;
+    return this;
+  }
+
+  /**
+   * @return the directory storing the journal of the queue, {@code null} (the default) if the messages are only kept
+   * in memory.
+   */
+  public String getJournalDirectory() {
+    return journalDirectory;
+  }
+
+  /**
+   * Sets the directory storing the journal of the queue. When set, the queue stores its messages in a memory-mapped
+   * journal, so messages survive restarts and are kept while the queue has no subscriptions. A single instance must be
+   * used per destination and directory. As {@code SEND} frames do not create destinations, persistent queues should be
+   * created at startup using {@link StompServerHandler#getOrCreateDestination(String)}, which also recovers their
+   * messages.
+   *
+   * @param journalDirectory the directory, {@code null} to keep the messages in memory
+   * @return the current {@link QueueOptions}
+   */
+  public QueueOptions setJournalDirectory(String journalDirectory) {
+    this.journalDirectory = journalDirectory;
+    return this;
+  }
+
+  /**
+   * @return the options configuring the expiration of the messages.
+   */
+  public ExpirationOptions getExpiration() {
+    return expiration;
+  }
+
+  /**
+   * Sets the options configuring the expiration of the messages. The buffered messages and the messages not
+   * acknowledged yet are removed once expired, and dropped or sent to the expiry destination.
+   *
+   * @param expiration the expiration options, must not be {@code null}
+   * @return the current {@link QueueOptions}
+   */
+  public QueueOptions setExpiration(ExpirationOptions expiration) {
+    this.expiration = Objects.requireNonNull(expiration);
+    return this;
+  }
+}
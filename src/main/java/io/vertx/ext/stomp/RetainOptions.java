@@ -0,0 +1,129 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.codegen.json.annotations.JsonGen;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Configures the messages retained by a topic, and replayed to the new subscriptions. A topic retains either the last
+ * messages it has received, or the last message per key when a key header is set. Retained messages are evicted once
+ * the max number of messages (or keys) is reached, and once they are older than the max age (if set).
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+@DataObject
+@JsonGen(publicConverter = false)
+public class RetainOptions {
+
+  public static final int DEFAULT_MAX_MESSAGES = 1;
+  public static final long DEFAULT_MAX_AGE = 0;
+
+  private int maxMessages = DEFAULT_MAX_MESSAGES;
+  private String key;
+  private long maxAge = DEFAULT_MAX_AGE;
+
+  public RetainOptions() {
+  }
+
+  public RetainOptions(RetainOptions that) {
+    this.maxMessages = that.maxMessages;
+    this.key = that.key;
+    this.maxAge = that.maxAge;
+  }
+
+  /**
+   * Create an instance from a {@link io.vertx.core.json.JsonObject}.
+   *
+   * @param json the JsonObject to create it from
+   */
+  public RetainOptions(JsonObject json) {
+    RetainOptionsConverter.fromJson(json, this);
+  }
+
+  /**
+   * @return the JSON representation of this object.
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    RetainOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * @return the max number of retained messages, or of keys when a key header is set. 1 by default.
+   */
+  public int getMaxMessages() {
+    return maxMessages;
+  }
+
+  /**
+   * Sets the max number of retained messages, or of keys when a key header is set. When reached, the oldest message is
+   * evicted.
+   *
+   * @param maxMessages the max number of messages, must be strictly positive
+   * @return the current {@link RetainOptions}
+   */
+  public RetainOptions setMaxMessages(int maxMessages) {
+    if (maxMessages <= 0) {
+      throw new IllegalArgumentException("The max number of retained messages must be strictly positive");
+    }
+    this.maxMessages = maxMessages;
+    return this;
+  }
+
+  /**
+   * @return the header containing the key of the messages, {@code null} (the default) to retain the last messages.
+   */
+  public String getKey() {
+    return key;
+  }
+
+  /**
+   * Sets the header containing the key of the messages. When set, the last message per key is retained. Messages
+   * without this header are not retained.
+   *
+   * @param key the header, {@code null} to retain the last messages
+   * @return the current {@link RetainOptions}
+   */
+  public RetainOptions setKey(String key) {
+    this.key = key;
+    return this;
+  }
+
+  /**
+   * @return the max time (in ms) a message is retained, 0 (the default) to retain messages until they are replaced.
+   */
+  public long getMaxAge() {
+    return maxAge;
+  }
+
+  /**
+   * Sets the max time (in ms) a message is retained.
+   *
+   * @param maxAge the max age in milliseconds, 0 to retain messages until they are replaced, must be positive or zero
+   * @return the current {@link RetainOptions}
+   */
+  public RetainOptions setMaxAge(long maxAge) {
+    if (maxAge < 0) {
+      throw new IllegalArgumentException("The max age of retained messages must be positive or zero");
+    }
+    this.maxAge = maxAge;
+    return this;
+  }
+}
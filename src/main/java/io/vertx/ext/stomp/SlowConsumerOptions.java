@@ -0,0 +1,154 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.codegen.json.annotations.JsonGen;
+import io.vertx.core.json.JsonObject;
+
+import java.util.Objects;
+
+/**
+ * Configures how a topic handles the subscriptions whose connection cannot keep up (see {@link SlowConsumerPolicy}).
+ * A subscription is considered slow while the write queue of its connection is full, so the threshold is the max size
+ * (in bytes) of the write queue of the connection. Once a subscription has pending messages, the new messages are
+ * kept behind them, so messages are delivered in order.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+@DataObject
+@JsonGen(publicConverter = false)
+public class SlowConsumerOptions {
+
+  public static final SlowConsumerPolicy DEFAULT_POLICY = SlowConsumerPolicy.NONE;
+  public static final int DEFAULT_MAX_PENDING_MESSAGES = 1000;
+  public static final String DEFAULT_CONFLATION_KEY = "key";
+
+  private SlowConsumerPolicy policy = DEFAULT_POLICY;
+  private int maxPendingMessages = DEFAULT_MAX_PENDING_MESSAGES;
+  private String conflationKey = DEFAULT_CONFLATION_KEY;
+  private String spoolDirectory;
+
+  public SlowConsumerOptions() {
+  }
+
+  public SlowConsumerOptions(SlowConsumerOptions that) {
+    this.policy = that.policy;
+    this.maxPendingMessages = that.maxPendingMessages;
+    this.conflationKey = that.conflationKey;
+    this.spoolDirectory = that.spoolDirectory;
+  }
+
+  /**
+   * Create an instance from a {@link io.vertx.core.json.JsonObject}.
+   *
+   * @param json the JsonObject to create it from
+   */
+  public SlowConsumerOptions(JsonObject json) {
+    SlowConsumerOptionsConverter.fromJson(json, this);
+  }
+
+  /**
+   * @return the JSON representation of this object.
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    SlowConsumerOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * @return the policy, {@link SlowConsumerPolicy#NONE} by default.
+   */
+  public SlowConsumerPolicy getPolicy() {
+    return policy;
+  }
+
+  /**
+   * Sets the policy applied to the subscriptions whose connection cannot keep up.
+   *
+   * @param policy the policy, must not be {@code null}
+   * @return the current {@link SlowConsumerOptions}
+   */
+  public SlowConsumerOptions setPolicy(SlowConsumerPolicy policy) {
+    this.policy = Objects.requireNonNull(policy);
+    return this;
+  }
+
+  /**
+   * @return the max number of messages kept per subscription by the {@link SlowConsumerPolicy#DROP_OLDEST} and
+   * {@link SlowConsumerPolicy#CONFLATE} policies, 1000 by default.
+   */
+  public int getMaxPendingMessages() {
+    return maxPendingMessages;
+  }
+
+  /**
+   * Sets the max number of messages kept per subscription by the {@link SlowConsumerPolicy#DROP_OLDEST} and
+   * {@link SlowConsumerPolicy#CONFLATE} policies. When reached, the oldest message is dropped. The
+   * {@link SlowConsumerPolicy#CONFLATE} policy drops the oldest message without key first, if any.
+   *
+   * @param maxPendingMessages the max number of messages, must be strictly positive
+   * @return the current {@link SlowConsumerOptions}
+   */
+  public SlowConsumerOptions setMaxPendingMessages(int maxPendingMessages) {
+    if (maxPendingMessages <= 0) {
+      throw new IllegalArgumentException("The max number of pending messages must be strictly positive");
+    }
+    this.maxPendingMessages = maxPendingMessages;
+    return this;
+  }
+
+  /**
+   * @return the header containing the key of the messages conflated by the {@link SlowConsumerPolicy#CONFLATE}
+   * policy, {@code key} by default.
+   */
+  public String getConflationKey() {
+    return conflationKey;
+  }
+
+  /**
+   * Sets the header containing the key of the messages conflated by the {@link SlowConsumerPolicy#CONFLATE} policy.
+   * Messages without this header are never conflated.
+   *
+   * @param conflationKey the header, must not be {@code null}
+   * @return the current {@link SlowConsumerOptions}
+   */
+  public SlowConsumerOptions setConflationKey(String conflationKey) {
+    this.conflationKey = Objects.requireNonNull(conflationKey);
+    return this;
+  }
+
+  /**
+   * @return the directory storing the messages spooled by the {@link SlowConsumerPolicy#SPOOL} policy.
+   */
+  public String getSpoolDirectory() {
+    return spoolDirectory;
+  }
+
+  /**
+   * Sets the directory storing the messages spooled by the {@link SlowConsumerPolicy#SPOOL} policy. Each subscription
+   * uses its own journal, deleted when the subscription ends. Required by the {@link SlowConsumerPolicy#SPOOL} policy.
+   *
+   * @param spoolDirectory the directory
+   * @return the current {@link SlowConsumerOptions}
+   */
+  public SlowConsumerOptions setSpoolDirectory(String spoolDirectory) {
+    this.spoolDirectory = spoolDirectory;
+    return this;
+  }
+}
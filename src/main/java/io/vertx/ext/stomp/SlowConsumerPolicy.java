@@ -0,0 +1,57 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp;
+
+/**
+ * Defines what a topic does with the messages sent to a subscription whose connection cannot keep up, i.e. whose
+ * write queue is full.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public enum SlowConsumerPolicy {
+  /**
+   * The messages are written anyway, and queued by the connection without limit. This is the default behavior.
+   */
+  NONE,
+
+  /**
+   * The messages are not delivered to the subscription until its connection catches up.
+   */
+  DROP_NEWEST,
+
+  /**
+   * The messages are kept in a bounded ring per subscription, written once the connection catches up. When the ring is
+   * full, the oldest message is dropped.
+   */
+  DROP_OLDEST,
+
+  /**
+   * Only the last message per key (the value of a configurable header) is kept per subscription, and written once the
+   * connection catches up. A message replaces the pending message having the same key, keeping its position.
+   */
+  CONFLATE,
+
+  /**
+   * The connection is closed.
+   */
+  DISCONNECT,
+
+  /**
+   * The messages are written to a journal on disk per subscription, and read back once the connection catches up.
+   */
+  SPOOL
+}
@@ -50,6 +50,13 @@ public interface StompClientConnection {
    */
   void close();
 
+  /**
+   * Writes the frames gathered so far, when the writes are coalesced (see
+   * {@link StompClientOptions#setWriteCoalescing(boolean)}). Does nothing otherwise.
+   */
+  default void flush() {
+  }
+
   /**
    * @return the server name.
    */
@@ -17,6 +17,7 @@
 package io.vertx.ext.stomp;
 
 import io.vertx.codegen.annotations.DataObject;
+import io.vertx.codegen.annotations.GenIgnore;
 import io.vertx.codegen.json.annotations.JsonGen;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.net.NetClientOptions;
@@ -24,6 +25,7 @@ import io.vertx.core.net.NetClientOptions;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Options used to configure a STOMP client. As a STOMP client wraps a Net client, you can also configure the
@@ -49,6 +51,10 @@ public class StompClientOptions extends NetClientOptions implements StompOptions
   private JsonObject heartbeat = DEFAULT_STOMP_HEARTBEAT;
   private String virtualHost;
   private boolean trailingLine = DEFAULT_TRAILING_LINE;
+  private boolean useByteFrameParser = DEFAULT_USE_BYTE_FRAME_PARSER;
+  private boolean writeCoalescing = DEFAULT_WRITE_COALESCING;
+  private int writeCoalescingMaxSize = DEFAULT_WRITE_COALESCING_MAX_SIZE;
+  private IdGenerator idGenerator = IdGenerator.create();
 
   /**
    * Default constructor.
@@ -77,6 +83,10 @@ public class StompClientOptions extends NetClientOptions implements StompOptions
     this.heartbeat = other.heartbeat;
     this.virtualHost = other.virtualHost;
     this.trailingLine = other.trailingLine;
+    this.useByteFrameParser = other.useByteFrameParser;
+    this.writeCoalescing = other.writeCoalescing;
+    this.writeCoalescingMaxSize = other.writeCoalescingMaxSize;
+    this.idGenerator = other.idGenerator;
   }
 
   /**
@@ -350,4 +360,97 @@ public class StompClientOptions extends NetClientOptions implements StompOptions
     this.trailingLine = trailingLine;
     return this;
   }
+
+  /**
+   * Gets whether or not the frames received from the server are parsed by the byte-level parser. This parser scans
+   * the received buffers directly instead of converting each line to a {@link String}. Enabled by default.
+   *
+   * @return whether or not the byte-level frame parser is used
+   */
+  public boolean isUseByteFrameParser() {
+    return useByteFrameParser;
+  }
+
+  /**
+   * Sets whether or not the frames received from the server are parsed by the byte-level parser. When disabled, the
+   * line based parser is used instead.
+   *
+   * @param useByteFrameParser {@code true} to use the byte-level parser, {@code false} to use the line based parser
+   * @return the current {@link StompClientOptions}
+   */
+  public StompClientOptions setUseByteFrameParser(boolean useByteFrameParser) {
+    this.useByteFrameParser = useByteFrameParser;
+    return this;
+  }
+
+  /**
+   * Gets whether or not the frames written to a connection are coalesced: the frames written during the same event
+   * loop tick are gathered and written (so flushed) at once, reducing the number of writes and system calls. Disabled
+   * by default.
+   *
+   * @return whether or not the writes are coalesced
+   */
+  public boolean isWriteCoalescing() {
+    return writeCoalescing;
+  }
+
+  /**
+   * Sets whether or not the frames written to a connection are coalesced. When enabled, the frames written during the
+   * same event loop tick are copied into a single buffer, written once the tick ends, or once the buffer reaches
+   * {@link #getWriteCoalescingMaxSize()}.
+   *
+   * @param writeCoalescing {@code true} to coalesce the writes
+   * @return the current {@link StompClientOptions}
+   */
+  public StompClientOptions setWriteCoalescing(boolean writeCoalescing) {
+    this.writeCoalescing = writeCoalescing;
+    return this;
+  }
+
+  /**
+   * Gets the max size (in bytes) of the frames gathered before being written, when the writes are coalesced. Frames
+   * bigger than this size are written without being copied. 64 Kb by default.
+   *
+   * @return the max size in bytes
+   */
+  public int getWriteCoalescingMaxSize() {
+    return writeCoalescingMaxSize;
+  }
+
+  /**
+   * Sets the max size (in bytes) of the frames gathered before being written, when the writes are coalesced.
+   *
+   * @param writeCoalescingMaxSize the max size in bytes, must be strictly positive
+   * @return the current {@link StompClientOptions}
+   */
+  public StompClientOptions setWriteCoalescingMaxSize(int writeCoalescingMaxSize) {
+    if (writeCoalescingMaxSize <= 0) {
+      throw new IllegalArgumentException("The write coalescing max size must be strictly positive");
+    }
+    this.writeCoalescingMaxSize = writeCoalescingMaxSize;
+    return this;
+  }
+
+  /**
+   * Gets the generator used to compute the receipt ids.
+   *
+   * @return the id generator
+   */
+  @GenIgnore
+  public IdGenerator getIdGenerator() {
+    return idGenerator;
+  }
+
+  /**
+   * Sets the generator used to compute the receipt ids. By default, ids are a random prefix followed by a counter
+   * (see {@link IdGenerator#create()}).
+   *
+   * @param idGenerator the id generator, must not be {@code null}
+   * @return the current {@link StompClientOptions}
+   */
+  @GenIgnore
+  public StompClientOptions setIdGenerator(IdGenerator idGenerator) {
+    this.idGenerator = Objects.requireNonNull(idGenerator);
+    return this;
+  }
 }
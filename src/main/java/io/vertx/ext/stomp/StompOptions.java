@@ -40,4 +40,9 @@ public interface StompOptions {
   JsonObject DEFAULT_STOMP_HEARTBEAT = new JsonObject().put("x", 1000).put("y", 1000);
 
   boolean DEFAULT_TRAILING_LINE = false;
+
+  boolean DEFAULT_USE_BYTE_FRAME_PARSER = true;
+
+  boolean DEFAULT_WRITE_COALESCING = false;
+  int DEFAULT_WRITE_COALESCING_MAX_SIZE = 64 * 1024;
 }
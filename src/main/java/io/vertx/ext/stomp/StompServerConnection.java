@@ -51,6 +51,13 @@ public interface StompServerConnection {
   @Fluent
   StompServerConnection write(Buffer buffer);
 
+  /**
+   * Writes the frames gathered so far, when the writes are coalesced (see
+   * {@link StompServerOptions#setWriteCoalescing(boolean)}). Does nothing otherwise.
+   */
+  default void flush() {
+  }
+
   /**
    * @return the STOMP server serving this connection.
    */
@@ -303,4 +303,23 @@ public interface StompServerHandler extends Handler<ServerFrame> {
    */
   @Fluent
   StompServerHandler bridge(BridgeOptions options);
+
+  /**
+   * Configures whether or not each destination is pinned to an event loop. When enabled, the messages sent to a
+   * destination are dispatched by the event loop owning the destination: the messages received by other event loops
+   * are handed to it, in order. Dispatching a message then never contends with the dispatching of other messages on
+   * the same destination, while the destinations owned by different event loops are dispatched in parallel. The
+   * {@code RECEIPT} frames of the {@code SEND} frames are sent once the message has been dispatched. Only the
+   * dispatching is handed to the owner: the subscriptions and the acknowledgments are still handled by the event loop
+   * of their connection, so the destinations keep synchronizing their state. The owners are shared by all the servers
+   * of the Vert.x instance, as are the destinations. Disabled by default: messages are dispatched by the event loop of
+   * the sender. Handlers not supporting this mode ignore it.
+   *
+   * @param affine {@code true} to pin the destinations to event loops
+   * @return the current {@link StompServerHandler}.
+   */
+  @Fluent
+  default StompServerHandler affineDestinations(boolean affine) {
+    return this;
+  }
 }
@@ -17,6 +17,7 @@
 package io.vertx.ext.stomp;
 
 import io.vertx.codegen.annotations.DataObject;
+import io.vertx.codegen.annotations.GenIgnore;
 import io.vertx.codegen.json.annotations.JsonGen;
 import io.vertx.core.Handler;
 import io.vertx.core.json.JsonObject;
@@ -24,6 +25,7 @@ import io.vertx.core.net.NetServerOptions;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * STOMP Server options. You can also configure the Net Server used by the STOMP server from these options.
@@ -45,6 +47,12 @@ public class StompServerOptions extends NetServerOptions implements StompOptions
 
   public static final String DEFAULT_WEBSOCKET_PATH = "/stomp";
 
+  public static final long DEFAULT_ACK_TIMEOUT = 0;
+
+  public static final boolean DEFAULT_JOURNAL_SYNC = true;
+  public static final int DEFAULT_JOURNAL_SYNC_MAX_BATCH_SIZE = 1000;
+  public static final long DEFAULT_JOURNAL_SYNC_MAX_LINGER = 2;
+
 
   private int maxHeaderLength = DEFAULT_MAX_HEADER_LENGTH;
   private int maxHeaders = DEFAULT_MAX_HEADERS;
@@ -58,7 +66,7 @@ public class StompServerOptions extends NetServerOptions implements StompOptions
   private List<String> supportedVersions = new ArrayList<>(DEFAULT_SUPPORTED_VERSIONS);
   private boolean secured = false;
   private boolean sendErrorOnNoSubscriptions = false;
-  private long ackTimeout = 10000;
+  private long ackTimeout = DEFAULT_ACK_TIMEOUT;
   private int timeFactor = 1;
   private JsonObject heartbeat = DEFAULT_STOMP_HEARTBEAT;
   private int transactionChunkSize = DEFAULT_TRANSACTION_CHUNK_SIZE;
@@ -72,6 +80,17 @@ public class StompServerOptions extends NetServerOptions implements StompOptions
 
   private WebSocketFrameType webSocketFrameType = WebSocketFrameType.BINARY;
 
+  private boolean useByteFrameParser = DEFAULT_USE_BYTE_FRAME_PARSER;
+
+  private boolean journalSync = DEFAULT_JOURNAL_SYNC;
+  private int journalSyncMaxBatchSize = DEFAULT_JOURNAL_SYNC_MAX_BATCH_SIZE;
+  private long journalSyncMaxLinger = DEFAULT_JOURNAL_SYNC_MAX_LINGER;
+
+  private boolean writeCoalescing = DEFAULT_WRITE_COALESCING;
+  private int writeCoalescingMaxSize = DEFAULT_WRITE_COALESCING_MAX_SIZE;
+
+  private IdGenerator idGenerator = IdGenerator.create();
+
   /**
    * Default constructor.
    */
@@ -107,6 +126,13 @@ public class StompServerOptions extends NetServerOptions implements StompOptions
     this.disableTCPServer = other.disableTCPServer;
     this.trailingLine = other.trailingLine;
     this.webSocketFrameType = other.webSocketFrameType;
+    this.useByteFrameParser = other.useByteFrameParser;
+    this.journalSync = other.journalSync;
+    this.journalSyncMaxBatchSize = other.journalSyncMaxBatchSize;
+    this.journalSyncMaxLinger = other.journalSyncMaxLinger;
+    this.writeCoalescing = other.writeCoalescing;
+    this.writeCoalescingMaxSize = other.writeCoalescingMaxSize;
+    this.idGenerator = other.idGenerator;
   }
 
   /**
@@ -255,6 +281,32 @@ public class StompServerOptions extends NetServerOptions implements StompOptions
     return this;
   }
 
+  /**
+   * Gets the time (in ms) given to a client to acknowledge a message received in the {@code client} or
+   * {@code client-individual} ack mode. The effective timeout is multiplied by the time factor. When the timeout is
+   * reached, the message is considered as not acknowledged. Disabled by default, so a message is only redelivered
+   * when it is not acknowledged ({@code NACK} frame) or when its subscription is closed.
+   *
+   * @return the ack timeout in milliseconds, 0 if the messages never time out.
+   */
+  public long getAckTimeout() {
+    return ackTimeout;
+  }
+
+  /**
+   * Sets the time (in ms) given to a client to acknowledge a message. Set it to {@code 0} to disable the timeout.
+   *
+   * @param ackTimeout the ack timeout in milliseconds
+   * @return the current {@link StompServerOptions}
+   */
+  public StompServerOptions setAckTimeout(long ackTimeout) {
+    if (ackTimeout < 0) {
+      throw new IllegalArgumentException("The ack timeout must be positive or zero");
+    }
+    this.ackTimeout = ackTimeout;
+    return this;
+  }
+
   /**
    * Gets the time factor, i.e. a multiplier applied to time constraints as a window error. 1 by default.
    *
@@ -511,4 +563,169 @@ public class StompServerOptions extends NetServerOptions implements StompOptions
     this.webSocketFrameType = webSocketFrameType;
     return this;
   }
+
+  /**
+   * Gets whether or not the received frames are parsed by the byte-level parser. This parser scans the received
+   * buffers directly instead of converting each line to a {@link String}. Enabled by default.
+   *
+   * @return whether or not the byte-level frame parser is used
+   */
+  public boolean isUseByteFrameParser() {
+    return useByteFrameParser;
+  }
+
+  /**
+   * Sets whether or not the received frames are parsed by the byte-level parser. When disabled, the line based
+   * parser is used instead.
+   *
+   * @param useByteFrameParser {@code true} to use the byte-level parser, {@code false} to use the line based parser
+   * @return the current {@link StompServerOptions}
+   */
+  public StompServerOptions setUseByteFrameParser(boolean useByteFrameParser) {
+    this.useByteFrameParser = useByteFrameParser;
+    return this;
+  }
+
+  /**
+   * Gets whether or not the journal of persistent destinations is forced to the storage device before sending the
+   * {@code RECEIPT} frame of a {@code SEND} frame. Syncs are grouped, see {@link #getJournalSyncMaxBatchSize()} and
+   * {@link #getJournalSyncMaxLinger()}. Enabled by default.
+   *
+   * @return whether or not the receipts wait for the journal to be synced
+   */
+  public boolean isJournalSync() {
+    return journalSync;
+  }
+
+  /**
+   * Sets whether or not the journal of persistent destinations is forced to the storage device before sending the
+   * {@code RECEIPT} frame of a {@code SEND} frame. When disabled, the receipt is sent once the message has been
+   * written to the journal, which survives a crash of the process, but not of the operating system.
+   *
+   * @param journalSync {@code true} to sync the journal before sending the receipts
+   * @return the current {@link StompServerOptions}
+   */
+  public StompServerOptions setJournalSync(boolean journalSync) {
+    this.journalSync = journalSync;
+    return this;
+  }
+
+  /**
+   * Gets the maximum number of receipts waiting for the same journal sync. When reached, the journal is synced
+   * without waiting for the linger time. 1000 by default.
+   *
+   * @return the max batch size
+   */
+  public int getJournalSyncMaxBatchSize() {
+    return journalSyncMaxBatchSize;
+  }
+
+  /**
+   * Sets the maximum number of receipts waiting for the same journal sync.
+   *
+   * @param journalSyncMaxBatchSize the max batch size, must be strictly positive
+   * @return the current {@link StompServerOptions}
+   */
+  public StompServerOptions setJournalSyncMaxBatchSize(int journalSyncMaxBatchSize) {
+    if (journalSyncMaxBatchSize <= 0) {
+      throw new IllegalArgumentException("The journal sync max batch size must be strictly positive");
+    }
+    this.journalSyncMaxBatchSize = journalSyncMaxBatchSize;
+    return this;
+  }
+
+  /**
+   * Gets the maximum time (in ms) a receipt waits for other receipts before syncing the journal. 2 ms by default.
+   *
+   * @return the max linger time in milliseconds
+   */
+  public long getJournalSyncMaxLinger() {
+    return journalSyncMaxLinger;
+  }
+
+  /**
+   * Sets the maximum time (in ms) a receipt waits for other receipts before syncing the journal. Set it to {@code 0}
+   * to sync the journal for each receipt (syncs running concurrently are still grouped).
+   *
+   * @param journalSyncMaxLinger the max linger time in milliseconds, must be positive or zero
+   * @return the current {@link StompServerOptions}
+   */
+  public StompServerOptions setJournalSyncMaxLinger(long journalSyncMaxLinger) {
+    if (journalSyncMaxLinger < 0) {
+      throw new IllegalArgumentException("The journal sync max linger time must be positive or zero");
+    }
+    this.journalSyncMaxLinger = journalSyncMaxLinger;
+    return this;
+  }
+
+  /**
+   * Gets whether or not the frames written to a connection are coalesced: the frames written during the same event
+   * loop tick are gathered and written (so flushed) at once, reducing the number of writes and system calls. Disabled
+   * by default.
+   *
+   * @return whether or not the writes are coalesced
+   */
+  public boolean isWriteCoalescing() {
+    return writeCoalescing;
+  }
+
+  /**
+   * Sets whether or not the frames written to a connection are coalesced. When enabled, the frames written during the
+   * same event loop tick are copied into a single buffer, written once the tick ends, or once the buffer reaches
+   * {@link #getWriteCoalescingMaxSize()}.
+   *
+   * @param writeCoalescing {@code true} to coalesce the writes
+   * @return the current {@link StompServerOptions}
+   */
+  public StompServerOptions setWriteCoalescing(boolean writeCoalescing) {
+    this.writeCoalescing = writeCoalescing;
+    return this;
+  }
+
+  /**
+   * Gets the max size (in bytes) of the frames gathered before being written, when the writes are coalesced. Frames
+   * bigger than this size are written without being copied. 64 Kb by default.
+   *
+   * @return the max size in bytes
+   */
+  public int getWriteCoalescingMaxSize() {
+    return writeCoalescingMaxSize;
+  }
+
+  /**
+   * Sets the max size (in bytes) of the frames gathered before being written, when the writes are coalesced.
+   *
+   * @param writeCoalescingMaxSize the max size in bytes, must be strictly positive
+   * @return the current {@link StompServerOptions}
+   */
+  public StompServerOptions setWriteCoalescingMaxSize(int writeCoalescingMaxSize) {
+    if (writeCoalescingMaxSize <= 0) {
+      throw new IllegalArgumentException("The write coalescing max size must be strictly positive");
+    }
+    this.writeCoalescingMaxSize = writeCoalescingMaxSize;
+    return this;
+  }
+
+  /**
+   * Gets the generator used to compute the message ids and the session ids.
+   *
+   * @return the id generator
+   */
+  @GenIgnore
+  public IdGenerator getIdGenerator() {
+    return idGenerator;
+  }
+
+  /**
+   * Sets the generator used to compute the message ids and the session ids. By default, ids are a random prefix
+   * followed by a counter (see {@link IdGenerator#create()}).
+   *
+   * @param idGenerator the id generator, must not be {@code null}
+   * @return the current {@link StompServerOptions}
+   */
+  @GenIgnore
+  public StompServerOptions setIdGenerator(IdGenerator idGenerator) {
+    this.idGenerator = Objects.requireNonNull(idGenerator);
+    return this;
+  }
 }
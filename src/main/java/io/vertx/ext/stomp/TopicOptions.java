@@ -0,0 +1,152 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.codegen.json.annotations.JsonGen;
+import io.vertx.core.json.JsonObject;
+
+import java.util.Objects;
+
+/**
+ * Configures a topic. The features of a topic (parallel fan-out, slow consumer policy, retained messages and
+ * expiration) are independent, so they can be combined.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+@DataObject
+@JsonGen(publicConverter = false)
+public class TopicOptions {
+
+  public static final boolean DEFAULT_PARALLEL_FAN_OUT = false;
+
+  private boolean parallelFanOut = DEFAULT_PARALLEL_FAN_OUT;
+  private SlowConsumerOptions slowConsumer = new SlowConsumerOptions();
+  private RetainOptions retain;
+  private ExpirationOptions expiration = new ExpirationOptions();
+
+  public TopicOptions() {
+  }
+
+  public TopicOptions(TopicOptions that) {
+    this.parallelFanOut = that.parallelFanOut;
+    this.slowConsumer = new SlowConsumerOptions(that.slowConsumer);
+    this.retain = that.retain != null ? new RetainOptions(that.retain) : null;
+    this.expiration = new ExpirationOptions(that.expiration);
+  }
+
+  /**
+   * Create an instance from a {@link io.vertx.core.json.JsonObject}.
+   *
+   * @param json the JsonObject to create it from
+   */
+  public TopicOptions(JsonObject json) {
+    TopicOptionsConverter.fromJson(json, this);
+  }
+
+  /**
+   * @return the JSON representation of this object.
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    TopicOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * @return whether or not the messages are written to the subscriptions by the event loops of their connections,
+   * {@code false} by default.
+   */
+  public boolean isParallelFanOut() {
+    return parallelFanOut;
+  }
+
+  /**
+   * Sets whether or not the messages are written to the subscriptions by the event loops of their connections. When
+   * enabled, the subscriptions are grouped by the event loop of their connection, and each group is written by its
+   * event loop, so messages sent to topics with many subscriptions are encoded and written in parallel. Each
+   * subscription still receives the messages sent by a connection in order.
+   *
+   * @param parallelFanOut {@code true} to enable the parallel fan-out
+   * @return the current {@link TopicOptions}
+   */
+  public TopicOptions setParallelFanOut(boolean parallelFanOut) {
+    this.parallelFanOut = parallelFanOut;
+    return this;
+  }
+
+  /**
+   * @return the options configuring how the subscriptions that cannot keep up are handled.
+   */
+  public SlowConsumerOptions getSlowConsumer() {
+    return slowConsumer;
+  }
+
+  /**
+   * Sets the options configuring how the subscriptions whose connection has its write queue full are handled: the
+   * messages are dropped, kept in a bounded ring, conflated, spooled to disk, or the connection is closed (see
+   * {@link SlowConsumerPolicy}).
+   *
+   * @param slowConsumer the slow consumer options, must not be {@code null}
+   * @return the current {@link TopicOptions}
+   */
+  public TopicOptions setSlowConsumer(SlowConsumerOptions slowConsumer) {
+    this.slowConsumer = Objects.requireNonNull(slowConsumer);
+    return this;
+  }
+
+  /**
+   * @return the options configuring the retained messages, {@code null} (the default) if the topic does not retain
+   * messages.
+   */
+  public RetainOptions getRetain() {
+    return retain;
+  }
+
+  /**
+   * Sets the options configuring the retained messages. The topic retains its last messages, or its last message per
+   * key, and replays them to each new subscription, right after it has been registered, so subscribers receive the
+   * current state without waiting for the next message.
+   *
+   * @param retain the retain options, {@code null} to not retain messages
+   * @return the current {@link TopicOptions}
+   */
+  public TopicOptions setRetain(RetainOptions retain) {
+    this.retain = retain;
+    return this;
+  }
+
+  /**
+   * @return the options configuring the expiration of the messages.
+   */
+  public ExpirationOptions getExpiration() {
+    return expiration;
+  }
+
+  /**
+   * Sets the options configuring the expiration of the messages. The messages already expired when sent are dropped
+   * or sent to the expiry destination, and the expired messages kept for the retained messages or the slow
+   * subscriptions are dropped.
+   *
+   * @param expiration the expiration options, must not be {@code null}
+   * @return the current {@link TopicOptions}
+   */
+  public TopicOptions setExpiration(ExpirationOptions expiration) {
+    this.expiration = Objects.requireNonNull(expiration);
+    return this;
+  }
+}
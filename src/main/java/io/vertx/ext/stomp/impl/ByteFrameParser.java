@@ -0,0 +1,418 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.stomp.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Objects;
+
+/**
+ * A STOMP frame parser working directly on the received bytes. Unlike {@link FrameParser}, it does not split the
+ * stream into intermediary buffers and does not convert lines to {@link String}: commands are matched from the raw
+ * bytes, well-known header names are shared constants, and header values are only decoded when they contain an
+ * escape sequence.
+ * <p/>
+ * The accepted syntax and the reported errors are the ones of {@link FrameParser}, except that:
+ * <ul>
+ * <li>an empty body announced by a {@code content-length:0} header is accepted, while {@link FrameParser} fails as
+ * it cannot read a body of 0 bytes,</li>
+ * <li>invalid escape sequences in the header values are reported to the error handler, while {@link FrameParser}
+ * lets the {@link FrameException} escape from {@link #handle(Buffer)},</li>
+ * <li>when an error is reported, the bytes received and not consumed yet are discarded, while {@link FrameParser}
+ * resumes parsing from the bytes following the invalid line.</li>
+ * </ul>
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class ByteFrameParser implements Handler<Buffer> {
+
+  private static final byte LF = '\n';
+  private static final byte CR = '\r';
+  private static final byte NUL = 0;
+  private static final byte COLON = ':';
+  private static final byte BACKSLASH = '\\';
+
+  private static final Command[] COMMANDS = Command.values();
+  private static final byte[][] COMMAND_NAMES = new byte[COMMANDS.length][];
+
+  /**
+   * Header names that are shared instead of being allocated for each frame.
+   */
+  private static final String[] KNOWN_HEADERS = {
+      Frame.DESTINATION, Frame.CONTENT_LENGTH, Frame.CONTENT_TYPE, Frame.ID, Frame.ACK, Frame.RECEIPT,
+      Frame.RECEIPT_ID, Frame.SUBSCRIPTION, Frame.MESSAGE_ID, Frame.TRANSACTION, Frame.MESSAGE, Frame.HOST,
+      Frame.VERSION, Frame.ACCEPT_VERSION, Frame.SESSION, Frame.SERVER, Frame.LOGIN, Frame.PASSCODE, Frame.HEARTBEAT
+  };
+  private static final byte[][] KNOWN_HEADER_NAMES = new byte[KNOWN_HEADERS.length][];
+
+  static {
+    for (int i = 0; i < COMMANDS.length; i++) {
+      COMMAND_NAMES[i] = COMMANDS[i].name().getBytes(StandardCharsets.US_ASCII);
+    }
+    for (int i = 0; i < KNOWN_HEADERS.length; i++) {
+      KNOWN_HEADER_NAMES[i] = KNOWN_HEADERS[i].getBytes(StandardCharsets.US_ASCII);
+    }
+  }
+
+  private final StompServerOptions options;
+
+  private Handler<Frame> handler;
+  private Handler<FrameException> errorHandler;
+
+  private FrameParser.State current = FrameParser.State.COMMAND;
+  private Command command;
+  private HashMap<String, String> headers = new HashMap<>();
+  private int contentLength = -1;
+
+  /**
+   * The bytes not consumed yet, {@code null} if none.
+   */
+  private Buffer pending;
+  /**
+   * Whether or not {@link #pending} has been allocated by the parser (and so can be appended).
+   */
+  private boolean owned;
+  /**
+   * Position of the first byte not consumed yet in {@link #pending}.
+   */
+  private int position;
+  /**
+   * Position from which the search of the next delimiter resumes, avoid scanning the same bytes several times.
+   */
+  private int scan;
+
+  public ByteFrameParser(StompServerOptions options) {
+    this.options = options;
+  }
+
+  public ByteFrameParser() {
+    this(new StompServerOptions());
+  }
+
+  public synchronized ByteFrameParser handler(Handler<Frame> handler) {
+    Objects.requireNonNull(handler);
+    this.handler = handler;
+    return this;
+  }
+
+  public synchronized ByteFrameParser errorHandler(Handler<FrameException> handler) {
+    this.errorHandler = handler;
+    return this;
+  }
+
+  /**
+   * Something has happened, so handle it.
+   *
+   * @param event the event to handle
+   */
+  @Override
+  public synchronized void handle(Buffer event) {
+    append(event);
+    while (pending != null) {
+      if (!(current == FrameParser.State.BODY ? handleBody() : handleLine())) {
+        break;
+      }
+    }
+  }
+
+  private void append(Buffer event) {
+    if (pending == null) {
+      pending = event;
+      owned = false;
+      position = 0;
+      scan = 0;
+    } else if (owned && position == 0) {
+      pending.appendBuffer(event);
+    } else {
+      // Copy the remaining bytes, the received buffer must not be modified.
+      int remaining = pending.length() - position;
+      Buffer buffer = Buffer.buffer(remaining + event.length());
+      buffer.appendBuffer(pending, position, remaining).appendBuffer(event);
+      scan -= position;
+      position = 0;
+      pending = buffer;
+      owned = true;
+    }
+  }
+
+  private void consume(int next) {
+    if (next >= pending.length()) {
+      pending = null;
+      owned = false;
+      position = 0;
+      scan = 0;
+    } else {
+      position = next;
+      scan = next;
+    }
+  }
+
+  private int indexOf(byte delimiter) {
+    int length = pending.length();
+    for (int i = scan; i < length; i++) {
+      if (pending.getByte(i) == delimiter) {
+        return i;
+      }
+    }
+    scan = length;
+    return -1;
+  }
+
+  /**
+   * Reads a line from the pending bytes.
+   *
+   * @return {@code true} if a line has been consumed, {@code false} if more bytes are required.
+   */
+  private boolean handleLine() {
+    int eol = indexOf(LF);
+    if (eol == -1) {
+      return false;
+    }
+    Buffer buffer = pending;
+    int start = position;
+    consume(eol + 1);
+    if (current == FrameParser.State.COMMAND) {
+      handleCommand(buffer, start, eol);
+    } else {
+      handleHeader(buffer, start, eol);
+    }
+    return true;
+  }
+
+  private void handleCommand(Buffer buffer, int start, int end) {
+    if (isEmpty(buffer, start, end)) {
+      // ping frame.
+      reset();
+      handler.handle(Frames.ping());
+      return;
+    }
+
+    // It's the verb line, trimmed as String.trim() would do (removes the optional \r).
+    while (start < end && (buffer.getByte(start) & 0xFF) <= ' ') {
+      start++;
+    }
+    while (end > start && (buffer.getByte(end - 1) & 0xFF) <= ' ') {
+      end--;
+    }
+    command = matchCommand(buffer, start, end);
+    if (command == null) {
+      // Not a valid command, use UNKNOWN, and write the given command as header.
+      command = Command.UNKNOWN;
+      headers.put(Frame.STOMP_FRAME_COMMAND, buffer.getString(start, end, StompOptions.UTF_8));
+    }
+    // Only one verb line, so next state
+    current = FrameParser.State.HEADERS;
+  }
+
+  private void handleHeader(Buffer buffer, int start, int end) {
+    if (isEmpty(buffer, start, end)) {
+      // End of headers.
+      current = FrameParser.State.BODY;
+      String length = headers.get(Frame.CONTENT_LENGTH);
+      if (length != null) {
+        contentLength = Integer.parseInt(length);
+        if (contentLength < 0) {
+          throw new IllegalArgumentException("Size must be >= 0");
+        }
+      }
+      return;
+    }
+
+    int colon = -1;
+    for (int i = start; i < end; i++) {
+      if (buffer.getByte(i) == COLON) {
+        colon = i;
+        break;
+      }
+    }
+    if (colon == -1) {
+      reportOrThrow("Invalid header line : '" + buffer.getString(start, end, StompOptions.UTF_8) + "'");
+      return;
+    }
+
+    if (headers.size() + 1 > options.getMaxHeaders()) {
+      reportOrThrow("Number of headers exceeded");
+      return;
+    }
+
+    String header = headerName(buffer, start, colon);
+    int valueStart = colon + 1;
+    if (hasExceededHeaderLength(buffer, header, valueStart, end)) {
+      reportOrThrow("Header length exceeded");
+      return;
+    }
+
+    // By spec (repeated headers) - Put the header only if not already set.
+    if (!headers.containsKey(header)) {
+      int valueEnd = end;
+      if (valueEnd > valueStart && buffer.getByte(valueEnd - 1) == CR) {
+        valueEnd--;
+      }
+      String value;
+      try {
+        value = headerValue(buffer, valueStart, valueEnd);
+      } catch (FrameException e) {
+        reportOrThrow(e.getMessage());
+        return;
+      }
+      headers.put(header, value);
+    }
+  }
+
+  /**
+   * Reads the body from the pending bytes.
+   *
+   * @return {@code true} if the frame has been completed, {@code false} if more bytes are required.
+   */
+  private boolean handleBody() {
+    int start = position;
+    int end;
+    int next;
+    if (contentLength >= 0) {
+      if (pending.length() - start < contentLength) {
+        scan = pending.length();
+        return checkBodySize(pending.length() - start);
+      }
+      end = start + contentLength;
+      next = end;
+    } else {
+      end = indexOf(NUL);
+      if (end == -1) {
+        return checkBodySize(pending.length() - start);
+      }
+      next = end + 1;
+    }
+
+    if (end - start >= options.getMaxBodyLength()) {
+      reportOrThrow("Body size exceeded");
+      return false;
+    }
+
+    Buffer body = pending.getBuffer(start, end);
+    consume(next);
+    try {
+      Frame frame = new Frame(command, headers, body);
+      reset();
+      handler.handle(frame);
+    } catch (FrameException e) {
+      reportOrThrow("Malformed frame received");
+    }
+    return true;
+  }
+
+  private boolean checkBodySize(int received) {
+    if (received >= options.getMaxBodyLength()) {
+      reportOrThrow("Body size exceeded");
+    }
+    return false;
+  }
+
+  private static Command matchCommand(Buffer buffer, int start, int end) {
+    int length = end - start;
+    for (int i = 0; i < COMMAND_NAMES.length; i++) {
+      if (regionEquals(buffer, start, length, COMMAND_NAMES[i])) {
+        return COMMANDS[i];
+      }
+    }
+    return null;
+  }
+
+  private static String headerName(Buffer buffer, int start, int end) {
+    int length = end - start;
+    for (int i = 0; i < KNOWN_HEADER_NAMES.length; i++) {
+      if (regionEquals(buffer, start, length, KNOWN_HEADER_NAMES[i])) {
+        return KNOWN_HEADERS[i];
+      }
+    }
+    return buffer.getString(start, end, StompOptions.UTF_8);
+  }
+
+  private String headerValue(Buffer buffer, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (buffer.getByte(i) == BACKSLASH) {
+        // By spec all frames except CONNECT and CONNECTED escape any carriage return, line feed or colon
+        // found in the resulting UTF-8 encoded headers
+        return HeaderCodec.decode(buffer.getString(start, end, StompOptions.UTF_8),
+            command == Command.CONNECT || command == Command.CONNECTED);
+      }
+    }
+    return buffer.getString(start, end, StompOptions.UTF_8);
+  }
+
+  private static boolean regionEquals(Buffer buffer, int start, int length, byte[] expected) {
+    if (length != expected.length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (buffer.getByte(start + i) != expected[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean hasExceededHeaderLength(Buffer buffer, String header, int valueStart, int valueEnd) {
+    int max = options.getMaxHeaderLength();
+    // The limit is expressed in characters, and an UTF-8 sequence is never shorter than the characters it encodes,
+    // so the value is only decoded when its encoded form is larger than the limit.
+    return header.length() > max
+        || valueEnd - valueStart > max && buffer.getString(valueStart, valueEnd, StompOptions.UTF_8).length() > max;
+  }
+
+  private static boolean isEmpty(Buffer buffer, int start, int end) {
+    int length = end - start;
+    if (length == 0) {
+      return true;
+    }
+    if (length == 1) {
+      byte b = buffer.getByte(start);
+      return b == CR || b == NUL;
+    }
+    return false;
+  }
+
+  private void reset() {
+    command = null;
+    contentLength = -1;
+    headers = new HashMap<>();
+    current = FrameParser.State.COMMAND;
+  }
+
+  /**
+   * Invokes the error handler or throw an exception if no error handler. The bytes not consumed yet are discarded.
+   * Must be called when holding the monitor lock.
+   *
+   * @param error the error
+   */
+  private void reportOrThrow(String error) {
+    FrameException exception = new FrameException(error);
+    reset();
+    pending = null;
+    owned = false;
+    position = 0;
+    scan = 0;
+    if (errorHandler != null) {
+      errorHandler.handle(exception);
+    } else {
+      throw exception;
+    }
+  }
+}
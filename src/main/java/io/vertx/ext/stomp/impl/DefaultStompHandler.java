@@ -21,7 +21,6 @@ import io.vertx.core.internal.ContextInternal;
 import io.vertx.core.internal.PromiseInternal;
 import io.vertx.core.internal.logging.Logger;
 import io.vertx.core.internal.logging.LoggerFactory;
-import io.vertx.core.shareddata.LocalMap;
 import io.vertx.ext.auth.User;
 import io.vertx.ext.auth.authentication.AuthenticationProvider;
 import io.vertx.ext.auth.authentication.UsernamePasswordCredentials;
@@ -45,8 +44,10 @@ import io.vertx.ext.stomp.StompServer;
 import io.vertx.ext.stomp.StompServerConnection;
 import io.vertx.ext.stomp.StompServerHandler;
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -101,7 +102,7 @@ public class DefaultStompHandler implements StompServerHandler {
   private Handler<Acknowledgement> onNackHandler = (acknowledgement) ->
       LOGGER.warn("Messages not acknowledge - " + acknowledgement.frames());
 
-  private final LocalMap<Destination, String> destinations;
+  private final DestinationRegistry destinations;
 
   // user is mutable and built from other modules so there's no guarantees
   // about thread safety so use w/ care..
@@ -111,6 +112,11 @@ public class DefaultStompHandler implements StompServerHandler {
 
   private Handler<ServerFrame> receivedFrameHandler;
 
+  /**
+   * The owners of the destinations, {@code null} if the destinations are not pinned to event loops.
+   */
+  private volatile DestinationAffinity affinity;
+
   /**
    * Creates a new instance of {@link DefaultStompHandler}.
    *
@@ -119,25 +125,49 @@ public class DefaultStompHandler implements StompServerHandler {
   public DefaultStompHandler(Vertx vertx) {
     this.vertx = vertx;
     this.context = Vertx.currentContext();
-    this.destinations = vertx.sharedData().getLocalMap("stomp.destinations");
+    this.destinations = DestinationRegistry.get(vertx);
     this.users = new ConcurrentHashMap<>();
     this.connectHandler = new DefaultConnectHandler();
   }
 
   @Override
-  public synchronized void onClose(StompServerConnection connection) {
+  public void onClose(StompServerConnection connection) {
+    Handler<StompServerConnection> handler;
+    Handler<ServerFrame> subscribe;
+    synchronized (this) {
+      handler = closeHandler;
+      subscribe = subscribeHandler;
+    }
+
     // Default behavior.
-    getDestinations().forEach((d) -> d.unsubscribeConnection(connection));
+    getDestinationsUsedBy(connection, subscribe).forEach((d) -> d.unsubscribeConnection(connection));
     Transactions.instance().unregisterTransactionsFromConnection(connection);
 
     // Remove user, if exists
     this.users.remove(connection.session());
 
-    if (closeHandler != null) {
-      closeHandler.handle(connection);
+    if (handler != null) {
+      handler.handle(connection);
     }
   }
 
+  /**
+   * Gets the destinations on which the given connection may have subscriptions. When the subscriptions are made by the
+   * default subscribe handler, they are registered on the connection, so only these destinations are returned. Otherwise
+   * all the destinations are returned.
+   */
+  private Collection<Destination> getDestinationsUsedBy(StompServerConnection connection,
+                                                        Handler<ServerFrame> subscribe) {
+    if (connection instanceof StompServerTCPConnectionImpl && subscribe instanceof DefaultSubscribeHandler) {
+      StompServerTCPConnectionImpl impl = (StompServerTCPConnectionImpl) connection;
+      Set<Destination> used = new HashSet<>(impl.subscriptions().values());
+      impl.subscriptions().clear();
+      impl.acks().clear();
+      return used;
+    }
+    return getDestinations();
+  }
+
   @Override
   public synchronized StompServerHandler receivedFrameHandler(Handler<ServerFrame> handler) {
     this.receivedFrameHandler = handler;
@@ -462,7 +492,7 @@ public class DefaultStompHandler implements StompServerHandler {
 
   @Override
   public List<Destination> getDestinations() {
-    return new ArrayList<>(destinations.keySet());
+    return destinations.getDestinations();
   }
 
   /**
@@ -472,12 +502,7 @@ public class DefaultStompHandler implements StompServerHandler {
    * @return the {@link Destination}, {@code null} if not found.
    */
   public Destination getDestination(String destination) {
-    for (Destination d : destinations.keySet()) {
-      if (d.matches(destination)) {
-        return d;
-      }
-    }
-    return null;
+    return destinations.getDestination(destination);
   }
 
   public Destination getOrCreateDestination(String destination) {
@@ -485,16 +510,28 @@ public class DefaultStompHandler implements StompServerHandler {
     synchronized (this) {
       destinationFactory = this.factory;
     }
-    synchronized (vertx) {
-      Destination d = getDestination(destination);
-      if (d == null) {
-        d = destinationFactory.create(vertx, destination);
-        if (d != null) {
-          // We use the local map as a set, the value is irrelevant.
-          destinations.put(d, "");
-        }
-      }
-      return d;
+    return destinations.getOrCreateDestination(destination, destinationFactory, vertx);
+  }
+
+  @Override
+  public StompServerHandler affineDestinations(boolean affine) {
+    this.affinity = affine ? DestinationAffinity.get(vertx) : null;
+    return this;
+  }
+
+  /**
+   * Executes a task updating the given destination, such as dispatching a message. If the destinations are pinned to
+   * event loops, the task is executed by the event loop owning the destination, otherwise it is executed immediately.
+   *
+   * @param destination the destination
+   * @param task        the task
+   */
+  public void execute(Destination destination, Runnable task) {
+    DestinationAffinity affinity = this.affinity;
+    if (affinity == null) {
+      task.run();
+    } else {
+      affinity.execute(destination, task);
     }
   }
 
@@ -513,7 +550,7 @@ public class DefaultStompHandler implements StompServerHandler {
    */
   @Override
   public synchronized StompServerHandler bridge(BridgeOptions options) {
-    destinations.put(Destination.bridge(vertx, options), "");
+    destinations.add(Destination.bridge(vertx, options));
     return this;
   }
 
@@ -0,0 +1,172 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.core.internal.VertxInternal;
+import io.vertx.core.internal.logging.Logger;
+import io.vertx.core.internal.logging.LoggerFactory;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.ext.stomp.Destination;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pins each destination to an owner running on a single event loop. The tasks executed for a destination (such as
+ * dispatching a message) are handed to its owner through a lock-free multi-producer queue, and executed in order by
+ * the owner event loop. So messages sent to a destination are dispatched in the order they have been received, by a
+ * single thread, while the destinations owned by different event loops are dispatched in parallel.
+ * <p/>
+ * Only the dispatching of the messages is handed to the owners. The subscriptions, unsubscriptions and
+ * acknowledgments are executed by the event loop of their connection, as their outcome is needed to answer the
+ * frame, so the destinations stay thread-safe and keep their locks. The affinity removes the contention between the
+ * senders of a destination, not between the senders and the subscribers.
+ * <p/>
+ * Owners are selected from the destination address, so all the messages of a destination are handled by the same
+ * owner, and no per-destination state needs to be kept. Tasks handed to an owner are executed in batches: the owner
+ * event loop is woken up once for all the tasks queued while it was not draining its queue.
+ * <p/>
+ * A single instance is shared by all the STOMP servers of the Vert.x instance, as they share the destinations, so a
+ * destination has a single owner whatever the server receiving its messages. The owners use event loop contexts
+ * created by the affinity, not the contexts of the servers, so they are not affected by the undeployment of a
+ * verticle. This class is thread safe.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class DestinationAffinity implements Shareable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DestinationAffinity.class);
+
+  /**
+   * The maximum number of tasks executed before giving the event loop back to the other tasks.
+   */
+  private static final int MAX_BATCH_SIZE = 1024;
+
+  private static final String AFFINITY_MAP = "stomp.destination-affinity";
+
+  private final VertxInternal vertx;
+  private final Owner[] owners;
+
+  /**
+   * Gets the affinity of the given Vert.x instance, using one owner per event loop of the instance.
+   *
+   * @param vertx the vert.x instance
+   * @return the affinity
+   */
+  public static DestinationAffinity get(Vertx vertx) {
+    LocalMap<String, DestinationAffinity> map = vertx.sharedData().getLocalMap(AFFINITY_MAP);
+    DestinationAffinity affinity = map.get(AFFINITY_MAP);
+    if (affinity == null) {
+      DestinationAffinity created = new DestinationAffinity(vertx);
+      affinity = map.putIfAbsent(AFFINITY_MAP, created);
+      if (affinity == null) {
+        affinity = created;
+      }
+    }
+    return affinity;
+  }
+
+  private DestinationAffinity(Vertx vertx) {
+    this.vertx = (VertxInternal) vertx;
+    this.owners = new Owner[Math.max(1, numberOfEventLoops(this.vertx))];
+  }
+
+  private static int numberOfEventLoops(VertxInternal vertx) {
+    int count = 0;
+    for (Iterator<?> iterator = vertx.nettyEventLoopGroup().iterator(); iterator.hasNext(); iterator.next()) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Executes the given task on the owner of the given destination. The task is executed immediately if the caller
+   * runs on the owner event loop and no other tasks are waiting.
+   *
+   * @param destination the destination
+   * @param task        the task
+   */
+  public void execute(Destination destination, Runnable task) {
+    owner(destination).execute(task);
+  }
+
+  private Owner owner(Destination destination) {
+    String address = destination.destination();
+    int hash = address != null ? address.hashCode() : System.identityHashCode(destination);
+    int index = Math.floorMod(hash, owners.length);
+    Owner owner = owners[index];
+    if (owner == null) {
+      synchronized (this) {
+        owner = owners[index];
+        if (owner == null) {
+          // Event loop contexts are assigned in turn, so the owners are spread over the event loops.
+          owner = new Owner(vertx.createEventLoopContext());
+          owners[index] = owner;
+        }
+      }
+    }
+    return owner;
+  }
+
+  private static final class Owner {
+    private final ContextInternal context;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private Owner(ContextInternal context) {
+      this.context = context;
+    }
+
+    void execute(Runnable task) {
+      if (context.inThread() && !scheduled.get() && tasks.isEmpty()) {
+        run(task);
+        return;
+      }
+      tasks.add(task);
+      if (scheduled.compareAndSet(false, true)) {
+        context.execute(this::drain);
+      }
+    }
+
+    private void drain() {
+      Runnable task;
+      int count = 0;
+      while (count < MAX_BATCH_SIZE && (task = tasks.poll()) != null) {
+        run(task);
+        count++;
+      }
+      scheduled.set(false);
+      // Tasks added after the last poll, or left because the batch is full.
+      if (!tasks.isEmpty() && scheduled.compareAndSet(false, true)) {
+        context.execute(this::drain);
+      }
+    }
+
+    private static void run(Runnable task) {
+      try {
+        task.run();
+      } catch (Exception e) {
+        LOGGER.error("Failure while dispatching on the destination owner", e);
+      }
+    }
+  }
+}
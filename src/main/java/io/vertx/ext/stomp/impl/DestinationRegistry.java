@@ -0,0 +1,224 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.ext.stomp.Destination;
+import io.vertx.ext.stomp.DestinationFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Indexes the destinations of a Vert.x instance. The destinations are still stored in the {@code stomp.destinations}
+ * local map (destinations remove themselves when they are not used anymore, see {@link #remove(Destination)}), but
+ * the lookup does not iterate over this map:
+ * <ul>
+ * <li>the destinations matching a single address (the topics and queues not overriding
+ * {@link Destination#matches(String)}) are indexed by address,</li>
+ * <li>the other destinations (such as {@link EventBusBridge}) are stored in a list, checked when no destination
+ * has been found in the index.</li>
+ * </ul>
+ * Lookups are lock-free. Creations are serialized per address (using lock striping), so creating destinations with
+ * different addresses does not contend.
+ * <p/>
+ * A single instance is shared by all the STOMP servers of the Vert.x instance. This class is thread safe.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class DestinationRegistry implements Shareable {
+
+  private static final String REGISTRY_MAP = "stomp.destinations.registry";
+  private static final int LOCKS = 64;
+
+  private final LocalMap<Destination, String> destinations;
+
+  private final ConcurrentHashMap<String, Destination> exact = new ConcurrentHashMap<>();
+  private final List<Destination> patterns = new CopyOnWriteArrayList<>();
+  private final Object[] locks = new Object[LOCKS];
+
+  /**
+   * Gets the registry of the given Vert.x instance.
+   *
+   * @param vertx the vert.x instance
+   * @return the registry
+   */
+  public static DestinationRegistry get(Vertx vertx) {
+    LocalMap<String, DestinationRegistry> map = vertx.sharedData().getLocalMap(REGISTRY_MAP);
+    DestinationRegistry registry = map.get(REGISTRY_MAP);
+    if (registry == null) {
+      DestinationRegistry created = new DestinationRegistry(vertx);
+      registry = map.putIfAbsent(REGISTRY_MAP, created);
+      if (registry == null) {
+        registry = created;
+      }
+    }
+    return registry;
+  }
+
+  private DestinationRegistry(Vertx vertx) {
+    this.destinations = vertx.sharedData().getLocalMap("stomp.destinations");
+    for (int i = 0; i < LOCKS; i++) {
+      locks[i] = new Object();
+    }
+  }
+
+  /**
+   * @return the list of destinations.
+   */
+  public List<Destination> getDestinations() {
+    return new ArrayList<>(destinations.keySet());
+  }
+
+  /**
+   * Gets the destination matching the given address.
+   *
+   * @param address the address
+   * @return the {@link Destination}, {@code null} if not found.
+   */
+  public Destination getDestination(String address) {
+    Destination destination = exact.get(address);
+    if (destination != null) {
+      if (destinations.containsKey(destination)) {
+        return destination;
+      }
+      // The destination has been removed from the map.
+      exact.remove(address, destination);
+    }
+    for (Destination pattern : patterns) {
+      if (!destinations.containsKey(pattern)) {
+        patterns.remove(pattern);
+      } else if (pattern.matches(address)) {
+        return pattern;
+      }
+    }
+    if (destinations.size() > exact.size() + patterns.size()) {
+      // Some destinations have been added to the map directly.
+      return index(address);
+    }
+    return null;
+  }
+
+  /**
+   * Gets the destination matching the given address, or creates it using the given factory.
+   *
+   * @param address the address
+   * @param factory the factory
+   * @param vertx   the vert.x instance
+   * @return the {@link Destination}, {@code null} if the factory has not created the destination
+   */
+  public Destination getOrCreateDestination(String address, DestinationFactory factory, Vertx vertx) {
+    Destination destination = getDestination(address);
+    if (destination != null) {
+      return destination;
+    }
+    synchronized (locks[(address.hashCode() & 0x7fffffff) % LOCKS]) {
+      destination = getDestination(address);
+      if (destination == null) {
+        destination = factory.create(vertx, address);
+        if (destination != null) {
+          add(destination);
+        }
+      }
+      return destination;
+    }
+  }
+
+  /**
+   * Adds a destination.
+   *
+   * @param destination the destination
+   */
+  public void add(Destination destination) {
+    // We use the local map as a set, the value is irrelevant.
+    destinations.put(destination, "");
+    register(destination);
+  }
+
+  /**
+   * Removes a destination, from the {@code stomp.destinations} map and from the index. Destinations removing
+   * themselves from the map directly are only removed from the index on the next lookup of their address, so the
+   * built-in destinations use this method.
+   *
+   * @param destination the destination
+   */
+  public void remove(Destination destination) {
+    destinations.remove(destination);
+    if (isExact(destination)) {
+      String address = destination.destination();
+      if (address != null) {
+        exact.remove(address, destination);
+      }
+    } else {
+      patterns.remove(destination);
+    }
+  }
+
+  private void register(Destination destination) {
+    if (isExact(destination)) {
+      exact.put(destination.destination(), destination);
+    } else if (!patterns.contains(destination)) {
+      patterns.add(destination);
+    }
+  }
+
+  /**
+   * Registers the destinations added to the map without using the registry, and returns the one matching the given
+   * address.
+   */
+  private synchronized Destination index(String address) {
+    Destination found = null;
+    for (Destination destination : destinations.keySet()) {
+      if (isExact(destination) ? exact.get(destination.destination()) != destination : !patterns.contains(destination)) {
+        register(destination);
+      }
+      if (found == null && destination.matches(address)) {
+        found = destination;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Checks whether the given destination only matches its own address, i.e. whether it uses the
+   * {@link Destination#matches(String)} implementation of {@link Topic} or {@link Queue}, comparing the address with
+   * the destination. So the subclasses (such as {@link PersistentQueue}) are indexed by address, unless they override
+   * this method (such as {@link WildcardTopic}).
+   *
+   * @param destination the destination
+   * @return {@code true} if the destination can be indexed by address
+   */
+  public static boolean isExact(Destination destination) {
+    return EXACT.get(destination.getClass());
+  }
+
+  private static final ClassValue<Boolean> EXACT = new ClassValue<Boolean>() {
+    @Override
+    protected Boolean computeValue(Class<?> type) {
+      try {
+        Class<?> declaring = type.getMethod("matches", String.class).getDeclaringClass();
+        return declaring == Topic.class || declaring == Queue.class;
+      } catch (NoSuchMethodException e) {
+        return false;
+      }
+    }
+  };
+}
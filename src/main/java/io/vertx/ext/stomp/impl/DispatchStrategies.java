@@ -0,0 +1,140 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import io.vertx.ext.stomp.DispatchStrategy;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The built-in {@link DispatchStrategy} implementations.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public final class DispatchStrategies {
+
+  private DispatchStrategies() {
+    // Avoid direct instantiation.
+  }
+
+  /**
+   * Selects the eligible candidates in turn.
+   */
+  public static class RoundRobin implements DispatchStrategy {
+
+    protected int last = -1;
+
+    @Override
+    public <C extends Candidate> C select(List<C> candidates, Predicate<? super C> eligible) {
+      for (int i = 0; i < candidates.size(); i++) {
+        C candidate = next(candidates);
+        if (eligible.test(candidate)) {
+          return candidate;
+        }
+      }
+      return null;
+    }
+
+    protected <C extends Candidate> C next(List<C> candidates) {
+      last = last + 1;
+      if (last >= candidates.size()) {
+        last = 0;
+      }
+      return candidates.get(last);
+    }
+  }
+
+  /**
+   * Selects the eligible candidate with the smallest number of outstanding messages.
+   */
+  public static class LeastOutstanding extends RoundRobin {
+
+    @Override
+    public <C extends Candidate> C select(List<C> candidates, Predicate<? super C> eligible) {
+      C selected = null;
+      int index = -1;
+      // Start after the last selected candidate, so ties are broken in turn.
+      for (int i = 0; i < candidates.size(); i++) {
+        C candidate = next(candidates);
+        if (eligible.test(candidate) && (selected == null || candidate.outstanding() < selected.outstanding())) {
+          selected = candidate;
+          index = last;
+        }
+      }
+      if (selected != null) {
+        last = index;
+      }
+      return selected;
+    }
+  }
+
+  /**
+   * Selects the eligible candidates in turn, skipping the candidates whose write queue is full, unless all of them
+   * are saturated.
+   */
+  public static class WriteQueueAware extends RoundRobin {
+
+    @Override
+    public <C extends Candidate> C select(List<C> candidates, Predicate<? super C> eligible) {
+      C saturated = null;
+      int index = -1;
+      for (int i = 0; i < candidates.size(); i++) {
+        C candidate = next(candidates);
+        if (eligible.test(candidate)) {
+          if (!candidate.writeQueueFull()) {
+            return candidate;
+          }
+          if (saturated == null) {
+            saturated = candidate;
+            index = last;
+          }
+        }
+      }
+      if (saturated != null) {
+        last = index;
+      }
+      return saturated;
+    }
+  }
+
+  /**
+   * Selects the eligible candidates in turn, each candidate receiving as many consecutive messages as its weight.
+   */
+  public static class Weighted extends RoundRobin {
+
+    private Candidate current;
+    private int served;
+
+    @Override
+    public <C extends Candidate> C select(List<C> candidates, Predicate<? super C> eligible) {
+      if (current != null && served < current.weight() && last < candidates.size()
+          && candidates.get(last) == current) {
+        @SuppressWarnings("unchecked")
+        C candidate = (C) current;
+        if (eligible.test(candidate)) {
+          served++;
+          return candidate;
+        }
+      }
+      C candidate = super.select(candidates, eligible);
+      current = candidate;
+      served = candidate == null ? 0 : 1;
+      return candidate;
+    }
+  }
+}
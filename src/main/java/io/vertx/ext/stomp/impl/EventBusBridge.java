@@ -105,12 +105,9 @@ public class EventBusBridge extends Topic {
    */
   @Override
   public synchronized boolean unsubscribe(StompServerConnection connection, Frame frame) {
-    Iterator<Subscription> iter = subscriptions.iterator();
-
-    while (iter.hasNext()) {
-      Subscription subscription = iter.next();
+    for (Subscription subscription : subscriptions) {
       if (subscription.connection.equals(connection) && subscription.id.equals(frame.getId())) {
-        iter.remove();
+        subscriptions.remove(subscription);
 
         if (subscriptions.stream().noneMatch(s -> s.destination.equals(subscription.destination))) {
           MessageConsumer<?> consumer = registry.remove(subscription.destination);
@@ -154,7 +151,7 @@ public class EventBusBridge extends Topic {
   }
 
   private Frame transform(Message<Object> msg, Subscription subscription) {
-    String messageId = UUID.randomUUID().toString();
+    String messageId = IdGenerators.of(subscription.connection).next();
 
     Frame frame = new Frame();
     frame.setCommand(Command.MESSAGE);
@@ -201,9 +198,10 @@ public class EventBusBridge extends Topic {
   }
 
   /**
-   * Dispatches the given frame.
+   * Dispatches the given frame. When the frame has not been sent by a client (the connection is {@code null}), the
+   * {@code reply-address} header is ignored, and the frames denied by the bridge are dropped.
    *
-   * @param connection the connection
+   * @param connection the connection, {@code null} if the frame has not been sent by a client
    * @param frame      the frame
    * @return the current instance of {@link Destination}
    */
@@ -213,7 +211,7 @@ public class EventBusBridge extends Topic {
     // Send a frame to the event bus, check if this inbound traffic is allowed.
     if (checkMatches(true, address, frame.getBody())) {
       final String replyAddress = frame.getHeader("reply-address");
-      if (replyAddress != null) {
+      if (replyAddress != null && connection != null) {
         send(address, frame, (AsyncResult<Message<Object>> res) -> {
           if (res.failed()) {
             Throwable cause = res.cause();
@@ -236,8 +234,10 @@ public class EventBusBridge extends Topic {
         send(address, frame, null);
       }
     } else {
-      connection.write(Frames.createErrorFrame("Access denied", Headers.create(Frame.DESTINATION,
-          address), "Access denied to " + address)).close();
+      if (connection != null) {
+        connection.write(Frames.createErrorFrame("Access denied", Headers.create(Frame.DESTINATION,
+            address), "Access denied to " + address)).close();
+      }
       return null;
     }
     return this;
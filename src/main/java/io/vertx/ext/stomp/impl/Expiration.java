@@ -0,0 +1,167 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import io.vertx.core.Vertx;
+import io.vertx.ext.stomp.Command;
+import io.vertx.ext.stomp.Destination;
+import io.vertx.ext.stomp.ExpirationOptions;
+import io.vertx.ext.stomp.Frame;
+import io.vertx.ext.stomp.utils.Headers;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Handles the expiration of the messages sent to a destination, according to its {@link ExpirationOptions}: computes
+ * the expiration time of the messages, schedules the checks on the {@link TimerWheel} of the Vert.x instance, and
+ * drops or forwards the expired messages.
+ * <p/>
+ * The destinations keeping messages (buffered, not acknowledged, retained) schedule a check at the expiration time of
+ * each kept message, and remove the expired messages when the check runs. This class is thread safe.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class Expiration {
+
+  /**
+   * The header containing the expiration time of a message, in ms since the epoch, 0 if the message never expires.
+   */
+  public static final String EXPIRES = "expires";
+
+  /**
+   * The header containing the destination of an expired message sent to the expiry destination.
+   */
+  public static final String ORIGINAL_DESTINATION = "original-destination";
+
+  private final Vertx vertx;
+  private final String destination;
+  private final ExpirationOptions options;
+  private final LongAdder expired = new LongAdder();
+  private volatile TimerWheel wheel;
+
+  Expiration(Vertx vertx, String destination, ExpirationOptions options) {
+    this.vertx = vertx;
+    this.destination = destination;
+    this.options = new ExpirationOptions(options);
+  }
+
+  /**
+   * Sets the {@code expires} header of the given message if it is not set and the destination has a default time to
+   * live.
+   *
+   * @param frame the message ({@code SEND} frame)
+   * @return the message, a copy if the header has been added
+   */
+  Frame stamp(Frame frame) {
+    if (options.getDefaultTimeToLive() == 0 || frame.getHeader(EXPIRES) != null) {
+      return frame;
+    }
+    return new Frame(frame.getCommand(),
+        Headers.create(frame.getHeaders()).add(EXPIRES, Long.toString(now() + options.getDefaultTimeToLive())),
+        frame.getBody());
+  }
+
+  /**
+   * @param frame the message
+   * @return the expiration time of the message (in ms since the epoch), 0 if it never expires (no or invalid
+   * {@code expires} header)
+   */
+  static long expires(Frame frame) {
+    String value = frame.getHeader(EXPIRES);
+    if (value == null) {
+      return 0;
+    }
+    try {
+      return Math.max(0, Long.parseLong(value.trim()));
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  /**
+   * @param expires the expiration time, 0 if none
+   * @param now     the current time, see {@link #now()}
+   * @return whether or not the expiration time has passed
+   */
+  static boolean isExpired(long expires, long now) {
+    return expires != 0 && expires <= now;
+  }
+
+  static long now() {
+    return System.currentTimeMillis();
+  }
+
+  /**
+   * Schedules the given check at the given expiration time.
+   *
+   * @param expires the expiration time, 0 if none (nothing is scheduled)
+   * @param check   the check, the same instance should be used for all the messages of the destination so the checks
+   *                are coalesced
+   */
+  void track(long expires, Runnable check) {
+    if (expires == 0) {
+      return;
+    }
+    TimerWheel current = wheel;
+    if (current == null) {
+      current = wheel = TimerWheel.get(vertx);
+    }
+    current.schedule(expires, check);
+  }
+
+  /**
+   * Counts expired messages that are dropped, such as the copies of a message kept by a topic for some subscriptions.
+   *
+   * @param count the number of messages
+   */
+  void dropped(int count) {
+    expired.add(count);
+  }
+
+  /**
+   * Handles an expired message: the message is sent to the expiry destination if set, and dropped otherwise. The
+   * message is sent from a new event loop task, so this method can be called when holding the lock of the destination.
+   *
+   * @param frame the message ({@code SEND} frame)
+   */
+  void expired(Frame frame) {
+    expired.increment();
+    String target = options.getExpiryDestination();
+    if (target == null || target.equals(destination)) {
+      return;
+    }
+    Headers headers = Headers.create(frame.getHeaders());
+    headers.remove(EXPIRES);
+    headers.put(Frame.DESTINATION, target);
+    headers.put(ORIGINAL_DESTINATION, destination);
+    Frame message = new Frame(Command.SEND, headers, frame.getBody());
+    vertx.runOnContext(v -> {
+      Destination expiry = DestinationRegistry.get(vertx).getDestination(target);
+      if (expiry != null) {
+        // Not sent by a client, so there is no connection to notify.
+        expiry.dispatch(null, message);
+      }
+    });
+  }
+
+  /**
+   * @return the number of messages that have expired.
+   */
+  long count() {
+    return expired.sum();
+  }
+}
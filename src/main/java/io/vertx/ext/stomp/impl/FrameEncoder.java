@@ -0,0 +1,223 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.stomp.Command;
+import io.vertx.ext.stomp.Frame;
+
+import java.util.Map;
+
+/**
+ * Encodes STOMP frames to their wire form. The encoded size is computed before writing anything, so the frame is
+ * written in a single buffer allocated with its final size. Header names and values are written byte per byte,
+ * without intermediary {@link String}s, and the escaping is only applied to the headers containing characters to
+ * escape.
+ * <p/>
+ * The produced bytes are the same as the ones produced by {@link Frame#toBuffer(boolean)}.
+ * This class is thread-safe.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public final class FrameEncoder {
+
+  private static final byte LF = '\n';
+  private static final byte COLON = ':';
+  private static final byte NUL = 0;
+  private static final byte BACKSLASH = '\\';
+
+  private FrameEncoder() {
+    // Avoid direct instantiation.
+  }
+
+  /**
+   * Encodes the given frame.
+   *
+   * @param frame        the frame
+   * @param trailingLine whether or not a trailing line is added after the frame
+   * @return the buffer containing the encoded frame
+   */
+  public static Buffer encode(Frame frame, boolean trailingLine) {
+    if (frame.getCommand() == Command.PING) {
+      // The heartbeat frame defines its own wire form.
+      return frame.toBuffer(trailingLine);
+    }
+    return encodeFrame(frame, trailingLine);
+  }
+
+  /**
+   * Encodes the given frame, without considering the wire form defined by the frame itself. Used by
+   * {@link Frame#toBuffer()}.
+   *
+   * @param frame        the frame
+   * @param trailingLine whether or not a trailing line is added after the frame
+   * @return the buffer containing the encoded frame
+   */
+  public static Buffer encodeFrame(Frame frame, boolean trailingLine) {
+    Command command = frame.getCommand();
+    // By spec, frame headers need to be encoded. CONNECT and CONNECTED frames do not encode \r \n \c but still
+    // require the encoding of \\.
+    boolean connectOrConnected = command == Command.CONNECT || command == Command.CONNECTED;
+    Map<String, String> headers = frame.getHeaders();
+    String name = command.name();
+
+    int size = name.length() + 1;
+    for (Map.Entry<String, String> entry : headers.entrySet()) {
+      size += headerLength(entry.getKey(), entry.getValue(), connectOrConnected);
+    }
+    size++;
+
+    byte[] head = new byte[size];
+    int position = 0;
+    for (int i = 0; i < name.length(); i++) {
+      head[position++] = (byte) name.charAt(i);
+    }
+    head[position++] = LF;
+    for (Map.Entry<String, String> entry : headers.entrySet()) {
+      position = writeHeader(entry.getKey(), entry.getValue(), connectOrConnected, head, position);
+    }
+    head[position] = LF;
+
+    Buffer body = frame.getBody();
+    int bodyLength = body == null ? 0 : body.length();
+    Buffer buffer = Buffer.buffer(size + bodyLength + (trailingLine ? 2 : 1));
+    buffer.appendBytes(head);
+    if (bodyLength > 0) {
+      buffer.appendBuffer(body);
+    }
+    buffer.appendByte(NUL);
+    if (trailingLine) {
+      buffer.appendByte(LF);
+    }
+    return buffer;
+  }
+
+  /**
+   * Computes the number of bytes of the encoded header line ({@code name:value\n}).
+   *
+   * @param name               the header name
+   * @param value              the header value
+   * @param connectOrConnected whether or not the header belongs to a {@code CONNECT} or {@code CONNECTED} frame
+   * @return the number of bytes
+   */
+  static int headerLength(String name, String value, boolean connectOrConnected) {
+    return encodedLength(name, connectOrConnected) + encodedLength(value, connectOrConnected) + 2;
+  }
+
+  /**
+   * Writes the encoded header line ({@code name:value\n}) in the given array, which must be large enough (see
+   * {@link #headerLength(String, String, boolean)}).
+   *
+   * @param name               the header name
+   * @param value              the header value
+   * @param connectOrConnected whether or not the header belongs to a {@code CONNECT} or {@code CONNECTED} frame
+   * @param dst                the array
+   * @param position           the position of the first byte to write
+   * @return the position following the written line
+   */
+  static int writeHeader(String name, String value, boolean connectOrConnected, byte[] dst, int position) {
+    position = write(name, connectOrConnected, dst, position);
+    dst[position++] = COLON;
+    position = write(value, connectOrConnected, dst, position);
+    dst[position++] = LF;
+    return position;
+  }
+
+  /**
+   * Computes the number of bytes of the encoded form of the given header name or value (UTF-8, with escaping).
+   */
+  private static int encodedLength(String value, boolean connectOrConnected) {
+    int length = value.length();
+    int size = length;
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        if (mustBeEscaped(c, connectOrConnected)) {
+          size++;
+        }
+      } else if (c < 0x800) {
+        size++;
+      } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+        // 4 bytes for the 2 chars of the pair.
+        size += 2;
+        i++;
+      } else if (!Character.isSurrogate(c)) {
+        size += 2;
+      }
+      // Unpaired surrogates are replaced by '?', as String.getBytes does.
+    }
+    return size;
+  }
+
+  private static boolean mustBeEscaped(char c, boolean connectOrConnected) {
+    return c == BACKSLASH || !connectOrConnected && (c == '\n' || c == '\r' || c == ':');
+  }
+
+  private static int write(String value, boolean connectOrConnected, byte[] dst, int position) {
+    int length = value.length();
+    int i = 0;
+    // Fast path: plain ASCII characters not requiring escaping.
+    while (i < length) {
+      char c = value.charAt(i);
+      if (c >= 0x80 || mustBeEscaped(c, connectOrConnected)) {
+        break;
+      }
+      dst[position++] = (byte) c;
+      i++;
+    }
+    for (; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        if (mustBeEscaped(c, connectOrConnected)) {
+          dst[position++] = BACKSLASH;
+          dst[position++] = (byte) escape(c);
+        } else {
+          dst[position++] = (byte) c;
+        }
+      } else if (c < 0x800) {
+        dst[position++] = (byte) (0xC0 | (c >> 6));
+        dst[position++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, value.charAt(++i));
+        dst[position++] = (byte) (0xF0 | (codePoint >> 18));
+        dst[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+        dst[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+        dst[position++] = (byte) (0x80 | (codePoint & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        dst[position++] = '?';
+      } else {
+        dst[position++] = (byte) (0xE0 | (c >> 12));
+        dst[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        dst[position++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+    return position;
+  }
+
+  private static char escape(char c) {
+    switch (c) {
+      case '\n':
+        return 'n';
+      case '\r':
+        return 'r';
+      case ':':
+        return 'c';
+      default:
+        return '\\';
+    }
+  }
+}
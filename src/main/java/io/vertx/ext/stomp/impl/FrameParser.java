@@ -68,6 +68,23 @@ public class FrameParser implements Handler<Buffer> {
     this(new StompServerOptions());
   }
 
+  /**
+   * Creates a frame parser, either the byte-level {@link ByteFrameParser} or the line based {@link FrameParser}.
+   *
+   * @param options      the options defining the size limits
+   * @param byteLevel    whether or not the {@link ByteFrameParser} is used
+   * @param handler      the handler receiving the parsed frames
+   * @param errorHandler the handler receiving the parsing errors, if {@code null} errors are thrown
+   * @return the parser, to be registered as the handler of the received buffers
+   */
+  public static Handler<Buffer> create(StompServerOptions options, boolean byteLevel, Handler<Frame> handler,
+                                       Handler<FrameException> errorHandler) {
+    if (byteLevel) {
+      return new ByteFrameParser(options).errorHandler(errorHandler).handler(handler);
+    }
+    return new FrameParser(options).errorHandler(errorHandler).handler(handler);
+  }
+
   public synchronized FrameParser handler(Handler<Frame> handler) {
     Objects.requireNonNull(handler);
     this.handler = handler;
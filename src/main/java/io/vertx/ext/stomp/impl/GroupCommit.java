@@ -0,0 +1,121 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Groups the syncs of a storage: the handlers waiting for the data written so far to be synced are called once a
+ * single sync completes. A sync is started when:
+ * <ul>
+ * <li>the number of waiting handlers reaches the max batch size,</li>
+ * <li>the first waiting handler has waited for the max linger time.</li>
+ * </ul>
+ * Only one sync runs at a time. The handlers registered while a sync is running wait for the next one, started as
+ * soon as the running sync completes, so a slow storage device leads to bigger batches instead of more syncs.
+ * <p/>
+ * The sync task is executed as a blocking task. This class is thread safe.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class GroupCommit {
+
+  private final Vertx vertx;
+  private final Supplier<Runnable> sync;
+
+  private List<Handler<AsyncResult<Void>>> waiting = new ArrayList<>();
+  private long timer = -1;
+  private boolean syncing;
+  private long syncs;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param vertx the vert.x instance
+   * @param sync  prepares the sync of the data written so far, the returned task is executed as a blocking task
+   */
+  public GroupCommit(Vertx vertx, Supplier<Runnable> sync) {
+    this.vertx = vertx;
+    this.sync = sync;
+  }
+
+  /**
+   * Registers a handler called once the data written so far has been synced.
+   *
+   * @param maxBatchSize the max number of waiting handlers
+   * @param maxLinger    the max time (in ms) the handler waits for other handlers, 0 to sync immediately
+   * @param handler      the handler, called with a failed result if the sync fails
+   */
+  public synchronized void add(int maxBatchSize, long maxLinger, Handler<AsyncResult<Void>> handler) {
+    waiting.add(handler);
+    if (syncing) {
+      // Started when the running sync completes.
+      return;
+    }
+    if (waiting.size() >= maxBatchSize || maxLinger <= 0) {
+      sync();
+    } else if (timer == -1) {
+      timer = vertx.setTimer(maxLinger, id -> {
+        synchronized (GroupCommit.this) {
+          timer = -1;
+          if (!syncing) {
+            sync();
+          }
+        }
+      });
+    }
+  }
+
+  /**
+   * @return the number of syncs executed so far.
+   */
+  public synchronized long numberOfSyncs() {
+    return syncs;
+  }
+
+  private void sync() {
+    if (timer != -1) {
+      vertx.cancelTimer(timer);
+      timer = -1;
+    }
+    if (waiting.isEmpty()) {
+      return;
+    }
+    List<Handler<AsyncResult<Void>>> batch = waiting;
+    waiting = new ArrayList<>();
+    Runnable task = sync.get();
+    syncing = true;
+    syncs++;
+    vertx.<Void>executeBlocking(() -> {
+      task.run();
+      return null;
+    }, false).onComplete(ar -> {
+      synchronized (GroupCommit.this) {
+        syncing = false;
+        // The handlers registered during the sync have waited long enough.
+        sync();
+      }
+      batch.forEach(handler -> handler.handle(ar));
+    });
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import io.vertx.ext.stomp.IdGenerator;
+import io.vertx.ext.stomp.StompServer;
+import io.vertx.ext.stomp.StompServerConnection;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The built-in {@link IdGenerator} implementations.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public final class IdGenerators {
+
+  /**
+   * Generates random UUIDs.
+   */
+  public static final IdGenerator RANDOM = () -> UUID.randomUUID().toString();
+
+  /**
+   * The generator used when the options are not available.
+   */
+  private static final IdGenerator DEFAULT = new Striped();
+
+  private IdGenerators() {
+    // Avoid direct instantiation.
+  }
+
+  /**
+   * Gets the generator configured for the server of the given connection.
+   *
+   * @param connection the connection, {@code null} for the messages sent by the server itself
+   * @return the generator, a default generator if the connection does not provide the server options
+   */
+  public static IdGenerator of(StompServerConnection connection) {
+    if (connection == null) {
+      return DEFAULT;
+    }
+    StompServer server = connection.server();
+    if (server == null || server.options() == null) {
+      return DEFAULT;
+    }
+    return server.options().getIdGenerator();
+  }
+
+  /**
+   * Random prefix followed by a striped counter.
+   */
+  public static class Striped implements IdGenerator {
+
+    private static final int STRIPES = 16;
+    /**
+     * Each counter uses its own cache line (8 longs) to avoid false sharing.
+     */
+    private static final int PADDING = 8;
+
+    private final String prefix;
+    private final AtomicLongArray counters = new AtomicLongArray(STRIPES * PADDING);
+
+    public Striped() {
+      // The random part of the UUID, computed once.
+      UUID uuid = UUID.randomUUID();
+      this.prefix = Long.toHexString(uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits()) + "-";
+    }
+
+    @Override
+    public String next() {
+      int stripe = (int) (Thread.currentThread().getId() & (STRIPES - 1));
+      long value = counters.getAndIncrement(stripe * PADDING);
+      return prefix + Integer.toHexString(stripe) + "-" + Long.toHexString(value);
+    }
+  }
+}
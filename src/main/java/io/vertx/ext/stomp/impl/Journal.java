@@ -0,0 +1,491 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.stomp.Command;
+import io.vertx.ext.stomp.Frame;
+import io.vertx.ext.stomp.utils.Headers;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of frames, stored in memory-mapped segment files.
+ * <p/>
+ * Each appended frame gets a sequence number. Segments are named after the sequence number of their first record, and
+ * a new segment is created when the current one is full. Each record is written as:
+ * <pre>
+ * length (int) | crc32 of the payload (int) | status (byte) | payload
+ * </pre>
+ * The payload contains the headers and the body of the frame. The length is written last, so a record is only visible
+ * once completely written. Acknowledging a record flips its status byte in place, so acknowledgements do not append
+ * anything. Segments whose records are all acknowledged are deleted. The mapping of a deleted or closed segment is
+ * released immediately (using {@code sun.misc.Unsafe#invokeCleaner} when available) instead of when the buffer is
+ * garbage collected, so the disk space of the deleted files and the address space are reclaimed.
+ * <p/>
+ * The position of each record is kept in an in-memory index, so reading or acknowledging a record does not scan the
+ * segments. On startup, the segments are mapped and their records are validated (using the crc), stopping at the
+ * first invalid record of each segment.
+ * <p/>
+ * This class is not thread-safe.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class Journal implements Closeable {
+
+  /**
+   * The default size of the segment files: 64 Mb.
+   */
+  public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  private static final String SUFFIX = ".journal";
+  private static final int RECORD_HEADER = 9;
+  private static final int STATUS_OFFSET = 8;
+  private static final byte PENDING = 0;
+  private static final byte ACKED = 1;
+
+  /**
+   * {@code sun.misc.Unsafe#invokeCleaner}, {@code null} if not available.
+   */
+  private static final Method INVOKE_CLEANER;
+  private static final Object UNSAFE;
+
+  static {
+    Method method = null;
+    Object unsafe = null;
+    try {
+      Class<?> type = Class.forName("sun.misc.Unsafe");
+      Field field = type.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      unsafe = field.get(null);
+      method = type.getMethod("invokeCleaner", ByteBuffer.class);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // The mappings are released when the buffers are garbage collected.
+      method = null;
+    }
+    INVOKE_CLEANER = method;
+    UNSAFE = unsafe;
+  }
+
+  private final File directory;
+  private final int segmentSize;
+  private final List<Segment> segments = new ArrayList<>();
+  /**
+   * The completed segments not synced yet.
+   */
+  private final List<Segment> unsynced = new ArrayList<>();
+  private Segment active;
+  private long next;
+  private long pending;
+
+  /**
+   * Opens the journal stored in the given directory, creating it if needed.
+   *
+   * @param directory   the directory
+   * @param segmentSize the size of the segment files
+   * @throws IOException if the journal cannot be opened
+   */
+  public Journal(File directory, int segmentSize) throws IOException {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Cannot create the journal directory " + directory.getAbsolutePath());
+    }
+    recover();
+  }
+
+  private void recover() throws IOException {
+    File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+    if (files != null) {
+      Arrays.sort(files);
+      for (File file : files) {
+        String name = file.getName();
+        long base = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        Segment segment = new Segment(file, base, (int) file.length());
+        segment.scan();
+        segments.add(segment);
+      }
+    }
+    for (Segment segment : new ArrayList<>(segments)) {
+      pending += segment.count - segment.acked;
+      next = segment.base + segment.count;
+      active = segment;
+    }
+    for (Segment segment : new ArrayList<>(segments)) {
+      deleteIfCompleted(segment);
+    }
+  }
+
+  /**
+   * Appends a frame.
+   *
+   * @param frame the frame
+   * @return the sequence number of the record
+   * @throws IOException if a new segment cannot be created
+   */
+  public long append(Frame frame) throws IOException {
+    byte[][] headers = new byte[frame.getHeaders().size() * 2][];
+    int length = 4;
+    int i = 0;
+    for (Map.Entry<String, String> entry : frame.getHeaders().entrySet()) {
+      headers[i] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+      headers[i + 1] = entry.getValue().getBytes(StandardCharsets.UTF_8);
+      length += 8 + headers[i].length + headers[i + 1].length;
+      i += 2;
+    }
+    Buffer body = frame.getBody();
+    int bodyLength = body == null ? 0 : body.length();
+    length += 4 + bodyLength;
+
+    if (active == null || active.position + RECORD_HEADER + length > active.buffer.capacity()) {
+      roll(RECORD_HEADER + length);
+    }
+
+    int position = active.position;
+    ByteBuffer buffer = active.buffer.duplicate();
+    buffer.position(position + RECORD_HEADER);
+    buffer.putInt(headers.length / 2);
+    for (byte[] bytes : headers) {
+      buffer.putInt(bytes.length);
+      buffer.put(bytes);
+    }
+    buffer.putInt(bodyLength);
+    if (body != null) {
+      buffer.put(body.getBytes());
+    }
+    active.buffer.putInt(position + 4, crc(active.buffer, position + RECORD_HEADER, length));
+    active.buffer.put(position + STATUS_OFFSET, PENDING);
+    // The length is written last, it marks the record as complete.
+    active.buffer.putInt(position, length);
+
+    active.index(position);
+    active.position = position + RECORD_HEADER + length;
+    pending++;
+    return next++;
+  }
+
+  /**
+   * Reads a record.
+   *
+   * @param sequence the sequence number
+   * @return the frame ({@code SEND} frame), {@code null} if the record does not exist anymore
+   */
+  public Frame read(long sequence) {
+    Segment segment = find(sequence);
+    if (segment == null) {
+      return null;
+    }
+    return segment.read(segment.positions[(int) (sequence - segment.base)]);
+  }
+
+  /**
+   * Acknowledges a record. Once all the records of a segment have been acknowledged, the segment is deleted (unless
+   * it is the segment receiving the new records).
+   *
+   * @param sequence the sequence number
+   * @return {@code true} if the record has been acknowledged, {@code false} if it does not exist or was already
+   * acknowledged
+   */
+  public boolean ack(long sequence) {
+    Segment segment = find(sequence);
+    if (segment == null) {
+      return false;
+    }
+    int position = segment.positions[(int) (sequence - segment.base)];
+    if (segment.buffer.get(position + STATUS_OFFSET) == ACKED) {
+      return false;
+    }
+    segment.buffer.put(position + STATUS_OFFSET, ACKED);
+    segment.acked++;
+    pending--;
+    deleteIfCompleted(segment);
+    return true;
+  }
+
+  /**
+   * Calls the given consumer for each record not acknowledged yet, in sequence order.
+   *
+   * @param consumer the consumer receiving the sequence number and the frame
+   */
+  public void forEachPending(BiConsumer<Long, Frame> consumer) {
+    for (Segment segment : segments) {
+      for (int i = 0; i < segment.count; i++) {
+        int position = segment.positions[i];
+        if (segment.buffer.get(position + STATUS_OFFSET) == PENDING) {
+          consumer.accept(segment.base + i, segment.read(position));
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the number of records not acknowledged yet.
+   */
+  public long size() {
+    return pending;
+  }
+
+  /**
+   * @return the number of segment files.
+   */
+  public int numberOfSegments() {
+    return segments.size();
+  }
+
+  /**
+   * Forces the content of the active segment to be written to the storage device.
+   */
+  public void sync() {
+    prepareSync().run();
+  }
+
+  /**
+   * Prepares the sync of the records appended so far. The returned task forces the segments written since the
+   * previous sync to be written to the storage device. As it blocks, the task is meant to be run outside of the thread
+   * appending the records, and can run concurrently with the appends.
+   *
+   * @return the task
+   */
+  public Runnable prepareSync() {
+    List<Segment> synced = new ArrayList<>(unsynced);
+    unsynced.clear();
+    if (active != null) {
+      synced.add(active);
+    }
+    // The segments deleted in the meantime are skipped.
+    return () -> synced.forEach(Segment::force);
+  }
+
+  /**
+   * Syncs and closes the segment files.
+   *
+   * @throws IOException if a segment cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    sync();
+    for (Segment segment : segments) {
+      segment.release();
+    }
+    segments.clear();
+    active = null;
+  }
+
+  /**
+   * Closes and deletes the segment files, without syncing them as their records are not needed anymore.
+   */
+  public void discard() {
+    unsynced.clear();
+    for (Segment segment : segments) {
+      delete(segment);
+    }
+    segments.clear();
+    active = null;
+    pending = 0;
+  }
+
+  private void roll(int recordSize) throws IOException {
+    Segment previous = active;
+    if (previous != null && previous.count == 0) {
+      // Empty segment (too small for the record), the file is reused by the new segment.
+      segments.remove(previous);
+      previous.release();
+      previous = null;
+    }
+    File file = new File(directory, String.format("%020d", next) + SUFFIX);
+    active = new Segment(file, next, Math.max(segmentSize, recordSize));
+    segments.add(active);
+    if (previous != null) {
+      unsynced.add(previous);
+      deleteIfCompleted(previous);
+    }
+  }
+
+  private Segment find(long sequence) {
+    // Segments are sorted by base sequence number.
+    int low = 0;
+    int high = segments.size() - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      Segment segment = segments.get(middle);
+      if (sequence < segment.base) {
+        high = middle - 1;
+      } else if (sequence >= segment.base + segment.count) {
+        low = middle + 1;
+      } else {
+        return segment;
+      }
+    }
+    return null;
+  }
+
+  private void deleteIfCompleted(Segment segment) {
+    if (segment != active && segment.acked == segment.count) {
+      segments.remove(segment);
+      // Its records are not needed anymore.
+      unsynced.remove(segment);
+      delete(segment);
+    }
+  }
+
+  private static void delete(Segment segment) {
+    try {
+      segment.release();
+    } catch (IOException e) {
+      // Ignored, the file is deleted anyway.
+    }
+    segment.file.delete();
+  }
+
+  /**
+   * Releases the mapping of the given buffer. The buffer must not be used afterwards.
+   */
+  private static void unmap(MappedByteBuffer buffer) {
+    if (INVOKE_CLEANER == null) {
+      return;
+    }
+    try {
+      INVOKE_CLEANER.invoke(UNSAFE, buffer);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // Released when the buffer is garbage collected.
+    }
+  }
+
+  private static int crc(MappedByteBuffer buffer, int position, int length) {
+    CRC32 crc = new CRC32();
+    ByteBuffer slice = buffer.duplicate();
+    slice.position(position);
+    slice.limit(position + length);
+    crc.update(slice);
+    return (int) crc.getValue();
+  }
+
+  /**
+   * A segment file.
+   */
+  private static final class Segment {
+    private final File file;
+    private final long base;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int[] positions = new int[1024];
+    private int count;
+    private int acked;
+    private int position;
+    /**
+     * Whether or not the mapping has been released. Guarded by the segment, as the segment may be synced by another
+     * thread.
+     */
+    private boolean released;
+
+    private Segment(File file, long base, int size) throws IOException {
+      this.file = file;
+      this.base = base;
+      this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+          StandardOpenOption.WRITE);
+      this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    /**
+     * Forces the changes to be written to the storage device, unless the segment has been released.
+     */
+    private synchronized void force() {
+      if (!released) {
+        buffer.force();
+      }
+    }
+
+    /**
+     * Closes the file and releases the mapping, waiting for a running sync of the segment.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    private synchronized void release() throws IOException {
+      if (released) {
+        return;
+      }
+      released = true;
+      unmap(buffer);
+      channel.close();
+    }
+
+    private void index(int position) {
+      if (count == positions.length) {
+        positions = Arrays.copyOf(positions, count * 2);
+      }
+      positions[count++] = position;
+    }
+
+    /**
+     * Indexes the valid records of the segment.
+     */
+    private void scan() {
+      int capacity = buffer.capacity();
+      while (position + RECORD_HEADER <= capacity) {
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + RECORD_HEADER + length > capacity
+            || buffer.getInt(position + 4) != crc(buffer, position + RECORD_HEADER, length)) {
+          break;
+        }
+        index(position);
+        if (buffer.get(position + STATUS_OFFSET) == ACKED) {
+          acked++;
+        }
+        position += RECORD_HEADER + length;
+      }
+      if (position + RECORD_HEADER <= capacity) {
+        // Discard an incomplete record, if any.
+        buffer.putInt(position, 0);
+      }
+    }
+
+    private Frame read(int position) {
+      ByteBuffer record = buffer.duplicate();
+      record.position(position + RECORD_HEADER);
+      int count = record.getInt();
+      Headers headers = Headers.create();
+      for (int i = 0; i < count; i++) {
+        String key = readString(record);
+        headers.put(key, readString(record));
+      }
+      byte[] body = new byte[record.getInt()];
+      record.get(body);
+      return new Frame(Command.SEND, headers, Buffer.buffer(body));
+    }
+
+    private static String readString(ByteBuffer record) {
+      byte[] bytes = new byte[record.getInt()];
+      record.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,215 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import io.vertx.ext.stomp.Frame;
+
+import java.util.Arrays;
+
+/**
+ * The messages delivered to a subscription and not acknowledged yet, indexed by delivery sequence. Each delivery gets
+ * the next sequence number, and the messages are stored in parallel arrays, in delivery order. So adding a message is
+ * O(1), and a message is found from its sequence directly while no message delivered before it has been removed, and
+ * by a binary search otherwise, without hashing or allocating an entry per message.
+ * <p/>
+ * Messages acknowledged out of order leave a hole in the arrays. The holes before the oldest message are skipped, and
+ * the others are compacted once they outnumber the messages, so the memory used and the cost of iterating the
+ * sequences in delivery order (using {@link #first()} and {@link #next(long)}) are proportional to the number of
+ * messages, even if the oldest message is never acknowledged.
+ * <p/>
+ * This class is not thread-safe.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+class PendingMessages {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private long[] sequences = new long[INITIAL_CAPACITY];
+  private String[] ids = new String[INITIAL_CAPACITY];
+  private Frame[] frames = new Frame[INITIAL_CAPACITY];
+  private long[] deadlines = new long[INITIAL_CAPACITY];
+  private long[] expires = new long[INITIAL_CAPACITY];
+
+  /**
+   * The index of the oldest message, never a hole unless empty.
+   */
+  private int head;
+  /**
+   * The index following the newest message. The holes are between the head and the tail.
+   */
+  private int tail;
+  private int size;
+  private long sequence;
+
+  /**
+   * Adds a message.
+   *
+   * @param id       the message id
+   * @param frame    the message
+   * @param deadline the ack deadline
+   * @param expires  the expiration time of the message, 0 if none
+   * @return the sequence of the message
+   */
+  long add(String id, Frame frame, long deadline, long expires) {
+    if (tail == frames.length) {
+      // Grows if the messages use at least half of the arrays, and only drops the holes otherwise.
+      compact(size >= frames.length / 2 ? frames.length * 2 : frames.length);
+    }
+    sequences[tail] = sequence;
+    ids[tail] = id;
+    frames[tail] = frame;
+    deadlines[tail] = deadline;
+    this.expires[tail] = expires;
+    tail++;
+    size++;
+    return sequence++;
+  }
+
+  /**
+   * @return whether or not the given sequence is a message not acknowledged yet.
+   */
+  boolean contains(long sequence) {
+    int index = index(sequence);
+    return index >= 0 && frames[index] != null;
+  }
+
+  String id(long sequence) {
+    return ids[index(sequence)];
+  }
+
+  Frame frame(long sequence) {
+    return frames[index(sequence)];
+  }
+
+  long deadline(long sequence) {
+    return deadlines[index(sequence)];
+  }
+
+  long expires(long sequence) {
+    return expires[index(sequence)];
+  }
+
+  /**
+   * Removes a message. The sequence must be contained.
+   *
+   * @param sequence the sequence
+   */
+  void remove(long sequence) {
+    int index = index(sequence);
+    ids[index] = null;
+    frames[index] = null;
+    size--;
+    // Skips the holes at the head.
+    while (head < tail && frames[head] == null) {
+      head++;
+    }
+    if (size == 0) {
+      head = tail = 0;
+    } else if (tail - head - size > size + INITIAL_CAPACITY) {
+      compact(frames.length);
+    }
+  }
+
+  /**
+   * @return the sequence of the oldest message, -1 if none.
+   */
+  long first() {
+    return size == 0 ? -1 : sequences[head];
+  }
+
+  /**
+   * Gets the sequence of the message delivered after the given one. The given message may have been removed.
+   *
+   * @param sequence the sequence
+   * @return the sequence of the next message, -1 if none
+   */
+  long next(long sequence) {
+    if (size == 0) {
+      return -1;
+    }
+    int index = Arrays.binarySearch(sequences, head, tail, sequence);
+    // The holes keep their sequence, so the search only fails for sequences before the head or after the tail.
+    index = index >= 0 ? index + 1 : -index - 1;
+    while (index < tail && frames[index] == null) {
+      index++;
+    }
+    return index < tail ? sequences[index] : -1;
+  }
+
+  /**
+   * @return the number of messages.
+   */
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @return the index of the given sequence, negative if it is not between the head and the tail.
+   */
+  private int index(long sequence) {
+    if (head == tail || sequence < sequences[head]) {
+      return -1;
+    }
+    long offset = sequence - sequences[head];
+    if (offset < tail - head && sequences[head + (int) offset] == sequence) {
+      // No hole before the message has been compacted.
+      return head + (int) offset;
+    }
+    return Arrays.binarySearch(sequences, head, tail, sequence);
+  }
+
+  /**
+   * Moves the messages to the start of the arrays, dropping the holes.
+   *
+   * @param capacity the new capacity of the arrays
+   */
+  private void compact(int capacity) {
+    long[] newSequences = capacity == frames.length ? sequences : new long[capacity];
+    String[] newIds = capacity == frames.length ? ids : new String[capacity];
+    Frame[] newFrames = capacity == frames.length ? frames : new Frame[capacity];
+    long[] newDeadlines = capacity == frames.length ? deadlines : new long[capacity];
+    long[] newExpires = capacity == frames.length ? expires : new long[capacity];
+    // Copying in place is safe, as a message never moves after its index.
+    int count = 0;
+    for (int i = head; i < tail; i++) {
+      if (frames[i] != null) {
+        newSequences[count] = sequences[i];
+        newIds[count] = ids[i];
+        newFrames[count] = frames[i];
+        newDeadlines[count] = deadlines[i];
+        newExpires[count] = expires[i];
+        count++;
+      }
+    }
+    if (newFrames == frames) {
+      Arrays.fill(ids, count, tail, null);
+      Arrays.fill(frames, count, tail, null);
+    }
+    sequences = newSequences;
+    ids = newIds;
+    frames = newFrames;
+    deadlines = newDeadlines;
+    expires = newExpires;
+    head = 0;
+    tail = count;
+  }
+}
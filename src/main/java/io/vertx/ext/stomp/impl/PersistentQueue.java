@@ -0,0 +1,174 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.internal.logging.Logger;
+import io.vertx.core.internal.logging.LoggerFactory;
+import io.vertx.ext.stomp.DispatchStrategy;
+import io.vertx.ext.stomp.Frame;
+import io.vertx.ext.stomp.Frames;
+import io.vertx.ext.stomp.QueueOptions;
+import io.vertx.ext.stomp.StompServerConnection;
+import io.vertx.ext.stomp.StompServerOptions;
+import io.vertx.ext.stomp.utils.Headers;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * A {@link Queue} storing its messages in a {@link Journal}, so they survive restarts. Messages are appended to the
+ * journal when received, and acknowledged in the journal when consumed (acknowledged by the client, or delivered to
+ * a subscription using the {@code auto} ack mode). Messages received while the queue has no subscriptions are kept
+ * until a subscription is made.
+ * <p/>
+ * When created, the queue recovers the messages not acknowledged from the journal. The journal of a destination is
+ * stored in a sub-directory of the journal directory (see
+ * {@link QueueOptions#setJournalDirectory(String)}), so several persistent queues can share the same directory. A
+ * single instance must be used per destination and directory. As persistent queues stay registered when they have no
+ * subscriptions, the destination factory is only called once per destination.
+ * <p/>
+ * Journal files are written by the thread dispatching the messages (generally an event loop). As the segments are
+ * memory-mapped, this does not block, except when a new segment is created. The {@code RECEIPT} frames of the
+ * {@code SEND} frames are only sent once the journal has been synced to the storage device. Syncs are executed as
+ * blocking tasks, and grouped (see {@link GroupCommit}), so one sync acknowledges many messages. A message that
+ * cannot be written to the journal is rejected with an {@code ERROR} frame, and not delivered.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class PersistentQueue extends Queue {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PersistentQueue.class);
+
+  private static final char ID_SEPARATOR = ':';
+
+  private final Journal journal;
+  private final GroupCommit commit;
+
+  /**
+   * Creates a persistent queue using the round-robin strategy.
+   *
+   * @param vertx       the vert.x instance
+   * @param destination the destination
+   * @param options     the options, the journal directory must be set
+   */
+  public PersistentQueue(Vertx vertx, String destination, QueueOptions options) {
+    this(vertx, destination, options, DispatchStrategy.roundRobin());
+  }
+
+  /**
+   * Creates a persistent queue. As the default time to live is stored in the {@code expires} header of the messages,
+   * the messages recovered from the journal expire at their initial expiration time.
+   *
+   * @param vertx       the vert.x instance
+   * @param destination the destination
+   * @param options     the options, the journal directory must be set
+   * @param strategy    the dispatch strategy
+   */
+  public PersistentQueue(Vertx vertx, String destination, QueueOptions options, DispatchStrategy strategy) {
+    super(vertx, destination, options, strategy);
+    File directory = new File(Objects.requireNonNull(options.getJournalDirectory(),
+        "The journal directory must be set"));
+    try {
+      this.journal = new Journal(new File(directory, URLEncoder.encode(destination, StandardCharsets.UTF_8)),
+          Journal.DEFAULT_SEGMENT_SIZE);
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot open the journal of " + destination, e);
+    }
+    journal.forEachPending((sequence, frame) -> enqueue(frame, destination + ID_SEPARATOR + sequence));
+    commit = new GroupCommit(vertx, this::prepareSync);
+  }
+
+  private synchronized Runnable prepareSync() {
+    return journal.prepareSync();
+  }
+
+  /**
+   * Calls the given handler once the messages stored so far are durable, i.e. synced to the storage device. Syncs are
+   * grouped according to the journal sync options. If the journal sync is disabled, the handler is called
+   * immediately.
+   *
+   * @param options the server options
+   * @param handler the handler, called with a failed result if the sync has failed
+   */
+  public void whenDurable(StompServerOptions options, Handler<AsyncResult<Void>> handler) {
+    if (!options.isJournalSync()) {
+      handler.handle(Future.succeededFuture());
+      return;
+    }
+    commit.add(options.getJournalSyncMaxBatchSize(), options.getJournalSyncMaxLinger(), handler);
+  }
+
+  /**
+   * @return the number of journal syncs executed so far.
+   */
+  public long numberOfSyncs() {
+    return commit.numberOfSyncs();
+  }
+
+  @Override
+  protected String store(StompServerConnection connection, Frame frame) {
+    try {
+      return destination() + ID_SEPARATOR + journal.append(frame);
+    } catch (IOException e) {
+      if (connection == null) {
+        LOGGER.error("Cannot write the journal of " + destination() + ", the message is dropped", e);
+      } else {
+        connection.write(Frames.createErrorFrame(
+            "Message not stored",
+            Headers.create(Frame.DESTINATION, frame.getDestination()),
+            "Message delivery failed - the message cannot be stored: " + e.getMessage()));
+        connection.close();
+      }
+      return null;
+    }
+  }
+
+  @Override
+  protected void acknowledged(String messageId) {
+    journal.ack(Long.parseLong(messageId.substring(messageId.lastIndexOf(ID_SEPARATOR) + 1)));
+  }
+
+  @Override
+  protected boolean isDurable() {
+    return true;
+  }
+
+  /**
+   * @return the number of messages stored in the journal and not consumed yet.
+   */
+  public synchronized long numberOfStoredMessages() {
+    return journal.size();
+  }
+
+  /**
+   * Closes the journal. The queue must not be used afterwards.
+   */
+  public synchronized void close() {
+    try {
+      journal.close();
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot close the journal of " + destination(), e);
+    }
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ToIntFunction;
+
+/**
+ * A queue ordered by priority, from {@link #LEVELS}{@code - 1} (highest) to 0 (lowest), keeping the insertion order
+ * among the elements having the same priority. Each priority has its own ring ({@link ArrayDeque}), and a bit mask
+ * tracks the non-empty rings, so adding and polling an element are O(1), without the comparisons of a heap.
+ * <p/>
+ * Iterators return the elements in polling order and support removal. This class is not thread-safe.
+ *
+ * @param <E> the type of the elements
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+class PriorityBuckets<E> extends AbstractQueue<E> {
+
+  /**
+   * The number of priorities.
+   */
+  static final int LEVELS = 10;
+
+  private final ToIntFunction<? super E> priority;
+  private final ArrayDeque<E>[] rings;
+  /**
+   * Bit {@code i} is set when the ring of the priority {@code i} is not empty.
+   */
+  private int mask;
+  private int size;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param priority computes the priority of an element, between 0 and {@link #LEVELS}{@code - 1}
+   */
+  @SuppressWarnings("unchecked")
+  PriorityBuckets(ToIntFunction<? super E> priority) {
+    this.priority = priority;
+    this.rings = new ArrayDeque[LEVELS];
+    for (int i = 0; i < LEVELS; i++) {
+      rings[i] = new ArrayDeque<>();
+    }
+  }
+
+  @Override
+  public boolean offer(E element) {
+    int level = priority.applyAsInt(element);
+    rings[level].add(element);
+    mask |= 1 << level;
+    size++;
+    return true;
+  }
+
+  @Override
+  public E poll() {
+    if (mask == 0) {
+      return null;
+    }
+    int level = highest();
+    E element = rings[level].poll();
+    removed(level);
+    return element;
+  }
+
+  @Override
+  public E peek() {
+    return mask == 0 ? null : rings[highest()].peek();
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public void clear() {
+    for (ArrayDeque<E> ring : rings) {
+      ring.clear();
+    }
+    mask = 0;
+    size = 0;
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return new Iterator<E>() {
+      private int level = LEVELS;
+      private Iterator<E> current;
+      private Iterator<E> last;
+      private int lastLevel;
+
+      @Override
+      public boolean hasNext() {
+        while (current == null || !current.hasNext()) {
+          if (level == 0) {
+            return false;
+          }
+          current = rings[--level].iterator();
+        }
+        return true;
+      }
+
+      @Override
+      public E next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        last = current;
+        lastLevel = level;
+        return current.next();
+      }
+
+      @Override
+      public void remove() {
+        if (last == null) {
+          throw new IllegalStateException();
+        }
+        last.remove();
+        last = null;
+        removed(lastLevel);
+      }
+    };
+  }
+
+  private int highest() {
+    return 31 - Integer.numberOfLeadingZeros(mask);
+  }
+
+  private void removed(int level) {
+    size--;
+    if (rings[level].isEmpty()) {
+      mask &= ~(1 << level);
+    }
+  }
+}
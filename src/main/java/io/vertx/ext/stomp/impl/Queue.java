@@ -19,32 +19,238 @@ package io.vertx.ext.stomp.impl;
 import io.vertx.core.Vertx;
 import io.vertx.ext.stomp.Command;
 import io.vertx.ext.stomp.Destination;
+import io.vertx.ext.stomp.DispatchStrategy;
+import io.vertx.ext.stomp.ExpirationOptions;
 import io.vertx.ext.stomp.Frame;
+import io.vertx.ext.stomp.QueueOptions;
 import io.vertx.ext.stomp.StompServerConnection;
+import io.vertx.ext.stomp.StompServerOptions;
 import io.vertx.ext.stomp.utils.Headers;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
- * Implementation of {@link Destination} dispatching messages to a single subscriber. It dispatches
- * the messages using a round-robin strategy.
+ * Implementation of {@link Destination} dispatching messages to a single subscriber. The subscription receiving a
+ * message is selected by a {@link DispatchStrategy}, round-robin by default.
+ * <p/>
+ * Messages sent to subscriptions using the {@code client} or {@code client-individual} ack mode are tracked until
+ * they are acknowledged. In the {@code client} mode, acknowledgments are cumulative. Messages not acknowledged
+ * ({@code NACK} frame, timeout, or un-subscription before the acknowledgment) are redelivered to another
+ * subscription, or buffered until a subscription (possibly the same one) has credit. The
+ * {@link io.vertx.ext.stomp.StompServerHandler#onAck} and {@link io.vertx.ext.stomp.StompServerHandler#onNack} methods
+ * are called accordingly.
+ * <p/>
+ * The messages not acknowledged yet are stored by their subscription in delivery sequence order (see
+ * {@link PendingMessages}), and the ack id of a message is made of the key of the subscription and of the sequence.
+ * So tracking a message does not allocate any map entry, and an acknowledgment finds its message directly.
+ * <p/>
+ * The ack timeout is disabled by default, and configured using {@link StompServerOptions#setAckTimeout(long)} and
+ * {@link StompServerOptions#setTimeFactor(int)}. As messages are tracked in delivery order, the messages reaching
+ * the timeout are always the oldest ones, so a single timer per queue is used.
+ * <p/>
+ * Subscriptions can limit the number of messages sent to them using the {@code prefetch-count} header. Messages are
+ * only delivered to subscriptions having credit, the others are buffered by the queue. In the {@code client} and
+ * {@code client-individual} ack modes, the credit is the number of messages not acknowledged yet. In the {@code auto}
+ * mode, the credit is consumed by the messages written while the write queue of the connection is full, and restored
+ * when it drains.
+ * <p/>
+ * Subscriptions can set a {@link Selector} using the {@code selector} header. A message is only delivered to a
+ * subscription whose selector matches its headers, the messages not selected by any subscription having credit are
+ * buffered until a matching subscription can receive them.
+ * <p/>
+ * Messages having a {@code message-group} header are delivered to the subscription owning their group, so the messages
+ * of a group are processed in order while the groups are spread over the subscriptions. The owner of a group is
+ * selected by the dispatch strategy when the first message of the group is delivered, and the group is reassigned
+ * when the owner unsubscribes or disconnects. The messages of a group whose owner has no credit are held by the group,
+ * in order, and delivered once the owner has credit, so they do not block the other messages. The groups having
+ * buffered, held or not acknowledged messages are always kept. The other groups are evicted, least recently used
+ * first, once the queue tracks more groups than {@link QueueOptions#getMaxGroups()}, and are reassigned when their
+ * next message is delivered.
+ * <p/>
+ * When the queue is prioritized (see {@link QueueOptions#setPrioritized(boolean)}), the buffered messages are
+ * delivered by priority, so urgent messages overtake the bulk traffic waiting for the subscriptions to have credit.
+ * The priority of a message is given by its {@code priority} header, from 0 (lowest) to 9 (highest). Numbers out of
+ * this range are clamped to 0 or 9, and the priority is 4 when the header is missing or is not a number. Messages
+ * having the same priority are delivered in order. The buffered messages are kept in one ring per priority (see
+ * {@link PriorityBuckets}), so buffering and delivering a message are O(1).
+ * <p/>
+ * Messages expire according to their {@code expires} header or the default time to live of the queue (see
+ * {@link ExpirationOptions}). A check is scheduled on the {@link TimerWheel} at the expiration time of each buffered
+ * or not acknowledged message, and removes the expired messages, which are dropped or sent to the expiry destination.
+ * The messages having an expiration time are indexed by expiration time, so a check only visits the expired messages.
+ * The expired messages left in the buffer are skipped when they are reached.
+ * <p/>
+ * The subscriptions are stored in a copy-on-write list, so they are counted and listed without locking, and messages
+ * sent to a queue without subscriptions are dropped without locking. Delivering a message still holds the lock of the
+ * queue, as it updates the dispatch strategy, the credits and the pending messages.
  *
  * @author <a href="http://escoffier.me">Clement Escoffier</a>
+ * @author <a href="mailto:agent@local">agent</a>
  */
 public class Queue implements Destination {
 
+  /**
+   * The {@code SUBSCRIBE} header configuring the maximum number of messages in flight for the subscription.
+   */
+  public static final String PREFETCH_COUNT = "prefetch-count";
+
+  /**
+   * The {@code SEND} header containing the group of the message.
+   */
+  public static final String MESSAGE_GROUP = "message-group";
+
+  /**
+   * The {@code SEND} header containing the priority of the message, used by the prioritized queues.
+   */
+  public static final String PRIORITY = "priority";
+
+  /**
+   * The priority of the messages whose {@code priority} header is missing or is not a number.
+   */
+  public static final int DEFAULT_PRIORITY = 4;
+
+  private static final int PURGE_THRESHOLD = 1024;
+
   private final String destination;
 
-  private final List<Subscription> subscriptions = new ArrayList<>();
+  /**
+   * The subscriptions, in a copy-on-write list so they can be read without holding the lock.
+   */
+  private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
   private final Vertx vertx;
-  private int lastUsedSubscriptions = -1;
+  private final DispatchStrategy strategy;
+  private final Expiration expiration;
+  private final Runnable expirationCheck = this::expire;
+
+  /**
+   * The messages waiting for a subscription having credit, in delivery order.
+   */
+  private final java.util.Queue<Message> buffered;
+
+  /**
+   * The subscriptions using the {@code client} or {@code client-individual} ack mode, indexed by key. The ack ids are
+   * formatted as {@code key:sequence}, so an acknowledgment finds its subscription and its message without an entry
+   * per message.
+   */
+  private final Map<String, Subscription> keyed = new HashMap<>();
+
+  /**
+   * The groups having an owner, or buffered messages, indexed by name.
+   */
+  private final Map<String, Group> groups = new HashMap<>();
+
+  /**
+   * The groups having an owner but no buffered, held or not acknowledged messages, least recently used first. Only
+   * these groups are evicted when the queue tracks more than {@link #maxGroups} groups.
+   */
+  private final Set<Group> idle = new LinkedHashSet<>();
+
+  private final int maxGroups;
+
+  /**
+   * The number of messages held by the groups for their owner.
+   */
+  private int held;
+
+  /**
+   * The buffered, held and not acknowledged messages having an expiration time, earliest first. The entries of the
+   * messages delivered or acknowledged before their expiration are skipped when they are polled, and purged when they
+   * accumulate.
+   */
+  private final PriorityQueue<Expiring> expiring = new PriorityQueue<>(Comparator.comparingLong(e -> e.expires));
+
+  /**
+   * The size of {@link #expiring} triggering the purge of the entries of the messages no longer tracked.
+   */
+  private int purgeThreshold = PURGE_THRESHOLD;
+
+  /**
+   * The number of expired messages still in the buffered messages or in the messages held by the groups.
+   */
+  private int stale;
+
+  /**
+   * The number of subscriptions using a selector. When none, the buffered messages are delivered in order, as any
+   * subscription can receive them (the messages of a group whose owner has no credit are moved to the group).
+   */
+  private int selective;
+
+  /**
+   * The timer checking the ack timeouts, -1 if none.
+   */
+  private long timer = -1;
+  /**
+   * The time (in ms, see {@link #now()}) at which the timer fires.
+   */
+  private long timerDeadline;
 
   public Queue(Vertx vertx, String destination) {
+    this(vertx, destination, new QueueOptions());
+  }
+
+  /**
+   * Creates a queue using the round-robin strategy.
+   *
+   * @param vertx       the vert.x instance
+   * @param destination the destination
+   * @param options     the options configuring the priorities and the expiration of the messages
+   */
+  public Queue(Vertx vertx, String destination, QueueOptions options) {
+    this(vertx, destination, options, DispatchStrategy.roundRobin());
+  }
+
+  /**
+   * Creates a queue selecting the subscription receiving the messages using the given strategy.
+   *
+   * @param vertx       the vert.x instance
+   * @param destination the destination
+   * @param options     the options configuring the priorities and the expiration of the messages
+   * @param strategy    the dispatch strategy, must not be shared with other queues
+   */
+  public Queue(Vertx vertx, String destination, QueueOptions options, DispatchStrategy strategy) {
     this.destination = destination;
     this.vertx = vertx;
+    this.strategy = Objects.requireNonNull(strategy);
+    this.expiration = new Expiration(vertx, destination, options.getExpiration());
+    this.maxGroups = options.getMaxGroups();
+    this.buffered = options.isPrioritized() ? new PriorityBuckets<>(message -> priority(message.frame))
+        : new ArrayDeque<>();
+  }
+
+  /**
+   * Gets the priority of a message. Numbers out of range are clamped to 0 or 9, and {@link #DEFAULT_PRIORITY} is used
+   * when the header is missing or is not a number.
+   *
+   * @param frame the frame
+   * @return the priority, between 0 and 9
+   */
+  public static int priority(Frame frame) {
+    String value = frame.getHeader(PRIORITY);
+    if (value == null) {
+      return DEFAULT_PRIORITY;
+    }
+    try {
+      return Math.max(0, Math.min(PriorityBuckets.LEVELS - 1, Integer.parseInt(value.trim())));
+    } catch (NumberFormatException e) {
+      return DEFAULT_PRIORITY;
+    }
   }
 
   /**
@@ -60,37 +266,401 @@ public class Queue implements Destination {
    *
    * @param connection the connection
    * @param frame      the frame ({@code SEND} frame).
-   * @return the current instance of {@link Destination}
+   * @return the current instance of {@link Destination}, {@code null} if the message cannot be stored (see
+   * {@link #store(StompServerConnection, Frame)})
    */
   @Override
-  public synchronized Destination dispatch(StompServerConnection connection, Frame frame) {
-    if (subscriptions.isEmpty()) {
-      lastUsedSubscriptions = -1;
+  public Destination dispatch(StompServerConnection connection, Frame frame) {
+    if (subscriptions.isEmpty() && !isDurable()) {
+      // Nobody to deliver the message to, checked without locking.
       return this;
     }
-    Subscription subscription = getNextSubscription();
-    String messageId = UUID.randomUUID().toString();
-    Frame message = transform(frame, subscription, messageId);
-    subscription.connection.write(message);
+    Frame message = expiration.stamp(frame);
+    long expires = Expiration.expires(message);
+    if (Expiration.isExpired(expires, Expiration.now())) {
+      expiration.expired(message);
+      return this;
+    }
+    synchronized (this) {
+      if (subscriptions.isEmpty() && !isDurable()) {
+        return this;
+      }
+      String messageId = store(connection, message);
+      if (messageId == null) {
+        return null;
+      }
+      // Buffered messages are delivered first. With selectors, the buffered messages are not selected by the
+      // subscriptions having credit.
+      Subscription subscription = buffered.isEmpty() || selective > 0 ? getNextSubscription(message, null, false)
+          : null;
+      if (subscription == null) {
+        buffer(new Message(message, messageId, expires));
+      } else {
+        deliver(subscription, message, messageId, expires);
+      }
+    }
     return this;
   }
 
-  private Subscription getNextSubscription() {
-    lastUsedSubscriptions = lastUsedSubscriptions + 1;
-    if (lastUsedSubscriptions >= subscriptions.size()) {
-      lastUsedSubscriptions = 0;
+  /**
+   * Stores a message sent to the queue, before it is delivered. This implementation does not store anything, and
+   * computes the message id using the id generator of the server. Must be called when holding the monitor lock.
+   * <p/>
+   * Implementations failing to store the message return {@code null}, after having reported the error to the
+   * connection. The message is then dropped.
+   *
+   * @param connection the connection that has sent the message, {@code null} if not sent by a client
+   * @param frame      the {@code SEND} frame
+   * @return the message id, {@code null} if the message cannot be stored
+   */
+  protected String store(StompServerConnection connection, Frame frame) {
+    return IdGenerators.of(connection).next();
+  }
+
+  /**
+   * Called when a message has been consumed: acknowledged by a {@code ACK} frame, or delivered to a subscription using
+   * the {@code auto} ack mode. This implementation does nothing. Must be called when holding the monitor lock.
+   *
+   * @param messageId the message id
+   */
+  protected void acknowledged(String messageId) {
+    // Nothing to do.
+  }
+
+  /**
+   * Checks whether or not the queue keeps the messages that cannot be delivered because there are no subscriptions.
+   * Durable queues also stay registered when they have no subscriptions.
+   *
+   * @return {@code false}, messages sent without subscriptions are dropped
+   */
+  protected boolean isDurable() {
+    return false;
+  }
+
+  /**
+   * Adds a message to the messages waiting for a subscription, such as a message recovered from a storage.
+   *
+   * @param frame     the {@code SEND} frame
+   * @param messageId the message id
+   */
+  protected synchronized void enqueue(Frame frame, String messageId) {
+    buffer(new Message(frame, messageId, Expiration.expires(frame)));
+    deliverBufferedMessages();
+  }
+
+  /**
+   * Adds a message to the messages waiting for a subscription. Must be called when holding the monitor lock.
+   */
+  private void buffer(Message message) {
+    place(message);
+    track(message.expires, message, null, -1);
+  }
+
+  /**
+   * Adds a message to the buffered messages, or to the messages held by its group if the owner of the group can
+   * receive it and no older messages of the group are buffered. Must be called when holding the monitor lock.
+   */
+  private void place(Message message) {
+    String name = message.frame.getHeader(MESSAGE_GROUP);
+    if (name != null) {
+      Group group = groups.computeIfAbsent(name, Group::new);
+      message.group = group;
+      if (group.owner != null && group.buffered == 0 && group.owner.selects(message.frame)) {
+        hold(group, message);
+        return;
+      }
+      group.buffered++;
+      update(group);
+    }
+    message.state = State.BUFFERED;
+    buffered.add(message);
+  }
+
+  /**
+   * Removes a message from the buffered messages. Must be called when holding the monitor lock.
+   */
+  private void unbuffer(Message message) {
+    if (message.group != null) {
+      message.group.buffered--;
+      update(message.group);
+    }
+  }
+
+  /**
+   * Holds a message of the given group until its owner has credit. Must be called when holding the monitor lock.
+   */
+  private void hold(Group group, Message message) {
+    if (group.waiting.isEmpty()) {
+      group.owner.holding.add(group);
+    }
+    message.state = State.HELD;
+    group.waiting.add(message);
+    held++;
+    update(group);
+  }
+
+  /**
+   * Delivers the held messages and the buffered messages to the subscriptions having credit. Must be called when
+   * holding the monitor lock.
+   */
+  private void deliverBufferedMessages() {
+    if (held > 0) {
+      deliverHeldMessages();
+    }
+    if (selective > 0) {
+      deliverSelectedMessages();
+      return;
+    }
+    while (!buffered.isEmpty()) {
+      Message message = buffered.peek();
+      if (message.state == State.EXPIRED) {
+        buffered.poll();
+        stale--;
+        continue;
+      }
+      Subscription subscription = getNextSubscription(message.frame, null, true);
+      if (subscription == null) {
+        if (message.group == null || message.group.owner == null) {
+          // No subscription has credit.
+          return;
+        }
+        // The owner of the group has no credit, the group holds the message so the next ones can be delivered.
+        buffered.poll();
+        unbuffer(message);
+        hold(message.group, message);
+        continue;
+      }
+      buffered.poll();
+      unbuffer(message);
+      message.state = State.DELIVERED;
+      deliver(subscription, message.frame, message.id, message.expires);
+    }
+  }
+
+  /**
+   * Delivers the messages held by the groups to their owner, if it has credit. The groups of a subscription are served
+   * in turn. Must be called when holding the monitor lock.
+   */
+  private void deliverHeldMessages() {
+    for (Subscription subscription : subscriptions) {
+      while (!subscription.holding.isEmpty() && subscription.hasCredit()) {
+        Group group = subscription.holding.poll();
+        Message message = group.waiting.poll();
+        held--;
+        if (!group.waiting.isEmpty()) {
+          subscription.holding.add(group);
+        }
+        if (message.state == State.EXPIRED) {
+          stale--;
+          update(group);
+          continue;
+        }
+        message.state = State.DELIVERED;
+        deliver(subscription, message.frame, message.id, message.expires);
+      }
+    }
+  }
+
+  /**
+   * Delivers the buffered messages selected by the subscriptions having credit, or by the owner of their group. The
+   * other messages stay buffered, in order. Must be called when holding the monitor lock.
+   */
+  private void deliverSelectedMessages() {
+    // The number of subscriptions having credit, only decreasing while delivering.
+    int credit = 0;
+    for (Subscription subscription : subscriptions) {
+      if (subscription.hasCredit()) {
+        credit++;
+      }
+    }
+    // The groups having a message left in the buffer, their next messages must not be delivered before it.
+    Set<Group> skipped = null;
+    Iterator<Message> iterator = buffered.iterator();
+    while (credit > 0 && iterator.hasNext()) {
+      Message message = iterator.next();
+      if (message.state == State.EXPIRED) {
+        iterator.remove();
+        stale--;
+        continue;
+      }
+      Group group = message.group;
+      boolean oldest = group == null || skipped == null || !skipped.contains(group);
+      Subscription subscription = getNextSubscription(message.frame, null, oldest);
+      if (subscription != null) {
+        iterator.remove();
+        unbuffer(message);
+        message.state = State.DELIVERED;
+        deliver(subscription, message.frame, message.id, message.expires);
+        // The selected subscription had credit.
+        if (!subscription.hasCredit()) {
+          credit--;
+        }
+      } else if (oldest && group != null && group.owner != null && group.owner.selects(message.frame)) {
+        // The owner of the group has no credit.
+        iterator.remove();
+        unbuffer(message);
+        hold(group, message);
+      } else if (group != null) {
+        if (skipped == null) {
+          skipped = new HashSet<>();
+        }
+        skipped.add(group);
+      }
+    }
+  }
+
+  private void deliver(Subscription subscription, Frame frame, String messageId, long expires) {
+    String ack = null;
+    if (subscription.acknowledged) {
+      long deadline = subscription.timeout > 0 ? now() + subscription.timeout : Long.MAX_VALUE;
+      long sequence = subscription.pending.add(messageId, frame, deadline, expires);
+      ack = subscription.ack(sequence);
+      track(expires, null, subscription, sequence);
+      if (subscription.timeout > 0) {
+        scheduleTimeoutCheck(deadline);
+      }
+    }
+    if (!groups.isEmpty()) {
+      Group group = group(frame);
+      if (group != null) {
+        if (subscription.acknowledged) {
+          group.unacknowledged++;
+        }
+        update(group);
+      }
+    }
+    Frame message = transform(frame, subscription, messageId, ack);
+    subscription.connection.write(message);
+    if (!subscription.acknowledged) {
+      acknowledged(messageId);
+    }
+    if (!subscription.acknowledged && subscription.prefetch > 0) {
+      consumeWriteCredit(subscription);
+    }
+  }
+
+  private void consumeWriteCredit(Subscription subscription) {
+    if (!(subscription.connection instanceof StompServerTCPConnectionImpl)) {
+      return;
+    }
+    StompServerTCPConnectionImpl connection = (StompServerTCPConnectionImpl) subscription.connection;
+    if (!connection.writeQueueFull()) {
+      subscription.written = 0;
+      return;
+    }
+    subscription.written++;
+    if (!subscription.hasCredit() && !subscription.waitingForDrain) {
+      subscription.waitingForDrain = true;
+      connection.onDrain(v -> drained(subscription));
+    }
+  }
+
+  private synchronized void drained(Subscription subscription) {
+    subscription.written = 0;
+    subscription.waitingForDrain = false;
+    deliverBufferedMessages();
+  }
+
+  /**
+   * Gets the next subscription having credit and selecting the given message. The messages of a group are delivered
+   * to the owner of the group, the other messages (and the first message of a group) to the subscription selected by
+   * the dispatch strategy.
+   *
+   * @param frame    the message
+   * @param excluded a subscription that must not be selected, such as the subscription that did not acknowledge the
+   *                 message, may be {@code null}
+   * @param oldest   whether the message is older than the buffered messages of its group, such as the first buffered
+   *                 message of the group, or a redelivered message
+   * @return the subscription, {@code null} if no subscriptions have credit, if the owner of the group of the message
+   * has no credit or holds messages, or if older messages of the group are buffered
+   */
+  private Subscription getNextSubscription(Frame frame, Subscription excluded, boolean oldest) {
+    String name = frame.getHeader(MESSAGE_GROUP);
+    Group group = name != null ? groups.get(name) : null;
+    if (group != null && !oldest && group.buffered > 0) {
+      // Delivered after the older messages of the group.
+      return null;
+    }
+    Subscription owner = group != null ? group.owner : null;
+    if (owner != null && owner.selects(frame) && (owner != excluded || !group.waiting.isEmpty())) {
+      // Keeps the messages of the group in order, even if other subscriptions have credit.
+      return owner != excluded && owner.hasCredit() && group.waiting.isEmpty() ? owner : null;
+    }
+    Predicate<Subscription> eligible;
+    if (selective > 0) {
+      eligible = s -> s != excluded && s.hasCredit() && s.selects(frame);
+    } else {
+      eligible = excluded == null ? HAS_CREDIT : s -> s != excluded && s.hasCredit();
+    }
+    Subscription subscription = strategy.select(subscriptions, eligible);
+    if (subscription != null && !eligible.test(subscription)) {
+      throw new IllegalStateException("The dispatch strategy has selected a subscription that is not eligible");
+    }
+    if (subscription != null && name != null && (owner == null || owner == excluded)) {
+      if (group == null) {
+        group = new Group(name);
+        groups.put(name, group);
+      }
+      group.owner = subscription;
+    }
+    return subscription;
+  }
+
+  /**
+   * Gets the group of the given message. Must be called when holding the monitor lock.
+   *
+   * @return the group, {@code null} if the message has no group, or if the group is not tracked
+   */
+  private Group group(Frame frame) {
+    String name = frame.getHeader(MESSAGE_GROUP);
+    return name != null ? groups.get(name) : null;
+  }
+
+  /**
+   * Called when a message of the given group has been acknowledged, or has left the pending messages of a
+   * subscription. Must be called when holding the monitor lock.
+   */
+  private void released(Frame frame) {
+    if (!groups.isEmpty()) {
+      Group group = group(frame);
+      if (group != null && group.unacknowledged > 0) {
+        group.unacknowledged--;
+        update(group);
+      }
+    }
+  }
+
+  /**
+   * Updates the state of a group after a change. The groups without owner and messages are removed, the groups
+   * without messages become the most recently used idle group, and the least recently used idle groups are evicted
+   * when the queue tracks too many groups. Must be called when holding the monitor lock.
+   */
+  private void update(Group group) {
+    idle.remove(group);
+    if (group.buffered > 0 || !group.waiting.isEmpty() || group.unacknowledged > 0) {
+      return;
+    }
+    if (group.owner == null) {
+      groups.remove(group.name);
+      return;
+    }
+    idle.add(group);
+    Iterator<Group> iterator = idle.iterator();
+    while (groups.size() > maxGroups && iterator.hasNext()) {
+      // Reassigned when its next message is delivered.
+      groups.remove(iterator.next().name);
+      iterator.remove();
     }
-    return subscriptions.get(lastUsedSubscriptions);
   }
 
-  public static Frame transform(Frame frame, Subscription subscription, String messageId) {
+  private static Frame transform(Frame frame, Subscription subscription, String messageId, String ack) {
     final Headers headers = Headers.create(frame.getHeaders())
         // Destination already set in the input headers.
         .add(Frame.SUBSCRIPTION, subscription.id)
         .add(Frame.MESSAGE_ID, messageId);
-    if (!subscription.ackMode.equals("auto")) {
-      // We reuse the message Id as ack Id
-      headers.add(Frame.ACK, messageId);
+    if (ack != null) {
+      // Identifies the delivery, so a redelivered message gets a new ack id.
+      headers.add(Frame.ACK, ack);
     }
     return new Frame(Command.MESSAGE,
         headers,
@@ -104,48 +674,154 @@ public class Queue implements Destination {
    * @param connection the connection
    * @param frame      the {@code SUBSCRIBE} frame
    * @return the current instance of {@link Destination}
+   * @throws IllegalArgumentException if a header (prefetch count, weight, selector) is invalid
    */
   @Override
   public synchronized Destination subscribe(StompServerConnection connection, Frame frame) {
-    Subscription subscription = new Subscription(connection, frame);
+    int prefetch = getIntHeader(frame, PREFETCH_COUNT, 0, 0);
+    int weight = getIntHeader(frame, DispatchStrategy.WEIGHT, 1, 1);
+    Subscription subscription = new Subscription(connection, frame, prefetch, weight);
     subscriptions.add(subscription);
+    if (subscription.selector != null) {
+      selective++;
+    }
+    if (subscription.acknowledged) {
+      keyed.put(subscription.key, subscription);
+      if (connection instanceof StompServerTCPConnectionImpl) {
+        ((StompServerTCPConnectionImpl) connection).acks().put(subscription.key, this);
+      }
+    }
+    deliverBufferedMessages();
     return this;
   }
 
   /**
-   * Handles a un-subscription request to the current {@link Destination}.
+   * Reads an integer header.
+   *
+   * @return the value, the default value if the header is not set
+   * @throws IllegalArgumentException if the value is invalid or lower than the given minimum
+   */
+  private static int getIntHeader(Frame frame, String header, int defaultValue, int min) {
+    String value = frame.getHeader(header);
+    if (value == null) {
+      return defaultValue;
+    }
+    String message = "The '" + header + "' header must be an integer greater than or equal to " + min;
+    int parsed;
+    try {
+      parsed = Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(message, e);
+    }
+    if (parsed < min) {
+      throw new IllegalArgumentException(message);
+    }
+    return parsed;
+  }
+
+  /**
+   * Handles a un-subscription request to the current {@link Destination}. The messages not acknowledged by the
+   * subscription are redelivered to the other subscriptions.
    *
    * @param connection the connection
    * @param frame      the {@code UNSUBSCRIBE} frame
    * @return {@code true} if the un-subscription has been handled, {@code false} otherwise.
    */
   @Override
-  public synchronized boolean unsubscribe(StompServerConnection connection, Frame frame) {
-    boolean removed = subscriptions.removeIf(
-      // Subscription id are unique for a connection.
-      subscription -> subscription.connection.equals(connection) && subscription.id.equals(frame.getId())
-    );
-
-    if (subscriptions.isEmpty()) {
-      vertx.sharedData().getLocalMap("stomp.destinations").remove(this);
+  public boolean unsubscribe(StompServerConnection connection, Frame frame) {
+    List<Unacknowledged> unacknowledged = new ArrayList<>();
+    boolean removed;
+    synchronized (this) {
+      removed = remove(
+          // Subscription id are unique for a connection.
+          subscription -> subscription.connection.equals(connection) && subscription.id.equals(frame.getId()),
+          unacknowledged);
     }
+    notifyNack(unacknowledged);
     return removed;
   }
 
   /**
-   * Removes all subscriptions of the given connection
+   * Removes all subscriptions of the given connection. The messages not acknowledged by these subscriptions are
+   * redelivered to the other subscriptions.
    *
    * @param connection the connection
    * @return the current instance of {@link Destination}
    */
   @Override
-  public synchronized Destination unsubscribeConnection(StompServerConnection connection) {
-    subscriptions.removeIf(subscription -> subscription.connection.equals(connection));
+  public Destination unsubscribeConnection(StompServerConnection connection) {
+    List<Unacknowledged> unacknowledged = new ArrayList<>();
+    synchronized (this) {
+      remove(subscription -> subscription.connection.equals(connection), unacknowledged);
+    }
+    notifyNack(unacknowledged);
+    return this;
+  }
+
+  private boolean remove(Predicate<Subscription> predicate, List<Unacknowledged> unacknowledged) {
+    // Ordered, so the messages of the removed subscriptions are redelivered in a stable order.
+    Set<Subscription> removed = new LinkedHashSet<>();
+    for (Subscription subscription : subscriptions) {
+      if (predicate.test(subscription)) {
+        removed.add(subscription);
+      }
+    }
+    // A single copy of the subscription array.
+    subscriptions.removeAll(removed);
+    for (Subscription subscription : removed) {
+      if (subscription.selector != null) {
+        selective--;
+      }
+      if (subscription.acknowledged) {
+        keyed.remove(subscription.key);
+        if (subscription.connection instanceof StompServerTCPConnectionImpl) {
+          ((StompServerTCPConnectionImpl) subscription.connection).acks().remove(subscription.key, this);
+        }
+      }
+    }
+    // The groups are reassigned when their next message is delivered, their held messages are buffered again once
+    // the messages not acknowledged (older) have been redelivered.
+    List<Group> orphans = new ArrayList<>();
+    List<Message> released = new ArrayList<>();
+    for (Group group : groups.values()) {
+      if (group.owner != null && removed.contains(group.owner)) {
+        group.owner = null;
+        for (Message message : group.waiting) {
+          if (message.state == State.EXPIRED) {
+            stale--;
+          } else {
+            released.add(message);
+          }
+        }
+        held -= group.waiting.size();
+        group.waiting.clear();
+        orphans.add(group);
+      }
+    }
+    for (Subscription subscription : removed) {
+      subscription.holding.clear();
+      if (!subscription.pending.isEmpty()) {
+        unacknowledged.add(redeliver(subscription, subscription.collectAll()));
+      }
+    }
+    released.forEach(this::place);
+    orphans.forEach(this::update);
 
     if (subscriptions.isEmpty()) {
-      vertx.sharedData().getLocalMap("stomp.destinations").remove(this);
+      cancelTimeoutCheck();
+      if (!isDurable()) {
+        buffered.clear();
+        groups.clear();
+        idle.clear();
+        expiring.clear();
+        stale = 0;
+        DestinationRegistry.get(vertx).remove(this);
+      }
+    } else if (!removed.isEmpty()) {
+      // The buffered messages of the groups owned by the removed subscriptions can now be delivered.
+      deliverBufferedMessages();
     }
-    return this;
+    return !removed.isEmpty();
   }
 
   /**
@@ -156,20 +832,256 @@ public class Queue implements Destination {
    * @return {@code true} if the destination has handled the frame (meaning it has sent the message with id)
    */
   @Override
-  public synchronized boolean ack(StompServerConnection connection, Frame frame) {
-    return false;
+  public boolean ack(StompServerConnection connection, Frame frame) {
+    String ack = frame.getId();
+    Subscription subscription;
+    List<Frame> messages;
+    synchronized (this) {
+      subscription = getSubscriptionHolding(connection, ack);
+      if (subscription == null) {
+        return false;
+      }
+      List<Long> sequences = subscription.collect(sequence(ack));
+      messages = new ArrayList<>(sequences.size());
+      for (long sequence : sequences) {
+        String id = subscription.pending.id(sequence);
+        Frame message = subscription.pending.frame(sequence);
+        messages.add(transform(message, subscription, id, subscription.ack(sequence)));
+        subscription.pending.remove(sequence);
+        released(message);
+        acknowledged(id);
+      }
+      deliverBufferedMessages();
+    }
+    connection.handler().onAck(connection, subscription.subscribe, messages);
+    return true;
   }
 
   /**
-   * Handles a {@code NACK} frame.
+   * Handles a {@code NACK} frame. The messages are redelivered to another subscription, if any.
    *
    * @param connection the connection
    * @param frame      the {@code NACK} frame
    * @return {@code true} if the destination has handled the frame (meaning it has sent the message with id)
    */
   @Override
-  public synchronized boolean nack(StompServerConnection connection, Frame frame) {
-    return false;
+  public boolean nack(StompServerConnection connection, Frame frame) {
+    String ack = frame.getId();
+    Unacknowledged unacknowledged;
+    synchronized (this) {
+      Subscription subscription = getSubscriptionHolding(connection, ack);
+      if (subscription == null) {
+        return false;
+      }
+      unacknowledged = redeliver(subscription, subscription.collect(sequence(ack)));
+      deliverBufferedMessages();
+    }
+    unacknowledged.notifyNack();
+    return true;
+  }
+
+  /**
+   * Gets the subscription of the given connection holding the message having the given ack id. Must be called when
+   * holding the monitor lock.
+   *
+   * @return the subscription, {@code null} if the ack id is unknown or was already acknowledged
+   */
+  private Subscription getSubscriptionHolding(StompServerConnection connection, String ack) {
+    if (ack == null) {
+      return null;
+    }
+    Subscription subscription = keyed.get(StompServerTCPConnectionImpl.ackKey(ack));
+    return subscription != null && subscription.connection.equals(connection)
+        && subscription.pending.contains(sequence(ack)) ? subscription : null;
+  }
+
+  /**
+   * Gets the delivery sequence of an ack id.
+   *
+   * @return the sequence, -1 if the ack id is invalid
+   */
+  private static long sequence(String ack) {
+    try {
+      return Long.parseLong(ack.substring(ack.lastIndexOf(StompServerTCPConnectionImpl.ACK_SEPARATOR) + 1));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Removes the given messages from the pending messages of the given subscription, and redelivers them to another
+   * subscription, if any. The messages are buffered if the other subscriptions have no credit. Must be called when
+   * holding the monitor lock.
+   *
+   * @return the messages not acknowledged by the given subscription, to be notified once the lock is released
+   */
+  private Unacknowledged redeliver(Subscription subscription, List<Long> sequences) {
+    List<Frame> messages = new ArrayList<>(sequences.size());
+    long now = Expiration.now();
+    PendingMessages pending = subscription.pending;
+    for (long sequence : sequences) {
+      String id = pending.id(sequence);
+      Frame frame = pending.frame(sequence);
+      long expires = pending.expires(sequence);
+      messages.add(transform(frame, subscription, id, subscription.ack(sequence)));
+      pending.remove(sequence);
+      released(frame);
+      if (Expiration.isExpired(expires, now)) {
+        acknowledged(id);
+        expiration.expired(frame);
+        continue;
+      }
+      if (!isDurable() && subscriptions.isEmpty()) {
+        // The subscription was the last one, the messages of the queue are dropped.
+        continue;
+      }
+      // Buffered if no other subscription has credit, and redelivered to the same subscription if it is the only one.
+      Subscription next = getNextSubscription(frame, subscription, true);
+      if (next != null) {
+        deliver(next, frame, id, expires);
+      } else {
+        buffer(new Message(frame, id, expires));
+      }
+    }
+    return new Unacknowledged(subscription, messages);
+  }
+
+  /**
+   * Indexes a message having an expiration time, and schedules the check of its expiration. Must be called when
+   * holding the monitor lock.
+   *
+   * @param expires      the expiration time, 0 if none (nothing is tracked)
+   * @param message      the buffered message, {@code null} for a message not acknowledged yet
+   * @param subscription the subscription that has not acknowledged the message yet
+   * @param sequence     the delivery sequence of the message not acknowledged yet
+   */
+  private void track(long expires, Message message, Subscription subscription, long sequence) {
+    if (expires == 0) {
+      return;
+    }
+    if (expiring.size() >= purgeThreshold) {
+      // The messages delivered or acknowledged before their expiration.
+      expiring.removeIf(entry -> !entry.isTracked());
+      purgeThreshold = Math.max(PURGE_THRESHOLD, expiring.size() * 2);
+    }
+    expiring.add(new Expiring(expires, message, subscription, sequence));
+    expiration.track(expires, expirationCheck);
+  }
+
+  /**
+   * Removes the expired messages, buffered or not acknowledged yet. The expired messages are consumed: they are not
+   * redelivered, and the acknowledgments received afterwards are ignored. Only the messages whose expiration time has
+   * passed are visited.
+   */
+  private synchronized void expire() {
+    long now = Expiration.now();
+    Expiring entry;
+    while ((entry = expiring.peek()) != null && Expiration.isExpired(entry.expires, now)) {
+      expiring.poll();
+      if (entry.message != null) {
+        expire(entry.message);
+      } else if (entry.subscription.pending.contains(entry.sequence)) {
+        PendingMessages pending = entry.subscription.pending;
+        String id = pending.id(entry.sequence);
+        Frame frame = pending.frame(entry.sequence);
+        pending.remove(entry.sequence);
+        released(frame);
+        acknowledged(id);
+        expiration.expired(frame);
+      }
+    }
+    // The expired messages were using credit.
+    deliverBufferedMessages();
+  }
+
+  /**
+   * Expires a buffered message or a message held by its group. The message stays in the buffer, and is skipped when it
+   * is reached. Must be called when holding the monitor lock.
+   */
+  private void expire(Message message) {
+    switch (message.state) {
+      case BUFFERED:
+        unbuffer(message);
+        break;
+      case HELD:
+        break;
+      default:
+        // Delivered, or dropped with the queue.
+        return;
+    }
+    message.state = State.EXPIRED;
+    stale++;
+    acknowledged(message.id);
+    expiration.expired(message.frame);
+  }
+
+  private void notifyNack(List<Unacknowledged> unacknowledged) {
+    for (Unacknowledged u : unacknowledged) {
+      u.notifyNack();
+    }
+  }
+
+  /**
+   * Schedules the check of the ack timeouts, unless a check is already scheduled before the given deadline. Must be
+   * called when holding the monitor lock.
+   */
+  private void scheduleTimeoutCheck(long deadline) {
+    if (timer != -1) {
+      if (timerDeadline <= deadline) {
+        return;
+      }
+      vertx.cancelTimer(timer);
+    }
+    timerDeadline = deadline;
+    timer = vertx.setTimer(Math.max(1, deadline - now()), id -> checkTimeouts());
+  }
+
+  private void cancelTimeoutCheck() {
+    if (timer != -1) {
+      vertx.cancelTimer(timer);
+      timer = -1;
+    }
+  }
+
+  /**
+   * Redelivers the messages that have not been acknowledged in time, and schedules the next check.
+   */
+  private void checkTimeouts() {
+    List<Unacknowledged> unacknowledged = new ArrayList<>();
+    synchronized (this) {
+      timer = -1;
+      long now = now();
+      long next = Long.MAX_VALUE;
+      for (Subscription subscription : new ArrayList<>(subscriptions)) {
+        // Messages are tracked in delivery order, and all the messages of a subscription use the same timeout, so
+        // the expired messages are at the beginning.
+        List<Long> expired = new ArrayList<>();
+        PendingMessages pending = subscription.pending;
+        for (long sequence = pending.first(); sequence != -1; sequence = pending.next(sequence)) {
+          if (pending.deadline(sequence) > now) {
+            break;
+          }
+          expired.add(sequence);
+        }
+        if (!expired.isEmpty()) {
+          unacknowledged.add(redeliver(subscription, expired));
+        }
+      }
+      deliverBufferedMessages();
+      for (Subscription subscription : subscriptions) {
+        if (!subscription.pending.isEmpty()) {
+          next = Math.min(next, subscription.pending.deadline(subscription.pending.first()));
+        }
+      }
+      if (next != Long.MAX_VALUE && timer == -1) {
+        scheduleTimeoutCheck(next);
+      }
+    }
+    notifyNack(unacknowledged);
+  }
+
+  private static long now() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
   }
 
   /**
@@ -179,7 +1091,7 @@ public class Queue implements Destination {
    * @return the list of subscription id, empty if none
    */
   @Override
-  public synchronized List<String> getSubscriptions(StompServerConnection connection) {
+  public List<String> getSubscriptions(StompServerConnection connection) {
     return subscriptions.stream()
         .filter(subscription -> subscription.connection.equals(connection))
         .map(s -> s.id)
@@ -192,10 +1104,51 @@ public class Queue implements Destination {
    * @return the number of subscriptions.
    */
   @Override
-  public synchronized int numberOfSubscriptions() {
+  public int numberOfSubscriptions() {
     return subscriptions.size();
   }
 
+  /**
+   * Gets the number of messages delivered but not acknowledged yet.
+   *
+   * @return the number of pending messages.
+   */
+  public synchronized int numberOfPendingMessages() {
+    int count = 0;
+    for (Subscription subscription : subscriptions) {
+      count += subscription.pending.size();
+    }
+    return count;
+  }
+
+  /**
+   * Gets the number of messages waiting for a subscription having credit, including the messages held by the groups
+   * for their owner.
+   *
+   * @return the number of buffered messages.
+   */
+  public synchronized int numberOfBufferedMessages() {
+    return buffered.size() + held - stale;
+  }
+
+  /**
+   * Gets the number of groups tracked by the queue: the groups having an owner, or buffered messages.
+   *
+   * @return the number of groups.
+   */
+  public synchronized int numberOfGroups() {
+    return groups.size();
+  }
+
+  /**
+   * Gets the number of messages that have expired, dropped or sent to the expiry destination.
+   *
+   * @return the number of expired messages.
+   */
+  public long numberOfExpiredMessages() {
+    return expiration.count();
+  }
+
   /**
    * Checks whether or not the given address matches with the current destination.
    *
@@ -207,15 +1160,248 @@ public class Queue implements Destination {
     return this.destination.equals(address);
   }
 
-  private class Subscription {
+  private static final Predicate<Subscription> HAS_CREDIT = Subscription::hasCredit;
+
+  /**
+   * Generates the keys of the subscriptions, unique across the queues, as they index the {@code ACK} frames of a
+   * connection (see {@link StompServerTCPConnectionImpl#acks()}).
+   */
+  private static final AtomicLong KEYS = new AtomicLong();
+
+  private class Subscription implements DispatchStrategy.Candidate {
+    private final String key = Long.toString(KEYS.incrementAndGet(), Character.MAX_RADIX);
     private final StompServerConnection connection;
     private final String id;
     private final String ackMode;
+    private final Frame subscribe;
+    /**
+     * Whether or not the messages must be acknowledged.
+     */
+    private final boolean acknowledged;
+    /**
+     * The ack timeout (in ms), 0 if none.
+     */
+    private final long timeout;
+    /**
+     * The messages not acknowledged yet, indexed by delivery sequence.
+     */
+    private final PendingMessages pending = new PendingMessages();
+    /**
+     * The groups owned by the subscription and holding messages, served in turn once the subscription has credit.
+     */
+    private final ArrayDeque<Group> holding = new ArrayDeque<>();
+    /**
+     * The maximum number of messages in flight, 0 if unlimited.
+     */
+    private final int prefetch;
+    /**
+     * In the {@code auto} mode, the number of messages written while the write queue of the connection is full.
+     */
+    private int written;
+    private boolean waitingForDrain;
 
-    private Subscription(StompServerConnection connection, Frame frame) {
+    private final int weight;
+    /**
+     * The selector, {@code null} if the subscription receives all the messages.
+     */
+    private final Selector selector;
+
+    private Subscription(StompServerConnection connection, Frame frame, int prefetch, int weight) {
+      // Validated first, so nothing is done for an invalid subscription.
+      this.selector = Selector.of(frame);
       this.connection = connection;
       this.ackMode = frame.getAck() != null ? frame.getAck() : "auto";
       this.id = frame.getId();
+      this.subscribe = frame;
+      this.prefetch = prefetch;
+      this.weight = weight;
+      this.acknowledged = ackMode.equals("client") || ackMode.equals("client-individual");
+      StompServerOptions options = connection.server() != null ? connection.server().options() : null;
+      this.timeout = options != null ? options.getAckTimeout() * options.getTimeFactor() : 0;
+    }
+
+    @Override
+    public StompServerConnection connection() {
+      return connection;
+    }
+
+    @Override
+    public String id() {
+      return id;
+    }
+
+    @Override
+    public int outstanding() {
+      return pending.size();
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+      return connection instanceof StompServerTCPConnectionImpl
+          && ((StompServerTCPConnectionImpl) connection).writeQueueFull();
+    }
+
+    @Override
+    public int weight() {
+      return weight;
+    }
+
+    private boolean selects(Frame frame) {
+      return selector == null || selector.test(frame);
+    }
+
+    private boolean hasCredit() {
+      if (prefetch == 0) {
+        return true;
+      }
+      return (acknowledged ? pending.size() : written) < prefetch;
+    }
+
+    /**
+     * @return the ack id of the given delivery.
+     */
+    private String ack(long sequence) {
+      return key + StompServerTCPConnectionImpl.ACK_SEPARATOR + sequence;
+    }
+
+    /**
+     * Collects the sequences of the messages concerned by an acknowledgment of the given message: the message itself
+     * in the {@code client-individual} mode, and all the messages delivered before it in the {@code client} mode.
+     */
+    private List<Long> collect(long sequence) {
+      if (!ackMode.equals("client")) {
+        return Collections.singletonList(sequence);
+      }
+      List<Long> sequences = new ArrayList<>();
+      for (long s = pending.first(); s != -1 && s <= sequence; s = pending.next(s)) {
+        sequences.add(s);
+      }
+      return sequences;
+    }
+
+    /**
+     * Collects the sequences of all the messages not acknowledged yet, in delivery order.
+     */
+    private List<Long> collectAll() {
+      List<Long> sequences = new ArrayList<>(pending.size());
+      for (long s = pending.first(); s != -1; s = pending.next(s)) {
+        sequences.add(s);
+      }
+      return sequences;
+    }
+  }
+
+  /**
+   * A message waiting for a subscription having credit.
+   */
+  private static class Message {
+    private final Frame frame;
+    private final String id;
+    /**
+     * The expiration time of the message, 0 if none.
+     */
+    private final long expires;
+    /**
+     * The group of the message, set when the message is buffered, {@code null} if the message has no group.
+     */
+    private Group group;
+    private State state = State.BUFFERED;
+
+    private Message(Frame frame, String id, long expires) {
+      this.frame = frame;
+      this.id = id;
+      this.expires = expires;
+    }
+  }
+
+  private enum State {
+    /**
+     * In the buffered messages.
+     */
+    BUFFERED,
+    /**
+     * In the messages held by its group.
+     */
+    HELD,
+    DELIVERED,
+    /**
+     * Expired, still in the buffered messages or in the messages held by its group until it is reached.
+     */
+    EXPIRED
+  }
+
+  /**
+   * An entry of the index of the messages by expiration time.
+   */
+  private static final class Expiring {
+    private final long expires;
+    /**
+     * The buffered message, {@code null} for a message not acknowledged yet.
+     */
+    private final Message message;
+    private final Subscription subscription;
+    private final long sequence;
+
+    private Expiring(long expires, Message message, Subscription subscription, long sequence) {
+      this.expires = expires;
+      this.message = message;
+      this.subscription = subscription;
+      this.sequence = sequence;
+    }
+
+    /**
+     * @return whether or not the message is still buffered, held or not acknowledged.
+     */
+    private boolean isTracked() {
+      if (message != null) {
+        return message.state == State.BUFFERED || message.state == State.HELD;
+      }
+      return subscription.pending.contains(sequence);
+    }
+  }
+
+  /**
+   * A group of messages, delivered to a single subscription, its owner.
+   */
+  private static class Group {
+    private final String name;
+    /**
+     * The owner, {@code null} if the group is assigned when its next message is delivered.
+     */
+    private Subscription owner;
+    /**
+     * The messages held for the owner, which has no credit, in order.
+     */
+    private final ArrayDeque<Message> waiting = new ArrayDeque<>();
+    /**
+     * The number of messages of the group in the buffered messages of the queue.
+     */
+    private int buffered;
+    /**
+     * The number of messages of the group delivered and not acknowledged yet.
+     */
+    private int unacknowledged;
+
+    private Group(String name) {
+      this.name = name;
+    }
+  }
+
+  /**
+   * Messages not acknowledged by a subscription, notified to the handler once the monitor lock has been released.
+   */
+  private static class Unacknowledged {
+    private final Subscription subscription;
+    private final List<Frame> messages;
+
+    private Unacknowledged(Subscription subscription, List<Frame> messages) {
+      this.subscription = subscription;
+      this.messages = messages;
+    }
+
+    private void notifyNack() {
+      StompServerConnection connection = subscription.connection;
+      connection.handler().onNack(connection, subscription.subscribe, messages);
     }
   }
 
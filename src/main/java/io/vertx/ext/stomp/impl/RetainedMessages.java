@@ -0,0 +1,141 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import io.vertx.ext.stomp.Frame;
+import io.vertx.ext.stomp.RetainOptions;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * The messages retained by a {@link Topic}: the last messages, or the last message per key. Each retained message is
+ * kept with its encoded form (see {@link SharedMessage}), so replaying it to a new subscription only encodes the
+ * headers specific to the subscription.
+ * <p/>
+ * Messages are evicted when the max number of messages (or keys) is reached, and lazily, when they are older than the
+ * max age. Messages having an {@code expires} header are removed once expired (see {@link #expire(long)}). This class is not thread-safe, the {@link Topic} guards it with its monitor lock.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+class RetainedMessages {
+
+  private final RetainOptions options;
+
+  /**
+   * The retained messages, from the oldest to the most recent. Indexed by key, or by a sequence number when no key
+   * header is set.
+   */
+  private final LinkedHashMap<Object, Retained> messages = new LinkedHashMap<>();
+  private long sequence;
+
+  RetainedMessages(RetainOptions options) {
+    this.options = new RetainOptions(options);
+  }
+
+  /**
+   * Retains the given message, evicting the oldest message if needed.
+   *
+   * @param frame the message ({@code SEND} frame)
+   */
+  void retain(Frame frame) {
+    Object key;
+    if (options.getKey() != null) {
+      key = frame.getHeader(options.getKey());
+      if (key == null) {
+        return;
+      }
+      // Moved at the end, as the most recent message.
+      messages.remove(key);
+    } else {
+      key = sequence++;
+    }
+    messages.put(key, new Retained(frame, System.currentTimeMillis(), Expiration.expires(frame)));
+    if (messages.size() > options.getMaxMessages()) {
+      Iterator<Retained> iterator = messages.values().iterator();
+      iterator.next();
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Calls the given consumer with each retained message not expired, from the oldest to the most recent.
+   *
+   * @param consumer the consumer receiving the message and its encoded form
+   */
+  void forEach(BiConsumer<Frame, SharedMessage> consumer) {
+    evictExpired();
+    List<Retained> retained = new ArrayList<>(messages.values());
+    for (Retained message : retained) {
+      consumer.accept(message.frame, message.encoded);
+    }
+  }
+
+  /**
+   * Removes the messages whose expiration time has passed.
+   *
+   * @param now the current time
+   * @return the number of removed messages
+   */
+  int expire(long now) {
+    int count = 0;
+    Iterator<Retained> iterator = messages.values().iterator();
+    while (iterator.hasNext()) {
+      if (Expiration.isExpired(iterator.next().expires, now)) {
+        iterator.remove();
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @return the number of retained messages, including the expired ones not evicted yet.
+   */
+  int size() {
+    return messages.size();
+  }
+
+  private void evictExpired() {
+    if (options.getMaxAge() <= 0) {
+      return;
+    }
+    long limit = System.currentTimeMillis() - options.getMaxAge();
+    Iterator<Retained> iterator = messages.values().iterator();
+    // Messages are ordered by retention time.
+    while (iterator.hasNext() && iterator.next().timestamp < limit) {
+      iterator.remove();
+    }
+  }
+
+  private static final class Retained {
+    private final Frame frame;
+    private final SharedMessage encoded;
+    private final long timestamp;
+    private final long expires;
+
+    private Retained(Frame frame, long timestamp, long expires) {
+      this.frame = frame;
+      this.encoded = new SharedMessage(frame);
+      this.timestamp = timestamp;
+      this.expires = expires;
+    }
+  }
+}
@@ -0,0 +1,695 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import io.vertx.ext.stomp.Frame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A message selector, set using the {@code selector} header of a {@code SUBSCRIBE} frame. The expression is a subset
+ * of the SQL-92 conditional expressions (as JMS message selectors), evaluated against the headers of the messages:
+ * <ul>
+ * <li>comparisons: {@code =}, {@code <>}, {@code <}, {@code >}, {@code <=}, {@code >=},</li>
+ * <li>{@code [NOT] BETWEEN ... AND ...}, {@code [NOT] IN (...)}, {@code [NOT] LIKE ... [ESCAPE ...]},
+ * {@code IS [NOT] NULL},</li>
+ * <li>{@code AND}, {@code OR}, {@code NOT} and parentheses.</li>
+ * </ul>
+ * Identifiers are header names. As header names often contain {@code -}, identifiers can contain {@code -} and
+ * {@code .}, other header names can be written between double quotes. Literals are strings between single quotes
+ * ({@code ''} escapes a quote), numbers, {@code TRUE} and {@code FALSE}. Header values are compared as numbers when
+ * compared to a number. Keywords are case-insensitive. Arithmetic operators are not supported.
+ * <p/>
+ * As in SQL, comparing a missing header gives {@code UNKNOWN}, and a message is selected only if the expression is
+ * {@code TRUE}.
+ * <p/>
+ * The expression is parsed once, when the subscription is made, into a tree of conditions. The selectors are cached
+ * by expression (see {@link #of(Frame)}), so the {@code SUBSCRIBE} handler validating the selector and the
+ * destination creating the subscription share the same instance, as do the subscriptions using the same expression.
+ * {@code LIKE} patterns are matched without backtracking (see {@link Like}). Selectors of the form
+ * {@code header = 'value'} are exposed (see {@link #indexedHeader()}), so destinations can index the subscriptions by
+ * header value instead of evaluating each selector. This class is immutable and thread-safe.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public final class Selector implements Predicate<Frame> {
+
+  /**
+   * The {@code SUBSCRIBE} header containing the selector.
+   */
+  public static final String HEADER = "selector";
+
+  private static final int MAX_CACHED_SELECTORS = 1024;
+
+  /**
+   * The selectors compiled by {@link #of(Frame)}, by expression, least recently used first.
+   */
+  private static final Map<String, Selector> CACHE = Collections.synchronizedMap(
+      new LinkedHashMap<String, Selector>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Selector> eldest) {
+          return size() > MAX_CACHED_SELECTORS;
+        }
+      });
+
+  private final String expression;
+  private final Condition condition;
+  private final String indexedHeader;
+  private final String indexedValue;
+
+  private Selector(String expression, Condition condition) {
+    this.expression = expression;
+    this.condition = condition;
+    if (condition instanceof Comparison && ((Comparison) condition).operator.equals("=")) {
+      Comparison comparison = (Comparison) condition;
+      if (comparison.left instanceof Header && comparison.right instanceof Literal
+          && ((Literal) comparison.right).value instanceof String) {
+        indexedHeader = ((Header) comparison.left).name;
+        indexedValue = (String) ((Literal) comparison.right).value;
+        return;
+      }
+      if (comparison.right instanceof Header && comparison.left instanceof Literal
+          && ((Literal) comparison.left).value instanceof String) {
+        indexedHeader = ((Header) comparison.right).name;
+        indexedValue = (String) ((Literal) comparison.left).value;
+        return;
+      }
+    }
+    indexedHeader = null;
+    indexedValue = null;
+  }
+
+  /**
+   * Compiles a selector.
+   *
+   * @param expression the expression
+   * @return the selector
+   * @throws IllegalArgumentException if the expression is invalid
+   */
+  public static Selector compile(String expression) {
+    Parser parser = new Parser(expression);
+    Condition condition = parser.parse();
+    return new Selector(expression, condition);
+  }
+
+  /**
+   * Compiles the selector of a {@code SUBSCRIBE} frame. The selector is compiled once per expression, and reused while
+   * it stays in the cache of the most recently used selectors.
+   *
+   * @param frame the {@code SUBSCRIBE} frame
+   * @return the selector, {@code null} if the frame has no selector
+   * @throws IllegalArgumentException if the selector is invalid
+   */
+  public static Selector of(Frame frame) {
+    String expression = frame.getHeader(HEADER);
+    if (expression == null || expression.trim().isEmpty()) {
+      return null;
+    }
+    Selector selector = CACHE.get(expression);
+    if (selector == null) {
+      // Invalid expressions are not cached.
+      selector = compile(expression);
+      CACHE.put(expression, selector);
+    }
+    return selector;
+  }
+
+  /**
+   * Checks whether or not the given message is selected.
+   *
+   * @param frame the message ({@code SEND} frame)
+   * @return {@code true} if the expression is {@code TRUE} for the message, {@code false} if it is {@code FALSE} or
+   * {@code UNKNOWN}
+   */
+  @Override
+  public boolean test(Frame frame) {
+    return condition.evaluate(frame) == Boolean.TRUE;
+  }
+
+  /**
+   * @return the header compared by a {@code header = 'value'} selector, {@code null} for the other selectors.
+   */
+  public String indexedHeader() {
+    return indexedHeader;
+  }
+
+  /**
+   * @return the value of a {@code header = 'value'} selector, {@code null} for the other selectors.
+   */
+  public String indexedValue() {
+    return indexedValue;
+  }
+
+  @Override
+  public String toString() {
+    return expression;
+  }
+
+  /**
+   * A condition, evaluated to {@code TRUE}, {@code FALSE} or {@code UNKNOWN} ({@code null}).
+   */
+  private interface Condition {
+    Boolean evaluate(Frame frame);
+  }
+
+  /**
+   * An operand: a header or a literal, evaluated to a {@link String}, a {@link Double}, a {@link Boolean}, or
+   * {@code null} if the header is not set.
+   */
+  private interface Operand extends Function<Frame, Object> {
+  }
+
+  private static final class Header implements Operand {
+    private final String name;
+
+    private Header(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public Object apply(Frame frame) {
+      return frame.getHeader(name);
+    }
+  }
+
+  private static final class Literal implements Operand {
+    private final Object value;
+
+    private Literal(Object value) {
+      this.value = value;
+    }
+
+    @Override
+    public Object apply(Frame frame) {
+      return value;
+    }
+  }
+
+  private static final class Comparison implements Condition {
+    private final String operator;
+    private final Operand left;
+    private final Operand right;
+
+    private Comparison(String operator, Operand left, Operand right) {
+      this.operator = operator;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    public Boolean evaluate(Frame frame) {
+      Integer result = compare(left.apply(frame), right.apply(frame), !operator.equals("=") && !operator.equals("<>"));
+      if (result == null) {
+        return null;
+      }
+      switch (operator) {
+        case "=":
+          return result == 0;
+        case "<>":
+          return result != 0;
+        case "<":
+          return result < 0;
+        case ">":
+          return result > 0;
+        case "<=":
+          return result <= 0;
+        default:
+          return result >= 0;
+      }
+    }
+  }
+
+  /**
+   * A {@code LIKE} pattern: {@code %} matches any sequence of characters, {@code _} matches any character. The
+   * pattern is split on {@code %} into parts, consecutive {@code %} being collapsed. The first part must match the
+   * start of the value, the last part its end, and each other part is matched at its leftmost position after the
+   * previous one. Matching a part as early as possible never prevents the next ones from matching, so there is no
+   * backtracking: a value is matched in O(value length x pattern length) at worst, whatever the number of {@code %}.
+   */
+  private static final class Like {
+    private static final char ANY = '_';
+    private static final char ANY_SEQUENCE = '%';
+
+    private final List<String> parts = new ArrayList<>();
+    /**
+     * The positions of the {@code _} wildcards of each part, escaped {@code _} being literal.
+     */
+    private final List<boolean[]> wildcards = new ArrayList<>();
+
+    private Like(String pattern, Character escape) {
+      StringBuilder part = new StringBuilder();
+      List<Integer> any = new ArrayList<>();
+      for (int i = 0; i < pattern.length(); i++) {
+        char c = pattern.charAt(i);
+        if (escape != null && c == escape && i + 1 < pattern.length()) {
+          part.append(pattern.charAt(++i));
+        } else if (c == ANY_SEQUENCE) {
+          // Consecutive % give empty parts between them, which are dropped.
+          if (part.length() > 0 || parts.isEmpty()) {
+            add(part, any);
+          }
+        } else {
+          if (c == ANY) {
+            any.add(part.length());
+          }
+          part.append(c);
+        }
+      }
+      add(part, any);
+    }
+
+    private void add(StringBuilder part, List<Integer> any) {
+      boolean[] positions = new boolean[part.length()];
+      any.forEach(position -> positions[position] = true);
+      parts.add(part.toString());
+      wildcards.add(positions);
+      part.setLength(0);
+      any.clear();
+    }
+
+    boolean matches(String value) {
+      int last = parts.size() - 1;
+      if (last == 0) {
+        return value.length() == parts.get(0).length() && matchesAt(value, 0, 0);
+      }
+      int start = parts.get(0).length();
+      int end = value.length() - parts.get(last).length();
+      if (end < start || !matchesAt(value, 0, 0) || !matchesAt(value, end, last)) {
+        return false;
+      }
+      for (int i = 1; i < last; i++) {
+        int length = parts.get(i).length();
+        while (start + length <= end && !matchesAt(value, start, i)) {
+          start++;
+        }
+        if (start + length > end) {
+          return false;
+        }
+        start += length;
+      }
+      return true;
+    }
+
+    /**
+     * @return whether or not the given part matches the value at the given offset, the value being long enough.
+     */
+    private boolean matchesAt(String value, int offset, int index) {
+      String part = parts.get(index);
+      boolean[] any = wildcards.get(index);
+      for (int i = 0; i < part.length(); i++) {
+        if (!any[i] && part.charAt(i) != value.charAt(offset + i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Compares two values: as numbers if one of them is a number, as booleans if one of them is a boolean, as strings
+   * otherwise. Strings can only be ordered if they are both numbers.
+   *
+   * @return the result of the comparison, {@code null} if unknown
+   */
+  private static Integer compare(Object left, Object right, boolean ordering) {
+    if (left == null || right == null) {
+      return null;
+    }
+    if (left instanceof Double || right instanceof Double || ordering) {
+      Double l = toNumber(left);
+      Double r = toNumber(right);
+      return l == null || r == null ? null : Double.compare(l, r);
+    }
+    if (left instanceof Boolean || right instanceof Boolean) {
+      Boolean l = toBoolean(left);
+      Boolean r = toBoolean(right);
+      return l == null || r == null ? null : Boolean.compare(l, r);
+    }
+    return left.equals(right) ? 0 : 1;
+  }
+
+  private static Double toNumber(Object value) {
+    if (value instanceof Double) {
+      return (Double) value;
+    }
+    if (value instanceof String) {
+      try {
+        return Double.valueOf(((String) value).trim());
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  private static Boolean toBoolean(Object value) {
+    if (value instanceof Boolean) {
+      return (Boolean) value;
+    }
+    if ("true".equalsIgnoreCase(value.toString())) {
+      return true;
+    }
+    if ("false".equalsIgnoreCase(value.toString())) {
+      return false;
+    }
+    return null;
+  }
+
+  private static Boolean not(Boolean value) {
+    return value == null ? null : !value;
+  }
+
+  /**
+   * A recursive descent parser:
+   * <pre>
+   * or        := and (OR and)*
+   * and       := not (AND not)*
+   * not       := NOT not | '(' or ')' | predicate
+   * predicate := operand [ comparison | [NOT] BETWEEN operand AND operand | [NOT] IN '(' literal (',' literal)* ')'
+   *              | [NOT] LIKE string [ESCAPE string] | IS [NOT] NULL ]
+   * </pre>
+   */
+  private static final class Parser {
+    private static final Set<String> KEYWORDS = new HashSet<>(List.of("AND", "OR", "NOT", "BETWEEN", "IN", "LIKE",
+        "ESCAPE", "IS", "NULL", "TRUE", "FALSE"));
+
+    private final String expression;
+    private final List<Token> tokens = new ArrayList<>();
+    private int index;
+
+    private Parser(String expression) {
+      this.expression = expression;
+      tokenize();
+    }
+
+    private Condition parse() {
+      Condition condition = or();
+      if (peek() != null) {
+        throw error("unexpected '" + peek().text + "'", peek());
+      }
+      return condition;
+    }
+
+    private Condition or() {
+      Condition condition = and();
+      while (accept("OR")) {
+        Condition left = condition;
+        Condition right = and();
+        condition = frame -> {
+          Boolean l = left.evaluate(frame);
+          if (l == Boolean.TRUE) {
+            return true;
+          }
+          Boolean r = right.evaluate(frame);
+          if (r == Boolean.TRUE) {
+            return true;
+          }
+          return l == null || r == null ? null : false;
+        };
+      }
+      return condition;
+    }
+
+    private Condition and() {
+      Condition condition = not();
+      while (accept("AND")) {
+        Condition left = condition;
+        Condition right = not();
+        condition = frame -> {
+          Boolean l = left.evaluate(frame);
+          if (l == Boolean.FALSE) {
+            return false;
+          }
+          Boolean r = right.evaluate(frame);
+          if (r == Boolean.FALSE) {
+            return false;
+          }
+          return l == null || r == null ? null : true;
+        };
+      }
+      return condition;
+    }
+
+    private Condition not() {
+      if (accept("NOT")) {
+        Condition condition = not();
+        return frame -> Selector.not(condition.evaluate(frame));
+      }
+      if (accept("(")) {
+        Condition condition = or();
+        expect(")");
+        return condition;
+      }
+      return predicate();
+    }
+
+    private Condition predicate() {
+      Operand operand = operand();
+      Token token = peek();
+      if (token != null && token.type == Type.OPERATOR) {
+        index++;
+        return new Comparison(token.text, operand, operand());
+      }
+      if (accept("IS")) {
+        boolean negated = accept("NOT");
+        expect("NULL");
+        return frame -> (operand.apply(frame) == null) != negated;
+      }
+      boolean negated = accept("NOT");
+      Condition condition;
+      if (accept("BETWEEN")) {
+        Operand low = operand();
+        expect("AND");
+        Operand high = operand();
+        condition = frame -> {
+          Object value = operand.apply(frame);
+          Integer l = compare(value, low.apply(frame), true);
+          Integer h = compare(value, high.apply(frame), true);
+          if (l == null || h == null) {
+            return null;
+          }
+          return l >= 0 && h <= 0;
+        };
+      } else if (accept("IN")) {
+        expect("(");
+        Set<String> values = new HashSet<>();
+        do {
+          Token value = next();
+          if (value.type != Type.STRING) {
+            throw error("string literal expected", value);
+          }
+          values.add(value.text);
+        } while (accept(","));
+        expect(")");
+        condition = frame -> {
+          Object value = operand.apply(frame);
+          return value == null ? null : values.contains(value.toString());
+        };
+      } else if (accept("LIKE")) {
+        Token pattern = next();
+        if (pattern.type != Type.STRING) {
+          throw error("string literal expected", pattern);
+        }
+        Character escape = null;
+        if (accept("ESCAPE")) {
+          Token character = next();
+          if (character.type != Type.STRING || character.text.length() != 1) {
+            throw error("single character expected", character);
+          }
+          escape = character.text.charAt(0);
+        }
+        Like like = new Like(pattern.text, escape);
+        condition = frame -> {
+          Object value = operand.apply(frame);
+          return value == null ? null : like.matches(value.toString());
+        };
+      } else if (negated) {
+        throw error("BETWEEN, IN or LIKE expected", peek());
+      } else {
+        // A boolean header, or a boolean literal.
+        return frame -> {
+          Object value = operand.apply(frame);
+          return value == null ? null : toBoolean(value);
+        };
+      }
+      return negated ? frame -> Selector.not(condition.evaluate(frame)) : condition;
+    }
+
+    private Operand operand() {
+      Token token = next();
+      switch (token.type) {
+        case IDENTIFIER:
+          return new Header(token.text);
+        case STRING:
+          return new Literal(token.text);
+        case NUMBER:
+          return new Literal(Double.valueOf(token.text));
+        case KEYWORD:
+          if (token.text.equals("TRUE") || token.text.equals("FALSE")) {
+            return new Literal(Boolean.valueOf(token.text.toLowerCase(Locale.ROOT)));
+          }
+          // Fall through
+        default:
+          throw error("header or literal expected", token);
+      }
+    }
+
+
+    private Token peek() {
+      return index < tokens.size() ? tokens.get(index) : null;
+    }
+
+    private Token next() {
+      Token token = peek();
+      if (token == null) {
+        throw error("unexpected end of expression", null);
+      }
+      index++;
+      return token;
+    }
+
+    /**
+     * Consumes the next token if it is the given keyword or symbol.
+     */
+    private boolean accept(String text) {
+      Token token = peek();
+      if (token != null && token.type != Type.STRING && token.type != Type.IDENTIFIER && token.text.equals(text)) {
+        index++;
+        return true;
+      }
+      return false;
+    }
+
+    private void expect(String text) {
+      if (!accept(text)) {
+        throw error("'" + text + "' expected", peek());
+      }
+    }
+
+    private IllegalArgumentException error(String message, Token token) {
+      int position = token == null ? expression.length() : token.position;
+      return new IllegalArgumentException("Invalid selector '" + expression + "': " + message + " at position "
+          + position);
+    }
+
+    private void tokenize() {
+      int i = 0;
+      int length = expression.length();
+      while (i < length) {
+        char c = expression.charAt(i);
+        int start = i;
+        if (Character.isWhitespace(c)) {
+          i++;
+        } else if (c == '\'' || c == '"') {
+          // Strings between single quotes, identifiers between double quotes, the quote is escaped by doubling it.
+          StringBuilder value = new StringBuilder();
+          i++;
+          while (true) {
+            if (i >= length) {
+              throw error("unterminated " + (c == '\'' ? "string" : "identifier"), new Token(null, null, start));
+            }
+            char current = expression.charAt(i++);
+            if (current == c) {
+              if (i < length && expression.charAt(i) == c) {
+                value.append(c);
+                i++;
+              } else {
+                break;
+              }
+            } else {
+              value.append(current);
+            }
+          }
+          tokens.add(new Token(c == '\'' ? Type.STRING : Type.IDENTIFIER, value.toString(), start));
+        } else if (Character.isDigit(c) || c == '.' || (c == '-' || c == '+') && i + 1 < length
+            && (Character.isDigit(expression.charAt(i + 1)) || expression.charAt(i + 1) == '.')) {
+          i++;
+          while (i < length && (Character.isDigit(expression.charAt(i)) || expression.charAt(i) == '.'
+              || Character.toLowerCase(expression.charAt(i)) == 'e'
+              || (expression.charAt(i) == '-' || expression.charAt(i) == '+')
+              && Character.toLowerCase(expression.charAt(i - 1)) == 'e')) {
+            i++;
+          }
+          String number = expression.substring(start, i);
+          try {
+            Double.parseDouble(number);
+          } catch (NumberFormatException e) {
+            throw error("invalid number '" + number + "'", new Token(null, null, start));
+          }
+          tokens.add(new Token(Type.NUMBER, number, start));
+        } else if (Character.isLetter(c) || c == '_' || c == '$') {
+          while (i < length && isIdentifierPart(expression.charAt(i))) {
+            i++;
+          }
+          String word = expression.substring(start, i);
+          String upper = word.toUpperCase(Locale.ROOT);
+          if (KEYWORDS.contains(upper)) {
+            tokens.add(new Token(Type.KEYWORD, upper, start));
+          } else {
+            tokens.add(new Token(Type.IDENTIFIER, word, start));
+          }
+        } else if (c == '<' || c == '>') {
+          i++;
+          if (i < length && (expression.charAt(i) == '=' || c == '<' && expression.charAt(i) == '>')) {
+            i++;
+          }
+          tokens.add(new Token(Type.OPERATOR, expression.substring(start, i), start));
+        } else if (c == '!' && i + 1 < length && expression.charAt(i + 1) == '=') {
+          i += 2;
+          tokens.add(new Token(Type.OPERATOR, "<>", start));
+        } else if (c == '=') {
+          i++;
+          tokens.add(new Token(Type.OPERATOR, "=", start));
+        } else if (c == '(' || c == ')' || c == ',') {
+          i++;
+          tokens.add(new Token(Type.SYMBOL, String.valueOf(c), start));
+        } else {
+          throw error("unexpected character '" + c + "'", new Token(null, null, start));
+        }
+      }
+    }
+
+    private static boolean isIdentifierPart(char c) {
+      return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '-' || c == '.';
+    }
+  }
+
+  private enum Type {
+    IDENTIFIER, KEYWORD, STRING, NUMBER, OPERATOR, SYMBOL
+  }
+
+  private static final class Token {
+    private final Type type;
+    private final String text;
+    private final int position;
+
+    private Token(Type type, String text, int position) {
+      this.type = type;
+      this.text = text;
+      this.position = position;
+    }
+  }
+}
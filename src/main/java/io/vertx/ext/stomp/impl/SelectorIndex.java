@@ -0,0 +1,152 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import io.vertx.ext.stomp.Frame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The subscriptions of a {@link Topic} using selectors, indexed to find the subscriptions selecting a message without
+ * evaluating each selector. The subscriptions using a {@code header = 'value'} selector are indexed by header and
+ * value, so they are found with a lookup per indexed header. The other selectors are evaluated, and the
+ * subscriptions without selector receive all the messages.
+ * <p/>
+ * The index is updated when a subscription is made or removed, when holding the lock of the topic. It only contains
+ * concurrent collections, so messages are dispatched without locking while it is updated.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+class SelectorIndex {
+
+  /**
+   * The subscriptions without selector, or whose selector is not indexed.
+   */
+  private final List<Topic.Subscription> evaluated = new CopyOnWriteArrayList<>();
+
+  /**
+   * The subscriptions using an equality selector, indexed by header, then by value.
+   */
+  private final Map<String, Map<String, List<Topic.Subscription>>> indexed = new ConcurrentHashMap<>();
+
+  /**
+   * The number of subscriptions using a selector.
+   */
+  private int selectors;
+
+  /**
+   * Creates the index of the given subscriptions.
+   *
+   * @param subscriptions the subscriptions
+   * @return the index, {@code null} if none of the subscriptions use a selector
+   */
+  static SelectorIndex build(List<Topic.Subscription> subscriptions) {
+    SelectorIndex index = null;
+    for (Topic.Subscription subscription : subscriptions) {
+      if (subscription.selector != null) {
+        index = new SelectorIndex();
+        break;
+      }
+    }
+    if (index != null) {
+      for (Topic.Subscription subscription : subscriptions) {
+        index.add(subscription);
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Adds a subscription. Must be called when holding the lock of the topic.
+   *
+   * @param subscription the subscription
+   */
+  void add(Topic.Subscription subscription) {
+    Selector selector = subscription.selector;
+    if (selector != null) {
+      selectors++;
+    }
+    if (selector == null || selector.indexedHeader() == null) {
+      evaluated.add(subscription);
+    } else {
+      indexed.computeIfAbsent(selector.indexedHeader(), h -> new ConcurrentHashMap<>())
+          .computeIfAbsent(selector.indexedValue(), v -> new CopyOnWriteArrayList<>())
+          .add(subscription);
+    }
+  }
+
+  /**
+   * Removes a subscription. Must be called when holding the lock of the topic.
+   *
+   * @param subscription the subscription
+   */
+  void remove(Topic.Subscription subscription) {
+    Selector selector = subscription.selector;
+    if (selector != null) {
+      selectors--;
+    }
+    if (selector == null || selector.indexedHeader() == null) {
+      evaluated.remove(subscription);
+      return;
+    }
+    Map<String, List<Topic.Subscription>> values = indexed.get(selector.indexedHeader());
+    List<Topic.Subscription> matching = values.get(selector.indexedValue());
+    matching.remove(subscription);
+    if (matching.isEmpty()) {
+      values.remove(selector.indexedValue());
+      if (values.isEmpty()) {
+        indexed.remove(selector.indexedHeader());
+      }
+    }
+  }
+
+  /**
+   * @return whether or not some subscriptions use a selector. Must be called when holding the lock of the topic.
+   */
+  boolean hasSelectors() {
+    return selectors > 0;
+  }
+
+  /**
+   * Finds the subscriptions selecting the given message.
+   *
+   * @param frame the message ({@code SEND} frame)
+   * @return the subscriptions
+   */
+  List<Topic.Subscription> select(Frame frame) {
+    List<Topic.Subscription> recipients = new ArrayList<>();
+    for (Topic.Subscription subscription : evaluated) {
+      if (subscription.selector == null || subscription.selector.test(frame)) {
+        recipients.add(subscription);
+      }
+    }
+    for (Map.Entry<String, Map<String, List<Topic.Subscription>>> entry : indexed.entrySet()) {
+      String value = frame.getHeader(entry.getKey());
+      if (value != null) {
+        List<Topic.Subscription> matching = entry.getValue().get(value);
+        if (matching != null) {
+          recipients.addAll(matching);
+        }
+      }
+    }
+    return recipients;
+  }
+}
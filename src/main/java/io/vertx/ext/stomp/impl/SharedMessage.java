@@ -0,0 +1,173 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.stomp.Command;
+import io.vertx.ext.stomp.Frame;
+import io.vertx.ext.stomp.utils.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A {@code MESSAGE} frame sent to several subscriptions. The command, the headers shared by all the subscriptions and
+ * the body are encoded once. For each subscription, only the {@code subscription}, {@code message-id} and
+ * {@code ack} header lines are encoded, and the encoded body is written as is: the bytes of the body are never
+ * copied per subscription.
+ * <p/>
+ * Instances are created for a single dispatch, and are not thread-safe, unless the body has been encoded beforehand
+ * (see {@link #prepare(boolean)}).
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public final class SharedMessage {
+
+  private static final byte[] MESSAGE = "MESSAGE\n".getBytes(StandardCharsets.US_ASCII);
+
+  private final Frame frame;
+
+  /**
+   * The command line and the shared header lines.
+   */
+  private final byte[] head;
+
+  private Buffer body;
+  private Buffer bodyWithTrailingLine;
+
+  /**
+   * Creates a new {@link SharedMessage} from the given frame.
+   *
+   * @param frame the frame, generally a {@code SEND} frame
+   */
+  public SharedMessage(Frame frame) {
+    this.frame = frame;
+    Map<String, String> headers = frame.getHeaders();
+    int size = MESSAGE.length;
+    for (Map.Entry<String, String> entry : headers.entrySet()) {
+      if (isShared(entry.getKey())) {
+        size += FrameEncoder.headerLength(entry.getKey(), entry.getValue(), false);
+      }
+    }
+    head = new byte[size];
+    System.arraycopy(MESSAGE, 0, head, 0, MESSAGE.length);
+    int position = MESSAGE.length;
+    for (Map.Entry<String, String> entry : headers.entrySet()) {
+      if (isShared(entry.getKey())) {
+        position = FrameEncoder.writeHeader(entry.getKey(), entry.getValue(), false, head, position);
+      }
+    }
+  }
+
+  private static boolean isShared(String header) {
+    return !Frame.SUBSCRIPTION.equals(header) && !Frame.MESSAGE_ID.equals(header) && !Frame.ACK.equals(header);
+  }
+
+  /**
+   * Encodes the command and the headers of the message sent to the given subscription, including the empty line
+   * ending the headers.
+   *
+   * @param subscription the subscription id
+   * @param messageId    the message id
+   * @param ack          the ack id, {@code null} if the subscription does not acknowledge the messages
+   * @return the buffer
+   */
+  public Buffer head(String subscription, String messageId, String ack) {
+    int size = head.length
+        + FrameEncoder.headerLength(Frame.SUBSCRIPTION, subscription, false)
+        + FrameEncoder.headerLength(Frame.MESSAGE_ID, messageId, false)
+        + (ack != null ? FrameEncoder.headerLength(Frame.ACK, ack, false) : 0)
+        + 1;
+    byte[] bytes = new byte[size];
+    System.arraycopy(head, 0, bytes, 0, head.length);
+    int position = FrameEncoder.writeHeader(Frame.SUBSCRIPTION, subscription, false, bytes, head.length);
+    position = FrameEncoder.writeHeader(Frame.MESSAGE_ID, messageId, false, bytes, position);
+    if (ack != null) {
+      position = FrameEncoder.writeHeader(Frame.ACK, ack, false, bytes, position);
+    }
+    bytes[position] = '\n';
+    return Buffer.buffer(bytes);
+  }
+
+  /**
+   * Gets the encoded body, followed by the {@code NULL} octet ending the frame. The returned buffer is shared by all
+   * the subscriptions and must not be modified.
+   *
+   * @param trailingLine whether or not a trailing line is added after the frame
+   * @return the buffer
+   */
+  public Buffer body(boolean trailingLine) {
+    if (trailingLine) {
+      if (bodyWithTrailingLine == null) {
+        bodyWithTrailingLine = encodeBody(true);
+      }
+      return bodyWithTrailingLine;
+    }
+    if (body == null) {
+      body = encodeBody(false);
+    }
+    return body;
+  }
+
+  /**
+   * Encodes the body eagerly. Once called, the instance can be used concurrently by several threads, as long as they
+   * use a prepared trailing line setting. Both settings can be prepared, when the subscriptions belong to servers
+   * configured differently.
+   *
+   * @param trailingLine whether or not a trailing line is added after the frame
+   * @return the current {@link SharedMessage}
+   */
+  public SharedMessage prepare(boolean trailingLine) {
+    body(trailingLine);
+    return this;
+  }
+
+  private Buffer encodeBody(boolean trailingLine) {
+    Buffer content = frame.getBody();
+    int length = content == null ? 0 : content.length();
+    Buffer buffer = Buffer.buffer(length + (trailingLine ? 2 : 1));
+    if (length > 0) {
+      buffer.appendBuffer(content);
+    }
+    buffer.appendByte((byte) 0);
+    if (trailingLine) {
+      buffer.appendByte((byte) '\n');
+    }
+    return buffer;
+  }
+
+  /**
+   * Creates the {@link Frame} sent to the given subscription. The body of the created frame is the body of the
+   * original frame.
+   *
+   * @param subscription the subscription id
+   * @param messageId    the message id
+   * @param ack          the ack id, {@code null} if the subscription does not acknowledge the messages
+   * @return the frame
+   */
+  public Frame toFrame(String subscription, String messageId, String ack) {
+    final Headers headers = Headers.create(frame.getHeaders())
+        .add(Frame.SUBSCRIPTION, subscription)
+        .add(Frame.MESSAGE_ID, messageId);
+    if (ack != null) {
+      headers.add(Frame.ACK, ack);
+    } else {
+      headers.remove(Frame.ACK);
+    }
+    return new Frame(Command.MESSAGE, headers, frame.getBody());
+  }
+}
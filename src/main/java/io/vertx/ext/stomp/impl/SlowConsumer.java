@@ -0,0 +1,312 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import io.vertx.core.internal.logging.Logger;
+import io.vertx.core.internal.logging.LoggerFactory;
+import io.vertx.ext.stomp.Frame;
+import io.vertx.ext.stomp.SlowConsumerOptions;
+import io.vertx.ext.stomp.SlowConsumerPolicy;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Applies a {@link SlowConsumerPolicy} to a subscription of a {@link Topic}. A subscription is slow while the write
+ * queue of its connection is full. The messages sent to a slow subscription are dropped, kept in a bounded ring,
+ * conflated or spooled to disk depending on the policy, and written once the connection is drained. As long as
+ * messages are pending, the new messages are kept behind them, so the subscription receives them in order.
+ * <p/>
+ * This class is thread safe.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+class SlowConsumer {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SlowConsumer.class);
+
+  private static final int SPOOL_SEGMENT_SIZE = 1024 * 1024;
+
+  private final Topic topic;
+  private final Topic.Subscription subscription;
+  private final StompServerTCPConnectionImpl connection;
+  private final SlowConsumerOptions options;
+
+  /**
+   * The pending messages, for the {@link SlowConsumerPolicy#DROP_OLDEST} policy.
+   */
+  private ArrayDeque<Frame> ring;
+
+  /**
+   * The pending messages indexed by key (messages without key use their own key), for the
+   * {@link SlowConsumerPolicy#CONFLATE} policy.
+   */
+  private LinkedHashMap<Object, Frame> latest;
+
+  /**
+   * The keys of the pending messages without key, in order, for the {@link SlowConsumerPolicy#CONFLATE} policy.
+   */
+  private ArrayDeque<Object> keyless;
+
+  /**
+   * The pending messages, for the {@link SlowConsumerPolicy#SPOOL} policy, created when the first message is spooled.
+   */
+  private Journal spool;
+  private File spoolDirectory;
+  private long nextSpooled;
+
+  private boolean waiting;
+  private boolean closed;
+
+  SlowConsumer(Topic topic, Topic.Subscription subscription, StompServerTCPConnectionImpl connection,
+               SlowConsumerOptions options) {
+    this.topic = topic;
+    this.subscription = subscription;
+    this.connection = connection;
+    this.options = options;
+    switch (options.getPolicy()) {
+      case DROP_OLDEST:
+        ring = new ArrayDeque<>();
+        break;
+      case CONFLATE:
+        latest = new LinkedHashMap<>();
+        keyless = new ArrayDeque<>();
+        break;
+      case SPOOL:
+        Objects.requireNonNull(options.getSpoolDirectory(), "The spool directory must be set");
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Applies the policy to the given message if the subscription is slow, or has pending messages.
+   *
+   * @param frame the message ({@code SEND} frame)
+   * @return {@code true} if the message has been handled by the policy, {@code false} if the message must be written
+   * to the subscription
+   */
+  boolean offer(Frame frame) {
+    boolean disconnect;
+    synchronized (this) {
+      if (closed || (isEmpty() && !connection.writeQueueFull())) {
+        return closed;
+      }
+      disconnect = apply(frame);
+    }
+    if (disconnect) {
+      connection.close();
+    }
+    return true;
+  }
+
+  private boolean apply(Frame frame) {
+    switch (options.getPolicy()) {
+      case DROP_NEWEST:
+        topic.dropped.increment();
+        return false;
+      case DISCONNECT:
+        closed = true;
+        topic.disconnected.increment();
+        return true;
+      case DROP_OLDEST:
+        if (ring.size() == options.getMaxPendingMessages()) {
+          ring.poll();
+          topic.dropped.increment();
+        }
+        ring.add(frame);
+        break;
+      case CONFLATE:
+        String key = frame.getHeader(options.getConflationKey());
+        if (key != null && latest.put(key, frame) != null) {
+          // Replaced in place, the map keeps the position of the first message.
+          topic.conflated.increment();
+          break;
+        }
+        if (key == null) {
+          Object own = new Object();
+          latest.put(own, frame);
+          keyless.add(own);
+        }
+        if (latest.size() > options.getMaxPendingMessages()) {
+          // The messages without key are dropped first, so the latest value of each key is kept when possible.
+          if (!keyless.isEmpty()) {
+            latest.remove(keyless.poll());
+          } else {
+            Iterator<Frame> iterator = latest.values().iterator();
+            iterator.next();
+            iterator.remove();
+          }
+          topic.dropped.increment();
+        }
+        break;
+      case SPOOL:
+        try {
+          boolean empty = isEmpty();
+          long sequence = spool().append(frame);
+          if (empty) {
+            nextSpooled = sequence;
+          }
+        } catch (IOException e) {
+          LOGGER.error("Cannot spool a message sent to " + subscription.destination + ", the message is dropped", e);
+          topic.dropped.increment();
+          return false;
+        }
+        topic.spooled.increment();
+        break;
+      default:
+        return false;
+    }
+    flush();
+    return false;
+  }
+
+  private boolean isEmpty() {
+    switch (options.getPolicy()) {
+      case DROP_OLDEST:
+        return ring.isEmpty();
+      case CONFLATE:
+        return latest.isEmpty();
+      case SPOOL:
+        return spool == null || spool.size() == 0;
+      default:
+        return true;
+    }
+  }
+
+  /**
+   * Removes the pending messages whose expiration time has passed. The spooled messages are only checked when they
+   * are read.
+   *
+   * @param now the current time
+   * @return the number of removed messages
+   */
+  synchronized int expire(long now) {
+    int count = 0;
+    Iterator<Frame> iterator = ring != null ? ring.iterator() : latest != null ? latest.values().iterator() : null;
+    while (iterator != null && iterator.hasNext()) {
+      if (Expiration.isExpired(Expiration.expires(iterator.next()), now)) {
+        iterator.remove();
+        count++;
+      }
+    }
+    if (count > 0 && keyless != null) {
+      keyless.removeIf(key -> !latest.containsKey(key));
+    }
+    return count;
+  }
+
+  private Frame poll() {
+    switch (options.getPolicy()) {
+      case DROP_OLDEST:
+        return ring.poll();
+      case CONFLATE:
+        Iterator<Map.Entry<Object, Frame>> iterator = latest.entrySet().iterator();
+        Map.Entry<Object, Frame> entry = iterator.next();
+        iterator.remove();
+        if (!(entry.getKey() instanceof String)) {
+          // The oldest pending message without key.
+          keyless.poll();
+        }
+        return entry.getValue();
+      case SPOOL:
+        long sequence = nextSpooled++;
+        Frame frame = spool.read(sequence);
+        spool.ack(sequence);
+        return frame;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Writes the pending messages until the write queue of the connection is full. Must be called when holding the
+   * monitor lock.
+   */
+  private void flush() {
+    while (!closed && !isEmpty()) {
+      if (connection.writeQueueFull()) {
+        if (!waiting) {
+          waiting = true;
+          connection.onDrain(v -> drained());
+        }
+        return;
+      }
+      Frame frame = poll();
+      if (Expiration.isExpired(Expiration.expires(frame), Expiration.now())) {
+        topic.expiration.dropped(1);
+        continue;
+      }
+      Topic.write(frame, null, subscription);
+    }
+  }
+
+  private synchronized void drained() {
+    waiting = false;
+    flush();
+  }
+
+  private Journal spool() throws IOException {
+    if (spool == null) {
+      spoolDirectory = new File(new File(options.getSpoolDirectory(),
+          URLEncoder.encode(subscription.destination, StandardCharsets.UTF_8)),
+          URLEncoder.encode(connection.session() + "-" + subscription.id, StandardCharsets.UTF_8));
+      // Leftovers of a previous subscription with the same session and subscription ids.
+      delete(spoolDirectory);
+      spool = new Journal(spoolDirectory, SPOOL_SEGMENT_SIZE);
+    }
+    return spool;
+  }
+
+  /**
+   * Releases the pending messages, once the subscription has ended.
+   */
+  synchronized void close() {
+    closed = true;
+    if (ring != null) {
+      ring.clear();
+    }
+    if (latest != null) {
+      latest.clear();
+      keyless.clear();
+    }
+    if (spool != null) {
+      // The spooled messages are dropped, so the journal is not synced.
+      spool.discard();
+      delete(spoolDirectory);
+      spool = null;
+    }
+  }
+
+  private static void delete(File directory) {
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    directory.delete();
+  }
+}
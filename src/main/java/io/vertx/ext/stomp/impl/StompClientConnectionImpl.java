@@ -45,6 +45,7 @@ public class StompClientConnectionImpl implements StompClientConnection, Handler
   private final StompClientOptions options;
   private final NetSocket socket;
   private final ContextInternal context;
+  private final WriteCoalescer coalescer;
 
   private volatile long lastServerActivity;
 
@@ -98,10 +99,11 @@ public class StompClientConnectionImpl implements StompClientConnection, Handler
     this.options = options;
     this.context = context;
     this.connectFuture = context.promise();
+    this.coalescer = options.isWriteCoalescing()
+      ? new WriteCoalescer(context, options.getWriteCoalescingMaxSize(), socket::write) : null;
     this.status = Status.CONNECTING;
 
-    FrameParser parser = new FrameParser();
-    parser.handler(this);
+    Handler<Buffer> parser = FrameParser.create(new StompServerOptions(), options.isUseByteFrameParser(), this, null);
     socket
       .shutdownHandler(this::handleShutdown)
       .handler(buffer -> {
@@ -147,14 +149,31 @@ public class StompClientConnectionImpl implements StompClientConnection, Handler
       }
       status = Status.CLOSING;
     }
+    flush();
     socket.close();
   }
 
+  @Override
+  public void flush() {
+    if (coalescer != null) {
+      coalescer.flush();
+    }
+  }
+
+  /**
+   * @return the coalescer gathering the frames written to this connection, {@code null} if the writes are not
+   * coalesced.
+   */
+  public WriteCoalescer coalescer() {
+    return coalescer;
+  }
+
   private void handleShutdown(Duration ignore) {
     synchronized (this) {
       if (status == Status.CONNECTED) {
         disconnect();
       }
+      flush();
       socket.close();
     }
   }
@@ -226,7 +245,7 @@ public class StompClientConnectionImpl implements StompClientConnection, Handler
 
   public synchronized StompClientConnection send(Frame frame, Completable<Frame> receiptHandler) {
     if (receiptHandler != null && frame.getCommand() != Command.PING) {
-      String receiptId = UUID.randomUUID().toString();
+      String receiptId = options.getIdGenerator().next();
       frame.addHeader(Frame.RECEIPT, receiptId);
       Promise<Void> promise = Promise.promise();
       promise.future().onComplete(f -> {
@@ -241,7 +260,8 @@ public class StompClientConnectionImpl implements StompClientConnection, Handler
     if (writingHandler != null) {
       writingHandler.handle(frame);
     }
-    Future<Void> written = socket.write(frame.toBuffer(options.isTrailingLine()));
+    Buffer encoded = FrameEncoder.encode(frame, options.isTrailingLine());
+    Future<Void> written = coalescer != null ? coalescer.write(encoded) : socket.write(encoded);
     if (receiptHandler != null && frame.getCommand() == Command.PING) {
       written
         .map(frame)
@@ -174,7 +174,7 @@ public class StompClientImpl implements StompClient {
           w.handle(frame);
         }
 
-        so.write(frame.toBuffer(options.isTrailingLine()));
+        so.write(FrameEncoder.encode(frame, options.isTrailingLine()));
 
         ((StompClientConnectionImpl)stompClientConnection).connectFuture().map(stompClientConnection).onComplete(resultHandler);
       }
@@ -119,20 +119,13 @@ public class StompServerImpl implements StompServer {
               h.handle(frame);
             }
           });
-          FrameParser parser = new FrameParser(options);
           socket.exceptionHandler((exception) -> {
             LOGGER.error("The STOMP server caught a TCP socket error - closing connection", exception);
             connection.close();
           });
           socket.endHandler(v -> connection.close());
-          parser
-              .errorHandler((exception) -> {
-                    connection.write(
-                        Frames.createInvalidFrameErrorFrame(exception));
-                    connection.close();
-                  }
-              )
-              .handler(frame -> {
+          socket.handler(FrameParser.create(options, options.isUseByteFrameParser(),
+              frame -> {
                 if (frame.getCommand() == Command.CONNECT || frame.getCommand() == Command.STOMP) {
                   if (firstFrame.compareAndSet(false, true)) {
                     stomp.handle(new ServerFrameImpl(frame, connection));
@@ -146,8 +139,12 @@ public class StompServerImpl implements StompServer {
                   connection.write(Frames.createErrorFrame("Not connected", Collections.emptyMap(), ""));
                   connection.close();
                 }
-              });
-          socket.handler(parser);
+              },
+              (exception) -> {
+                connection.write(
+                    Frames.createInvalidFrameErrorFrame(exception));
+                connection.close();
+              }));
         })
         .listen(port, host).onComplete(ar -> {
           if (ar.failed()) {
@@ -263,20 +260,13 @@ public class StompServerImpl implements StompServer {
           h.handle(frame);
         }
       });
-      FrameParser parser = new FrameParser(options);
       socket.exceptionHandler((exception) -> {
         LOGGER.error("The STOMP server caught a WebSocket error - closing connection", exception);
         connection.close();
       });
       socket.endHandler(v -> connection.close());
-      parser
-          .errorHandler((exception) -> {
-                connection.write(
-                    Frames.createInvalidFrameErrorFrame(exception));
-                connection.close();
-              }
-          )
-          .handler(frame -> {
+      socket.handler(FrameParser.create(options, options.isUseByteFrameParser(),
+          frame -> {
             if (frame.getCommand() == Command.CONNECT) {
               if (firstFrame.compareAndSet(false, true)) {
                 stomp.handle(new ServerFrameImpl(frame, connection));
@@ -290,8 +280,12 @@ public class StompServerImpl implements StompServer {
               connection.write(Frames.createErrorFrame("Not connected", Collections.emptyMap(), ""));
               connection.close();
             }
-          });
-      socket.handler(parser);
+          },
+          (exception) -> {
+            connection.write(
+                Frames.createInvalidFrameErrorFrame(exception));
+            connection.close();
+          }));
     };
   }
 
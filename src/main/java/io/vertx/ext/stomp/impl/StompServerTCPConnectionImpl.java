@@ -18,15 +18,21 @@ package io.vertx.ext.stomp.impl;
 
 import javax.net.ssl.SSLSession;
 
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.internal.ContextInternal;
 import io.vertx.core.internal.logging.Logger;
 import io.vertx.core.internal.logging.LoggerFactory;
 import io.vertx.core.net.NetSocket;
 import io.vertx.ext.stomp.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -34,19 +40,38 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * Default implementation of the {@link StompServerConnection}.
  *
  * @author <a href="http://escoffier.me">Clement Escoffier</a>
+ * @author <a href="mailto:agent@local">agent</a>
  */
 public class StompServerTCPConnectionImpl implements StompServerConnection {
 
   private static final Logger log = LoggerFactory.getLogger(StompServerTCPConnectionImpl.class);
 
+  /**
+   * The separator of the key and of the delivery sequence in the ack ids indexed by {@link #acks()}.
+   */
+  public static final char ACK_SEPARATOR = ':';
+
   private final StompServer server;
   private final NetSocket socket;
   private final String sessionId;
+  private final ContextInternal context;
+  private final WriteCoalescer coalescer;
   protected final Handler<ServerFrame> handler;
 
   public volatile long lastClientActivity;
   private long pinger = -1;
   private long ponger = -1;
+  private List<Handler<Void>> drainHandlers;
+
+  /**
+   * The subscriptions made by this connection: subscription id -> destination.
+   */
+  private final Map<String, Destination> subscriptions = new ConcurrentHashMap<>();
+
+  /**
+   * The destinations waiting for the acknowledgment of messages sent to this connection: ack key -> destination.
+   */
+  private final Map<String, Destination> acks = new ConcurrentHashMap<>();
 
   private final AtomicBoolean closed = new AtomicBoolean(false);
 
@@ -55,8 +80,10 @@ public class StompServerTCPConnectionImpl implements StompServerConnection {
     Objects.requireNonNull(server);
     this.socket = socket;
     this.server = server;
-    this.sessionId = UUID.randomUUID().toString();
+    this.sessionId = server.options().getIdGenerator().next();
     this.handler = writingFrameHandler;
+    this.context = (ContextInternal) Vertx.currentContext();
+    this.coalescer = createCoalescer();
   }
 
   public StompServerTCPConnectionImpl(StompServer server, Handler<ServerFrame> writingFrameHandler) {
@@ -64,7 +91,25 @@ public class StompServerTCPConnectionImpl implements StompServerConnection {
     this.socket = null;
     this.server = server;
     this.handler = writingFrameHandler;
-    this.sessionId = UUID.randomUUID().toString();
+    this.sessionId = server.options().getIdGenerator().next();
+    this.context = (ContextInternal) Vertx.currentContext();
+    this.coalescer = createCoalescer();
+  }
+
+  private WriteCoalescer createCoalescer() {
+    StompServerOptions options = server.options();
+    if (!options.isWriteCoalescing() || context == null) {
+      return null;
+    }
+    return new WriteCoalescer(context, options.getWriteCoalescingMaxSize(), this::writeNow);
+  }
+
+  /**
+   * @return the context handling the connection (the context creating the connection), {@code null} if the
+   * connection has not been created from a vert.x thread.
+   */
+  public ContextInternal context() {
+    return context;
   }
 
   @Override
@@ -72,15 +117,156 @@ public class StompServerTCPConnectionImpl implements StompServerConnection {
     if (handler != null) {
       handler.handle(new ServerFrameImpl(frame, this));
     }
-    return write(frame.toBuffer(server.options().isTrailingLine()));
+    return write(FrameEncoder.encode(frame, server.options().isTrailingLine()));
   }
 
   @Override
-  public StompServerConnection write(Buffer buffer) {
-    socket.write(buffer);
+  public synchronized StompServerConnection write(Buffer buffer) {
+    if (coalescer != null) {
+      coalescer.write(buffer);
+    } else {
+      writeNow(buffer);
+    }
     return this;
   }
 
+  /**
+   * Writes the given buffer to the underlying socket, without coalescing it with other frames.
+   *
+   * @param buffer the buffer
+   * @return a future completed once the buffer has been written
+   */
+  protected Future<Void> writeNow(Buffer buffer) {
+    return socket.write(buffer);
+  }
+
+  @Override
+  public void flush() {
+    if (coalescer != null) {
+      coalescer.flush();
+    }
+  }
+
+  /**
+   * @return the coalescer gathering the frames written to this connection, {@code null} if the writes are not
+   * coalesced.
+   */
+  public WriteCoalescer coalescer() {
+    return coalescer;
+  }
+
+  /**
+   * Writes a {@code MESSAGE} frame shared with other subscriptions. Only the headers specific to the subscription are
+   * encoded, the encoded body is written without being copied.
+   *
+   * @param message      the message
+   * @param subscription the subscription id
+   * @param messageId    the message id
+   * @param ack          the ack id, {@code null} if the subscription does not acknowledge the messages
+   * @return the current {@link StompServerConnection}
+   */
+  public StompServerConnection write(SharedMessage message, String subscription, String messageId, String ack) {
+    if (handler != null) {
+      handler.handle(new ServerFrameImpl(message.toFrame(subscription, messageId, ack), this));
+    }
+    write(message.head(subscription, messageId, ack), message.body(server.options().isTrailingLine()));
+    return this;
+  }
+
+  /**
+   * Writes a frame split in two buffers. No other write can happen between the two buffers.
+   *
+   * @param head the command and headers of the frame
+   * @param body the body of the frame, followed by the {@code NULL} octet
+   */
+  protected synchronized void write(Buffer head, Buffer body) {
+    if (coalescer != null) {
+      coalescer.write(head, body);
+    } else {
+      socket.write(head);
+      socket.write(body);
+    }
+  }
+
+  /**
+   * @return whether or not the write queue of the underlying socket is full.
+   */
+  public boolean writeQueueFull() {
+    return socket.writeQueueFull();
+  }
+
+  /**
+   * Registers a handler called once, when the write queue of the underlying socket is drained. Several handlers can
+   * be registered, for instance by several destinations.
+   *
+   * @param handler the handler
+   */
+  public void onDrain(Handler<Void> handler) {
+    synchronized (this) {
+      if (drainHandlers == null) {
+        drainHandlers = new ArrayList<>();
+        drainHandler(v -> drained());
+      }
+      drainHandlers.add(handler);
+    }
+  }
+
+  private void drained() {
+    List<Handler<Void>> handlers;
+    synchronized (this) {
+      handlers = drainHandlers;
+      drainHandlers = null;
+    }
+    if (handlers != null) {
+      handlers.forEach(h -> h.handle(null));
+    }
+  }
+
+  /**
+   * Sets the drain handler of the underlying socket.
+   *
+   * @param handler the handler
+   */
+  protected void drainHandler(Handler<Void> handler) {
+    socket.drainHandler(handler);
+  }
+
+  /**
+   * Gets the subscriptions made by this connection, indexed by subscription id. The registry is maintained by the
+   * {@code SUBSCRIBE} and {@code UNSUBSCRIBE} handlers, so checking the subscription ids and routing the
+   * {@code UNSUBSCRIBE} frames does not iterate over all the destinations.
+   *
+   * @return the mutable map subscription id -> destination
+   */
+  public Map<String, Destination> subscriptions() {
+    return subscriptions;
+  }
+
+  /**
+   * Gets the destinations waiting for the acknowledgment of the messages sent to this connection, indexed by ack key.
+   * The destinations tracking acknowledgments write ack ids formatted as {@code key:sequence}, the key identifying
+   * the subscription, and the sequence the delivery. They add an entry per subscription (not per message) when the
+   * subscription is made, and remove it when the subscription ends. It is used to route the {@code ACK} and
+   * {@code NACK} frames without iterating over all the destinations. The frames whose key is not indexed are offered
+   * to all the destinations, so custom destinations do not need to register their subscriptions.
+   *
+   * @return the mutable map ack key -> destination
+   */
+  public Map<String, Destination> acks() {
+    return acks;
+  }
+
+  /**
+   * Gets the key of an ack id (see {@link #acks()}).
+   *
+   * @param ack the ack id
+   * @return the key, the ack id itself if it does not contain a sequence
+   */
+  public static String ackKey(String ack) {
+    int index = ack.lastIndexOf(ACK_SEPARATOR);
+    return index == -1 ? ack : ack.substring(0, index);
+  }
+
   @Override
   public StompServer server() {
     return server;
@@ -106,6 +292,7 @@ public class StompServerTCPConnectionImpl implements StompServerConnection {
     if (closed.compareAndSet(false, true)) {
       cancelHeartbeat();
       handler().onClose(this);
+      flush();
       socket.close();
     }
   }
@@ -118,7 +305,9 @@ public class StompServerTCPConnectionImpl implements StompServerConnection {
     if (handler != null) {
       handler.handle(new ServerFrameImpl(Frames.PING, this));
     }
-    socket.write(Buffer.buffer(FrameParser.EOL));
+    synchronized (this) {
+      socket.write(Buffer.buffer(FrameParser.EOL));
+    }
   }
 
   public synchronized void cancelHeartbeat() {
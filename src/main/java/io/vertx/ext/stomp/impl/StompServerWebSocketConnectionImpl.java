@@ -16,9 +16,11 @@
 
 package io.vertx.ext.stomp.impl;
 
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.http.WebSocketFrame;
 import io.vertx.ext.stomp.*;
 
 import javax.net.ssl.SSLSession;
@@ -50,13 +52,36 @@ public class StompServerWebSocketConnectionImpl extends StompServerTCPConnection
   }
 
   @Override
-  public StompServerConnection write(Buffer buffer) {
+  protected Future<Void> writeNow(Buffer buffer) {
     if (webSocketFrameType == WebSocketFrameType.TEXT) {
-      socket.writeTextMessage(buffer.toString("UTF-8"));
+      return socket.writeTextMessage(buffer.toString("UTF-8"));
     } else {
-      socket.writeBinaryMessage(buffer);
+      return socket.writeBinaryMessage(buffer);
     }
-    return this;
+  }
+
+  @Override
+  protected synchronized void write(Buffer head, Buffer body) {
+    if (coalescer() != null) {
+      // The coalesced frames are written as a single WebSocket message.
+      coalescer().write(head, body);
+    } else if (webSocketFrameType == WebSocketFrameType.TEXT) {
+      socket.writeTextMessage(head.toString("UTF-8") + body.toString("UTF-8"));
+    } else {
+      // A single WebSocket message, fragmented to avoid copying the body.
+      socket.writeFrame(WebSocketFrame.binaryFrame(head, false));
+      socket.writeFrame(WebSocketFrame.continuationFrame(body, true));
+    }
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    return socket.writeQueueFull();
+  }
+
+  @Override
+  protected void drainHandler(Handler<Void> handler) {
+    socket.drainHandler(handler);
   }
 
   @Override
@@ -64,7 +89,9 @@ public class StompServerWebSocketConnectionImpl extends StompServerTCPConnection
     if (handler != null) {
       handler.handle(new ServerFrameImpl(Frames.PING, this));
     }
-    socket.write(Buffer.buffer(FrameParser.EOL));
+    synchronized (this) {
+      socket.write(Buffer.buffer(FrameParser.EOL));
+    }
   }
 
   @Override
@@ -72,6 +99,7 @@ public class StompServerWebSocketConnectionImpl extends StompServerTCPConnection
     if (closed.compareAndSet(false, true)) {
       cancelHeartbeat();
       handler().onClose(this);
+      flush();
       socket.close();
     }
   }
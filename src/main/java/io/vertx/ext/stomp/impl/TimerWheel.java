@@ -0,0 +1,188 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.core.internal.VertxInternal;
+import io.vertx.core.internal.logging.Logger;
+import io.vertx.core.internal.logging.LoggerFactory;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A hashed timer wheel, executing tasks at a given time (in ms since the epoch) with a resolution of
+ * {@link #TICK} ms. The wheel is an array of slots, each slot containing the tasks due at the ticks mapped to it. So
+ * scheduling a task is O(1), and a single periodic timer advances the wheel, whatever the number of scheduled tasks.
+ * The timer only runs while tasks are scheduled.
+ * <p/>
+ * A task scheduled several times for the same tick is executed once, so destinations can schedule a check per
+ * message: the checks of the messages expiring in the same tick are coalesced.
+ * <p/>
+ * A single instance is shared by all the STOMP servers of the Vert.x instance, as they share the destinations. This
+ * class is thread safe. The timer runs on an event loop context created by the wheel, so it does not depend on the
+ * lifecycle of the verticle scheduling the first task. Tasks are executed by this context, outside of the lock of the
+ * wheel.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class TimerWheel implements Shareable {
+
+  /**
+   * The duration of a tick, in ms.
+   */
+  public static final long TICK = 100;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TimerWheel.class);
+
+  private static final String WHEEL_MAP = "stomp.timer-wheel";
+  private static final int SLOTS = 512;
+
+  private final Vertx vertx;
+  private final ContextInternal context;
+  /**
+   * The entries of each slot, a set so a task scheduled several times for the same tick is only kept once.
+   */
+  private final List<Set<Entry>> slots = new ArrayList<>(SLOTS);
+  private int size;
+  /**
+   * The next tick to process.
+   */
+  private long tick;
+  private long timer = -1;
+
+  /**
+   * Gets the wheel of the given Vert.x instance.
+   *
+   * @param vertx the vert.x instance
+   * @return the wheel
+   */
+  public static TimerWheel get(Vertx vertx) {
+    LocalMap<String, TimerWheel> map = vertx.sharedData().getLocalMap(WHEEL_MAP);
+    TimerWheel wheel = map.get(WHEEL_MAP);
+    if (wheel == null) {
+      TimerWheel created = new TimerWheel(vertx);
+      wheel = map.putIfAbsent(WHEEL_MAP, created);
+      if (wheel == null) {
+        wheel = created;
+      }
+    }
+    return wheel;
+  }
+
+  private TimerWheel(Vertx vertx) {
+    this.vertx = vertx;
+    this.context = ((VertxInternal) vertx).createEventLoopContext();
+    for (int i = 0; i < SLOTS; i++) {
+      slots.add(new LinkedHashSet<>());
+    }
+  }
+
+  /**
+   * Schedules a task. Tasks whose time has already passed are executed at the next tick.
+   *
+   * @param time the time (in ms since the epoch)
+   * @param task the task
+   */
+  public synchronized void schedule(long time, Runnable task) {
+    if (timer == -1) {
+      tick = now() / TICK;
+      timer = context.setPeriodic(TICK, id -> advance());
+    }
+    long target = Math.max(tick, (time + TICK - 1) / TICK);
+    if (slots.get((int) (target % SLOTS)).add(new Entry(target, task))) {
+      size++;
+    }
+  }
+
+  /**
+   * @return the number of scheduled tasks.
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  private void advance() {
+    Set<Runnable> due = new LinkedHashSet<>();
+    synchronized (this) {
+      long current = now() / TICK;
+      // The ticks missed while the event loop was busy are caught up, visiting each slot at most once.
+      for (long t = Math.max(tick, current - SLOTS + 1); t <= current; t++) {
+        Iterator<Entry> iterator = slots.get((int) (t % SLOTS)).iterator();
+        while (iterator.hasNext()) {
+          Entry entry = iterator.next();
+          // The other entries are due in a later round.
+          if (entry.tick <= current) {
+            due.add(entry.task);
+            iterator.remove();
+            size--;
+          }
+        }
+      }
+      tick = current + 1;
+      if (size == 0) {
+        vertx.cancelTimer(timer);
+        timer = -1;
+      }
+    }
+    for (Runnable task : due) {
+      try {
+        task.run();
+      } catch (RuntimeException e) {
+        LOGGER.error("Timer wheel task failed", e);
+      }
+    }
+  }
+
+  private static long now() {
+    return System.currentTimeMillis();
+  }
+
+  private static final class Entry {
+    private final long tick;
+    private final Runnable task;
+
+    private Entry(long tick, Runnable task) {
+      this.tick = tick;
+      this.task = task;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      Entry that = (Entry) o;
+      // Tasks are compared by identity, as they are not expected to implement equals.
+      return tick == that.tick && task == that.task;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * Long.hashCode(tick) + System.identityHashCode(task);
+    }
+  }
+}
@@ -17,32 +17,102 @@
 package io.vertx.ext.stomp.impl;
 
 import io.vertx.core.Vertx;
+import io.vertx.core.internal.ContextInternal;
 import io.vertx.ext.stomp.Command;
 import io.vertx.ext.stomp.Destination;
+import io.vertx.ext.stomp.ExpirationOptions;
 import io.vertx.ext.stomp.Frame;
+import io.vertx.ext.stomp.SlowConsumerOptions;
+import io.vertx.ext.stomp.SlowConsumerPolicy;
 import io.vertx.ext.stomp.StompServerConnection;
+import io.vertx.ext.stomp.TopicOptions;
 import io.vertx.ext.stomp.utils.Headers;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
  * Implementation of {@link io.vertx.ext.stomp.Destination} dispatching messages to all subscribers.
+ * <p/>
+ * The subscriptions are stored in a copy-on-write list: subscribing and un-subscribing replace the array of
+ * subscriptions, while dispatching iterates over the current array without locking. So, messages sent to the same
+ * topic from different threads are dispatched concurrently.
+ * <p/>
+ * By default, the messages are written to all the subscriptions by the thread dispatching the message. When the
+ * parallel fan-out is enabled, the subscriptions are grouped by the context (so the event loop) of their connection,
+ * and each group is written by its own event loop, as a single task. So, messages sent to topics with many
+ * subscriptions are encoded and written by several event loops in parallel. The messages sent by a connection are
+ * still received in order by each subscription, as the tasks of an event loop are executed in order.
+ * <p/>
+ * The subscriptions whose connection cannot keep up are handled according to the configured
+ * {@link SlowConsumerPolicy}. The number of times each policy has been applied is counted.
+ * <p/>
+ * A topic can retain its last messages (or the last message per key), replayed to each new subscription right after
+ * it has been registered. Retaining a message and taking the snapshot of the subscriptions receiving it is atomic
+ * with the subscription, so a new subscription receives each message once.
+ * <p/>
+ * Subscriptions can set a {@link Selector} using the {@code selector} header, to only receive the messages whose
+ * headers match the selector. The selectors are evaluated before the messages are encoded, and the subscriptions
+ * using selectors are indexed (see {@link SelectorIndex}), so the equality selectors are not evaluated one by one.
+ * <p/>
+ * Messages expire according to their {@code expires} header or the default time to live of the topic (see
+ * {@link ExpirationOptions}). Messages already expired when sent are dropped or sent to the expiry destination. The
+ * expired copies kept for the retained messages and the slow subscriptions are dropped, as the message may have been
+ * delivered to the other subscriptions. A check is scheduled on the {@link TimerWheel} at the expiration time of each
+ * message kept by the topic.
  *
  * @author <a href="http://escoffier.me">Clement Escoffier</a>
+ * @author <a href="mailto:agent@local">agent</a>
  */
 public class Topic implements Destination {
 
   protected final String destination;
 
-  protected final List<Subscription> subscriptions = new ArrayList<>();
+  protected final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
   protected final Vertx vertx;
+  protected final boolean parallelFanOut;
+  protected final SlowConsumerOptions slowConsumerOptions;
+  private final RetainedMessages retained;
+  final Expiration expiration;
+  private final Runnable expirationCheck = this::expire;
+
+  /**
+   * The index of the subscriptions, {@code null} if no subscriptions use a selector. Updated when the subscriptions
+   * change, and built when the first subscription using a selector is made.
+   */
+  private volatile SelectorIndex index;
+
+  final LongAdder dropped = new LongAdder();
+  final LongAdder conflated = new LongAdder();
+  final LongAdder disconnected = new LongAdder();
+  final LongAdder spooled = new LongAdder();
 
   public Topic(Vertx vertx, String destination) {
+    this(vertx, destination, new TopicOptions());
+  }
+
+  /**
+   * Creates a new {@link Topic}.
+   *
+   * @param vertx       the vert.x instance
+   * @param destination the destination
+   * @param options     the options configuring the parallel fan-out, the slow subscriptions, the retained messages
+   *                    and the expiration of the messages
+   */
+  public Topic(Vertx vertx, String destination, TopicOptions options) {
     this.destination = destination;
     this.vertx = vertx;
+    this.parallelFanOut = options.isParallelFanOut();
+    this.slowConsumerOptions = new SlowConsumerOptions(options.getSlowConsumer());
+    this.retained = options.getRetain() != null ? new RetainedMessages(options.getRetain()) : null;
+    this.expiration = new Expiration(vertx, destination, options.getExpiration());
   }
 
   /**
@@ -61,15 +131,123 @@ public class Topic implements Destination {
    * @return the current instance of {@link Destination}
    */
   @Override
-  public synchronized Destination dispatch(StompServerConnection connection, Frame frame) {
-    for (Subscription subscription : subscriptions) {
-      String messageId = UUID.randomUUID().toString();
-      Frame message = transform(frame, subscription, messageId);
-      subscription.connection.write(message);
+  public Destination dispatch(StompServerConnection connection, Frame frame) {
+    frame = expiration.stamp(frame);
+    long expires = Expiration.expires(frame);
+    if (Expiration.isExpired(expires, Expiration.now())) {
+      expiration.expired(frame);
+      return this;
+    }
+    if (retained != null || slowConsumerOptions.getPolicy() != SlowConsumerPolicy.NONE) {
+      // The message may be kept by the topic.
+      expiration.track(expires, expirationCheck);
+    }
+    List<Subscription> recipients;
+    if (retained != null) {
+      // A new subscription receives the message either from the retained messages or from the dispatch, not both.
+      synchronized (this) {
+        retained.retain(frame);
+        recipients = index != null ? index.select(frame) : new ArrayList<>(subscriptions);
+      }
+    } else {
+      SelectorIndex current = index;
+      recipients = current != null ? current.select(frame) : subscriptions;
+    }
+    if (parallelFanOut) {
+      fanOut(frame, recipients);
+    } else {
+      send(frame, recipients);
     }
     return this;
   }
 
+  /**
+   * Sends the given frame as a {@code MESSAGE} frame to each of the given subscriptions, from the event loops of their
+   * connections. The subscriptions handled by the current event loop, or whose connection has no context, are written
+   * immediately.
+   *
+   * @param frame      the frame ({@code SEND} frame).
+   * @param recipients the subscriptions receiving the message
+   */
+  protected void fanOut(Frame frame, List<Subscription> recipients) {
+    List<Subscription> local = new ArrayList<>();
+    Map<ContextInternal, List<Subscription>> groups = new HashMap<>();
+    // The trailing line settings of the servers of the remote subscriptions.
+    boolean withTrailingLine = false;
+    boolean withoutTrailingLine = false;
+    for (Subscription subscription : recipients) {
+      ContextInternal context = subscription.connection instanceof StompServerTCPConnectionImpl
+          ? ((StompServerTCPConnectionImpl) subscription.connection).context() : null;
+      if (context == null || context.inThread()) {
+        local.add(subscription);
+      } else {
+        groups.computeIfAbsent(context, c -> new ArrayList<>()).add(subscription);
+        if (subscription.connection.server().options().isTrailingLine()) {
+          withTrailingLine = true;
+        } else {
+          withoutTrailingLine = true;
+        }
+      }
+    }
+    if (groups.isEmpty()) {
+      send(frame, local);
+      return;
+    }
+    // The body is encoded, once per trailing line setting, before being shared by the event loops.
+    SharedMessage message = new SharedMessage(frame);
+    if (withTrailingLine) {
+      message.prepare(true);
+    }
+    if (withoutTrailingLine) {
+      message.prepare(false);
+    }
+    groups.forEach((context, group) -> context.execute(() -> send(frame, message, group)));
+    send(frame, message, local);
+  }
+
+  /**
+   * Sends the given frame as a {@code MESSAGE} frame to each of the given subscriptions.
+   *
+   * @param frame      the frame ({@code SEND} frame).
+   * @param recipients the subscriptions receiving the message
+   */
+  protected void send(Frame frame, List<Subscription> recipients) {
+    send(frame, null, recipients);
+  }
+
+  private static void send(Frame frame, SharedMessage shared, List<Subscription> recipients) {
+    // The headers and the body are encoded once, and shared by the subscriptions.
+    SharedMessage message = shared;
+    for (Subscription subscription : recipients) {
+      if (subscription.slowConsumer != null && subscription.slowConsumer.offer(frame)) {
+        continue;
+      }
+      message = write(frame, message, subscription);
+    }
+  }
+
+  /**
+   * Writes the given frame as a {@code MESSAGE} frame to the given subscription.
+   *
+   * @param frame        the frame ({@code SEND} frame).
+   * @param message      the encoded message, {@code null} if not encoded yet
+   * @param subscription the subscription
+   * @return the encoded message, if the frame has been encoded
+   */
+  static SharedMessage write(Frame frame, SharedMessage message, Subscription subscription) {
+    String messageId = IdGenerators.of(subscription.connection).next();
+    if (subscription.connection instanceof StompServerTCPConnectionImpl) {
+      if (message == null) {
+        message = new SharedMessage(frame);
+      }
+      ((StompServerTCPConnectionImpl) subscription.connection).write(message, subscription.id, messageId,
+          subscription.ackMode.equals("auto") ? null : messageId);
+    } else {
+      subscription.connection.write(transform(frame, subscription, messageId));
+    }
+    return message;
+  }
+
   public static Frame transform(Frame frame, Subscription subscription, String messageId) {
     final Headers headers = Headers.create(frame.getHeaders())
         // Destination already set in the input headers.
@@ -91,14 +269,53 @@ public class Topic implements Destination {
    * @param connection the connection
    * @param frame      the {@code SUBSCRIBE} frame
    * @return the current instance of {@link Destination}
+   * @throws IllegalArgumentException if the selector is invalid
    */
   @Override
   public synchronized Destination subscribe(StompServerConnection connection, Frame frame) {
     Subscription subscription = new Subscription(connection, frame);
+    if (slowConsumerOptions.getPolicy() != SlowConsumerPolicy.NONE
+        && connection instanceof StompServerTCPConnectionImpl) {
+      subscription.slowConsumer = new SlowConsumer(this, subscription, (StompServerTCPConnectionImpl) connection,
+          slowConsumerOptions);
+    }
     subscriptions.add(subscription);
+    if (index != null) {
+      index.add(subscription);
+    } else if (subscription.selector != null) {
+      index = SelectorIndex.build(subscriptions);
+    }
+    if (retained != null) {
+      expiration.dropped(retained.expire(Expiration.now()));
+      List<Subscription> recipient = Collections.singletonList(subscription);
+      retained.forEach((message, encoded) -> {
+        if (subscription.selects(message)) {
+          send(message, encoded, recipient);
+        }
+      });
+    }
     return this;
   }
 
+  /**
+   * Removes the expired messages kept for the retained messages and the slow subscriptions.
+   */
+  private void expire() {
+    long now = Expiration.now();
+    int count = 0;
+    synchronized (this) {
+      if (retained != null) {
+        count += retained.expire(now);
+      }
+    }
+    for (Subscription subscription : subscriptions) {
+      if (subscription.slowConsumer != null) {
+        count += subscription.slowConsumer.expire(now);
+      }
+    }
+    expiration.dropped(count);
+  }
+
   /**
    * Handles a un-subscription request to the current {@link Destination}.
    *
@@ -108,13 +325,14 @@ public class Topic implements Destination {
    */
   @Override
   public synchronized boolean unsubscribe(StompServerConnection connection, Frame frame) {
-    boolean removed = subscriptions.removeIf(
+    boolean removed = remove(
       // Subscription id are unique for a connection.
       subscription -> subscription.connection.equals(connection) && subscription.id.equals(frame.getId())
     );
 
-    if (subscriptions.isEmpty()) {
-      vertx.sharedData().getLocalMap("stomp.destinations").remove(this);
+    // Topics retaining messages stay registered, so the retained messages are kept.
+    if (subscriptions.isEmpty() && retained == null) {
+      DestinationRegistry.get(vertx).remove(this);
     }
     return removed;
   }
@@ -127,14 +345,37 @@ public class Topic implements Destination {
    */
   @Override
   public synchronized Destination unsubscribeConnection(StompServerConnection connection) {
-    subscriptions.removeIf(subscription -> subscription.connection.equals(connection));
+    remove(subscription -> subscription.connection.equals(connection));
 
-    if (subscriptions.isEmpty()) {
-      vertx.sharedData().getLocalMap("stomp.destinations").remove(this);
+    // Topics retaining messages stay registered, so the retained messages are kept.
+    if (subscriptions.isEmpty() && retained == null) {
+      DestinationRegistry.get(vertx).remove(this);
     }
     return this;
   }
 
+  private boolean remove(Predicate<Subscription> predicate) {
+    List<Subscription> removed = new ArrayList<>();
+    for (Subscription subscription : subscriptions) {
+      if (predicate.test(subscription)) {
+        removed.add(subscription);
+      }
+    }
+    subscriptions.removeAll(removed);
+    if (index != null) {
+      removed.forEach(index::remove);
+      if (!index.hasSelectors()) {
+        index = null;
+      }
+    }
+    for (Subscription subscription : removed) {
+      if (subscription.slowConsumer != null) {
+        subscription.slowConsumer.close();
+      }
+    }
+    return !removed.isEmpty();
+  }
+
   /**
    * Handles a {@code ACK} frame.
    *
@@ -143,7 +384,7 @@ public class Topic implements Destination {
    * @return {@code true} if the destination has handled the frame (meaning it has sent the message with id)
    */
   @Override
-  public synchronized boolean ack(StompServerConnection connection, Frame frame) {
+  public boolean ack(StompServerConnection connection, Frame frame) {
     return false;
   }
 
@@ -155,7 +396,7 @@ public class Topic implements Destination {
    * @return {@code true} if the destination has handled the frame (meaning it has sent the message with id)
    */
   @Override
-  public synchronized boolean nack(StompServerConnection connection, Frame frame) {
+  public boolean nack(StompServerConnection connection, Frame frame) {
     return false;
   }
 
@@ -166,7 +407,7 @@ public class Topic implements Destination {
    * @return the list of subscription id, empty if none
    */
   @Override
-  public synchronized List<String> getSubscriptions(StompServerConnection connection) {
+  public List<String> getSubscriptions(StompServerConnection connection) {
     return subscriptions.stream()
         .filter(subscription -> subscription.connection.equals(connection))
         .map(s -> s.id)
@@ -179,10 +420,56 @@ public class Topic implements Destination {
    * @return the number of subscriptions.
    */
   @Override
-  public synchronized int numberOfSubscriptions() {
+  public int numberOfSubscriptions() {
     return subscriptions.size();
   }
 
+  /**
+   * @return the number of messages dropped by the {@link SlowConsumerPolicy#DROP_NEWEST},
+   * {@link SlowConsumerPolicy#DROP_OLDEST} and {@link SlowConsumerPolicy#CONFLATE} policies (or because they could not
+   * be spooled).
+   */
+  public long numberOfDroppedMessages() {
+    return dropped.sum();
+  }
+
+  /**
+   * @return the number of pending messages replaced by a message having the same key, by the
+   * {@link SlowConsumerPolicy#CONFLATE} policy.
+   */
+  public long numberOfConflatedMessages() {
+    return conflated.sum();
+  }
+
+  /**
+   * @return the number of connections closed by the {@link SlowConsumerPolicy#DISCONNECT} policy.
+   */
+  public long numberOfDisconnectedConsumers() {
+    return disconnected.sum();
+  }
+
+  /**
+   * @return the number of messages spooled to disk by the {@link SlowConsumerPolicy#SPOOL} policy.
+   */
+  public long numberOfSpooledMessages() {
+    return spooled.sum();
+  }
+
+  /**
+   * @return the number of expired messages (dropped or sent to the expiry destination), including the expired copies
+   * kept for the retained messages and the slow subscriptions.
+   */
+  public long numberOfExpiredMessages() {
+    return expiration.count();
+  }
+
+  /**
+   * @return the number of messages retained to be replayed to the new subscriptions.
+   */
+  public synchronized int numberOfRetainedMessages() {
+    return retained != null ? retained.size() : 0;
+  }
+
   /**
    * Checks whether or not the given address matches with the current destination.
    *
@@ -199,12 +486,33 @@ public class Topic implements Destination {
     final String id;
     final String ackMode;
     final String destination;
+    /**
+     * The selector, {@code null} if the subscription receives all the messages.
+     */
+    final Selector selector;
+    SlowConsumer slowConsumer;
 
+    /**
+     * Creates a new subscription.
+     *
+     * @param connection the connection
+     * @param frame      the {@code SUBSCRIBE} frame
+     * @throws IllegalArgumentException if the selector of the subscription is invalid
+     */
     protected Subscription(StompServerConnection connection, Frame frame) {
       this.connection = connection;
       this.ackMode = frame.getAck() != null ? frame.getAck() : "auto";
       this.id = frame.getId();
       this.destination = frame.getDestination();
+      this.selector = Selector.of(frame);
+    }
+
+    /**
+     * @param frame the message ({@code SEND} frame)
+     * @return whether or not the subscription receives the given message, according to its selector
+     */
+    boolean selects(Frame frame) {
+      return selector == null || selector.test(frame);
     }
   }
 
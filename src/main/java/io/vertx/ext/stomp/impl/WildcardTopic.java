@@ -0,0 +1,220 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import io.vertx.core.Vertx;
+import io.vertx.ext.stomp.Destination;
+import io.vertx.ext.stomp.Frame;
+import io.vertx.ext.stomp.StompServerConnection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A topic managing all the addresses of a hierarchy, such as {@code /prices/EUR/USD} for the {@code /prices}
+ * hierarchy. Segments are separated by {@code /}. Subscriptions can use wildcards:
+ * <ul>
+ * <li>{@code *} matches exactly one segment: {@code /prices/*}{@code /USD} matches {@code /prices/EUR/USD} but not
+ * {@code /prices/EUR/X/USD},</li>
+ * <li>{@code >} matches one or more segments, and must be the last segment: {@code /prices/>} matches
+ * {@code /prices/EUR} and {@code /prices/EUR/USD} but not {@code /prices}.</li>
+ * </ul>
+ * The subscriptions are stored in a segment trie, so dispatching a message depends on the number of segments of the
+ * address, and not on the number of subscriptions.
+ * <p/>
+ * A single instance must be used for the hierarchy, generally returned by a
+ * {@link io.vertx.ext.stomp.DestinationFactory} for all the addresses of the hierarchy.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class WildcardTopic extends Topic {
+
+  /**
+   * Matches exactly one segment.
+   */
+  public static final String ANY_SEGMENT = "*";
+
+  /**
+   * Matches one or more segments.
+   */
+  public static final String ANY_SEGMENTS = ">";
+
+  private static final char SEPARATOR = '/';
+
+  private final String prefix;
+  private final Node root = new Node();
+
+  /**
+   * Creates a new {@link WildcardTopic}.
+   *
+   * @param vertx       the vert.x instance
+   * @param destination the root of the hierarchy, such as {@code /prices}
+   */
+  public WildcardTopic(Vertx vertx, String destination) {
+    super(vertx, destination);
+    this.prefix = destination.endsWith("/") ? destination : destination + SEPARATOR;
+  }
+
+  /**
+   * Dispatches the given frame to the subscriptions matching the destination of the frame.
+   *
+   * @param connection the connection
+   * @param frame      the frame ({@code SEND} frame).
+   * @return the current instance of {@link Destination}
+   */
+  @Override
+  public synchronized Destination dispatch(StompServerConnection connection, Frame frame) {
+    List<Subscription> recipients = new ArrayList<>();
+    root.collect(split(frame.getDestination()), 0, recipients);
+    recipients.removeIf(subscription -> !subscription.selects(frame));
+    send(frame, recipients);
+    return this;
+  }
+
+  /**
+   * Handles a subscription request to the current {@link Destination}. The subscription is rejected if the
+   * {@code >} wildcard is not the last segment of the destination, or if its selector is invalid.
+   *
+   * @param connection the connection
+   * @param frame      the {@code SUBSCRIBE} frame
+   * @return the current instance of {@link Destination}
+   * @throws IllegalArgumentException if the subscription is rejected
+   */
+  @Override
+  public synchronized Destination subscribe(StompServerConnection connection, Frame frame) {
+    String[] segments = split(frame.getDestination());
+    for (int i = 0; i < segments.length - 1; i++) {
+      if (ANY_SEGMENTS.equals(segments[i])) {
+        throw new IllegalArgumentException("The '" + ANY_SEGMENTS + "' wildcard must be the last segment");
+      }
+    }
+    Subscription subscription = new Subscription(connection, frame);
+    subscriptions.add(subscription);
+    root.add(segments, 0, subscription);
+    return this;
+  }
+
+  @Override
+  public synchronized boolean unsubscribe(StompServerConnection connection, Frame frame) {
+    boolean removed = false;
+    for (Subscription subscription : subscriptions) {
+      // Subscription id are unique for a connection.
+      if (subscription.connection.equals(connection) && subscription.id.equals(frame.getId())) {
+        subscriptions.remove(subscription);
+        root.remove(split(subscription.destination), 0, subscription);
+        removed = true;
+      }
+    }
+
+    if (subscriptions.isEmpty()) {
+      DestinationRegistry.get(vertx).remove(this);
+    }
+    return removed;
+  }
+
+  @Override
+  public synchronized Destination unsubscribeConnection(StompServerConnection connection) {
+    List<Subscription> removed = new ArrayList<>();
+    for (Subscription subscription : subscriptions) {
+      if (subscription.connection.equals(connection)) {
+        removed.add(subscription);
+        root.remove(split(subscription.destination), 0, subscription);
+      }
+    }
+    subscriptions.removeAll(removed);
+
+    if (subscriptions.isEmpty()) {
+      DestinationRegistry.get(vertx).remove(this);
+    }
+    return this;
+  }
+
+  /**
+   * Checks whether or not the given address belongs to the hierarchy managed by the current destination.
+   *
+   * @param address the address
+   * @return {@code true} if it matches, {@code false} otherwise.
+   */
+  @Override
+  public boolean matches(String address) {
+    return address.equals(destination) || address.startsWith(prefix);
+  }
+
+  private static String[] split(String address) {
+    List<String> segments = new ArrayList<>();
+    int start = 0;
+    int index;
+    while ((index = address.indexOf(SEPARATOR, start)) != -1) {
+      segments.add(address.substring(start, index));
+      start = index + 1;
+    }
+    segments.add(address.substring(start));
+    return segments.toArray(new String[0]);
+  }
+
+  /**
+   * A node of the segment trie. The children are indexed by segment, including the wildcards.
+   */
+  private static final class Node {
+    private final Map<String, Node> children = new HashMap<>();
+    private final List<Subscription> subscriptions = new ArrayList<>();
+
+    void add(String[] segments, int index, Subscription subscription) {
+      if (index == segments.length) {
+        subscriptions.add(subscription);
+      } else {
+        children.computeIfAbsent(segments[index], s -> new Node()).add(segments, index + 1, subscription);
+      }
+    }
+
+    /**
+     * @return whether or not the node is empty and can be removed from its parent.
+     */
+    boolean remove(String[] segments, int index, Subscription subscription) {
+      if (index == segments.length) {
+        subscriptions.remove(subscription);
+      } else {
+        Node child = children.get(segments[index]);
+        if (child != null && child.remove(segments, index + 1, subscription)) {
+          children.remove(segments[index]);
+        }
+      }
+      return subscriptions.isEmpty() && children.isEmpty();
+    }
+
+    void collect(String[] segments, int index, List<Subscription> recipients) {
+      if (index == segments.length) {
+        recipients.addAll(subscriptions);
+        return;
+      }
+      Node descendants = children.get(ANY_SEGMENTS);
+      if (descendants != null) {
+        recipients.addAll(descendants.subscriptions);
+      }
+      Node child = children.get(segments[index]);
+      if (child != null && child != descendants) {
+        child.collect(segments, index + 1, recipients);
+      }
+      Node any = children.get(ANY_SEGMENT);
+      if (any != null && any != child) {
+        any.collect(segments, index + 1, recipients);
+      }
+    }
+  }
+}
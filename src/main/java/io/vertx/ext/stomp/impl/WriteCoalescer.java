@@ -0,0 +1,159 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.stomp.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.internal.ContextInternal;
+
+import java.util.function.Function;
+
+/**
+ * Coalesces the frames written to a connection. The frames written during the same event loop tick are gathered in a
+ * single buffer, written (and so flushed) once by a task executed by the event loop of the connection, after the
+ * current tick. The gathered frames are written immediately when they reach the max size. Buffers bigger than the max
+ * size are written as they are (without being copied), after the frames gathered so far.
+ * <p/>
+ * Frames written from other threads are gathered until the task scheduled on the event loop of the connection runs.
+ * This class counts the number of writes and the number of frames, so the average number of frames coalesced per
+ * write can be monitored.
+ * <p/>
+ * This class is thread safe.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class WriteCoalescer {
+
+  private static final int INITIAL_SIZE = 4096;
+
+  private final ContextInternal context;
+  private final int maxSize;
+  private final Function<Buffer, Future<Void>> writer;
+
+  private Buffer pending;
+  private Promise<Void> written;
+  private int frames;
+  private boolean scheduled;
+
+  private long flushes;
+  private long coalescedFrames;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param context the context of the connection, executing the scheduled writes
+   * @param maxSize the max size (in bytes) of the gathered frames
+   * @param writer  writes a buffer to the connection
+   */
+  public WriteCoalescer(ContextInternal context, int maxSize, Function<Buffer, Future<Void>> writer) {
+    this.context = context;
+    this.maxSize = maxSize;
+    this.writer = writer;
+  }
+
+  /**
+   * Writes a frame.
+   *
+   * @param frame the encoded frame
+   * @return a future completed once the buffer containing the frame has been written
+   */
+  public synchronized Future<Void> write(Buffer frame) {
+    if (frame.length() >= maxSize) {
+      flush();
+      return writeNow(frame, 1);
+    }
+    return append(frame, 1);
+  }
+
+  /**
+   * Writes a frame split in two buffers.
+   *
+   * @param head the command and headers of the frame
+   * @param body the body of the frame, followed by the {@code NULL} octet
+   * @return a future completed once the buffers containing the frame have been written
+   */
+  public synchronized Future<Void> write(Buffer head, Buffer body) {
+    if (body.length() >= maxSize) {
+      append(head, 1);
+      flush();
+      return writeNow(body, 0);
+    }
+    append(head, 0);
+    return append(body, 1);
+  }
+
+  /**
+   * Writes the frames gathered so far, if any.
+   */
+  public synchronized void flush() {
+    if (pending == null) {
+      return;
+    }
+    Buffer buffer = pending;
+    Promise<Void> promise = written;
+    int count = frames;
+    pending = null;
+    written = null;
+    frames = 0;
+    writeNow(buffer, count).onComplete((result, failure) -> promise.complete(result, failure));
+  }
+
+  /**
+   * @return the number of writes made to the connection so far.
+   */
+  public synchronized long numberOfFlushes() {
+    return flushes;
+  }
+
+  /**
+   * @return the number of frames written so far. Divided by {@link #numberOfFlushes()}, it gives the average number
+   * of frames coalesced per write.
+   */
+  public synchronized long numberOfCoalescedFrames() {
+    return coalescedFrames;
+  }
+
+  private Future<Void> append(Buffer buffer, int count) {
+    if (pending == null) {
+      pending = Buffer.buffer(Math.min(maxSize, INITIAL_SIZE));
+      written = context.promise();
+      if (!scheduled) {
+        scheduled = true;
+        context.execute(this::endOfTick);
+      }
+    }
+    pending.appendBuffer(buffer);
+    frames += count;
+    Future<Void> future = written.future();
+    if (pending.length() >= maxSize) {
+      flush();
+    }
+    return future;
+  }
+
+  private synchronized void endOfTick() {
+    scheduled = false;
+    flush();
+  }
+
+  private Future<Void> writeNow(Buffer buffer, int count) {
+    flushes++;
+    coalescedFrames += count;
+    return writer.apply(buffer);
+  }
+}
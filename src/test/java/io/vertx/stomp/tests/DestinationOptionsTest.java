@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.stomp.Destination;
+import io.vertx.ext.stomp.ExpirationOptions;
+import io.vertx.ext.stomp.QueueOptions;
+import io.vertx.ext.stomp.SlowConsumerPolicy;
+import io.vertx.ext.stomp.TopicOptions;
+import io.vertx.ext.stomp.impl.PersistentQueue;
+import io.vertx.ext.stomp.impl.Queue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the behavior of {@link TopicOptions} and {@link QueueOptions}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class DestinationOptionsTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Vertx vertx;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  public void testTopicOptionsFromJson() {
+    TopicOptions options = new TopicOptions(new JsonObject()
+        .put("parallelFanOut", true)
+        .put("slowConsumer", new JsonObject().put("policy", "CONFLATE").put("conflationKey", "symbol"))
+        .put("retain", new JsonObject().put("maxMessages", 10))
+        .put("expiration", new JsonObject().put("defaultTimeToLive", 1000)));
+    assertThat(options.isParallelFanOut()).isTrue();
+    assertThat(options.getSlowConsumer().getPolicy()).isEqualTo(SlowConsumerPolicy.CONFLATE);
+    assertThat(options.getSlowConsumer().getConflationKey()).isEqualTo("symbol");
+    assertThat(options.getRetain().getMaxMessages()).isEqualTo(10);
+    assertThat(options.getExpiration().getDefaultTimeToLive()).isEqualTo(1000);
+
+    TopicOptions copy = new TopicOptions(options.toJson());
+    assertThat(copy.toJson()).isEqualTo(options.toJson());
+    assertThat(new TopicOptions().getRetain()).isNull();
+  }
+
+  @Test
+  public void testQueueOptionsFromJson() {
+    QueueOptions options = new QueueOptions(new JsonObject()
+        .put("prioritized", true)
+        .put("journalDirectory", "/var/lib/stomp")
+        .put("expiration", new JsonObject().put("expiryDestination", "/expired")));
+    assertThat(options.isPrioritized()).isTrue();
+    assertThat(options.getJournalDirectory()).isEqualTo("/var/lib/stomp");
+    assertThat(options.getExpiration().getExpiryDestination()).isEqualTo("/expired");
+
+    QueueOptions copy = new QueueOptions(options.toJson());
+    assertThat(copy.toJson()).isEqualTo(options.toJson());
+  }
+
+  @Test
+  public void testThatQueueFeaturesCanBeCombined() {
+    Destination queue = Destination.queue(vertx, "/queue", new QueueOptions()
+        .setPrioritized(true)
+        .setJournalDirectory(folder.getRoot().getAbsolutePath())
+        .setExpiration(new ExpirationOptions().setDefaultTimeToLive(1000)));
+    assertThat(queue).isInstanceOf(PersistentQueue.class);
+    assertThat(Destination.queue(vertx, "/other", new QueueOptions().setPrioritized(true)))
+        .isExactlyInstanceOf(Queue.class);
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import com.jayway.awaitility.Awaitility;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.stomp.*;
+import io.vertx.ext.stomp.impl.DestinationAffinity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the dispatching of messages when the destinations are pinned to event loops (see
+ * {@link StompServerHandler#affineDestinations(boolean)}).
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class AffineDestinationsTest {
+
+  private static final int PRODUCERS = 4;
+  private static final int MESSAGES = 200;
+
+  private Vertx vertx;
+  private StompServer server;
+  private List<StompClient> clients = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  private void start(DestinationFactory factory) {
+    AsyncLock<StompServer> lock = new AsyncLock<>();
+    server = StompServer.create(vertx)
+        .handler(StompServerHandler.create(vertx)
+            .destinationFactory(factory)
+            .affineDestinations(true));
+    server.listen().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  @After
+  public void tearDown() {
+    clients.forEach(StompClient::close);
+    clients.clear();
+    AsyncLock<Void> lock = new AsyncLock<>();
+    server.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+    lock = new AsyncLock<>();
+    vertx.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  private StompClientConnection connect() {
+    StompClient client = StompClient.create(vertx);
+    clients.add(client);
+    AtomicReference<StompClientConnection> connection = new AtomicReference<>();
+    client.connect().onComplete(ar -> connection.set(ar.result()));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> connection.get() != null);
+    return connection.get();
+  }
+
+  @Test
+  public void testTopic() {
+    start(Destination::topic);
+    run("/topic");
+  }
+
+  @Test
+  public void testQueue() {
+    start(Destination::queue);
+    run("/queue");
+  }
+
+  @Test
+  public void testThatTheAffinityIsSharedByTheServersOfTheVertxInstance() {
+    start(Destination::topic);
+    // The destinations are shared by the servers, so must be their owners.
+    assertThat(DestinationAffinity.get(vertx)).isSameAs(DestinationAffinity.get(vertx));
+    Vertx other = Vertx.vertx();
+    try {
+      assertThat(DestinationAffinity.get(other)).isNotSameAs(DestinationAffinity.get(vertx));
+    } finally {
+      other.close();
+    }
+  }
+
+  private void run(String destination) {
+    List<Frame> received = new CopyOnWriteArrayList<>();
+    connect().subscribe(destination, received::add);
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() ->
+        Helper.hasDestination(server.stompHandler().getDestinations(), destination));
+
+    AtomicInteger receipts = new AtomicInteger();
+    for (int i = 0; i < PRODUCERS; i++) {
+      // Each client uses its own event loop.
+      StompClientConnection producer = connect();
+      for (int j = 0; j < MESSAGES; j++) {
+        producer.send(destination, Buffer.buffer(i + ":" + j)).onSuccess(receipt -> receipts.incrementAndGet());
+      }
+    }
+
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() ->
+        received.size() == PRODUCERS * MESSAGES && receipts.get() == PRODUCERS * MESSAGES);
+
+    // The messages of each producer are dispatched in order.
+    Map<String, Integer> last = new HashMap<>();
+    for (Frame frame : received) {
+      String[] body = frame.getBodyAsString().split(":");
+      int index = Integer.parseInt(body[1]);
+      assertThat(index).isGreaterThan(last.getOrDefault(body[0], -1));
+      last.put(body[0], index);
+    }
+  }
+}
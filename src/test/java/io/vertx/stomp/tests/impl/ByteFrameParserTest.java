@@ -0,0 +1,287 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.stomp.Command;
+import io.vertx.ext.stomp.Frame;
+import io.vertx.ext.stomp.StompServerOptions;
+import io.vertx.ext.stomp.impl.ByteFrameParser;
+import io.vertx.ext.stomp.impl.FrameException;
+import io.vertx.ext.stomp.impl.FrameParser;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Fail.fail;
+
+/**
+ * Check the behavior of the {@link ByteFrameParser}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class ByteFrameParserTest {
+
+  private final String LOREM = "Lorem ipsum dolor sit amet, consectetur adipisicing elit, sed do eiusmod tempor "
+      + "incididunt ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud exercitation ullamco "
+      + "laboris nisi ut aliquip ex ea commodo consequat.";
+
+  @Test
+  public void testConnectFrame() {
+    Buffer buffer = Buffer.buffer("CONNECT\n"
+        + "accept-version:1.2\n"
+        + "host:stomp.github.org\n"
+        + "\n")
+        .appendString(FrameParser.NULL);
+
+    Frame frame = parse(buffer);
+
+    assertThat(frame.getCommand()).isEqualTo(Command.CONNECT);
+    assertThat(frame.getBodyAsByteArray()).isEmpty();
+    assertThat(frame.getHeader("accept-version")).isEqualTo("1.2");
+    assertThat(frame.getHeader("host")).isEqualTo("stomp.github.org");
+  }
+
+  @Test
+  public void testSendFrameWithBody() {
+    Buffer buffer = Buffer.buffer("SEND\r\n"
+        + "destination:/queue\r\n"
+        + "content-type:text/plain\r\n"
+        + "\r\n"
+        + "hello é")
+        .appendString(FrameParser.NULL);
+
+    Frame frame = parse(buffer);
+
+    assertThat(frame.getCommand()).isEqualTo(Command.SEND);
+    assertThat(frame.getDestination()).isEqualTo("/queue");
+    assertThat(frame.getHeader(Frame.CONTENT_TYPE)).isEqualTo("text/plain");
+    assertThat(frame.getBodyAsString()).isEqualTo("hello é");
+  }
+
+  @Test
+  public void testContentLengthWithNullCharacterInBody() {
+    Buffer body = Buffer.buffer("a").appendString(FrameParser.NULL).appendString("b");
+    Buffer buffer = Buffer.buffer("MESSAGE\n"
+        + "content-length:3\n"
+        + "\n")
+        .appendBuffer(body)
+        .appendString(FrameParser.NULL);
+
+    Frame frame = parse(buffer);
+    assertThat(frame.getBody()).isEqualTo(body);
+  }
+
+  /**
+   * Unlike {@link FrameParser}, which cannot switch to a body of 0 bytes, an empty body can be announced by the
+   * {@code content-length} header.
+   */
+  @Test
+  public void testEmptyBodyWithContentLength() {
+    Buffer buffer = Buffer.buffer("SEND\n"
+        + "destination:/queue\n"
+        + "content-length:0\n"
+        + "\n")
+        .appendString(FrameParser.NULL);
+
+    Frame frame = parse(buffer);
+    assertThat(frame.getCommand()).isEqualTo(Command.SEND);
+    assertThat(frame.getBodyAsByteArray()).isEmpty();
+  }
+
+  @Test
+  public void testMultipleFramesReceivedByteByByte() {
+    Buffer buffer = Buffer.buffer("SEND\n"
+        + "destination:/queue\n"
+        + "content-length:5\n"
+        + "\n"
+        + "hello")
+        .appendString(FrameParser.NULL)
+        .appendString("\n")
+        .appendString("SEND\n"
+            + "destination:/queue\n"
+            + "\n"
+            + LOREM)
+        .appendString(FrameParser.NULL);
+
+    List<Frame> frames = new ArrayList<>();
+    ByteFrameParser parser = new ByteFrameParser();
+    parser.handler(frames::add);
+    for (int i = 0; i < buffer.length(); i++) {
+      parser.handle(buffer.getBuffer(i, i + 1));
+    }
+
+    assertThat(frames).hasSize(3);
+    assertThat(frames.get(0).getBodyAsString()).isEqualTo("hello");
+    assertThat(frames.get(1).getCommand()).isEqualTo(Command.PING);
+    assertThat(frames.get(2).getBodyAsString()).isEqualTo(LOREM);
+  }
+
+  @Test
+  public void testRepeatedHeader() {
+    Buffer buffer = Buffer.buffer("MESSAGE\n"
+        + "foo:World\n"
+        + "foo:Hello\n"
+        + "\n")
+        .appendString(FrameParser.NULL);
+
+    Frame frame = parse(buffer);
+    assertThat(frame.getHeader("foo")).isEqualTo("World");
+  }
+
+  @Test
+  public void testWrongCommand() {
+    Buffer buffer = Buffer.buffer("ILLEGAL\n"
+        + "accept-version:1.2\n"
+        + "\n")
+        .appendString(FrameParser.NULL);
+
+    Frame frame = parse(buffer);
+    assertThat(frame.getCommand()).isEqualTo(Command.UNKNOWN);
+    assertThat(frame.getHeader(Frame.STOMP_FRAME_COMMAND)).isEqualTo("ILLEGAL");
+  }
+
+  @Test
+  public void testDecoding() {
+    String value = "test-" + (char) 92 + (char) 114 + (char) 92 + (char) 110 + " " + (char) 92 + (char) 99 + (char) 92
+        + (char) 92 + "-test";
+    Buffer buffer = Buffer.buffer("SEND\n"
+        + "header:" + value + "\n"
+        + "\n")
+        .appendString(FrameParser.NULL);
+
+    Frame frame = parse(buffer);
+    assertThat(frame.getHeader("header")).isEqualTo("test-\r\n :\\-test");
+
+    buffer = Buffer.buffer("CONNECT\n"
+        + "header:" + value + "\n"
+        + "\n")
+        .appendString(FrameParser.NULL);
+
+    frame = parse(buffer);
+    assertThat(frame.getHeader("header")).isEqualTo("test-" + (char) 92 + (char) 114 + (char) 92 + (char) 110 + " "
+        + (char) 92 + (char) 99 + "\\-test");
+  }
+
+  @Test(expected = FrameException.class)
+  public void testNumberOfHeadersExceeded() {
+    Buffer buffer = Buffer.buffer("CONNECT\n"
+        + "accept-version:1.2\n"
+        + "header1:1.2\n"
+        + "header2:1.2\n"
+        + "\n")
+        .appendString(FrameParser.NULL);
+
+    parse(new StompServerOptions().setMaxHeaders(2), buffer);
+  }
+
+  @Test(expected = FrameException.class)
+  public void testHeaderLengthExceeded() {
+    Buffer buffer = Buffer.buffer("CONNECT\n"
+        + "header1:" + LOREM + "\n"
+        + "\n")
+        .appendString(FrameParser.NULL);
+
+    parse(new StompServerOptions().setMaxHeaderLength(50), buffer);
+  }
+
+  @Test
+  public void testBodySizeExceededIsReportedToTheErrorHandler() {
+    AtomicReference<FrameException> error = new AtomicReference<>();
+    List<Frame> frames = new ArrayList<>();
+    ByteFrameParser parser = new ByteFrameParser(new StompServerOptions().setMaxBodyLength(LOREM.length() + 5))
+        .errorHandler(error::set)
+        .handler(frames::add);
+
+    parser.handle(Buffer.buffer("MESSAGE\n\n"));
+    parser.handle(Buffer.buffer(LOREM));
+    assertThat(error.get()).isNull();
+    parser.handle(Buffer.buffer(LOREM));
+    assertThat(error.get()).isNotNull().hasMessageContaining("Body size exceeded");
+
+    // The parser has been reset and accepts new frames.
+    parser.handle(Buffer.buffer("SEND\n\nhello").appendString(FrameParser.NULL));
+    assertThat(frames).hasSize(1);
+    assertThat(frames.get(0).getBodyAsString()).isEqualTo("hello");
+  }
+
+  @Test
+  public void testInvalidHeaderLine() {
+    ByteFrameParser parser = new ByteFrameParser();
+    parser.handler(f -> fail("No frame expected"));
+    try {
+      parser.handle(Buffer.buffer("SEND\nillegal\n\n").appendString(FrameParser.NULL));
+      fail("Exception expected");
+    } catch (FrameException e) {
+      assertThat(e).hasMessageContaining("Invalid header line");
+    }
+  }
+
+  /**
+   * Unlike {@link FrameParser}, which lets the exception thrown when decoding the header escape, invalid escape
+   * sequences are reported to the error handler.
+   */
+  @Test
+  public void testInvalidEscapeIsReportedToTheErrorHandler() {
+    AtomicReference<FrameException> error = new AtomicReference<>();
+    ByteFrameParser parser = new ByteFrameParser()
+        .errorHandler(error::set)
+        .handler(f -> fail("No frame expected"));
+
+    parser.handle(Buffer.buffer("SEND\ndestination:/queue\nfoo:a" + (char) 92 + "tb\n\n")
+        .appendString(FrameParser.NULL));
+    assertThat(error.get()).isNotNull().hasMessageContaining("Incorrect header value");
+  }
+
+  /**
+   * Unlike {@link FrameParser}, which resumes parsing from the bytes following the error, the bytes received with the
+   * invalid frame are discarded, as they are likely to belong to the invalid frame.
+   */
+  @Test
+  public void testThePendingBytesAreDiscardedOnError() {
+    AtomicReference<FrameException> error = new AtomicReference<>();
+    List<Frame> frames = new ArrayList<>();
+    ByteFrameParser parser = new ByteFrameParser()
+        .errorHandler(error::set)
+        .handler(frames::add);
+
+    parser.handle(Buffer.buffer("SEND\nillegal\n\nbody").appendString(FrameParser.NULL)
+        .appendString("SEND\n\ndiscarded").appendString(FrameParser.NULL));
+    assertThat(error.get()).isNotNull().hasMessageContaining("Invalid header line");
+    assertThat(frames).isEmpty();
+
+    parser.handle(Buffer.buffer("SEND\n\nhello").appendString(FrameParser.NULL));
+    assertThat(frames).hasSize(1);
+    assertThat(frames.get(0).getBodyAsString()).isEqualTo("hello");
+  }
+
+  private Frame parse(Buffer buffer) {
+    return parse(new StompServerOptions(), buffer);
+  }
+
+  private Frame parse(StompServerOptions options, Buffer buffer) {
+    ByteFrameParser parser = new ByteFrameParser(options);
+    AtomicReference<Frame> frame = new AtomicReference<>();
+    parser.handler(f -> frame.compareAndSet(null, f));
+    parser.handle(buffer);
+    return frame.get();
+  }
+
+}
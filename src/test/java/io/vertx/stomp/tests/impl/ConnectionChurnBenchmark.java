@@ -0,0 +1,134 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import com.jayway.awaitility.Awaitility;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.stomp.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Measures the cost of connections subscribing to a destination and disconnecting right away, while the server
+ * hosts many other destinations. Needs to be launched manually.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+@Ignore("Manual launch only")
+public class ConnectionChurnBenchmark {
+
+  private static final int DESTINATIONS = 10_000;
+  private static final int CONNECTIONS = 10_000;
+  private static final int CONCURRENCY = 16;
+
+  private Vertx vertx;
+  private StompServer server;
+  private List<StompClient> clients = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+    AsyncLock<StompServer> lock = new AsyncLock<>();
+    server = StompServer.create(vertx, new StompServerOptions().setHeartbeat(
+        new JsonObject().put("x", 0).put("y", 0)))
+        .handler(StompServerHandler.create(vertx));
+    server.listen().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  @After
+  public void tearDown() {
+    clients.forEach(StompClient::close);
+    clients.clear();
+    AsyncLock<Void> lock = new AsyncLock<>();
+    server.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+    lock = new AsyncLock<>();
+    vertx.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  private StompClient client() {
+    StompClient client = StompClient.create(vertx, new StompClientOptions().setHeartbeat(
+        new JsonObject().put("x", 0).put("y", 0)));
+    clients.add(client);
+    return client;
+  }
+
+  private StompClientConnection connect() {
+    AtomicReference<StompClientConnection> connection = new AtomicReference<>();
+    client().connect().onComplete(ar -> connection.set(ar.result()));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> connection.get() != null);
+    return connection.get();
+  }
+
+  @Test
+  public void churn() {
+    // Long-lived subscriptions, one destination each.
+    StompClientConnection connection = null;
+    for (int i = 0; i < DESTINATIONS; i++) {
+      if (i % StompServerOptions.DEFAULT_MAX_SUBSCRIPTIONS_BY_CLIENT == 0) {
+        connection = connect();
+      }
+      connection.subscribe("/topic-" + i, frame -> {
+      });
+    }
+    Awaitility.waitAtMost(1, TimeUnit.MINUTES).until(() ->
+        server.stompHandler().getDestinations().size() == DESTINATIONS);
+
+    AtomicInteger remaining = new AtomicInteger(CONNECTIONS);
+    AtomicInteger completed = new AtomicInteger();
+    StompClient client = client();
+    long begin = System.nanoTime();
+    for (int i = 0; i < CONCURRENCY; i++) {
+      loop(client, remaining, completed);
+    }
+    Awaitility.waitAtMost(5, TimeUnit.MINUTES).until(() -> completed.get() == CONNECTIONS);
+
+    long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+    System.out.println(CONNECTIONS + " connections (" + DESTINATIONS + " destinations) in " + duration + " ms - "
+        + (CONNECTIONS * 1000L / Math.max(1, duration)) + " connections/s");
+  }
+
+  /**
+   * Connects, subscribes to a destination, disconnects, and starts again until the remaining count reaches 0.
+   */
+  private void loop(StompClient client, AtomicInteger remaining, AtomicInteger completed) {
+    if (remaining.getAndDecrement() <= 0) {
+      return;
+    }
+    client.connect()
+        // The subscription future is completed when the server has sent the receipt.
+        .compose(connection -> connection.subscribe("/churn", frame -> {
+        }).compose(id -> connection.disconnect()))
+        .recover(err -> Future.succeededFuture())
+        .onComplete(ar -> {
+          completed.incrementAndGet();
+          loop(client, remaining, completed);
+        });
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import io.vertx.core.Vertx;
+import io.vertx.ext.bridge.PermittedOptions;
+import io.vertx.ext.stomp.BridgeOptions;
+import io.vertx.ext.stomp.Destination;
+import io.vertx.ext.stomp.impl.DestinationRegistry;
+import io.vertx.ext.stomp.impl.Topic;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the behavior of the {@link DestinationRegistry}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class DestinationRegistryTest {
+
+  private Vertx vertx;
+  private DestinationRegistry registry;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+    registry = DestinationRegistry.get(vertx);
+  }
+
+  @After
+  public void tearDown() {
+    AsyncLock<Void> lock = new AsyncLock<>();
+    vertx.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  @Test
+  public void testTheRegistryIsSharedByTheVertxInstance() {
+    assertThat(DestinationRegistry.get(vertx)).isSameAs(registry);
+  }
+
+  @Test
+  public void testCreationAndLookup() {
+    AtomicInteger created = new AtomicInteger();
+    Destination topic = registry.getOrCreateDestination("/topic", (v, name) -> {
+      created.incrementAndGet();
+      return Destination.topic(v, name);
+    }, vertx);
+    Destination queue = registry.getOrCreateDestination("/queue", Destination::queue, vertx);
+
+    assertThat(registry.getOrCreateDestination("/topic", (v, name) -> {
+      created.incrementAndGet();
+      return Destination.topic(v, name);
+    }, vertx)).isSameAs(topic);
+    assertThat(created.get()).isEqualTo(1);
+    assertThat(registry.getDestination("/topic")).isSameAs(topic);
+    assertThat(registry.getDestination("/queue")).isSameAs(queue);
+    assertThat(registry.getDestination("/missing")).isNull();
+    assertThat(registry.getDestinations()).containsOnly(topic, queue);
+  }
+
+  @Test
+  public void testThatFactoriesCanRefuseTheCreation() {
+    assertThat(registry.getOrCreateDestination("/topic", (v, name) -> null, vertx)).isNull();
+    assertThat(registry.getDestinations()).isEmpty();
+  }
+
+  @Test
+  public void testPatternDestinations() {
+    Destination bridge = Destination.bridge(vertx, new BridgeOptions()
+        .addInboundPermitted(new PermittedOptions().setAddressRegex("/bus/.*")));
+    registry.add(bridge);
+    Destination topic = registry.getOrCreateDestination("/topic", Destination::topic, vertx);
+
+    assertThat(registry.getDestination("/bus/a")).isSameAs(bridge);
+    assertThat(registry.getDestination("/bus/b")).isSameAs(bridge);
+    assertThat(registry.getDestination("/topic")).isSameAs(topic);
+    assertThat(registry.getDestination("/other")).isNull();
+  }
+
+  @Test
+  public void testThatSubclassesMatchingTheirAddressAreIndexed() {
+    assertThat(DestinationRegistry.isExact(Destination.topic(vertx, "/topic"))).isTrue();
+    assertThat(DestinationRegistry.isExact(Destination.queue(vertx, "/queue"))).isTrue();
+    assertThat(DestinationRegistry.isExact(new Topic(vertx, "/subclass") {
+    })).isTrue();
+    assertThat(DestinationRegistry.isExact(Destination.wildcardTopic(vertx, "/prices"))).isFalse();
+    assertThat(DestinationRegistry.isExact(Destination.bridge(vertx, new BridgeOptions()))).isFalse();
+    assertThat(DestinationRegistry.isExact(new Topic(vertx, "/custom") {
+      @Override
+      public boolean matches(String address) {
+        return address.startsWith(destination());
+      }
+    })).isFalse();
+  }
+
+  @Test
+  public void testThatDestinationsRemovedFromTheMapAreNotReturned() {
+    Destination topic = registry.getOrCreateDestination("/topic", Destination::topic, vertx);
+    vertx.sharedData().getLocalMap("stomp.destinations").remove(topic);
+
+    assertThat(registry.getDestination("/topic")).isNull();
+    Destination other = registry.getOrCreateDestination("/topic", Destination::topic, vertx);
+    assertThat(other).isNotSameAs(topic);
+    assertThat(registry.getDestination("/topic")).isSameAs(other);
+  }
+
+  @Test
+  public void testThatDestinationsAddedToTheMapAreFound() {
+    Destination topic = Destination.topic(vertx, "/topic");
+    vertx.sharedData().getLocalMap("stomp.destinations").put(topic, "");
+
+    assertThat(registry.getDestination("/topic")).isSameAs(topic);
+  }
+
+  @Test
+  public void testThatRemovedDestinationsAreEvictedFromTheIndex() {
+    Destination topic = registry.getOrCreateDestination("/topic", Destination::topic, vertx);
+    Destination prices = registry.getOrCreateDestination("/prices", Destination::wildcardTopic, vertx);
+    registry.remove(topic);
+    registry.remove(prices);
+    assertThat(registry.getDestinations()).isEmpty();
+
+    // No stale entry is left in the index, so the destinations added to the map directly are still detected.
+    Destination other = Destination.topic(vertx, "/other");
+    vertx.sharedData().getLocalMap("stomp.destinations").put(other, "");
+    assertThat(registry.getDestination("/other")).isSameAs(other);
+    assertThat(registry.getDestination("/topic")).isNull();
+    assertThat(registry.getDestination("/prices/eur")).isNull();
+  }
+
+}
@@ -0,0 +1,132 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import io.vertx.ext.stomp.DispatchStrategy;
+import io.vertx.ext.stomp.StompServerConnection;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the built-in {@link DispatchStrategy} implementations.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class DispatchStrategyTest {
+
+  private static final Predicate<Candidate> ALL = c -> true;
+
+  private Candidate a = new Candidate("a");
+  private Candidate b = new Candidate("b");
+  private Candidate c = new Candidate("c");
+  private List<Candidate> candidates = Arrays.asList(a, b, c);
+
+  private List<String> select(DispatchStrategy strategy, int count, Predicate<Candidate> eligible) {
+    List<String> selected = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Candidate candidate = strategy.select(candidates, eligible);
+      selected.add(candidate == null ? null : candidate.id());
+    }
+    return selected;
+  }
+
+  @Test
+  public void testRoundRobin() {
+    DispatchStrategy strategy = DispatchStrategy.roundRobin();
+    assertThat(select(strategy, 4, ALL)).containsExactly("a", "b", "c", "a");
+    assertThat(select(strategy, 3, candidate -> candidate != b)).containsExactly("c", "a", "c");
+    assertThat(select(strategy, 1, candidate -> false)).containsExactly((String) null);
+  }
+
+  @Test
+  public void testLeastOutstanding() {
+    DispatchStrategy strategy = DispatchStrategy.leastOutstanding();
+    a.outstanding = 3;
+    b.outstanding = 1;
+    c.outstanding = 2;
+    assertThat(select(strategy, 2, ALL)).containsExactly("b", "b");
+    assertThat(select(strategy, 1, candidate -> candidate != b)).containsExactly("c");
+
+    // Ties are broken in turn.
+    a.outstanding = b.outstanding = c.outstanding = 0;
+    assertThat(select(strategy, 3, ALL)).containsExactly("a", "b", "c");
+  }
+
+  @Test
+  public void testWriteQueueAware() {
+    DispatchStrategy strategy = DispatchStrategy.writeQueueAware();
+    b.writeQueueFull = true;
+    assertThat(select(strategy, 4, ALL)).containsExactly("a", "c", "a", "c");
+
+    // All saturated, falls back to round robin.
+    a.writeQueueFull = c.writeQueueFull = true;
+    assertThat(select(strategy, 3, ALL)).containsExactly("a", "b", "c");
+  }
+
+  @Test
+  public void testWeighted() {
+    DispatchStrategy strategy = DispatchStrategy.weighted();
+    a.weight = 3;
+    c.weight = 2;
+    assertThat(select(strategy, 7, ALL)).containsExactly("a", "a", "a", "b", "c", "c", "a");
+
+    // Not eligible candidates are skipped.
+    assertThat(select(strategy, 3, candidate -> candidate != a)).containsExactly("b", "c", "c");
+  }
+
+  private static class Candidate implements DispatchStrategy.Candidate {
+    private final String id;
+    private int outstanding;
+    private boolean writeQueueFull;
+    private int weight = 1;
+
+    private Candidate(String id) {
+      this.id = id;
+    }
+
+    @Override
+    public StompServerConnection connection() {
+      return null;
+    }
+
+    @Override
+    public String id() {
+      return id;
+    }
+
+    @Override
+    public int outstanding() {
+      return outstanding;
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+      return writeQueueFull;
+    }
+
+    @Override
+    public int weight() {
+      return weight;
+    }
+  }
+}
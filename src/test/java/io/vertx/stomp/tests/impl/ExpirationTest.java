@@ -0,0 +1,213 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import com.jayway.awaitility.Awaitility;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.Message;
+import io.vertx.ext.bridge.PermittedOptions;
+import io.vertx.ext.stomp.*;
+import io.vertx.ext.stomp.impl.Expiration;
+import io.vertx.ext.stomp.impl.Queue;
+import io.vertx.ext.stomp.impl.TimerWheel;
+import io.vertx.ext.stomp.impl.Topic;
+import io.vertx.ext.stomp.utils.Headers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the expiration of the messages.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class ExpirationTest {
+
+  private Vertx vertx;
+  private StompServer server;
+  private List<StompClient> clients = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+    AsyncLock<StompServer> lock = new AsyncLock<>();
+    ExpirationOptions expiration = new ExpirationOptions().setDefaultTimeToLive(500).setExpiryDestination("/expired");
+    server = StompServer.create(vertx)
+        .handler(StompServerHandler.create(vertx)
+            .destinationFactory((v, name) -> {
+              if (name.equals("/queue")) {
+                return Destination.queue(v, name, new QueueOptions().setExpiration(expiration));
+              } else if (name.equals("/topic")) {
+                return Destination.topic(v, name, new TopicOptions()
+                    .setRetain(new RetainOptions().setMaxMessages(10))
+                    .setExpiration(expiration));
+              }
+              return Destination.queue(v, name);
+            }));
+    server.listen().onComplete(lock.handler());
+    lock.waitForSuccess();
+    server.stompHandler().getOrCreateDestination("/expired");
+  }
+
+  @After
+  public void tearDown() {
+    clients.forEach(StompClient::close);
+    clients.clear();
+    AsyncLock<Void> lock = new AsyncLock<>();
+    server.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+    lock = new AsyncLock<>();
+    vertx.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  private StompClientConnection connect() {
+    StompClient client = StompClient.create(vertx);
+    clients.add(client);
+    AtomicReference<StompClientConnection> connection = new AtomicReference<>();
+    client.connect().onComplete(ar -> connection.set(ar.result()));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> connection.get() != null);
+    return connection.get();
+  }
+
+  private List<Frame> subscribe(StompClientConnection connection, String destination, String... headers) {
+    List<Frame> received = new CopyOnWriteArrayList<>();
+    AtomicBoolean receipt = new AtomicBoolean();
+    connection.subscribe(destination, Headers.create(headers), received::add).onSuccess(id -> receipt.set(true));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(receipt::get);
+    return received;
+  }
+
+  private void send(StompClientConnection connection, String destination, String body, String... headers) {
+    AtomicBoolean receipt = new AtomicBoolean();
+    connection.send(destination, Headers.create(headers), Buffer.buffer(body)).onSuccess(frame -> receipt.set(true));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(receipt::get);
+  }
+
+  @Test
+  public void testThatBufferedAndPendingMessagesExpire() {
+    List<Frame> expired = subscribe(connect(), "/expired");
+    List<Frame> received = subscribe(connect(), "/queue", Frame.ACK, "client", Queue.PREFETCH_COUNT, "1");
+    StompClientConnection producer = connect();
+    send(producer, "/queue", "1");
+    send(producer, "/queue", "2");
+    send(producer, "/queue", "3", Expiration.EXPIRES, "0");
+
+    Queue queue = (Queue) server.stompHandler().getDestination("/queue");
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == 1);
+    assertThat(queue.numberOfBufferedMessages()).isEqualTo(2);
+    assertThat(received.get(0).getHeader(Expiration.EXPIRES)).isNotNull();
+
+    // The first message is not acknowledged, it expires with the second one, and the third one is delivered.
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == 2);
+    assertThat(received.get(1).getBodyAsString()).isEqualTo("3");
+    assertThat(queue.numberOfExpiredMessages()).isEqualTo(2);
+    assertThat(queue.numberOfBufferedMessages()).isEqualTo(0);
+
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> expired.size() == 2);
+    assertThat(expired).extracting(Frame::getBodyAsString).containsExactly("1", "2");
+    assertThat(expired.get(0).getHeader(Expiration.ORIGINAL_DESTINATION)).isEqualTo("/queue");
+    assertThat(expired.get(0).getHeader(Expiration.EXPIRES)).isNull();
+  }
+
+  @Test
+  public void testThatMessagesAlreadyExpiredAreNotDelivered() {
+    List<Frame> expired = subscribe(connect(), "/expired");
+    List<Frame> received = subscribe(connect(), "/queue");
+    StompClientConnection producer = connect();
+    send(producer, "/queue", "old", Expiration.EXPIRES, Long.toString(System.currentTimeMillis() - 1000));
+    send(producer, "/queue", "new");
+
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == 1 && expired.size() == 1);
+    assertThat(received.get(0).getBodyAsString()).isEqualTo("new");
+    assertThat(expired.get(0).getBodyAsString()).isEqualTo("old");
+  }
+
+  @Test
+  public void testThatExpiredMessagesCanBeForwardedToTheEventBus() throws InterruptedException {
+    List<Throwable> failures = new CopyOnWriteArrayList<>();
+    vertx.exceptionHandler(failures::add);
+    server.stompHandler().bridge(new BridgeOptions()
+        .addInboundPermitted(new PermittedOptions().setAddress("/bus/expired"))
+        .addInboundPermitted(new PermittedOptions().setAddress("/bus/nobody")));
+    List<Message<Object>> messages = new CopyOnWriteArrayList<>();
+    vertx.eventBus().consumer("/bus/expired", messages::add);
+
+    // The forwarded messages are not sent by a client, so the bridge has no connection to reply to.
+    String expires = Long.toString(System.currentTimeMillis() - 1000);
+    Destination.queue(vertx, "/orders", new QueueOptions()
+        .setExpiration(new ExpirationOptions().setExpiryDestination("/bus/expired")))
+        .dispatch(null, new Frame(Command.SEND, Headers.create(Frame.DESTINATION, "/orders", Expiration.EXPIRES,
+            expires), Buffer.buffer("late")));
+    Destination.queue(vertx, "/requests", new QueueOptions()
+        .setExpiration(new ExpirationOptions().setExpiryDestination("/bus/nobody")))
+        .dispatch(null, new Frame(Command.SEND, Headers.create(Frame.DESTINATION, "/requests", Expiration.EXPIRES,
+            expires, "reply-address", "/bus/replies"), Buffer.buffer("late")));
+
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> messages.size() == 1);
+    assertThat(messages.get(0).body().toString()).isEqualTo("late");
+    assertThat(messages.get(0).headers().get(Expiration.ORIGINAL_DESTINATION)).isEqualTo("/orders");
+    // Let the request sent to /bus/nobody fail.
+    Thread.sleep(500);
+    assertThat(failures).isEmpty();
+  }
+
+  @Test
+  public void testThatTheTimerWheelCoalescesTheTasksScheduledForTheSameTick() {
+    TimerWheel wheel = TimerWheel.get(vertx);
+    AtomicInteger first = new AtomicInteger();
+    AtomicInteger second = new AtomicInteger();
+    Runnable a = first::incrementAndGet;
+    Runnable b = second::incrementAndGet;
+    long time = System.currentTimeMillis() + 1000;
+    // The tasks are interleaved, so the last entry of the slot is not the one scheduled again.
+    wheel.schedule(time, a);
+    wheel.schedule(time, b);
+    wheel.schedule(time, a);
+    wheel.schedule(time, b);
+    assertThat(wheel.size()).isEqualTo(2);
+
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> wheel.size() == 0);
+    assertThat(first.get()).isEqualTo(1);
+    assertThat(second.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testThatRetainedMessagesExpire() {
+    Topic topic = (Topic) server.stompHandler().getOrCreateDestination("/topic");
+    StompClientConnection producer = connect();
+    send(producer, "/topic", "short", Expiration.EXPIRES, Long.toString(System.currentTimeMillis() + 200));
+    send(producer, "/topic", "long", Expiration.EXPIRES, "0");
+    assertThat(topic.numberOfRetainedMessages()).isEqualTo(2);
+
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> topic.numberOfRetainedMessages() == 1);
+    assertThat(topic.numberOfExpiredMessages()).isEqualTo(1);
+    List<Frame> received = subscribe(connect(), "/topic");
+    assertThat(received).extracting(Frame::getBodyAsString).containsExactly("long");
+  }
+}
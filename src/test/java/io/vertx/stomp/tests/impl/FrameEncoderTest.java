@@ -0,0 +1,101 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.stomp.Command;
+import io.vertx.ext.stomp.Frame;
+import io.vertx.ext.stomp.Frames;
+import io.vertx.ext.stomp.impl.FrameEncoder;
+import io.vertx.ext.stomp.impl.FrameParser;
+import io.vertx.ext.stomp.impl.HeaderCodec;
+import io.vertx.ext.stomp.utils.Headers;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the behavior of the {@link FrameEncoder}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class FrameEncoderTest {
+
+  @Test
+  public void testEncodingWithoutEscaping() {
+    Frame frame = new Frame(Command.SEND, Headers.create("destination", "/queue", "content-type", "text/plain"),
+        Buffer.buffer("hello"));
+    assertThat(FrameEncoder.encode(frame, false)).isEqualTo(reference(frame, false));
+    assertThat(FrameEncoder.encode(frame, true)).isEqualTo(reference(frame, true));
+  }
+
+  @Test
+  public void testEncodingWithEscapingAndMultiBytesCharacters() {
+    Frame frame = new Frame(Command.MESSAGE, Headers.create(
+        "destination", "/queue:é",
+        "multi", "line\r\nvalue",
+        "slash", "test\\slash",
+        "emoji", "😀 €"), Buffer.buffer("body"));
+    assertThat(FrameEncoder.encode(frame, false)).isEqualTo(reference(frame, false));
+  }
+
+  @Test
+  public void testEncodingOfConnectFrame() {
+    Frame frame = new Frame(Command.CONNECT, Headers.create(
+        "login", "a:b\\c",
+        "host", "stomp.github.org"), null);
+    assertThat(FrameEncoder.encode(frame, false)).isEqualTo(reference(frame, false));
+    assertThat(FrameEncoder.encode(frame, false).toString()).contains("login:a:b\\\\c\n");
+  }
+
+  @Test
+  public void testEncodingOfPingFrame() {
+    assertThat(FrameEncoder.encode(Frames.PING, false)).isEqualTo(Buffer.buffer(FrameParser.EOL));
+    assertThat(FrameEncoder.encode(Frames.PING, true)).isEqualTo(Frames.PING.toBuffer(true));
+  }
+
+  @Test
+  public void testFrameToBufferUsesTheEncoder() {
+    Frame frame = new Frame(Command.SEND, Headers.create("destination", "/queue:a"), Buffer.buffer("hello"));
+    assertThat(frame.toBuffer()).isEqualTo(reference(frame, false));
+    assertThat(frame.toBuffer(true)).isEqualTo(reference(frame, true));
+  }
+
+  /**
+   * Encodes the frame using {@link HeaderCodec} and string concatenation.
+   */
+  private Buffer reference(Frame frame, boolean trailingLine) {
+    boolean connect = frame.getCommand() == Command.CONNECT || frame.getCommand() == Command.CONNECTED;
+    Buffer buffer = Buffer.buffer(frame.getCommand().name() + "\n");
+    for (Map.Entry<String, String> entry : frame.getHeaders().entrySet()) {
+      buffer.appendString(HeaderCodec.encode(entry.getKey(), connect) + ":"
+          + HeaderCodec.encode(entry.getValue(), connect) + "\n");
+    }
+    buffer.appendString("\n");
+    if (frame.getBody() != null) {
+      buffer.appendBuffer(frame.getBody());
+    }
+    buffer.appendString(FrameParser.NULL);
+    if (trailingLine) {
+      buffer.appendString("\n");
+    }
+    return buffer;
+  }
+
+}
@@ -0,0 +1,115 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import com.jayway.awaitility.Awaitility;
+import io.vertx.core.Vertx;
+import io.vertx.ext.stomp.impl.GroupCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the behavior of the {@link GroupCommit}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class GroupCommitTest {
+
+  private Vertx vertx;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void tearDown() {
+    AsyncLock<Void> lock = new AsyncLock<>();
+    vertx.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  @Test
+  public void testThatHandlersAreCalledWhenTheBatchIsFull() {
+    AtomicInteger tasks = new AtomicInteger();
+    GroupCommit commit = new GroupCommit(vertx, () -> tasks::incrementAndGet);
+    AtomicInteger synced = new AtomicInteger();
+    for (int i = 0; i < 5; i++) {
+      commit.add(5, 60000, ar -> synced.incrementAndGet());
+    }
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> synced.get() == 5);
+    assertThat(tasks.get()).isEqualTo(1);
+    assertThat(commit.numberOfSyncs()).isEqualTo(1);
+  }
+
+  @Test
+  public void testThatHandlersAreCalledAfterTheLingerTime() {
+    GroupCommit commit = new GroupCommit(vertx, () -> () -> {
+    });
+    AtomicInteger synced = new AtomicInteger();
+    long begin = System.currentTimeMillis();
+    commit.add(100, 200, ar -> synced.incrementAndGet());
+    commit.add(100, 200, ar -> synced.incrementAndGet());
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> synced.get() == 2);
+    assertThat(System.currentTimeMillis() - begin).isGreaterThanOrEqualTo(200);
+    assertThat(commit.numberOfSyncs()).isEqualTo(1);
+  }
+
+  @Test
+  public void testThatHandlersRegisteredDuringASyncWaitForTheNextOne() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    GroupCommit commit = new GroupCommit(vertx, () -> () -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    AtomicInteger synced = new AtomicInteger();
+    commit.add(1, 0, ar -> synced.incrementAndGet());
+    for (int i = 0; i < 10; i++) {
+      commit.add(1, 0, ar -> synced.incrementAndGet());
+    }
+    assertThat(commit.numberOfSyncs()).isEqualTo(1);
+    release.countDown();
+
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> synced.get() == 11);
+    // The 10 handlers registered during the first sync share the second one.
+    assertThat(commit.numberOfSyncs()).isEqualTo(2);
+  }
+
+  @Test
+  public void testThatFailuresAreReported() {
+    GroupCommit commit = new GroupCommit(vertx, () -> () -> {
+      throw new IllegalStateException("boom");
+    });
+    AtomicInteger failed = new AtomicInteger();
+    commit.add(1, 0, ar -> {
+      if (ar.failed()) {
+        failed.incrementAndGet();
+      }
+    });
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> failed.get() == 1);
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import com.jayway.awaitility.Awaitility;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.stomp.*;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the {@link IdGenerator} implementations and their configuration.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class IdGeneratorTest {
+
+  private Vertx vertx;
+  private StompServer server;
+  private List<StompClient> clients = new ArrayList<>();
+
+  @After
+  public void tearDown() {
+    clients.forEach(StompClient::close);
+    clients.clear();
+    if (server != null) {
+      AsyncLock<Void> lock = new AsyncLock<>();
+      server.close().onComplete(lock.handler());
+      lock.waitForSuccess();
+    }
+    if (vertx != null) {
+      AsyncLock<Void> lock = new AsyncLock<>();
+      vertx.close().onComplete(lock.handler());
+      lock.waitForSuccess();
+    }
+  }
+
+  @Test
+  public void testThatTheDefaultGeneratorIsUnique() throws InterruptedException {
+    IdGenerator generator = IdGenerator.create();
+    Set<String> ids = ConcurrentHashMap.newKeySet();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      threads.add(new Thread(() -> {
+        for (int j = 0; j < 10_000; j++) {
+          ids.add(generator.next());
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(ids).hasSize(80_000);
+
+    // Two generators do not produce the same ids.
+    assertThat(IdGenerator.create().next()).isNotEqualTo(IdGenerator.create().next());
+  }
+
+  @Test
+  public void testThatTheDefaultGeneratorIsMonotonicPerThread() {
+    IdGenerator generator = IdGenerator.create();
+    long previous = -1;
+    for (int i = 0; i < 1000; i++) {
+      String id = generator.next();
+      long counter = Long.parseLong(id.substring(id.lastIndexOf('-') + 1), 16);
+      assertThat(counter).isGreaterThan(previous);
+      previous = counter;
+    }
+  }
+
+  @Test
+  public void testThatTheGeneratorIsCopied() {
+    IdGenerator generator = () -> "id";
+    assertThat(new StompServerOptions(new StompServerOptions().setIdGenerator(generator)).getIdGenerator())
+        .isSameAs(generator);
+    assertThat(new StompClientOptions(new StompClientOptions().setIdGenerator(generator)).getIdGenerator())
+        .isSameAs(generator);
+  }
+
+  @Test
+  public void testThatTheConfiguredGeneratorsAreUsed() {
+    vertx = Vertx.vertx();
+    AtomicInteger serverIds = new AtomicInteger();
+    AtomicInteger clientIds = new AtomicInteger();
+    AsyncLock<StompServer> lock = new AsyncLock<>();
+    server = StompServer.create(vertx, new StompServerOptions()
+        .setIdGenerator(() -> "server-" + serverIds.incrementAndGet()))
+        .handler(StompServerHandler.create(vertx));
+    server.listen().onComplete(lock.handler());
+    lock.waitForSuccess();
+
+    StompClient client = StompClient.create(vertx, new StompClientOptions()
+        .setIdGenerator(() -> "client-" + clientIds.incrementAndGet()));
+    clients.add(client);
+    AtomicReference<StompClientConnection> reference = new AtomicReference<>();
+    client.connect().onComplete(ar -> reference.set(ar.result()));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> reference.get() != null);
+    StompClientConnection connection = reference.get();
+    assertThat(connection.session()).startsWith("server-");
+
+    List<Frame> received = new CopyOnWriteArrayList<>();
+    List<Frame> receipts = new CopyOnWriteArrayList<>();
+    connection.subscribe("/topic", received::add).onSuccess(id ->
+        connection.send("/topic", Buffer.buffer("hello")).onSuccess(receipts::add));
+
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == 1 && receipts.size() == 1);
+    assertThat(received.get(0).getHeader(Frame.MESSAGE_ID)).startsWith("server-");
+    assertThat(receipts.get(0).getHeader(Frame.RECEIPT_ID)).startsWith("client-");
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import com.jayway.awaitility.Awaitility;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.stomp.*;
+import io.vertx.ext.stomp.impl.Queue;
+import io.vertx.ext.stomp.utils.Headers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the delivery of the messages having a {@code message-group} header by the {@link Queue}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class MessageGroupTest {
+
+  private Vertx vertx;
+  private StompServer server;
+  private QueueOptions options = new QueueOptions();
+
+  private List<StompClient> clients = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    AsyncLock<StompServer> lock = new AsyncLock<>();
+    vertx = Vertx.vertx();
+    server = StompServer.create(vertx)
+        .handler(StompServerHandler.create(vertx)
+            .destinationFactory((v, name) -> Destination.queue(v, name, options)));
+    server.listen().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  @After
+  public void tearDown() {
+    clients.forEach(StompClient::close);
+    clients.clear();
+    AsyncLock<Void> lock = new AsyncLock<>();
+    server.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+
+    lock = new AsyncLock<>();
+    vertx.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  private StompClientConnection connect() {
+    StompClient client = StompClient.create(vertx);
+    clients.add(client);
+    AtomicReference<StompClientConnection> connection = new AtomicReference<>();
+    client.connect().onComplete(ar -> connection.set(ar.result()));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> connection.get() != null);
+    return connection.get();
+  }
+
+  private Queue queue() {
+    return (Queue) server.stompHandler().getDestination("/queue");
+  }
+
+  private void waitForSubscriptions(int count) {
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> queue() != null
+        && queue().numberOfSubscriptions() == count);
+  }
+
+  private static void send(StompClientConnection producer, String group, String body) {
+    producer.send("/queue", Headers.create(Queue.MESSAGE_GROUP, group), Buffer.buffer(body));
+  }
+
+  private static List<String> bodies(List<Frame> frames, String group) {
+    return frames.stream()
+        .filter(frame -> group.equals(frame.getHeader(Queue.MESSAGE_GROUP)))
+        .map(Frame::getBodyAsString)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testThatTheMessagesOfAGroupAreDeliveredToASingleSubscription() {
+    List<Frame> first = new CopyOnWriteArrayList<>();
+    List<Frame> second = new CopyOnWriteArrayList<>();
+    connect().subscribe("/queue", first::add);
+    connect().subscribe("/queue", second::add);
+    waitForSubscriptions(2);
+
+    StompClientConnection producer = connect();
+    for (int i = 0; i < 10; i++) {
+      for (String group : new String[]{"a", "b", "c", "d"}) {
+        send(producer, group, group + i);
+      }
+    }
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> first.size() + second.size() == 40);
+
+    for (String group : new String[]{"a", "b", "c", "d"}) {
+      List<String> received = bodies(first, group).isEmpty() ? bodies(second, group) : bodies(first, group);
+      assertThat(received).hasSize(10);
+      assertThat(received.get(0)).isEqualTo(group + 0);
+      assertThat(received.get(9)).isEqualTo(group + 9);
+    }
+    // The groups are spread over the subscriptions.
+    assertThat(first).isNotEmpty();
+    assertThat(second).isNotEmpty();
+    assertThat(queue().numberOfGroups()).isEqualTo(4);
+  }
+
+  @Test
+  public void testThatTheGroupIsReassignedWhenTheOwnerDisconnects() {
+    List<Frame> first = new CopyOnWriteArrayList<>();
+    List<Frame> second = new CopyOnWriteArrayList<>();
+    StompClientConnection firstConsumer = connect();
+    firstConsumer.subscribe("/queue", first::add);
+    StompClientConnection secondConsumer = connect();
+    secondConsumer.subscribe("/queue", second::add);
+    waitForSubscriptions(2);
+
+    StompClientConnection producer = connect();
+    send(producer, "a", "a0");
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> first.size() + second.size() == 1);
+    StompClientConnection owner = first.isEmpty() ? secondConsumer : firstConsumer;
+    List<Frame> other = first.isEmpty() ? first : second;
+
+    owner.disconnect();
+    waitForSubscriptions(1);
+    assertThat(queue().numberOfGroups()).isEqualTo(0);
+
+    send(producer, "a", "a1");
+    send(producer, "a", "a2");
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> other.size() == 2);
+    assertThat(bodies(other, "a")).containsExactly("a1", "a2");
+    assertThat(queue().numberOfGroups()).isEqualTo(1);
+  }
+
+  @Test
+  public void testThatTheMessagesOfAGroupWaitForTheirOwner() {
+    List<Frame> first = new CopyOnWriteArrayList<>();
+    List<Frame> second = new CopyOnWriteArrayList<>();
+    StompClientConnection firstConsumer = connect();
+    firstConsumer.subscribe("/queue", Headers.create(Frame.ACK, "client-individual", Queue.PREFETCH_COUNT, "1"),
+        first::add);
+    waitForSubscriptions(1);
+    StompClientConnection producer = connect();
+    send(producer, "a", "a0");
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> first.size() == 1);
+
+    StompClientConnection secondConsumer = connect();
+    secondConsumer.subscribe("/queue", second::add);
+    waitForSubscriptions(2);
+    send(producer, "a", "a1");
+    send(producer, "b", "b0");
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> second.size() == 1);
+    // The owner of the group has no credit, the message is buffered instead of being delivered to the other
+    // subscription.
+    assertThat(bodies(second, "b")).containsExactly("b0");
+    assertThat(queue().numberOfBufferedMessages()).isEqualTo(1);
+
+    // The owner unsubscribes without acknowledging the first message, the group moves to the other subscription.
+    firstConsumer.unsubscribe("/queue");
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> second.size() == 3);
+    assertThat(bodies(second, "a")).containsExactly("a0", "a1");
+  }
+
+  @Test
+  public void testThatTheTableOfTheGroupsIsBounded() {
+    List<Frame> received = new CopyOnWriteArrayList<>();
+    connect().subscribe("/queue", received::add);
+    waitForSubscriptions(1);
+
+    StompClientConnection producer = connect();
+    for (int i = 0; i < QueueOptions.DEFAULT_MAX_GROUPS + 10; i++) {
+      send(producer, "group-" + i, Integer.toString(i));
+    }
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS)
+        .until(() -> received.size() == QueueOptions.DEFAULT_MAX_GROUPS + 10);
+    assertThat(queue().numberOfGroups()).isEqualTo(QueueOptions.DEFAULT_MAX_GROUPS);
+  }
+
+  @Test
+  public void testThatTheGroupsHavingPendingMessagesAreNotEvicted() {
+    options.setMaxGroups(2);
+    List<Frame> received = new CopyOnWriteArrayList<>();
+    StompClientConnection consumer = connect();
+    consumer.subscribe("/queue", Headers.create(Frame.ACK, "client-individual"), received::add);
+    waitForSubscriptions(1);
+
+    StompClientConnection producer = connect();
+    for (String group : new String[]{"a", "b", "c"}) {
+      send(producer, group, group + 0);
+    }
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == 3);
+    // The messages are not acknowledged yet, so the groups are kept beyond the bound.
+    assertThat(queue().numberOfGroups()).isEqualTo(3);
+
+    received.forEach(frame -> consumer.ack(frame.getAck()));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> queue().numberOfGroups() == 2);
+
+    send(producer, "d", "d0");
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == 4);
+    assertThat(queue().numberOfGroups()).isEqualTo(2);
+  }
+}
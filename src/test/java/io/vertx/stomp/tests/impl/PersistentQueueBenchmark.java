@@ -0,0 +1,151 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import com.jayway.awaitility.Awaitility;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.stomp.*;
+import io.vertx.ext.stomp.impl.PersistentQueue;
+import io.vertx.ext.stomp.utils.Headers;
+import org.junit.After;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Compares the throughput of the {@link PersistentQueue} with the in-memory queue. Needs to be launched manually.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+@Ignore("Manual launch only")
+public class PersistentQueueBenchmark {
+
+  private static final int MESSAGES = 200_000;
+  private static final Buffer PAYLOAD = Buffer.buffer(new byte[256]);
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Vertx vertx;
+  private StompServer server;
+  private List<StompClient> clients = new ArrayList<>();
+
+  @After
+  public void tearDown() {
+    clients.forEach(StompClient::close);
+    clients.clear();
+    AsyncLock<Void> lock = new AsyncLock<>();
+    server.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+    lock = new AsyncLock<>();
+    vertx.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  private void start(DestinationFactory factory) {
+    vertx = Vertx.vertx();
+    AsyncLock<StompServer> lock = new AsyncLock<>();
+    server = StompServer.create(vertx, new StompServerOptions().setHeartbeat(
+        new JsonObject().put("x", 0).put("y", 0)))
+        .handler(StompServerHandler.create(vertx).destinationFactory(factory));
+    server.listen().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  private StompClientConnection connect() {
+    StompClient client = StompClient.create(vertx, new StompClientOptions().setHeartbeat(
+        new JsonObject().put("x", 0).put("y", 0)));
+    clients.add(client);
+    AtomicReference<StompClientConnection> connection = new AtomicReference<>();
+    client.connect().onComplete(ar -> connection.set(ar.result()));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> connection.get() != null);
+    return connection.get();
+  }
+
+  @Test
+  public void inMemoryQueue() {
+    start(Destination::queue);
+    run("in-memory queue", "auto");
+    run("in-memory queue", "client-individual");
+  }
+
+  @Test
+  public void persistentQueue() {
+    String directory = folder.getRoot().getAbsolutePath();
+    start((v, name) -> Destination.queue(v, name, new QueueOptions().setJournalDirectory(directory)));
+    run("persistent queue", "auto");
+    run("persistent queue", "client-individual");
+  }
+
+  @Test
+  public void persistentQueueBacklog() {
+    String directory = folder.getRoot().getAbsolutePath();
+    AtomicReference<PersistentQueue> queue = new AtomicReference<>();
+    start((v, name) -> {
+      queue.set((PersistentQueue) Destination.queue(v, name, new QueueOptions().setJournalDirectory(directory)));
+      return queue.get();
+    });
+
+    server.stompHandler().getOrCreateDestination("/queue");
+
+    // Messages sent without consumers are stored in the journal.
+    StompClientConnection producer = connect();
+    long begin = System.nanoTime();
+    for (int i = 0; i < MESSAGES; i++) {
+      producer.send("/queue", PAYLOAD);
+    }
+    Awaitility.waitAtMost(5, TimeUnit.MINUTES).until(() -> queue.get().numberOfStoredMessages() == MESSAGES);
+    report("persistent queue backlog (append only)", begin);
+  }
+
+  private void run(String name, String ackMode) {
+    String destination = "/queue-" + ackMode;
+    AtomicInteger received = new AtomicInteger();
+    StompClientConnection consumer = connect();
+    consumer.subscribe(destination, Headers.create(Frame.ACK, ackMode), frame -> {
+      received.incrementAndGet();
+      if (frame.getAck() != null) {
+        consumer.ack(frame.getAck());
+      }
+    });
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() ->
+        Helper.hasDestination(server.stompHandler().getDestinations(), destination));
+
+    StompClientConnection producer = connect();
+    long begin = System.nanoTime();
+    for (int i = 0; i < MESSAGES; i++) {
+      producer.send(destination, PAYLOAD);
+    }
+    Awaitility.waitAtMost(5, TimeUnit.MINUTES).until(() -> received.get() == MESSAGES);
+    report(name + " (" + ackMode + ")", begin);
+  }
+
+  private static void report(String name, long begin) {
+    long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+    System.out.println(name + ": " + MESSAGES + " messages in " + duration + " ms - "
+        + (MESSAGES * 1000L / Math.max(1, duration)) + " msg/s");
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import com.jayway.awaitility.Awaitility;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.stomp.*;
+import io.vertx.ext.stomp.impl.Journal;
+import io.vertx.ext.stomp.impl.PersistentQueue;
+import io.vertx.ext.stomp.utils.Headers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the behavior of the {@link PersistentQueue}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class PersistentQueueTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Vertx vertx;
+  private StompServer server;
+  private AtomicReference<PersistentQueue> queue = new AtomicReference<>();
+
+  private List<StompClient> clients = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    start();
+  }
+
+  private void start() {
+    AsyncLock<StompServer> lock = new AsyncLock<>();
+    vertx = Vertx.vertx();
+    String directory = folder.getRoot().getAbsolutePath();
+    server = StompServer.create(vertx)
+        .handler(StompServerHandler.create(vertx)
+            .destinationFactory((v, name) -> {
+              queue.set((PersistentQueue) Destination.queue(v, name, new QueueOptions().setJournalDirectory(directory)));
+              return queue.get();
+            }));
+    server.listen().onComplete(lock.handler());
+    lock.waitForSuccess();
+    // Declare the queue, so it stores the messages sent before the first subscription, and recovers its journal.
+    server.stompHandler().getOrCreateDestination("/queue");
+  }
+
+  @After
+  public void tearDown() {
+    stop();
+  }
+
+  private void stop() {
+    clients.forEach(StompClient::close);
+    clients.clear();
+    AsyncLock<Void> lock = new AsyncLock<>();
+    server.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+
+    lock = new AsyncLock<>();
+    vertx.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+
+    if (queue.get() != null) {
+      queue.getAndSet(null).close();
+    }
+  }
+
+  private StompClientConnection connect() {
+    StompClient client = StompClient.create(vertx);
+    clients.add(client);
+    AtomicReference<StompClientConnection> connection = new AtomicReference<>();
+    client.connect().onComplete(ar -> connection.set(ar.result()));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> connection.get() != null);
+    return connection.get();
+  }
+
+  @Test
+  public void testThatMessagesSentWithoutSubscriptionsAreKept() {
+    StompClientConnection producer = connect();
+    producer.send("/queue", Buffer.buffer("1"));
+    producer.send("/queue", Buffer.buffer("2"));
+    producer.send("/queue", Buffer.buffer("3"));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> queue.get().numberOfStoredMessages() == 3);
+
+    List<Frame> received = new CopyOnWriteArrayList<>();
+    connect().subscribe("/queue", received::add);
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == 3);
+    assertThat(received).extracting(Frame::getBodyAsString).containsExactly("1", "2", "3");
+    // Auto ack mode, the messages are consumed once delivered.
+    assertThat(queue.get().numberOfStoredMessages()).isEqualTo(0);
+  }
+
+  @Test
+  public void testThatMessagesNotAcknowledgedAreRecovered() {
+    List<Frame> received = new CopyOnWriteArrayList<>();
+    StompClientConnection consumer = connect();
+    consumer.subscribe("/queue", Headers.create(Frame.ACK, "client-individual"), received::add);
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> queue.get().numberOfSubscriptions() == 1);
+
+    StompClientConnection producer = connect();
+    producer.send("/queue", Buffer.buffer("1"));
+    producer.send("/queue", Buffer.buffer("2"));
+    producer.send("/queue", Buffer.buffer("3"));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == 3);
+
+    consumer.ack(received.get(1).getAck());
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> queue.get().numberOfStoredMessages() == 2);
+
+    // Restart
+    stop();
+    start();
+
+    List<Frame> recovered = new CopyOnWriteArrayList<>();
+    connect().subscribe("/queue", recovered::add);
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> recovered.size() == 2);
+    assertThat(recovered).extracting(Frame::getBodyAsString).containsExactly("1", "3");
+    assertThat(recovered.get(0).getHeader(Frame.MESSAGE_ID)).isEqualTo(received.get(0).getHeader(Frame.MESSAGE_ID));
+  }
+
+  @Test
+  public void testThatReceiptsAreSentOnceTheJournalIsSynced() {
+    StompClientConnection producer = connect();
+    List<Frame> receipts = new CopyOnWriteArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      // The returned future is completed when the receipt is received.
+      producer.send("/queue", Buffer.buffer(Integer.toString(i))).onSuccess(receipts::add);
+    }
+
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> receipts.size() == 10);
+    assertThat(queue.get().numberOfStoredMessages()).isEqualTo(10);
+    assertThat(queue.get().numberOfSyncs()).isBetween(1L, 10L);
+  }
+
+  @Test
+  public void testThatMessagesThatCannotBeStoredAreRejected() throws IOException {
+    List<Frame> received = new CopyOnWriteArrayList<>();
+    connect().subscribe("/queue", received::add);
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> queue.get().numberOfSubscriptions() == 1);
+    // Closes the journal and deletes its directory, so the next segment cannot be created.
+    queue.get().close();
+    try (Stream<Path> files = Files.walk(folder.getRoot().toPath())) {
+      files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+
+    AtomicReference<Frame> error = new AtomicReference<>();
+    StompClientConnection producer = connect();
+    producer.errorHandler(error::set);
+    producer.send("/queue", Buffer.buffer("lost"));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> error.get() != null);
+    assertThat(error.get().getHeader(Frame.MESSAGE)).isEqualTo("Message not stored");
+    assertThat(received).isEmpty();
+  }
+
+  @Test
+  public void testThatThePersistentQueueStaysRegisteredWithoutSubscriptions() {
+    StompClientConnection consumer = connect();
+    consumer.subscribe("/queue", frame -> {
+    });
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> queue.get().numberOfSubscriptions() == 1);
+
+    consumer.unsubscribe("/queue");
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> queue.get().numberOfSubscriptions() == 0);
+    assertThat(server.stompHandler().getDestinations()).containsOnly(queue.get());
+  }
+
+  @Test
+  public void testThatTheSegmentsOfTheAcknowledgedRecordsAreDeleted() throws IOException {
+    File directory = folder.newFolder();
+    Journal journal = new Journal(directory, 4096);
+    Frame frame = new Frame(Command.SEND, Headers.create(), Buffer.buffer(new byte[3000]));
+    long first = journal.append(frame);
+    Runnable sync = journal.prepareSync();
+    long second = journal.append(frame);
+    assertThat(journal.numberOfSegments()).isEqualTo(2);
+
+    journal.ack(first);
+    assertThat(journal.numberOfSegments()).isEqualTo(1);
+    assertThat(directory.list()).hasSize(1);
+    // The deleted segment has been unmapped, the sync prepared beforehand skips it.
+    sync.run();
+    assertThat(journal.read(second).getBody().length()).isEqualTo(3000);
+
+    journal.discard();
+    assertThat(directory.list()).isEmpty();
+  }
+
+}
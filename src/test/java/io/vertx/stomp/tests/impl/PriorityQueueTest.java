@@ -0,0 +1,145 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import com.jayway.awaitility.Awaitility;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.stomp.*;
+import io.vertx.ext.stomp.impl.Queue;
+import io.vertx.ext.stomp.utils.Headers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the behavior of the prioritized queues (see {@link QueueOptions#setPrioritized(boolean)}).
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class PriorityQueueTest {
+
+  private Vertx vertx;
+  private StompServer server;
+
+  private List<StompClient> clients = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    AsyncLock<StompServer> lock = new AsyncLock<>();
+    vertx = Vertx.vertx();
+    server = StompServer.create(vertx)
+        .handler(StompServerHandler.create(vertx)
+            .destinationFactory((v, name) -> Destination.queue(v, name, new QueueOptions().setPrioritized(true))));
+    server.listen().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  @After
+  public void tearDown() {
+    clients.forEach(StompClient::close);
+    clients.clear();
+    AsyncLock<Void> lock = new AsyncLock<>();
+    server.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+
+    lock = new AsyncLock<>();
+    vertx.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  private StompClientConnection connect() {
+    StompClient client = StompClient.create(vertx);
+    clients.add(client);
+    AtomicReference<StompClientConnection> connection = new AtomicReference<>();
+    client.connect().onComplete(ar -> connection.set(ar.result()));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> connection.get() != null);
+    return connection.get();
+  }
+
+  private Queue queue() {
+    return (Queue) server.stompHandler().getDestination("/queue");
+  }
+
+  /**
+   * Subscribes with a single credit. The first message is only acknowledged once the given number of messages are
+   * buffered, the next ones are acknowledged when received.
+   */
+  private List<Frame> consume(int buffered, Runnable producer) {
+    List<Frame> received = new CopyOnWriteArrayList<>();
+    AtomicBoolean acking = new AtomicBoolean();
+    StompClientConnection consumer = connect();
+    consumer.subscribe("/queue", Headers.create(Frame.ACK, "client-individual", Queue.PREFETCH_COUNT, "1"),
+        frame -> {
+          received.add(frame);
+          if (acking.get()) {
+            consumer.ack(frame.getAck());
+          }
+        });
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> queue() != null
+        && queue().numberOfSubscriptions() == 1);
+
+    producer.run();
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> queue().numberOfBufferedMessages() == buffered);
+    assertThat(received).hasSize(1);
+    acking.set(true);
+    consumer.ack(received.get(0).getAck());
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == buffered + 1);
+    return received;
+  }
+
+  @Test
+  public void testThatUrgentMessagesOvertakeBufferedMessages() {
+    StompClientConnection producer = connect();
+    List<Frame> received = consume(5, () -> {
+      for (int i = 0; i < 5; i++) {
+        producer.send("/queue", Headers.create(Queue.PRIORITY, "0"), Buffer.buffer("bulk-" + i));
+      }
+      producer.send("/queue", Headers.create(Queue.PRIORITY, "9"), Buffer.buffer("urgent"));
+    });
+
+    // The first message is delivered immediately, the urgent message is delivered next.
+    assertThat(received).extracting(Frame::getBodyAsString)
+        .containsExactly("bulk-0", "urgent", "bulk-1", "bulk-2", "bulk-3", "bulk-4");
+  }
+
+  @Test
+  public void testThatMessagesHavingTheSamePriorityAreDeliveredInOrder() {
+    StompClientConnection producer = connect();
+    List<Frame> received = consume(5, () -> {
+      producer.send("/queue", Buffer.buffer("first"));
+      producer.send("/queue", Headers.create(Queue.PRIORITY, "1"), Buffer.buffer("low"));
+      producer.send("/queue", Headers.create(Queue.PRIORITY, "7"), Buffer.buffer("high-1"));
+      // Invalid priorities use the default priority, out of range priorities are clamped.
+      producer.send("/queue", Headers.create(Queue.PRIORITY, "urgent"), Buffer.buffer("default-1"));
+      producer.send("/queue", Buffer.buffer("default-2"));
+      producer.send("/queue", Headers.create(Queue.PRIORITY, "42"), Buffer.buffer("high-2"));
+    });
+
+    assertThat(received).extracting(Frame::getBodyAsString)
+        .containsExactly("first", "high-2", "high-1", "default-1", "default-2", "low");
+  }
+}
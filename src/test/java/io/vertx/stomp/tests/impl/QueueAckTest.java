@@ -0,0 +1,295 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import com.jayway.awaitility.Awaitility;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.stomp.*;
+import io.vertx.ext.stomp.impl.Queue;
+import io.vertx.ext.stomp.utils.Headers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the acknowledgment tracking and the redelivery implemented by the {@link Queue}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class QueueAckTest {
+
+  private Vertx vertx;
+  private StompServer server;
+
+  private List<StompClient> clients = new ArrayList<>();
+  private List<Frame> acked = new CopyOnWriteArrayList<>();
+  private List<Frame> nacked = new CopyOnWriteArrayList<>();
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  private void start(StompServerOptions options) {
+    AsyncLock<StompServer> lock = new AsyncLock<>();
+    server = StompServer.create(vertx, options)
+        .handler(StompServerHandler.create(vertx)
+            .destinationFactory(Destination::queue)
+            .onAckHandler(acknowledgement -> acked.addAll(acknowledgement.frames()))
+            .onNackHandler(acknowledgement -> nacked.addAll(acknowledgement.frames())));
+    server.listen().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  @After
+  public void tearDown() {
+    clients.forEach(StompClient::close);
+    clients.clear();
+    AsyncLock<Void> lock = new AsyncLock<>();
+    server.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+
+    lock = new AsyncLock<>();
+    vertx.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  private StompClientConnection connect() {
+    StompClient client = StompClient.create(vertx);
+    clients.add(client);
+    AtomicReference<StompClientConnection> connection = new AtomicReference<>();
+    client.connect().onComplete(ar -> connection.set(ar.result()));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> connection.get() != null);
+    return connection.get();
+  }
+
+  private Queue queue() {
+    return (Queue) server.stompHandler().getDestination("/queue");
+  }
+
+  private void waitForSubscriptions(int count) {
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> queue() != null
+        && queue().numberOfSubscriptions() == count);
+  }
+
+  @Test
+  public void testCumulativeAck() {
+    start(new StompServerOptions());
+    List<Frame> received = new CopyOnWriteArrayList<>();
+    StompClientConnection consumer = connect();
+    consumer.subscribe("/queue", Headers.create(Frame.ACK, "client"), received::add);
+    waitForSubscriptions(1);
+
+    StompClientConnection producer = connect();
+    producer.send("/queue", Buffer.buffer("1"));
+    producer.send("/queue", Buffer.buffer("2"));
+    producer.send("/queue", Buffer.buffer("3"));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == 3);
+    assertThat(queue().numberOfPendingMessages()).isEqualTo(3);
+
+    consumer.ack(received.get(1).getAck());
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> acked.size() == 2);
+    assertThat(acked).extracting(Frame::getBodyAsString).containsExactly("1", "2");
+    assertThat(queue().numberOfPendingMessages()).isEqualTo(1);
+  }
+
+  @Test
+  public void testIndividualAck() {
+    start(new StompServerOptions());
+    List<Frame> received = new CopyOnWriteArrayList<>();
+    StompClientConnection consumer = connect();
+    consumer.subscribe("/queue", Headers.create(Frame.ACK, "client-individual"), received::add);
+    waitForSubscriptions(1);
+
+    StompClientConnection producer = connect();
+    producer.send("/queue", Buffer.buffer("1"));
+    producer.send("/queue", Buffer.buffer("2"));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == 2);
+
+    consumer.ack(received.get(1).getAck());
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> acked.size() == 1);
+    assertThat(acked.get(0).getBodyAsString()).isEqualTo("2");
+    assertThat(queue().numberOfPendingMessages()).isEqualTo(1);
+  }
+
+  @Test
+  public void testIndividualAckOfAllTheMessagesButTheFirstOne() {
+    start(new StompServerOptions());
+    List<Frame> received = new CopyOnWriteArrayList<>();
+    StompClientConnection consumer = connect();
+    consumer.subscribe("/queue", Headers.create(Frame.ACK, "client-individual"), received::add);
+    waitForSubscriptions(1);
+
+    // The first message is never acknowledged, so the holes left by the others must be reclaimed.
+    StompClientConnection producer = connect();
+    for (int i = 0; i < 1000; i++) {
+      producer.send("/queue", Buffer.buffer(Integer.toString(i)));
+      if (i > 0) {
+        int index = i;
+        Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == index + 1);
+        consumer.ack(received.get(i).getAck());
+      }
+    }
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> acked.size() == 999);
+    assertThat(queue().numberOfPendingMessages()).isEqualTo(1);
+
+    consumer.ack(received.get(0).getAck());
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> acked.size() == 1000);
+    assertThat(acked.get(999).getBodyAsString()).isEqualTo("0");
+    assertThat(queue().numberOfPendingMessages()).isEqualTo(0);
+  }
+
+  @Test
+  public void testRedeliveryOnNack() {
+    start(new StompServerOptions());
+    List<Frame> first = new CopyOnWriteArrayList<>();
+    List<Frame> second = new CopyOnWriteArrayList<>();
+    StompClientConnection nacking = connect();
+    nacking.subscribe("/queue", Headers.create(Frame.ACK, "client-individual"), frame -> {
+      first.add(frame);
+      nacking.nack(frame.getAck());
+    });
+    StompClientConnection acking = connect();
+    acking.subscribe("/queue", Headers.create(Frame.ACK, "client-individual"), frame -> {
+      second.add(frame);
+      acking.ack(frame.getAck());
+    });
+    waitForSubscriptions(2);
+
+    // Round robin, the first message goes to the first subscription.
+    connect().send("/queue", Buffer.buffer("hello"));
+
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> acked.size() == 1);
+    assertThat(first).hasSize(1);
+    assertThat(nacked).hasSize(1);
+    assertThat(second).hasSize(1);
+    assertThat(second.get(0).getBodyAsString()).isEqualTo("hello");
+    assertThat(second.get(0).getHeader(Frame.MESSAGE_ID)).isEqualTo(first.get(0).getHeader(Frame.MESSAGE_ID));
+    assertThat(queue().numberOfPendingMessages()).isEqualTo(0);
+  }
+
+  @Test
+  public void testRedeliveryToTheOnlySubscriptionOnNack() {
+    start(new StompServerOptions());
+    List<Frame> received = new CopyOnWriteArrayList<>();
+    StompClientConnection consumer = connect();
+    consumer.subscribe("/queue", Headers.create(Frame.ACK, "client-individual"), frame -> {
+      received.add(frame);
+      if (received.size() == 1) {
+        consumer.nack(frame.getAck());
+      } else {
+        consumer.ack(frame.getAck());
+      }
+    });
+    waitForSubscriptions(1);
+
+    connect().send("/queue", Buffer.buffer("hello"));
+
+    // No other subscription, the message is redelivered to the same one instead of being dropped.
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> acked.size() == 1);
+    assertThat(nacked).hasSize(1);
+    assertThat(received).hasSize(2);
+    assertThat(received.get(1).getHeader(Frame.MESSAGE_ID)).isEqualTo(received.get(0).getHeader(Frame.MESSAGE_ID));
+    // Each delivery has its own ack id, so a late acknowledgment of the first delivery is ignored.
+    assertThat(received.get(1).getAck()).isNotEqualTo(received.get(0).getAck());
+    assertThat(queue().numberOfPendingMessages()).isEqualTo(0);
+    assertThat(queue().numberOfBufferedMessages()).isEqualTo(0);
+  }
+
+  @Test
+  public void testRedeliveryOnTimeout() {
+    start(new StompServerOptions().setAckTimeout(100));
+    List<Frame> first = new CopyOnWriteArrayList<>();
+    List<Frame> second = new CopyOnWriteArrayList<>();
+    StompClientConnection ignoring = connect();
+    ignoring.subscribe("/queue", Headers.create(Frame.ACK, "client"), first::add);
+    StompClientConnection acking = connect();
+    acking.subscribe("/queue", Headers.create(Frame.ACK, "client"), frame -> {
+      second.add(frame);
+      acking.ack(frame.getAck());
+    });
+    waitForSubscriptions(2);
+
+    connect().send("/queue", Buffer.buffer("hello"));
+
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> acked.size() == 1);
+    assertThat(first).hasSize(1);
+    assertThat(nacked).hasSize(1);
+    assertThat(second.get(0).getBodyAsString()).isEqualTo("hello");
+  }
+
+  @Test
+  public void testRedeliveryOnDisconnection() {
+    start(new StompServerOptions());
+    List<Frame> first = new CopyOnWriteArrayList<>();
+    List<Frame> second = new CopyOnWriteArrayList<>();
+    StompClientConnection leaving = connect();
+    leaving.subscribe("/queue", Headers.create(Frame.ACK, "client"), first::add);
+    StompClientConnection staying = connect();
+    staying.subscribe("/queue", Headers.create(Frame.ACK, "client"), second::add);
+    waitForSubscriptions(2);
+
+    connect().send("/queue", Buffer.buffer("hello"));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> first.size() == 1);
+
+    leaving.disconnect();
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> second.size() == 1);
+    assertThat(nacked).hasSize(1);
+    assertThat(second.get(0).getBodyAsString()).isEqualTo("hello");
+    assertThat(queue().numberOfPendingMessages()).isEqualTo(1);
+  }
+
+  @Test
+  public void testAcksAreRoutedToTheQueueHoldingTheMessage() {
+    start(new StompServerOptions());
+    List<Frame> received = new CopyOnWriteArrayList<>();
+    StompClientConnection consumer = connect();
+    consumer.subscribe("/queue", Headers.create(Frame.ACK, "client-individual"), received::add);
+    consumer.subscribe("/queue2", Headers.create(Frame.ACK, "client-individual"), received::add);
+    waitForSubscriptions(1);
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() ->
+        Helper.hasDestination(server.stompHandler().getDestinations(), "/queue2"));
+
+    StompClientConnection producer = connect();
+    producer.send("/queue", Buffer.buffer("1"));
+    producer.send("/queue2", Buffer.buffer("2"));
+    producer.send("/queue2", Buffer.buffer("3"));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == 3);
+
+    // Acknowledgments made in a transaction are replayed on commit.
+    consumer.beginTX("tx");
+    for (Frame frame : received) {
+      consumer.ack(frame.getAck(), "tx");
+    }
+    consumer.commit("tx");
+
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> acked.size() == 3);
+    assertThat(acked).extracting(Frame::getBodyAsString).containsOnly("1", "2", "3");
+    assertThat(queue().numberOfPendingMessages()).isEqualTo(0);
+    assertThat(((Queue) server.stompHandler().getDestination("/queue2")).numberOfPendingMessages()).isEqualTo(0);
+  }
+
+}
@@ -0,0 +1,172 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import com.jayway.awaitility.Awaitility;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.stomp.*;
+import io.vertx.ext.stomp.impl.Queue;
+import io.vertx.ext.stomp.utils.Headers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the {@code prefetch-count} flow control implemented by the {@link Queue}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class QueuePrefetchTest {
+
+  private Vertx vertx;
+  private StompServer server;
+
+  private List<StompClient> clients = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    AsyncLock<StompServer> lock = new AsyncLock<>();
+    vertx = Vertx.vertx();
+    server = StompServer.create(vertx)
+        .handler(StompServerHandler.create(vertx)
+            .destinationFactory(Destination::queue));
+    server.listen().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  @After
+  public void tearDown() {
+    clients.forEach(StompClient::close);
+    clients.clear();
+    AsyncLock<Void> lock = new AsyncLock<>();
+    server.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+
+    lock = new AsyncLock<>();
+    vertx.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  private StompClientConnection connect() {
+    StompClient client = StompClient.create(vertx);
+    clients.add(client);
+    AtomicReference<StompClientConnection> connection = new AtomicReference<>();
+    client.connect().onComplete(ar -> connection.set(ar.result()));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> connection.get() != null);
+    return connection.get();
+  }
+
+  private Queue queue() {
+    return (Queue) server.stompHandler().getDestination("/queue");
+  }
+
+  private void waitForSubscriptions(int count) {
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> queue() != null
+        && queue().numberOfSubscriptions() == count);
+  }
+
+  @Test
+  public void testThatMessagesAreOnlySentToSubscriptionsWithCredit() {
+    List<Frame> slow = new CopyOnWriteArrayList<>();
+    List<Frame> fast = new CopyOnWriteArrayList<>();
+    StompClientConnection slowConsumer = connect();
+    slowConsumer.subscribe("/queue", Headers.create(Frame.ACK, "client-individual", Queue.PREFETCH_COUNT, "1"),
+        slow::add);
+    StompClientConnection fastConsumer = connect();
+    fastConsumer.subscribe("/queue", Headers.create(Frame.ACK, "client-individual", Queue.PREFETCH_COUNT, "2"),
+        frame -> {
+          fast.add(frame);
+          fastConsumer.ack(frame.getAck());
+        });
+    waitForSubscriptions(2);
+
+    StompClientConnection producer = connect();
+    for (int i = 0; i < 10; i++) {
+      producer.send("/queue", Buffer.buffer(Integer.toString(i)));
+    }
+
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> fast.size() == 9);
+    assertThat(slow).hasSize(1);
+    assertThat(queue().numberOfBufferedMessages()).isEqualTo(0);
+    assertThat(queue().numberOfPendingMessages()).isEqualTo(1);
+  }
+
+  @Test
+  public void testThatMessagesAreBufferedUntilAcknowledgment() {
+    List<Frame> received = new CopyOnWriteArrayList<>();
+    StompClientConnection consumer = connect();
+    consumer.subscribe("/queue", Headers.create(Frame.ACK, "client", Queue.PREFETCH_COUNT, "2"), received::add);
+    waitForSubscriptions(1);
+
+    StompClientConnection producer = connect();
+    for (int i = 0; i < 5; i++) {
+      producer.send("/queue", Buffer.buffer(Integer.toString(i)));
+    }
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> queue().numberOfBufferedMessages() == 3);
+    assertThat(received).hasSize(2);
+
+    // Cumulative acknowledgment, restores 2 credits.
+    consumer.ack(received.get(1).getAck());
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == 4);
+    assertThat(queue().numberOfBufferedMessages()).isEqualTo(1);
+
+    consumer.ack(received.get(3).getAck());
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == 5);
+    assertThat(received).extracting(Frame::getBodyAsString).containsExactly("0", "1", "2", "3", "4");
+  }
+
+  @Test
+  public void testThatBufferedMessagesAreSentToNewSubscriptions() {
+    List<Frame> first = new CopyOnWriteArrayList<>();
+    List<Frame> second = new CopyOnWriteArrayList<>();
+    StompClientConnection consumer = connect();
+    consumer.subscribe("/queue", Headers.create(Frame.ACK, "client", Queue.PREFETCH_COUNT, "1"), first::add);
+    waitForSubscriptions(1);
+
+    StompClientConnection producer = connect();
+    producer.send("/queue", Buffer.buffer("1"));
+    producer.send("/queue", Buffer.buffer("2"));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> queue().numberOfBufferedMessages() == 1);
+
+    connect().subscribe("/queue", second::add);
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> second.size() == 1);
+    assertThat(second.get(0).getBodyAsString()).isEqualTo("2");
+    assertThat(first).hasSize(1);
+  }
+
+  @Test
+  public void testThatInvalidPrefetchCountsAreRejected() {
+    AtomicReference<Frame> error = new AtomicReference<>();
+    StompClientConnection consumer = connect();
+    consumer.errorHandler(error::set);
+    consumer.subscribe("/queue", Headers.create(Queue.PREFETCH_COUNT, "-1"), frame -> {
+    });
+
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> error.get() != null);
+    assertThat(error.get().getHeader(Frame.MESSAGE)).isEqualTo("Invalid subscription");
+  }
+
+}
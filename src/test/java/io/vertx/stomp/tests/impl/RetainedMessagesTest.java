@@ -0,0 +1,157 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import com.jayway.awaitility.Awaitility;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.stomp.*;
+import io.vertx.ext.stomp.impl.Topic;
+import io.vertx.ext.stomp.utils.Headers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the messages retained by the topics, and replayed to the new subscriptions.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class RetainedMessagesTest {
+
+  private Vertx vertx;
+  private StompServer server;
+  private List<StompClient> clients = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  private Topic start(RetainOptions options) {
+    AsyncLock<StompServer> lock = new AsyncLock<>();
+    server = StompServer.create(vertx)
+        .handler(StompServerHandler.create(vertx)
+            .destinationFactory((v, name) -> Destination.topic(v, name, new TopicOptions().setRetain(options))));
+    server.listen().onComplete(lock.handler());
+    lock.waitForSuccess();
+    return (Topic) server.stompHandler().getOrCreateDestination("/topic");
+  }
+
+  @After
+  public void tearDown() {
+    clients.forEach(StompClient::close);
+    clients.clear();
+    AsyncLock<Void> lock = new AsyncLock<>();
+    server.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+    lock = new AsyncLock<>();
+    vertx.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  private StompClientConnection connect() {
+    StompClient client = StompClient.create(vertx);
+    clients.add(client);
+    AtomicReference<StompClientConnection> connection = new AtomicReference<>();
+    client.connect().onComplete(ar -> connection.set(ar.result()));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> connection.get() != null);
+    return connection.get();
+  }
+
+  private void send(StompClientConnection connection, String body, String... headers) {
+    AtomicBoolean receipt = new AtomicBoolean();
+    connection.send("/topic", Headers.create(headers), Buffer.buffer(body)).onSuccess(frame -> receipt.set(true));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(receipt::get);
+  }
+
+  private List<Frame> subscribe(StompClientConnection connection) {
+    List<Frame> received = new CopyOnWriteArrayList<>();
+    AtomicBoolean receipt = new AtomicBoolean();
+    connection.subscribe("/topic", received::add).onSuccess(id -> receipt.set(true));
+    // The retained messages are written before the RECEIPT frame.
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(receipt::get);
+    return received;
+  }
+
+  @Test
+  public void testThatTheLastMessagesAreReplayed() {
+    Topic topic = start(new RetainOptions().setMaxMessages(2));
+    StompClientConnection producer = connect();
+    send(producer, "1");
+    send(producer, "2");
+    send(producer, "3");
+    assertThat(topic.numberOfRetainedMessages()).isEqualTo(2);
+
+    List<Frame> received = subscribe(connect());
+    assertThat(received).extracting(Frame::getBodyAsString).containsExactly("2", "3");
+    assertThat(received.get(0).getHeader(Frame.SUBSCRIPTION)).isNotNull();
+
+    send(producer, "4");
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == 3);
+    assertThat(received).extracting(Frame::getBodyAsString).containsExactly("2", "3", "4");
+  }
+
+  @Test
+  public void testThatTheLastMessagePerKeyIsReplayed() {
+    start(new RetainOptions().setKey("device").setMaxMessages(2));
+    StompClientConnection producer = connect();
+    send(producer, "a1", "device", "a");
+    send(producer, "b1", "device", "b");
+    send(producer, "a2", "device", "a");
+    send(producer, "no key");
+
+    List<Frame> received = subscribe(connect());
+    assertThat(received).extracting(Frame::getBodyAsString).containsExactly("b1", "a2");
+
+    // The least recently updated key is evicted.
+    send(producer, "c1", "device", "c");
+    received = subscribe(connect());
+    assertThat(received).extracting(Frame::getBodyAsString).containsExactly("a2", "c1");
+  }
+
+  @Test
+  public void testThatOldMessagesAreEvicted() throws InterruptedException {
+    start(new RetainOptions().setMaxMessages(10).setMaxAge(200));
+    StompClientConnection producer = connect();
+    send(producer, "old");
+    Thread.sleep(400);
+    send(producer, "new");
+
+    List<Frame> received = subscribe(connect());
+    assertThat(received).extracting(Frame::getBodyAsString).containsExactly("new");
+  }
+
+  @Test
+  public void testThatTheRetainingTopicStaysRegisteredWithoutSubscriptions() {
+    Topic topic = start(new RetainOptions());
+    StompClientConnection consumer = connect();
+    subscribe(consumer);
+    consumer.unsubscribe("/topic");
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> topic.numberOfSubscriptions() == 0);
+    assertThat(server.stompHandler().getDestinations()).containsOnly(topic);
+  }
+}
@@ -0,0 +1,283 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import com.jayway.awaitility.Awaitility;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.stomp.*;
+import io.vertx.ext.stomp.impl.Queue;
+import io.vertx.ext.stomp.impl.Selector;
+import io.vertx.ext.stomp.utils.Headers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Checks the {@link Selector} and the subscriptions using selectors.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class SelectorTest {
+
+  private Vertx vertx;
+  private StompServer server;
+  private List<StompClient> clients = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+    AsyncLock<StompServer> lock = new AsyncLock<>();
+    server = StompServer.create(vertx)
+        .handler(StompServerHandler.create(vertx)
+            .destinationFactory((v, name) -> name.startsWith("/queue") ? Destination.queue(v, name)
+                : Destination.topic(v, name)));
+    server.listen().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  @After
+  public void tearDown() {
+    clients.forEach(StompClient::close);
+    clients.clear();
+    AsyncLock<Void> lock = new AsyncLock<>();
+    server.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+    lock = new AsyncLock<>();
+    vertx.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  private StompClientConnection connect() {
+    StompClient client = StompClient.create(vertx);
+    clients.add(client);
+    AtomicReference<StompClientConnection> connection = new AtomicReference<>();
+    client.connect().onComplete(ar -> connection.set(ar.result()));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> connection.get() != null);
+    return connection.get();
+  }
+
+  private List<Frame> subscribe(StompClientConnection connection, String destination, String selector) {
+    List<Frame> received = new CopyOnWriteArrayList<>();
+    AtomicBoolean receipt = new AtomicBoolean();
+    connection.subscribe(destination, Headers.create(Selector.HEADER, selector), received::add)
+        .onSuccess(id -> receipt.set(true));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(receipt::get);
+    return received;
+  }
+
+  private void send(StompClientConnection connection, String destination, String body, String... headers) {
+    AtomicBoolean receipt = new AtomicBoolean();
+    connection.send(destination, Headers.create(headers), Buffer.buffer(body)).onSuccess(frame -> receipt.set(true));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(receipt::get);
+  }
+
+  private static boolean matches(String selector, String... headers) {
+    return Selector.compile(selector).test(new Frame(Command.SEND, Headers.create(headers), null));
+  }
+
+  @Test
+  public void testComparisons() {
+    assertThat(matches("type = 'a'", "type", "a")).isTrue();
+    assertThat(matches("type = 'a'", "type", "b")).isFalse();
+    assertThat(matches("type <> 'a'", "type", "b")).isTrue();
+    assertThat(matches("price > 10", "price", "10.5")).isTrue();
+    assertThat(matches("price <= 10", "price", "10")).isTrue();
+    assertThat(matches("price > 10", "price", "not a number")).isFalse();
+    assertThat(matches("content-type = 'text/plain'", "content-type", "text/plain")).isTrue();
+    assertThat(matches("\"my header\" = 'it''s'", "my header", "it's")).isTrue();
+    assertThat(matches("flag = TRUE", "flag", "true")).isTrue();
+  }
+
+  @Test
+  public void testPredicates() {
+    assertThat(matches("price BETWEEN 1 AND 5", "price", "5")).isTrue();
+    assertThat(matches("price NOT BETWEEN 1 AND 5", "price", "6")).isTrue();
+    assertThat(matches("type IN ('a', 'b')", "type", "b")).isTrue();
+    assertThat(matches("type NOT IN ('a', 'b')", "type", "c")).isTrue();
+    assertThat(matches("name LIKE 'fo%'", "name", "foo")).isTrue();
+    assertThat(matches("name LIKE 'f_o'", "name", "fxo")).isTrue();
+    assertThat(matches("name LIKE 'a!_%' ESCAPE '!'", "name", "a_b")).isTrue();
+    assertThat(matches("name LIKE 'a!_%' ESCAPE '!'", "name", "ab")).isFalse();
+    assertThat(matches("name IS NULL")).isTrue();
+    assertThat(matches("name IS NOT NULL", "name", "")).isTrue();
+  }
+
+  @Test
+  public void testLikePatterns() {
+    assertThat(matches("name LIKE '%'", "name", "")).isTrue();
+    assertThat(matches("name LIKE '%%'", "name", "anything")).isTrue();
+    assertThat(matches("name LIKE '%o%o'", "name", "foo")).isTrue();
+    assertThat(matches("name LIKE '%o%o'", "name", "fo")).isFalse();
+    assertThat(matches("name LIKE 'a%b%c'", "name", "abcbc")).isTrue();
+    assertThat(matches("name LIKE 'a%b_c'", "name", "abxbyc")).isTrue();
+    assertThat(matches("name LIKE 'ab%ba'", "name", "aba")).isFalse();
+    assertThat(matches("name LIKE '%!%' ESCAPE '!'", "name", "100%")).isTrue();
+    assertThat(matches("name LIKE '%!%' ESCAPE '!'", "name", "100")).isFalse();
+    assertThat(matches("name LIKE 'a\nb'", "name", "a\nb")).isTrue();
+    assertThat(matches("name LIKE 'a_b'", "name", "a\nb")).isTrue();
+  }
+
+  @Test(timeout = 10000)
+  public void testThatLikePatternsWithManyWildcardsAreMatchedWithoutBacktracking() {
+    String pattern = "%a".repeat(50) + "%b";
+    assertThat(matches("name LIKE '" + pattern + "'", "name", "a".repeat(100000))).isFalse();
+  }
+
+  @Test
+  public void testThatMissingHeadersAreUnknown() {
+    assertThat(matches("type = 'a'")).isFalse();
+    assertThat(matches("NOT type = 'a'")).isFalse();
+    assertThat(matches("type NOT IN ('a')")).isFalse();
+    assertThat(matches("type = 'a' OR price > 1", "type", "a")).isTrue();
+    assertThat(matches("(type = 'a' OR type = 'b') and price < 10", "type", "b", "price", "1")).isTrue();
+  }
+
+  @Test
+  public void testThatInvalidSelectorsAreRejected() {
+    for (String selector : new String[]{"type =", "type = 'a", "= 'a'", "type IN (1)", "(type = 'a'", "a # 1",
+        "type = 'a' price"}) {
+      try {
+        Selector.compile(selector);
+        fail("Invalid selector accepted: " + selector);
+      } catch (IllegalArgumentException e) {
+        assertThat(e.getMessage()).contains(selector);
+      }
+    }
+  }
+
+  @Test
+  public void testThatDestinationsRejectInvalidSelectors() {
+    Frame frame = new Frame(Command.SUBSCRIBE, Headers.create(Frame.ID, "id", Frame.DESTINATION, "/dest",
+        Selector.HEADER, "type ="), null);
+    for (Destination destination : new Destination[]{Destination.topic(vertx, "/dest"),
+        Destination.wildcardTopic(vertx, "/dest"), Destination.queue(vertx, "/dest")}) {
+      try {
+        destination.subscribe(null, frame);
+        fail("Invalid selector accepted by " + destination);
+      } catch (IllegalArgumentException e) {
+        assertThat(e.getMessage()).contains("type =");
+      }
+      assertThat(destination.numberOfSubscriptions()).isEqualTo(0);
+    }
+  }
+
+  @Test
+  public void testThatEqualitySelectorsAreIndexed() {
+    assertThat(Selector.compile("type = 'a'").indexedHeader()).isEqualTo("type");
+    assertThat(Selector.compile("'a' = type").indexedValue()).isEqualTo("a");
+    assertThat(Selector.compile("type = 1").indexedHeader()).isNull();
+    assertThat(Selector.compile("type = 'a' AND price > 1").indexedHeader()).isNull();
+  }
+
+  @Test
+  public void testThatTopicSubscriptionsOnlyReceiveTheSelectedMessages() {
+    List<Frame> all = subscribe(connect(), "/topic", "");
+    List<Frame> red = subscribe(connect(), "/topic", "color = 'red'");
+    List<Frame> blue = subscribe(connect(), "/topic", "color = 'blue'");
+    List<Frame> expensive = subscribe(connect(), "/topic", "price > 100");
+
+    StompClientConnection producer = connect();
+    send(producer, "/topic", "1", "color", "red", "price", "150");
+    send(producer, "/topic", "2", "color", "blue");
+    send(producer, "/topic", "3");
+
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> all.size() == 3);
+    assertThat(red).extracting(Frame::getBodyAsString).containsExactly("1");
+    assertThat(blue).extracting(Frame::getBodyAsString).containsExactly("2");
+    assertThat(expensive).extracting(Frame::getBodyAsString).containsExactly("1");
+  }
+
+  @Test
+  public void testThatSelectorsAreCompiledOncePerExpression() {
+    Frame subscribe = new Frame(Command.SUBSCRIBE, Headers.create(Selector.HEADER, "color = 'red'"), null);
+    assertThat(Selector.of(subscribe)).isSameAs(Selector.of(subscribe));
+  }
+
+  @Test
+  public void testThatTheTopicIndexFollowsTheSubscriptions() {
+    List<Frame> all = subscribe(connect(), "/topic", "");
+    StompClientConnection first = connect();
+    List<Frame> firstRed = subscribe(first, "/topic", "color = 'red'");
+    List<Frame> secondRed = subscribe(connect(), "/topic", "color = 'red'");
+    StompClientConnection other = connect();
+    List<Frame> expensive = subscribe(other, "/topic", "price > 100");
+    Destination topic = server.stompHandler().getDestination("/topic");
+
+    first.disconnect();
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> topic.numberOfSubscriptions() == 3);
+    StompClientConnection producer = connect();
+    send(producer, "/topic", "1", "color", "red", "price", "150");
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> all.size() == 1);
+    assertThat(firstRed).isEmpty();
+    assertThat(secondRed).extracting(Frame::getBodyAsString).containsExactly("1");
+    assertThat(expensive).extracting(Frame::getBodyAsString).containsExactly("1");
+
+    other.disconnect();
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> topic.numberOfSubscriptions() == 2);
+    send(producer, "/topic", "2", "price", "150");
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> all.size() == 2);
+    assertThat(secondRed).extracting(Frame::getBodyAsString).containsExactly("1");
+    assertThat(expensive).extracting(Frame::getBodyAsString).containsExactly("1");
+  }
+
+  @Test
+  public void testThatQueueMessagesWaitForASelectingSubscription() {
+    List<Frame> red = subscribe(connect(), "/queue", "color = 'red'");
+    StompClientConnection producer = connect();
+    send(producer, "/queue", "r1", "color", "red");
+    send(producer, "/queue", "b1", "color", "blue");
+    send(producer, "/queue", "r2", "color", "red");
+
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> red.size() == 2);
+    assertThat(red).extracting(Frame::getBodyAsString).containsExactly("r1", "r2");
+    Queue queue = (Queue) server.stompHandler().getDestination("/queue");
+    assertThat(queue.numberOfBufferedMessages()).isEqualTo(1);
+
+    List<Frame> blue = subscribe(connect(), "/queue", "color = 'blue'");
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> blue.size() == 1);
+    assertThat(blue.get(0).getBodyAsString()).isEqualTo("b1");
+    assertThat(queue.numberOfBufferedMessages()).isEqualTo(0);
+  }
+
+  @Test
+  public void testThatSubscriptionsWithAnInvalidSelectorAreRejected() {
+    StompClient client = StompClient.create(vertx);
+    clients.add(client);
+    List<Frame> errors = new CopyOnWriteArrayList<>();
+    client.errorFrameHandler(errors::add);
+    AtomicReference<StompClientConnection> connection = new AtomicReference<>();
+    client.connect().onComplete(ar -> connection.set(ar.result()));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> connection.get() != null);
+
+    connection.get().subscribe("/topic", Headers.create(Selector.HEADER, "color = "), frame -> {
+    });
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> errors.size() == 1);
+    assertThat(errors.get(0).getHeader(Frame.MESSAGE)).isEqualTo("Invalid subscription");
+    assertThat(errors.get(0).getBodyAsString()).contains("color = ");
+  }
+}
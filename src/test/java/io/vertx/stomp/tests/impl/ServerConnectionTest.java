@@ -21,9 +21,12 @@ import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.net.NetClient;
 import io.vertx.core.net.NetSocket;
+import io.vertx.ext.stomp.Destination;
 import io.vertx.ext.stomp.StompServer;
+import io.vertx.ext.stomp.StompServerConnection;
 import io.vertx.ext.stomp.StompServerHandler;
 import io.vertx.ext.stomp.impl.FrameParser;
+import io.vertx.ext.stomp.impl.StompServerTCPConnectionImpl;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import org.junit.After;
@@ -33,6 +36,7 @@ import org.junit.runner.RunWith;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -232,6 +236,51 @@ public class ServerConnectionTest {
     assertThat(frames.get(0).toString()).startsWith("ERROR");
   }
 
+  @Test
+  public void testThatClosingAConnectionRemovesItsSubscriptions(TestContext context) {
+    server.stompHandler().destinationFactory((v, name) -> name.startsWith("/queue") ? Destination.queue(v, name)
+        : Destination.topic(v, name));
+    AtomicReference<StompServerConnection> closed = new AtomicReference<>();
+    server.stompHandler().closeHandler(closed::set);
+    AtomicReference<NetSocket> reference = new AtomicReference<>();
+
+    client = vertx.createNetClient();
+    client.connect(server.actualPort(), "0.0.0.0").onComplete(result -> {
+      if (result.failed()) {
+        context.fail("Connection failed");
+        return;
+      }
+      NetSocket socket = result.result();
+      reference.set(socket);
+      socket.handler(buffer -> {
+        if (buffer.toString().contains("CONNECTED")) {
+          socket.write("SUBSCRIBE\n" + "destination:/queue\n" + "id:0\n" + "ack:client\n\n" + FrameParser.NULL);
+          socket.write("SUBSCRIBE\n" + "destination:/queue2\n" + "id:1\n" + "ack:client-individual\n\n"
+              + FrameParser.NULL);
+          socket.write("SUBSCRIBE\n" + "destination:/topic\n" + "id:2\n\n" + FrameParser.NULL);
+        }
+      });
+      socket.write("CONNECT\n" + "accept-version:1.2\n" + "\n" + FrameParser.NULL);
+    });
+
+    List<Destination> destinations = new ArrayList<>();
+    for (String name : new String[]{"/queue", "/queue2", "/topic"}) {
+      Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> server.stompHandler().getDestination(name) != null
+          && server.stompHandler().getDestination(name).numberOfSubscriptions() == 1);
+      destinations.add(server.stompHandler().getDestination(name));
+    }
+
+    reference.get().close();
+    Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> closed.get() != null);
+
+    for (Destination destination : destinations) {
+      assertThat(destination.numberOfSubscriptions()).isEqualTo(0);
+    }
+    StompServerTCPConnectionImpl connection = (StompServerTCPConnectionImpl) closed.get();
+    assertThat(connection.subscriptions()).isEmpty();
+    assertThat(connection.acks()).isEmpty();
+  }
+
   @Test
   public void testInvalidUnsubscribe(TestContext context) {
     List<Buffer> frames = new ArrayList<>();
@@ -260,6 +309,37 @@ public class ServerConnectionTest {
     assertThat(frames.get(0).toString()).startsWith("ERROR");
   }
 
+  @Test
+  public void testReusingASubscriptionIdAfterUnsubscribe(TestContext context) {
+    List<Buffer> frames = new CopyOnWriteArrayList<>();
+
+    client = vertx.createNetClient();
+    client.connect(server.actualPort(), "0.0.0.0").onComplete(result -> {
+      if (result.failed()) {
+        context.fail("Connection failed");
+        return;
+      }
+      NetSocket socket = result.result();
+      socket.handler(buffer -> {
+        if (buffer.toString().contains("CONNECTED")) {
+          socket.write("SUBSCRIBE\n" + "destination:/queue\n" + "id:0\n" + "receipt:1\n\n" + FrameParser.NULL);
+          socket.write("UNSUBSCRIBE\n" + "id:0\n" + "receipt:2\n\n" + FrameParser.NULL);
+          socket.write("SUBSCRIBE\n" + "destination:/queue2\n" + "id:0\n" + "receipt:3\n\n" + FrameParser.NULL);
+        } else {
+          frames.add(buffer);
+        }
+      });
+      socket.write("CONNECT\n" + "accept-version:1.2\n" + "\n" + FrameParser.NULL);
+    });
+
+    Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() ->
+        frames.stream().map(Buffer::toString).anyMatch(s -> s.contains("receipt-id:3") || s.startsWith("ERROR")));
+
+    assertThat(frames.stream().map(Buffer::toString)).noneMatch(s -> s.startsWith("ERROR"));
+    assertThat(server.stompHandler().getDestination("/queue")).isNull();
+    assertThat(server.stompHandler().getDestination("/queue2").numberOfSubscriptions()).isEqualTo(1);
+  }
+
   @Test
   public void testUnsubscribeWithoutId(TestContext context) {
     List<Buffer> frames = new ArrayList<>();
@@ -0,0 +1,97 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.stomp.Command;
+import io.vertx.ext.stomp.Frame;
+import io.vertx.ext.stomp.impl.FrameParser;
+import io.vertx.ext.stomp.impl.SharedMessage;
+import io.vertx.ext.stomp.utils.Headers;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the behavior of the {@link SharedMessage}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class SharedMessageTest {
+
+  @Test
+  public void testEncodingPerSubscription() {
+    Frame send = new Frame(Command.SEND, Headers.create(Frame.DESTINATION, "/topic", "header", "a:b",
+        Frame.MESSAGE_ID, "ignored"), Buffer.buffer("hello"));
+    SharedMessage message = new SharedMessage(send);
+
+    List<Frame> frames = parse(
+        message.head("sub-1", "id-1", null), message.body(false),
+        message.head("sub:2", "id-2", "id-2"), message.body(false));
+
+    assertThat(frames).hasSize(2);
+    Frame first = frames.get(0);
+    assertThat(first.getCommand()).isEqualTo(Command.MESSAGE);
+    assertThat(first.getDestination()).isEqualTo("/topic");
+    assertThat(first.getHeader("header")).isEqualTo("a:b");
+    assertThat(first.getHeader(Frame.SUBSCRIPTION)).isEqualTo("sub-1");
+    assertThat(first.getHeader(Frame.MESSAGE_ID)).isEqualTo("id-1");
+    assertThat(first.getAck()).isNull();
+    assertThat(first.getBodyAsString()).isEqualTo("hello");
+    assertThat(first.getHeaders()).isEqualTo(message.toFrame("sub-1", "id-1", null).getHeaders());
+
+    Frame second = frames.get(1);
+    assertThat(second.getHeader(Frame.SUBSCRIPTION)).isEqualTo("sub:2");
+    assertThat(second.getHeader(Frame.MESSAGE_ID)).isEqualTo("id-2");
+    assertThat(second.getAck()).isEqualTo("id-2");
+    assertThat(second.getBodyAsString()).isEqualTo("hello");
+    assertThat(second.getHeaders()).isEqualTo(message.toFrame("sub:2", "id-2", "id-2").getHeaders());
+  }
+
+  @Test
+  public void testTheEncodedBodyIsShared() {
+    SharedMessage message = new SharedMessage(new Frame(Command.SEND, Headers.create(Frame.DESTINATION, "/topic"),
+        Buffer.buffer("hello")));
+    assertThat(message.body(false)).isSameAs(message.body(false));
+    assertThat(message.body(true)).isSameAs(message.body(true));
+    assertThat(message.body(false)).isEqualTo(Buffer.buffer("hello").appendString(FrameParser.NULL));
+    assertThat(message.body(true)).isEqualTo(Buffer.buffer("hello").appendString(FrameParser.NULL).appendString("\n"));
+  }
+
+  @Test
+  public void testEmptyBody() {
+    SharedMessage message = new SharedMessage(new Frame(Command.SEND, Headers.create(Frame.DESTINATION, "/topic"),
+        null));
+    List<Frame> frames = parse(message.head("sub", "id", null), message.body(false));
+    assertThat(frames).hasSize(1);
+    assertThat(frames.get(0).hasEmptyBody()).isTrue();
+  }
+
+  private List<Frame> parse(Buffer... buffers) {
+    List<Frame> frames = new ArrayList<>();
+    FrameParser parser = new FrameParser();
+    parser.handler(frames::add);
+    for (Buffer buffer : buffers) {
+      parser.handle(buffer);
+    }
+    return frames;
+  }
+
+}
@@ -0,0 +1,169 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.stomp.*;
+import io.vertx.ext.stomp.utils.Headers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.net.ssl.SSLSession;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that a {@link Destination#topic(Vertx, String)} dispatches messages sent concurrently, while subscriptions
+ * are added and removed.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class TopicConcurrencyTest {
+
+  private static final int PUBLISHERS = 4;
+  private static final int MESSAGES = 10_000;
+
+  private Vertx vertx;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @After
+  public void tearDown() {
+    AsyncLock<Void> lock = new AsyncLock<>();
+    vertx.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  @Test
+  public void testConcurrentDispatchAndSubscriptions() throws InterruptedException {
+    Destination topic = Destination.topic(vertx, "/topic");
+    CountingConnection subscriber = new CountingConnection();
+    topic.subscribe(subscriber, subscribe("0"));
+
+    AtomicBoolean done = new AtomicBoolean();
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    CountDownLatch latch = new CountDownLatch(PUBLISHERS);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < PUBLISHERS; i++) {
+      threads.add(new Thread(() -> {
+        try {
+          for (int j = 0; j < MESSAGES; j++) {
+            topic.dispatch(subscriber, new Frame(Command.SEND, Headers.create(Frame.DESTINATION, "/topic"),
+                Buffer.buffer("hello")));
+          }
+        } catch (Throwable e) {
+          failure.set(e);
+        } finally {
+          latch.countDown();
+        }
+      }));
+    }
+    // Subscriptions come and go while the messages are dispatched.
+    threads.add(new Thread(() -> {
+      try {
+        while (!done.get()) {
+          CountingConnection other = new CountingConnection();
+          topic.subscribe(other, subscribe("1"));
+          topic.unsubscribeConnection(other);
+        }
+      } catch (Throwable e) {
+        failure.set(e);
+      }
+    }));
+    threads.forEach(Thread::start);
+    latch.await();
+    done.set(true);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(failure.get()).isNull();
+    assertThat(subscriber.received.get()).isEqualTo(PUBLISHERS * MESSAGES);
+    assertThat(topic.getSubscriptions(subscriber)).containsExactly("0");
+  }
+
+  private static Frame subscribe(String id) {
+    return new Frame(Command.SUBSCRIBE, Headers.create(Frame.ID, id, Frame.DESTINATION, "/topic"), null);
+  }
+
+  /**
+   * A connection counting the written frames.
+   */
+  private static class CountingConnection implements StompServerConnection {
+    private final AtomicInteger received = new AtomicInteger();
+
+    @Override
+    public StompServerConnection write(Frame frame) {
+      received.incrementAndGet();
+      return this;
+    }
+
+    @Override
+    public StompServerConnection write(Buffer buffer) {
+      received.incrementAndGet();
+      return this;
+    }
+
+    @Override
+    public StompServer server() {
+      return null;
+    }
+
+    @Override
+    public SSLSession sslSession() {
+      return null;
+    }
+
+    @Override
+    public StompServerHandler handler() {
+      return null;
+    }
+
+    @Override
+    public String session() {
+      return "session";
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void ping() {
+    }
+
+    @Override
+    public void onServerActivity() {
+    }
+
+    @Override
+    public void configureHeartbeat(long ping, long pong, Handler<StompServerConnection> pingHandler) {
+    }
+  }
+}
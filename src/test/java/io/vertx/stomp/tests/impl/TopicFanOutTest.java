@@ -0,0 +1,155 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import com.jayway.awaitility.Awaitility;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.core.internal.VertxInternal;
+import io.vertx.ext.stomp.*;
+import io.vertx.ext.stomp.impl.StompServerTCPConnectionImpl;
+import io.vertx.ext.stomp.utils.Headers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the parallel fan-out of {@link TopicOptions#setParallelFanOut(boolean)}.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class TopicFanOutTest {
+
+  private static final int EVENT_LOOPS = 4;
+  private static final int CONNECTIONS = 10;
+  private static final int MESSAGES = 100;
+
+  private Vertx vertx;
+  private StompServer server;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+    server = StompServer.create(vertx);
+  }
+
+  @After
+  public void tearDown() {
+    AsyncLock<Void> lock = new AsyncLock<>();
+    vertx.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  @Test
+  public void testThatMessagesAreWrittenByTheEventLoopsOfTheSubscriptions() {
+    List<RecordingConnection> connections = dispatch(true);
+    for (RecordingConnection connection : connections) {
+      assertThat(connection.bodies).hasSize(MESSAGES);
+      for (int i = 0; i < MESSAGES; i++) {
+        assertThat(connection.bodies.get(i)).isEqualTo(Integer.toString(i));
+      }
+      assertThat(connection.onOtherContext.get()).isFalse();
+    }
+  }
+
+  @Test
+  public void testThatMessagesAreWrittenByTheDispatchingThreadByDefault() {
+    List<RecordingConnection> connections = dispatch(false);
+    for (RecordingConnection connection : connections) {
+      assertThat(connection.bodies).hasSize(MESSAGES);
+      // Dispatched from the test thread.
+      assertThat(connection.onOtherContext.get()).isTrue();
+    }
+  }
+
+  @Test
+  public void testThatEachConnectionUsesTheTrailingLineSettingOfItsServer() {
+    StompServer other = StompServer.create(vertx, new StompServerOptions().setTrailingLine(true));
+    List<RecordingConnection> connections = dispatch(true, server, other);
+    for (RecordingConnection connection : connections) {
+      assertThat(connection.bodies).hasSize(MESSAGES);
+      assertThat(connection.trailingLines).containsOnly(connection.server() == other);
+    }
+  }
+
+  private List<RecordingConnection> dispatch(boolean parallelFanOut) {
+    return dispatch(parallelFanOut, server);
+  }
+
+  private List<RecordingConnection> dispatch(boolean parallelFanOut, StompServer... servers) {
+    Destination topic = Destination.topic(vertx, "/topic", new TopicOptions().setParallelFanOut(parallelFanOut));
+    List<RecordingConnection> connections = new CopyOnWriteArrayList<>();
+    for (int i = 0; i < EVENT_LOOPS; i++) {
+      ContextInternal context = ((VertxInternal) vertx).createEventLoopContext();
+      StompServer server = servers[i % servers.length];
+      context.runOnContext(v -> {
+        for (int j = 0; j < CONNECTIONS; j++) {
+          // Created on the context, as the connections of the server.
+          RecordingConnection connection = new RecordingConnection(server);
+          topic.subscribe(connection, new Frame(Command.SUBSCRIBE,
+              Headers.create(Frame.ID, "0", Frame.DESTINATION, "/topic"), null));
+          connections.add(connection);
+        }
+      });
+    }
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> connections.size() == EVENT_LOOPS * CONNECTIONS);
+
+    for (int i = 0; i < MESSAGES; i++) {
+      topic.dispatch(null, new Frame(Command.SEND, Headers.create(Frame.DESTINATION, "/topic"),
+          Buffer.buffer(Integer.toString(i))));
+    }
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() ->
+        connections.stream().allMatch(connection -> connection.bodies.size() == MESSAGES));
+    return new ArrayList<>(connections);
+  }
+
+  private static class RecordingConnection extends StompServerTCPConnectionImpl {
+
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+    private final List<Boolean> trailingLines = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean onOtherContext = new AtomicBoolean();
+
+    RecordingConnection(StompServer server) {
+      super(server, null);
+    }
+
+    @Override
+    public synchronized StompServerConnection write(Buffer buffer) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected synchronized void write(Buffer head, Buffer body) {
+      if (Vertx.currentContext() != context()) {
+        onOtherContext.set(true);
+      }
+      boolean trailingLine = body.getByte(body.length() - 1) == '\n';
+      trailingLines.add(trailingLine);
+      // Remove the NULL octet, and the trailing line.
+      bodies.add(body.getString(0, body.length() - (trailingLine ? 2 : 1)));
+    }
+  }
+}
@@ -0,0 +1,268 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.stomp.*;
+import io.vertx.ext.stomp.impl.StompServerTCPConnectionImpl;
+import io.vertx.ext.stomp.impl.Topic;
+import io.vertx.ext.stomp.utils.Headers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the {@link SlowConsumerPolicy} applied by the {@link Topic}, and the conflating topic.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class TopicSlowConsumerTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Vertx vertx;
+  private StompServer server;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+    server = StompServer.create(vertx);
+  }
+
+  @After
+  public void tearDown() {
+    AsyncLock<Void> lock = new AsyncLock<>();
+    vertx.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  private Topic topic(SlowConsumerOptions options) {
+    return (Topic) Destination.topic(vertx, "/topic", new TopicOptions().setSlowConsumer(options));
+  }
+
+  private SlowConnection subscribe(Topic topic) {
+    SlowConnection connection = new SlowConnection(server);
+    topic.subscribe(connection, new Frame(Command.SUBSCRIBE,
+        Headers.create(Frame.ID, "0", Frame.DESTINATION, "/topic"), null));
+    return connection;
+  }
+
+  private static void send(Topic topic, String body, String... headers) {
+    Headers all = Headers.create(headers).add(Frame.DESTINATION, "/topic");
+    topic.dispatch(null, new Frame(Command.SEND, all, Buffer.buffer(body)));
+  }
+
+  @Test
+  public void testDropNewest() {
+    Topic topic = topic(new SlowConsumerOptions().setPolicy(SlowConsumerPolicy.DROP_NEWEST));
+    SlowConnection connection = subscribe(topic);
+    send(topic, "1");
+    connection.full = true;
+    send(topic, "2");
+    send(topic, "3");
+    connection.drain();
+    send(topic, "4");
+    assertThat(connection.bodies).containsExactly("1", "4");
+    assertThat(topic.numberOfDroppedMessages()).isEqualTo(2);
+  }
+
+  @Test
+  public void testDropOldest() {
+    Topic topic = topic(new SlowConsumerOptions().setPolicy(SlowConsumerPolicy.DROP_OLDEST).setMaxPendingMessages(3));
+    SlowConnection connection = subscribe(topic);
+    connection.full = true;
+    for (int i = 0; i < 5; i++) {
+      send(topic, Integer.toString(i));
+    }
+    assertThat(connection.bodies).isEmpty();
+    connection.drain();
+    send(topic, "5");
+    assertThat(connection.bodies).containsExactly("2", "3", "4", "5");
+    assertThat(topic.numberOfDroppedMessages()).isEqualTo(2);
+  }
+
+  @Test
+  public void testThatPendingMessagesAreDeliveredBeforeTheNewOnes() {
+    Topic topic = topic(new SlowConsumerOptions().setPolicy(SlowConsumerPolicy.DROP_OLDEST));
+    SlowConnection connection = subscribe(topic);
+    connection.full = true;
+    send(topic, "1");
+    send(topic, "2");
+    // The connection is not full anymore, but the drain handler has not been called yet.
+    connection.full = false;
+    send(topic, "3");
+    assertThat(connection.bodies).containsExactly("1", "2", "3");
+  }
+
+  @Test
+  public void testConflate() {
+    Topic topic = topic(new SlowConsumerOptions().setPolicy(SlowConsumerPolicy.CONFLATE)
+        .setConflationKey("symbol"));
+    SlowConnection connection = subscribe(topic);
+    connection.full = true;
+    send(topic, "A1", "symbol", "A");
+    send(topic, "B1", "symbol", "B");
+    send(topic, "A2", "symbol", "A");
+    send(topic, "C1", "symbol", "C");
+    send(topic, "A3", "symbol", "A");
+    send(topic, "no key");
+    connection.drain();
+    assertThat(connection.bodies).containsExactly("A3", "B1", "C1", "no key");
+    assertThat(topic.numberOfConflatedMessages()).isEqualTo(2);
+  }
+
+  @Test
+  public void testThatConflationDropsTheMessagesWithoutKeyFirst() {
+    Topic topic = topic(new SlowConsumerOptions().setPolicy(SlowConsumerPolicy.CONFLATE)
+        .setConflationKey("symbol").setMaxPendingMessages(3));
+    SlowConnection connection = subscribe(topic);
+    connection.full = true;
+    send(topic, "A1", "symbol", "A");
+    send(topic, "no key 1");
+    send(topic, "B1", "symbol", "B");
+    for (int i = 2; i <= 100; i++) {
+      send(topic, "no key " + i);
+    }
+    send(topic, "A2", "symbol", "A");
+    connection.drain();
+    // The messages without key are bounded, and do not evict the latest value of the keys.
+    assertThat(connection.bodies).containsExactly("A2", "B1", "no key 100");
+    assertThat(topic.numberOfDroppedMessages()).isEqualTo(99);
+
+    connection.full = true;
+    send(topic, "A3", "symbol", "A");
+    send(topic, "B2", "symbol", "B");
+    send(topic, "C1", "symbol", "C");
+    send(topic, "D1", "symbol", "D");
+    connection.drain();
+    assertThat(connection.bodies).endsWith("B2", "C1", "D1");
+    assertThat(topic.numberOfDroppedMessages()).isEqualTo(100);
+  }
+
+  @Test
+  public void testConflationWithManyMessagesPerKey() {
+    Topic topic = topic(new SlowConsumerOptions().setPolicy(SlowConsumerPolicy.CONFLATE).setConflationKey("symbol"));
+    SlowConnection fast = subscribe(topic);
+    SlowConnection slow = subscribe(topic);
+    slow.full = true;
+    for (int i = 0; i < 2000; i++) {
+      send(topic, "A" + i, "symbol", "A");
+      send(topic, "B" + i, "symbol", "B");
+    }
+    assertThat(fast.bodies).hasSize(4000);
+    slow.drain();
+    // Never more than one message per key, and no messages dropped.
+    assertThat(slow.bodies).containsExactly("A1999", "B1999");
+    assertThat(topic.numberOfConflatedMessages()).isEqualTo(3998);
+    assertThat(topic.numberOfDroppedMessages()).isEqualTo(0);
+  }
+
+  @Test
+  public void testDisconnect() {
+    Topic topic = topic(new SlowConsumerOptions().setPolicy(SlowConsumerPolicy.DISCONNECT));
+    SlowConnection connection = subscribe(topic);
+    SlowConnection other = subscribe(topic);
+    connection.full = true;
+    send(topic, "1");
+    send(topic, "2");
+    assertThat(connection.closed).isTrue();
+    assertThat(connection.bodies).isEmpty();
+    assertThat(other.closed).isFalse();
+    assertThat(other.bodies).containsExactly("1", "2");
+    assertThat(topic.numberOfDisconnectedConsumers()).isEqualTo(1);
+  }
+
+  @Test
+  public void testSpool() {
+    File directory = folder.getRoot();
+    Topic topic = topic(new SlowConsumerOptions().setPolicy(SlowConsumerPolicy.SPOOL)
+        .setSpoolDirectory(directory.getAbsolutePath()));
+    SlowConnection connection = subscribe(topic);
+    connection.full = true;
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      send(topic, Integer.toString(i));
+      expected.add(Integer.toString(i));
+    }
+    assertThat(topic.numberOfSpooledMessages()).isEqualTo(100);
+    assertThat(connection.bodies).isEmpty();
+    connection.drain();
+    assertThat(connection.bodies).containsExactlyElementsOf(expected);
+
+    connection.full = true;
+    send(topic, "100");
+    assertThat(directory.listFiles()).isNotEmpty();
+    topic.unsubscribeConnection(connection);
+    assertThat(new File(directory, "%2Ftopic").listFiles()).isEmpty();
+  }
+
+  private static class SlowConnection extends StompServerTCPConnectionImpl {
+
+    private final List<String> bodies = new ArrayList<>();
+    private final List<Handler<Void>> drainHandlers = new ArrayList<>();
+    private volatile boolean full;
+    private volatile boolean closed;
+
+    SlowConnection(StompServer server) {
+      super(server, null);
+    }
+
+    @Override
+    public synchronized StompServerConnection write(Buffer buffer) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected synchronized void write(Buffer head, Buffer body) {
+      // Remove the NULL octet.
+      bodies.add(body.getString(0, body.length() - 1));
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+      return full;
+    }
+
+    @Override
+    public void onDrain(Handler<Void> handler) {
+      drainHandlers.add(handler);
+    }
+
+    void drain() {
+      full = false;
+      List<Handler<Void>> handlers = new ArrayList<>(drainHandlers);
+      drainHandlers.clear();
+      handlers.forEach(handler -> handler.handle(null));
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import com.jayway.awaitility.Awaitility;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.stomp.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test the subscriptions using wildcards on a wildcard topic.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class WildcardTopicTest {
+
+  private Vertx vertx;
+  private StompServer server;
+  private Destination prices;
+
+  private List<StompClient> clients = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    AsyncLock<StompServer> lock = new AsyncLock<>();
+    vertx = Vertx.vertx();
+    prices = Destination.wildcardTopic(vertx, "/prices");
+    server = StompServer.create(vertx)
+        .handler(StompServerHandler.create(vertx)
+            .destinationFactory((v, name) -> prices.matches(name) ? prices : Destination.topic(v, name)));
+    server.listen().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  @After
+  public void tearDown() {
+    AsyncLock<Void> lock = new AsyncLock<>();
+    clients.forEach(StompClient::close);
+    clients.clear();
+    server.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+    lock = new AsyncLock<>();
+    vertx.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  private StompClientConnection connect() {
+    StompClient client = StompClient.create(vertx);
+    clients.add(client);
+    AtomicReference<StompClientConnection> connection = new AtomicReference<>();
+    client.connect().onComplete(ar -> connection.set(ar.result()));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> connection.get() != null);
+    return connection.get();
+  }
+
+  @Test
+  public void testWildcardSubscriptions() {
+    List<Frame> oneSegment = new CopyOnWriteArrayList<>();
+    List<Frame> allSegments = new CopyOnWriteArrayList<>();
+    List<Frame> exact = new CopyOnWriteArrayList<>();
+
+    StompClientConnection subscriber = connect();
+    subscriber.subscribe("/prices/*/USD", oneSegment::add);
+    subscriber.subscribe("/prices/>", allSegments::add);
+    subscriber.subscribe("/prices/EUR/USD", exact::add);
+
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> prices.numberOfSubscriptions() == 3);
+    assertThat(server.stompHandler().getDestinations()).containsOnly(prices);
+
+    StompClientConnection publisher = connect();
+    publisher.send("/prices/EUR/USD", Buffer.buffer("1"));
+    publisher.send("/prices/GBP/USD", Buffer.buffer("2"));
+    publisher.send("/prices/EUR/GBP", Buffer.buffer("3"));
+    publisher.send("/prices/EUR/USD/bid", Buffer.buffer("4"));
+
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> allSegments.size() == 4);
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> oneSegment.size() == 2);
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> exact.size() == 1);
+
+    assertThat(oneSegment).extracting(Frame::getBodyAsString).containsExactly("1", "2");
+    assertThat(oneSegment).extracting(Frame::getDestination).containsExactly("/prices/EUR/USD", "/prices/GBP/USD");
+    assertThat(oneSegment.get(0).getHeader(Frame.SUBSCRIPTION)).isEqualTo("/prices/*/USD");
+    assertThat(allSegments).extracting(Frame::getBodyAsString).containsExactly("1", "2", "3", "4");
+    assertThat(exact.get(0).getBodyAsString()).isEqualTo("1");
+  }
+
+  @Test
+  public void testUnsubscription() {
+    List<Frame> frames = new CopyOnWriteArrayList<>();
+    StompClientConnection subscriber = connect();
+    subscriber.subscribe("/prices/*/USD", frames::add);
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> prices.numberOfSubscriptions() == 1);
+
+    subscriber.unsubscribe("/prices/*/USD");
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> prices.numberOfSubscriptions() == 0);
+    assertThat(server.stompHandler().getDestinations()).isEmpty();
+
+    subscriber.subscribe("/prices/EUR/>", frames::add);
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> prices.numberOfSubscriptions() == 1);
+
+    connect().send("/prices/EUR/USD", Buffer.buffer("hello"));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> frames.size() == 1);
+    assertThat(frames.get(0).getHeader(Frame.SUBSCRIPTION)).isEqualTo("/prices/EUR/>");
+  }
+
+  @Test
+  public void testThatMultiSegmentsWildcardMustBeTheLastSegment() {
+    AtomicReference<Frame> error = new AtomicReference<>();
+    StompClientConnection subscriber = connect();
+    subscriber.errorHandler(error::set);
+    subscriber.subscribe("/prices/>/USD", frame -> {
+    });
+
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> error.get() != null);
+    assertThat(error.get().getHeader(Frame.MESSAGE)).isEqualTo("Invalid subscription");
+    assertThat(prices.numberOfSubscriptions()).isEqualTo(0);
+  }
+
+}
@@ -0,0 +1,169 @@
+/*
+ *  Copyright (c) 2026 The original author or authors
+ *  ------------------------------------------------------
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *       The Eclipse Public License is available at
+ *       http://www.eclipse.org/legal/epl-v10.html
+ *
+ *       The Apache License v2.0 is available at
+ *       http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.stomp.tests.impl;
+
+import com.jayway.awaitility.Awaitility;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.core.internal.VertxInternal;
+import io.vertx.ext.stomp.*;
+import io.vertx.ext.stomp.impl.WriteCoalescer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the behavior of the {@link WriteCoalescer}, and of the connections coalescing their writes.
+ *
+ * @author <a href="mailto:agent@local">agent</a>
+ */
+public class WriteCoalescerTest {
+
+  private Vertx vertx;
+  private ContextInternal context;
+  private List<Buffer> written = new CopyOnWriteArrayList<>();
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+    context = ((VertxInternal) vertx).createEventLoopContext();
+  }
+
+  @After
+  public void tearDown() {
+    AsyncLock<Void> lock = new AsyncLock<>();
+    vertx.close().onComplete(lock.handler());
+    lock.waitForSuccess();
+  }
+
+  private WriteCoalescer coalescer(int maxSize) {
+    return new WriteCoalescer(context, maxSize, buffer -> {
+      written.add(buffer);
+      return Future.succeededFuture();
+    });
+  }
+
+  @Test
+  public void testThatFramesWrittenDuringATickAreWrittenAtOnce() {
+    WriteCoalescer coalescer = coalescer(1024);
+    AtomicBoolean completed = new AtomicBoolean();
+    context.runOnContext(v -> {
+      for (int i = 0; i < 10; i++) {
+        coalescer.write(Buffer.buffer(Integer.toString(i)));
+      }
+      coalescer.write(Buffer.buffer("a"), Buffer.buffer("b")).onSuccess(x -> completed.set(true));
+      assertThat(written).isEmpty();
+    });
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(completed::get);
+    assertThat(written).hasSize(1);
+    assertThat(written.get(0).toString()).isEqualTo("0123456789ab");
+    assertThat(coalescer.numberOfFlushes()).isEqualTo(1);
+    assertThat(coalescer.numberOfCoalescedFrames()).isEqualTo(11);
+  }
+
+  @Test
+  public void testThatFramesAreWrittenWhenReachingTheMaxSize() {
+    WriteCoalescer coalescer = coalescer(10);
+    AtomicBoolean completed = new AtomicBoolean();
+    context.runOnContext(v -> {
+      coalescer.write(Buffer.buffer("aaaa"));
+      coalescer.write(Buffer.buffer("bbbb"));
+      coalescer.write(Buffer.buffer("cccc"));
+      assertThat(written).hasSize(1);
+      coalescer.write(Buffer.buffer("dddd")).onSuccess(x -> completed.set(true));
+    });
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(completed::get);
+    assertThat(written).extracting(Buffer::toString).containsExactly("aaaabbbbcccc", "dddd");
+    assertThat(coalescer.numberOfFlushes()).isEqualTo(2);
+    assertThat(coalescer.numberOfCoalescedFrames()).isEqualTo(4);
+  }
+
+  @Test
+  public void testThatBigFramesAreNotCopied() {
+    WriteCoalescer coalescer = coalescer(10);
+    Buffer body = Buffer.buffer("a body bigger than the max size");
+    AtomicBoolean completed = new AtomicBoolean();
+    context.runOnContext(v -> {
+      coalescer.write(Buffer.buffer("frame"));
+      coalescer.write(Buffer.buffer("head"), body).onSuccess(x -> completed.set(true));
+    });
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(completed::get);
+    assertThat(written).hasSize(2);
+    assertThat(written.get(0).toString()).isEqualTo("framehead");
+    assertThat(written.get(1)).isSameAs(body);
+    assertThat(coalescer.numberOfCoalescedFrames()).isEqualTo(2);
+  }
+
+  @Test
+  public void testThatFramesCanBeFlushedExplicitly() {
+    WriteCoalescer coalescer = coalescer(1024);
+    context.runOnContext(v -> {
+      coalescer.write(Buffer.buffer("a"));
+      coalescer.flush();
+      assertThat(written).hasSize(1);
+      coalescer.write(Buffer.buffer("b"));
+    });
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> written.size() == 2);
+    assertThat(written).extracting(Buffer::toString).containsExactly("a", "b");
+  }
+
+  @Test
+  public void testCoalescingConnections() {
+    AsyncLock<StompServer> lock = new AsyncLock<>();
+    StompServer server = StompServer.create(vertx, new StompServerOptions().setWriteCoalescing(true))
+        .handler(StompServerHandler.create(vertx));
+    server.listen().onComplete(lock.handler());
+    lock.waitForSuccess();
+
+    StompClient client = StompClient.create(vertx, new StompClientOptions().setWriteCoalescing(true));
+    AtomicReference<StompClientConnection> connection = new AtomicReference<>();
+    client.connect().onComplete(ar -> connection.set(ar.result()));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> connection.get() != null);
+
+    List<Frame> received = new CopyOnWriteArrayList<>();
+    AtomicBoolean subscribed = new AtomicBoolean();
+    connection.get().subscribe("/topic", received::add).onSuccess(id -> subscribed.set(true));
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(subscribed::get);
+
+    List<Frame> receipts = new CopyOnWriteArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      connection.get().send("/topic", Buffer.buffer(Integer.toString(i))).onSuccess(receipts::add);
+    }
+    Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == 100 && receipts.size() == 100);
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      expected.add(Integer.toString(i));
+    }
+    assertThat(received).extracting(Frame::getBodyAsString).containsExactlyElementsOf(expected);
+
+    client.close();
+    AsyncLock<Void> closed = new AsyncLock<>();
+    server.close().onComplete(closed.handler());
+    closed.waitForSuccess();
+  }
+}